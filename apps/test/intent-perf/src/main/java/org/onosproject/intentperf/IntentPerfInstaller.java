@@ -51,6 +51,7 @@ import org.onosproject.net.intent.IntentEvent;
 import org.onosproject.net.intent.IntentListener;
 import org.onosproject.net.intent.IntentService;
 import org.onosproject.net.intent.Key;
+import org.onosproject.net.intent.MultiPointToSinglePointIntent;
 import org.onosproject.net.intent.WorkPartitionService;
 import org.onosproject.net.intent.PointToPointIntent;
 import org.onosproject.store.cluster.messaging.ClusterCommunicationService;
@@ -97,6 +98,8 @@ public class IntentPerfInstaller {
 
     private static final int DEFAULT_NUM_NEIGHBORS = 0;
 
+    private static final int DEFAULT_NUM_INGRESS_POINTS = 1;
+
     private static final int START_DELAY = 5_000; // ms
     private static final int REPORT_PERIOD = 1_000; //ms
 
@@ -123,6 +126,11 @@ public class IntentPerfInstaller {
             label = "Number of neighbors to generate intents for")
     private int numNeighbors = DEFAULT_NUM_NEIGHBORS;
 
+    @Property(name = "numIngressPoints", intValue = DEFAULT_NUM_INGRESS_POINTS,
+            label = "Number of ingress points per intent; " +
+                    "more than one generates multi-point to single-point intents")
+    private int numIngressPoints = DEFAULT_NUM_INGRESS_POINTS;
+
     @Reference(cardinality = MANDATORY_UNARY)
     protected CoreService coreService;
 
@@ -219,7 +227,7 @@ public class IntentPerfInstaller {
         }
 
         Dictionary<?, ?> properties = context.getProperties();
-        int newNumKeys, newCyclePeriod, newNumNeighbors;
+        int newNumKeys, newCyclePeriod, newNumNeighbors, newNumIngressPoints;
         try {
             String s = get(properties, "numKeys");
             newNumKeys = isNullOrEmpty(s) ? numKeys : Integer.parseInt(s.trim());
@@ -230,17 +238,23 @@ public class IntentPerfInstaller {
             s = get(properties, "numNeighbors");
             newNumNeighbors = isNullOrEmpty(s) ? numNeighbors : Integer.parseInt(s.trim());
 
+            s = get(properties, "numIngressPoints");
+            newNumIngressPoints = isNullOrEmpty(s) ? numIngressPoints : Integer.parseInt(s.trim());
+
         } catch (NumberFormatException | ClassCastException e) {
             log.warn("Malformed configuration detected; using defaults", e);
             newNumKeys = DEFAULT_NUM_KEYS;
             newCyclePeriod = DEFAULT_GOAL_CYCLE_PERIOD;
             newNumNeighbors = DEFAULT_NUM_NEIGHBORS;
+            newNumIngressPoints = DEFAULT_NUM_INGRESS_POINTS;
         }
 
-        if (newNumKeys != numKeys || newCyclePeriod != cyclePeriod || newNumNeighbors != numNeighbors) {
+        if (newNumKeys != numKeys || newCyclePeriod != cyclePeriod || newNumNeighbors != numNeighbors
+                || newNumIngressPoints != numIngressPoints) {
             numKeys = newNumKeys;
             cyclePeriod = newCyclePeriod;
             numNeighbors = newNumNeighbors;
+            numIngressPoints = Math.max(1, newNumIngressPoints);
             logConfig("Reconfigured");
         }
     }
@@ -261,8 +275,8 @@ public class IntentPerfInstaller {
     }
 
     private void logConfig(String prefix) {
-        log.info("{} with appId {}; numKeys = {}; cyclePeriod = {} ms; numNeighbors={}",
-                 prefix, appId.id(), numKeys, cyclePeriod, numNeighbors);
+        log.info("{} with appId {}; numKeys = {}; cyclePeriod = {} ms; numNeighbors={}; numIngressPoints={}",
+                 prefix, appId.id(), numKeys, cyclePeriod, numNeighbors, numIngressPoints);
     }
 
     private void startTestRun() {
@@ -332,6 +346,10 @@ public class IntentPerfInstaller {
         ConnectPoint ingress = new ConnectPoint(device.id(), PortNumber.portNumber(1));
         ConnectPoint egress = new ConnectPoint(device.id(), PortNumber.portNumber(2));
 
+        if (numIngressPoints > 1) {
+            return createMultiPointIntent(key, selector, treatment, egress, deviceList);
+        }
+
         return PointToPointIntent.builder()
                 .appId(appId)
                 .key(key)
@@ -342,6 +360,27 @@ public class IntentPerfInstaller {
                 .build();
     }
 
+    // Spreads the ingress points over the devices mastered by the node,
+    // so that the compilation of the intent spans several devices
+    private Intent createMultiPointIntent(Key key, TrafficSelector selector, TrafficTreatment treatment,
+                                          ConnectPoint egress, List<Device> deviceList) {
+        Set<ConnectPoint> ingressPoints = Sets.newHashSet();
+        for (int i = 0; i < numIngressPoints; i++) {
+            Device device = deviceList.get(i % deviceList.size());
+            long port = 3 + i / deviceList.size();
+            ingressPoints.add(new ConnectPoint(device.id(), PortNumber.portNumber(port)));
+        }
+
+        return MultiPointToSinglePointIntent.builder()
+                .appId(appId)
+                .key(key)
+                .selector(selector)
+                .treatment(treatment)
+                .ingressPoints(ingressPoints)
+                .egressPoint(egress)
+                .build();
+    }
+
     /**
      * Creates a specified number of intents for testing purposes.
      *
@@ -55,6 +55,9 @@ import com.google.common.util.concurrent.RateLimiter;
  * Simple application for load testing distributed consensus.
  * <p>
  * This application simply increments as {@link AsyncAtomicCounter} at a configurable rate.
+ * Along with the throughput, the mean and maximum commit latency of the increments are
+ * reported, which allows comparing the partition log storage settings of the
+ * {@code PartitionManager}.
  */
 @Component(immediate = true)
 @Service(value = DistributedConsensusLoadTest.class)
@@ -85,6 +88,9 @@ public class DistributedConsensusLoadTest {
     private final AtomicLong previousReportTime = new AtomicLong(0);
     private final AtomicLong previousCount = new AtomicLong(0);
     private final AtomicInteger increments = new AtomicInteger(0);
+    private final AtomicLong latencySum = new AtomicLong(0);
+    private final AtomicLong latencyCount = new AtomicLong(0);
+    private final AtomicLong latencyMax = new AtomicLong(0);
     private final List<AsyncAtomicCounter> counters = Lists.newArrayList();
     private final ScheduledExecutorService runner = Executors.newSingleThreadScheduledExecutor();
     private final ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
@@ -109,7 +115,13 @@ public class DistributedConsensusLoadTest {
                             long currentTime = System.currentTimeMillis();
                             long delta = currentTime - previousReportTime.getAndSet(currentTime);
                             long rate = (newCount - previousCount.getAndSet(newCount)) * 1000 / delta;
-                            log.info("{} updates per second", rate);
+                            long count = latencyCount.getAndSet(0);
+                            long sum = latencySum.getAndSet(0);
+                            long max = latencyMax.getAndSet(0);
+                            log.info("{} updates per second; commit latency mean {} us, max {} us",
+                                     rate,
+                                     count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(sum / count),
+                                     TimeUnit.NANOSECONDS.toMicros(max));
                         } else {
                             log.warn(e.getMessage());
                         }
@@ -125,15 +137,23 @@ public class DistributedConsensusLoadTest {
         while (!stopped.get()) {
             limiter.acquire();
             s.acquireUninterruptibly();
+            long start = System.nanoTime();
             counters.get(RandomUtils.nextInt(TOTAL_COUNTERS)).incrementAndGet().whenComplete((r, e) -> {
                 s.release();
                 if (e == null) {
                     increments.incrementAndGet();
+                    recordLatency(System.nanoTime() - start);
                 }
             });
         }
     }
 
+    private void recordLatency(long nanos) {
+        latencySum.addAndGet(nanos);
+        latencyCount.incrementAndGet();
+        latencyMax.accumulateAndGet(nanos, Math::max);
+    }
+
     private void stopTest() {
         stopped.set(true);
     }
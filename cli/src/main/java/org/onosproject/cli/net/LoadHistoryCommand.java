@@ -0,0 +1,81 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.cli.net;
+
+import org.apache.karaf.shell.commands.Argument;
+import org.apache.karaf.shell.commands.Command;
+import org.apache.karaf.shell.commands.Option;
+import org.onosproject.cli.AbstractShellCommand;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.statistic.LoadHistory;
+import org.onosproject.net.statistic.StatisticService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fetches the recent load history of a connection point.
+ */
+@Command(scope = "onos", name = "load-history",
+         description = "Fetches the recent load history of a link source connection point")
+public class LoadHistoryCommand extends AbstractShellCommand {
+
+    private static final String SUMMARY_FMT =
+            "%s: samples=%d, rate=%.1f B/s, packetRate=%.1f pkt/s, ewma=%.1f B/s, p%.0f=%.1f B/s";
+    private static final String SAMPLE_FMT = "  time=%d, bytes=%d, packets=%d";
+
+    @Argument(index = 0, name = "connectPoint",
+              description = "Device/Port Description",
+              required = true, multiValued = false)
+    String connectPoint = null;
+
+    @Option(name = "-w", aliases = "--window",
+            description = "Window (in seconds) for the average rate",
+            required = false, multiValued = false)
+    private long window = 60;
+
+    @Option(name = "-a", aliases = "--alpha",
+            description = "Smoothing factor of the moving average",
+            required = false, multiValued = false)
+    private double alpha = 0.5;
+
+    @Option(name = "-p", aliases = "--percentile",
+            description = "Percentile of the rates between samples",
+            required = false, multiValued = false)
+    private double percentile = 95;
+
+    @Option(name = "-s", aliases = "--samples",
+            description = "Print the individual samples",
+            required = false, multiValued = false)
+    private boolean samples = false;
+
+    @Override
+    protected void execute() {
+        StatisticService service = get(StatisticService.class);
+        ConnectPoint cp = ConnectPoint.deviceConnectPoint(connectPoint);
+
+        LoadHistory history = service.loadHistory(cp);
+        print(SUMMARY_FMT, cp, history.size(),
+              history.rate(TimeUnit.SECONDS.toMillis(window)),
+              history.packetRate(TimeUnit.SECONDS.toMillis(window)),
+              history.ewmaRate(alpha), percentile, history.percentileRate(percentile));
+
+        if (samples) {
+            for (int i = 0; i < history.size(); i++) {
+                print(SAMPLE_FMT, history.time(i), history.bytes(i), history.packets(i));
+            }
+        }
+    }
+}
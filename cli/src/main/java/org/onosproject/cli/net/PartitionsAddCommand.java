@@ -0,0 +1,39 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.cli.net;
+
+import org.apache.karaf.shell.commands.Argument;
+import org.apache.karaf.shell.commands.Command;
+import org.onosproject.cli.AbstractShellCommand;
+import org.onosproject.store.primitives.PartitionAdminService;
+
+/**
+ * Command to add database partitions to the system.
+ */
+@Command(scope = "onos", name = "partitions-add",
+        description = "Adds partitions to the system; only primitives created afterwards use them, "
+                + "until maps are rebalanced")
+public class PartitionsAddCommand extends AbstractShellCommand {
+
+    @Argument(index = 0, name = "count", description = "Number of partitions to add",
+            required = true, multiValued = false)
+    int count = 0;
+
+    @Override
+    protected void execute() {
+        get(PartitionAdminService.class).addPartitions(count);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.cli.net;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.google.common.collect.Lists;
+import org.apache.karaf.shell.commands.Argument;
+import org.apache.karaf.shell.commands.Command;
+import org.apache.karaf.shell.commands.Option;
+import org.onlab.packet.MplsLabel;
+import org.onosproject.cli.AbstractShellCommand;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.intent.IntentId;
+import org.onosproject.net.resource.Resource;
+import org.onosproject.net.resource.ResourceAdminService;
+import org.onosproject.net.resource.ResourceConsumer;
+import org.onosproject.net.resource.ResourceService;
+import org.onosproject.net.resource.Resources;
+
+/**
+ * Test tool measuring the throughput of discrete resource allocations,
+ * one resource at a time and in batches.
+ */
+@Command(scope = "onos", name = "test-allocate-resources-perf",
+         description = "Test tool measuring the throughput of discrete resource allocations")
+public class TestAllocateResourcePerf extends AbstractShellCommand {
+
+    @Option(name = "-n", aliases = "--count",
+            description = "Number of MPLS labels to allocate",
+            required = false, multiValued = false)
+    private int count = 1000;
+
+    @Option(name = "-b", aliases = "--batch",
+            description = "Number of MPLS labels allocated in one batch",
+            required = false, multiValued = false)
+    private int batch = 100;
+
+    @Option(name = "-s", aliases = "--start",
+            description = "First MPLS label, the labels must not be in use",
+            required = false, multiValued = false)
+    private int start = 500000;
+
+    @Option(name = "-i", aliases = "--intentId",
+            description = "IntentId to use for allocation",
+            required = false, multiValued = false)
+    private int nIntendId = 42;
+
+    @Argument(index = 0, name = "deviceIdString", description = "Device ID",
+            required = true, multiValued = false)
+    String deviceIdStr = null;
+
+    @Argument(index = 1, name = "portNumberString", description = "PortNumber",
+            required = true, multiValued = false)
+    String portNumberStr = null;
+
+    @Override
+    protected void execute() {
+        ResourceService resourceService = get(ResourceService.class);
+        ResourceAdminService resourceAdminService = get(ResourceAdminService.class);
+        DeviceId did = DeviceId.deviceId(deviceIdStr);
+        PortNumber portNum = PortNumber.fromString(portNumberStr);
+        ResourceConsumer consumer = IntentId.valueOf(nIntendId);
+
+        List<Resource> resources = IntStream.range(start, start + count)
+                .mapToObj(label -> Resources.discrete(did, portNum, MplsLabel.mplsLabel(label)).resource())
+                .collect(Collectors.toList());
+        if (!resourceAdminService.register(resources)) {
+            print("Failed to register %d MPLS labels on %s/%s", count, did, portNum);
+            return;
+        }
+
+        try {
+            measure("one at a time", resourceService, consumer, Lists.partition(resources, 1));
+            measure("batches of " + batch, resourceService, consumer, Lists.partition(resources, batch));
+        } finally {
+            resourceService.release(consumer);
+            resourceAdminService.unregister(resources.stream().map(Resource::id).collect(Collectors.toList()));
+        }
+    }
+
+    private void measure(String mode, ResourceService resourceService, ResourceConsumer consumer,
+                         List<List<Resource>> batches) {
+        long startTime = System.nanoTime();
+        for (List<Resource> resources : batches) {
+            if (resourceService.allocate(consumer, resources).isEmpty()) {
+                print("Failed to allocate %s for %s", resources, consumer);
+                resourceService.release(consumer);
+                return;
+            }
+        }
+        long elapsed = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        print("Allocated %d resources %s in %d ms: %d allocations per second",
+              count, mode, elapsed, count * 1000L / elapsed);
+        resourceService.release(consumer);
+    }
+}
@@ -67,7 +67,8 @@ public class ClusterMetadataDiff {
     }
 
     /**
-     * Returns a mapping of all partition diffs.
+     * Returns a mapping of all partition diffs. Partitions may be added but
+     * not removed; the diff of an added partition has no old value.
      * @return partition diffs.
      */
     public Map<PartitionId, PartitionDiff> partitionDiffs() {
@@ -77,11 +78,11 @@ public class ClusterMetadataDiff {
         Map<PartitionId, Partition> newPartitions = Maps.newHashMap();
         newValue.getPartitions()
                 .forEach(p -> newPartitions.put(p.getId(), p));
-        checkState(Sets.symmetricDifference(oldPartitions.keySet(), newPartitions.keySet()).isEmpty(),
-                   "Number of partitions cannot change");
+        checkState(newPartitions.keySet().containsAll(oldPartitions.keySet()),
+                   "Partitions cannot be removed");
         Map<PartitionId, PartitionDiff> partitionDiffs = Maps.newHashMap();
-        oldPartitions.forEach((k, v) -> {
-            partitionDiffs.put(k, new PartitionDiff(v, newPartitions.get(k)));
+        newPartitions.forEach((k, v) -> {
+            partitionDiffs.put(k, new PartitionDiff(oldPartitions.get(k), v));
         });
         return partitionDiffs;
     }
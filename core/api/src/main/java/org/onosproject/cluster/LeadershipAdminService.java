@@ -15,6 +15,11 @@
  */
 package org.onosproject.cluster;
 
+import java.util.Map;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
 /**
  * Interface for administratively manipulating leadership assignments.
  */
@@ -29,6 +34,15 @@ public interface LeadershipAdminService {
      */
     boolean transferLeadership(String topic, NodeId nodeId);
 
+    /**
+     * Attempts to assign leadership for several topics at once.
+     * @param transfers mapping from leadership topic to the node to be made leader
+     * @return mapping from leadership topic to whether the transfer was executed
+     */
+    default Map<String, Boolean> transferLeadershipAll(Map<String, NodeId> transfers) {
+        return ImmutableMap.copyOf(Maps.transformEntries(transfers, this::transferLeadership));
+    }
+
     /**
      * Make a node to be the next leader by promoting it to top of candidate list.
      * @param topic leadership topic
@@ -38,6 +52,15 @@ public interface LeadershipAdminService {
      */
     boolean promoteToTopOfCandidateList(String topic, NodeId nodeId);
 
+    /**
+     * Makes nodes the next leaders of several topics at once.
+     * @param promotions mapping from leadership topic to the node to be next leader
+     * @return mapping from leadership topic to whether the node is now the top candidate
+     */
+    default Map<String, Boolean> promoteToTopOfCandidateListAll(Map<String, NodeId> promotions) {
+        return ImmutableMap.copyOf(Maps.transformEntries(promotions, this::promoteToTopOfCandidateList));
+    }
+
     /**
      * Removes all active leadership registrations for a given node.
      * <p>
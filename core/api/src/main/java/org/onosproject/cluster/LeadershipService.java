@@ -22,6 +22,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -85,6 +86,15 @@ public interface LeadershipService
      */
     void withdraw(String topic);
 
+    /**
+     * Withdraws from the leadership contests of several topics at once.
+     *
+     * @param topics leadership topics
+     */
+    default void withdrawAll(Collection<String> topics) {
+        topics.forEach(this::withdraw);
+    }
+
     /**
      * Returns the current leader board.
      *
@@ -15,9 +15,14 @@
  */
 package org.onosproject.cluster;
 
+import java.util.Collection;
 import java.util.Map;
+
 import org.onosproject.store.Store;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
 /**
  * Store interface for managing {@link LeadershipService} state.
  */
@@ -38,6 +43,15 @@ public interface LeadershipStore extends Store<LeadershipEvent, LeadershipStoreD
      */
     void removeRegistration(String topic);
 
+    /**
+     * Unregisters the local instance from the leadership contests of several topics.
+     *
+     * @param topics leadership topics
+     */
+    default void removeRegistrations(Collection<String> topics) {
+        topics.forEach(this::removeRegistration);
+    }
+
     /**
      * Unregisters an instance from all leadership contests.
      *
@@ -55,6 +69,16 @@ public interface LeadershipStore extends Store<LeadershipEvent, LeadershipStoreD
      */
     boolean moveLeadership(String topic, NodeId toNodeId);
 
+    /**
+     * Updates state so that given nodes are leaders for several topics.
+     *
+     * @param transfers mapping from leadership topic to the desired leader
+     * @return mapping from leadership topic to whether the transfer succeeded
+     */
+    default Map<String, Boolean> moveLeaderships(Map<String, NodeId> transfers) {
+        return ImmutableMap.copyOf(Maps.transformEntries(transfers, this::moveLeadership));
+    }
+
     /**
      * Attempts to make a node the top candidate.
      *
@@ -65,6 +89,16 @@ public interface LeadershipStore extends Store<LeadershipEvent, LeadershipStoreD
      */
     boolean makeTopCandidate(String topic, NodeId nodeId);
 
+    /**
+     * Attempts to make nodes the top candidates of several topics.
+     *
+     * @param promotions mapping from leadership topic to the node to make top candidate
+     * @return mapping from leadership topic to whether the node is now the top candidate
+     */
+    default Map<String, Boolean> makeTopCandidates(Map<String, NodeId> promotions) {
+        return ImmutableMap.copyOf(Maps.transformEntries(promotions, this::makeTopCandidate));
+    }
+
     /**
      * Returns the current leadership for topic.
      *
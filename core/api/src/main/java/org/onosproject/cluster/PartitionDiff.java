@@ -36,7 +36,7 @@ public class PartitionDiff {
     public PartitionDiff(Partition oldValue, Partition newValue) {
         this.oldValue = oldValue;
         this.newValue = newValue;
-        this.partitionId = oldValue.getId();
+        this.partitionId = oldValue == null ? newValue.getId() : oldValue.getId();
         this.currentMembers = oldValue == null ? ImmutableSet.of() : ImmutableSet.copyOf(oldValue.getMembers());
         this.newMembers = newValue == null ? ImmutableSet.of() : ImmutableSet.copyOf(newValue.getMembers());
     }
@@ -73,6 +73,14 @@ public class PartitionDiff {
         return !Sets.symmetricDifference(currentMembers, newMembers).isEmpty();
     }
 
+    /**
+     * Returns if the partition is introduced in the new value.
+     * @return {@code true} if yes; {@code false} otherwise
+     */
+    public boolean isNewPartition() {
+        return oldValue == null;
+    }
+
     /**
      * Returns if the specified node is introduced in the new value.
      * @param nodeId node identifier
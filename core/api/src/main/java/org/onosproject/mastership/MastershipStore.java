@@ -15,9 +15,13 @@
  */
 package org.onosproject.mastership;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
+import org.onlab.util.Tools;
 import org.onosproject.cluster.NodeId;
 import org.onosproject.cluster.RoleInfo;
 import org.onosproject.net.DeviceId;
@@ -83,6 +87,19 @@ public interface MastershipStore extends Store<MastershipEvent, MastershipStoreD
      */
     CompletableFuture<MastershipEvent> setMaster(NodeId nodeId, DeviceId deviceId);
 
+    /**
+     * Sets a controller instance as the master of several devices at once.
+     *
+     * @param nodeId    controller instance identifier
+     * @param deviceIds device identifiers
+     * @return the resulting mastership events
+     */
+    default CompletableFuture<List<MastershipEvent>> setMasters(NodeId nodeId, Collection<DeviceId> deviceIds) {
+        return Tools.allOf(deviceIds.stream()
+                                    .map(deviceId -> setMaster(nodeId, deviceId))
+                                    .collect(Collectors.toList()));
+    }
+
     /**
      * Returns the current master and number of past mastership hand-offs
      * (terms) for a device.
@@ -17,6 +17,7 @@ package org.onosproject.net.packet;
 
 import org.onosproject.net.ConnectPoint;
 import org.onlab.packet.Ethernet;
+import org.onlab.packet.PacketView;
 
 import java.nio.ByteBuffer;
 import java.util.Optional;
@@ -48,6 +49,16 @@ public interface InboundPacket {
      */
     ByteBuffer unparsed();
 
+    /**
+     * Returns a read-only view of the packet data which decodes header
+     * fields on demand, without parsing the whole packet.
+     *
+     * @return packet view
+     */
+    default PacketView view() {
+        return PacketView.of(unparsed());
+    }
+
     /**
      * Returns the cookie in the packet in message.
      *
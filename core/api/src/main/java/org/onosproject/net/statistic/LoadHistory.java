@@ -0,0 +1,205 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.statistic;
+
+import com.google.common.base.MoreObjects;
+
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+/**
+ * Immutable series of cumulative byte and packet counter samples of a link
+ * or a flow, ordered from the oldest to the most recent sample.
+ * <p>
+ * Rates are derived from the differences between consecutive samples;
+ * counter resets are treated as a zero difference.
+ * </p>
+ */
+public final class LoadHistory {
+
+    private static final LoadHistory EMPTY = new LoadHistory(new long[0], new long[0], new long[0]);
+
+    private final long[] times;
+    private final long[] bytes;
+    private final long[] packets;
+
+    /**
+     * Creates a history from parallel arrays of samples. The arrays are
+     * used as given and must not be modified afterwards.
+     *
+     * @param times   sample timestamps in milliseconds, in ascending order
+     * @param bytes   cumulative byte counters
+     * @param packets cumulative packet counters
+     */
+    public LoadHistory(long[] times, long[] bytes, long[] packets) {
+        checkArgument(times.length == bytes.length && times.length == packets.length,
+                      "Sample arrays must be of equal length");
+        this.times = times;
+        this.bytes = bytes;
+        this.packets = packets;
+    }
+
+    /**
+     * Returns a history without any samples.
+     *
+     * @return empty history
+     */
+    public static LoadHistory empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns the number of samples.
+     *
+     * @return number of samples
+     */
+    public int size() {
+        return times.length;
+    }
+
+    /**
+     * Returns the timestamp of the given sample.
+     *
+     * @param index sample index; 0 is the oldest sample
+     * @return timestamp in milliseconds
+     */
+    public long time(int index) {
+        checkElementIndex(index, times.length);
+        return times[index];
+    }
+
+    /**
+     * Returns the cumulative byte counter of the given sample.
+     *
+     * @param index sample index; 0 is the oldest sample
+     * @return byte counter
+     */
+    public long bytes(int index) {
+        checkElementIndex(index, times.length);
+        return bytes[index];
+    }
+
+    /**
+     * Returns the cumulative packet counter of the given sample.
+     *
+     * @param index sample index; 0 is the oldest sample
+     * @return packet counter
+     */
+    public long packets(int index) {
+        checkElementIndex(index, times.length);
+        return packets[index];
+    }
+
+    /**
+     * Returns the average byte rate over the samples taken within the given
+     * window before the most recent sample.
+     *
+     * @param windowMillis window length in milliseconds
+     * @return bytes per second; 0 if fewer than two samples fall in the window
+     */
+    public double rate(long windowMillis) {
+        return windowRate(bytes, windowMillis);
+    }
+
+    /**
+     * Returns the average packet rate over the samples taken within the given
+     * window before the most recent sample.
+     *
+     * @param windowMillis window length in milliseconds
+     * @return packets per second; 0 if fewer than two samples fall in the window
+     */
+    public double packetRate(long windowMillis) {
+        return windowRate(packets, windowMillis);
+    }
+
+    /**
+     * Returns the exponentially weighted moving average of the byte rate
+     * between consecutive samples.
+     *
+     * @param alpha smoothing factor in (0, 1]; larger values favour recent samples
+     * @return bytes per second; 0 if there are fewer than two samples
+     */
+    public double ewmaRate(double alpha) {
+        checkArgument(alpha > 0 && alpha <= 1, "Alpha must be in (0, 1]");
+        double ewma = 0;
+        for (int i = 1; i < times.length; i++) {
+            double rate = intervalRate(bytes, i);
+            ewma = i == 1 ? rate : alpha * rate + (1 - alpha) * ewma;
+        }
+        return ewma;
+    }
+
+    /**
+     * Returns the given percentile of the byte rates between consecutive
+     * samples, using the nearest-rank method.
+     *
+     * @param percentile percentile in (0, 100]
+     * @return bytes per second; 0 if there are fewer than two samples
+     */
+    public double percentileRate(double percentile) {
+        checkArgument(percentile > 0 && percentile <= 100, "Percentile must be in (0, 100]");
+        if (times.length < 2) {
+            return 0;
+        }
+        double[] rates = new double[times.length - 1];
+        for (int i = 1; i < times.length; i++) {
+            rates[i - 1] = intervalRate(bytes, i);
+        }
+        Arrays.sort(rates);
+        int rank = (int) Math.ceil(percentile / 100 * rates.length);
+        return rates[Math.max(rank, 1) - 1];
+    }
+
+    private double windowRate(long[] counters, long windowMillis) {
+        checkArgument(windowMillis > 0, "Window must be positive");
+        if (times.length < 2) {
+            return 0;
+        }
+        int last = times.length - 1;
+        int first = last;
+        while (first > 0 && times[last] - times[first - 1] <= windowMillis) {
+            first--;
+        }
+        if (first == last) {
+            return 0;
+        }
+        long delta = 0;
+        for (int i = first + 1; i <= last; i++) {
+            delta += Math.max(0, counters[i] - counters[i - 1]);
+        }
+        return perSecond(delta, times[last] - times[first]);
+    }
+
+    private double intervalRate(long[] counters, int index) {
+        return perSecond(Math.max(0, counters[index] - counters[index - 1]),
+                         times[index] - times[index - 1]);
+    }
+
+    private static double perSecond(long delta, long millis) {
+        return millis <= 0 ? 0 : delta * 1000.0 / millis;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass())
+                .add("samples", times.length)
+                .add("from", times.length > 0 ? times[0] : null)
+                .add("to", times.length > 0 ? times[times.length - 1] : null)
+                .toString();
+    }
+}
@@ -82,4 +82,29 @@ public interface StatisticService {
      * @return {@link Load Load}
      */
     Load load(Link link, ApplicationId appId, Optional<GroupId> groupId);
+
+    /**
+     * Returns the recent load history of the ingress to the given link.
+     *
+     * @param link link to query
+     * @return load history; empty if the link is not tracked
+     */
+    LoadHistory loadHistory(Link link);
+
+    /**
+     * Returns the recent load history of the given port. Only ports which
+     * are the source of an infrastructure link are tracked.
+     *
+     * @param connectPoint port to query
+     * @return load history; empty if the port is not tracked
+     */
+    LoadHistory loadHistory(ConnectPoint connectPoint);
+
+    /**
+     * Returns the recent load history of the given flow rule.
+     *
+     * @param rule flow rule to query
+     * @return load history; empty if no statistics were received for the rule
+     */
+    LoadHistory loadHistory(FlowRule rule);
 }
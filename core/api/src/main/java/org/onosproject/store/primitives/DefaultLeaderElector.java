@@ -60,11 +60,31 @@ public class DefaultLeaderElector extends Synchronous<AsyncLeaderElector> implem
         return complete(asyncElector.anoint(topic, nodeId));
     }
 
+    @Override
+    public Map<String, Leadership> runAll(Collection<String> topics, NodeId nodeId) {
+        return complete(asyncElector.runAll(topics, nodeId));
+    }
+
+    @Override
+    public void withdrawAll(Collection<String> topics) {
+        complete(asyncElector.withdrawAll(topics));
+    }
+
+    @Override
+    public Map<String, Boolean> anointAll(Map<String, NodeId> transfers) {
+        return complete(asyncElector.anointAll(transfers));
+    }
+
     @Override
     public boolean promote(String topic, NodeId nodeId) {
         return complete(asyncElector.promote(topic, nodeId));
     }
 
+    @Override
+    public Map<String, Boolean> promoteAll(Map<String, NodeId> promotions) {
+        return complete(asyncElector.promoteAll(promotions));
+    }
+
     @Override
     public void evict(NodeId nodeId) {
         complete(asyncElector.evict(nodeId));
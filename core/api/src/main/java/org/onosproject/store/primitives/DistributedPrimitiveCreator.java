@@ -25,6 +25,7 @@ import org.onosproject.store.service.AsyncConsistentTreeMap;
 import org.onosproject.store.service.AsyncDistributedSet;
 import org.onosproject.store.service.AsyncDocumentTree;
 import org.onosproject.store.service.AsyncLeaderElector;
+import org.onosproject.store.service.ReadConsistency;
 import org.onosproject.store.service.Serializer;
 import org.onosproject.store.service.WorkQueue;
 
@@ -44,6 +45,23 @@ public interface DistributedPrimitiveCreator {
      */
     <K, V> AsyncConsistentMap<K, V> newAsyncConsistentMap(String name, Serializer serializer);
 
+    /**
+     * Creates a new {@code AsyncConsistentMap} whose reads are performed at
+     * the given consistency. Creators unable to relax the consistency of
+     * reads create a map with their default read consistency.
+     *
+     * @param name map name
+     * @param serializer serializer to use for serializing/deserializing map entries
+     * @param readConsistency read consistency
+     * @param <K> key type
+     * @param <V> value type
+     * @return map
+     */
+    default <K, V> AsyncConsistentMap<K, V> newAsyncConsistentMap(String name, Serializer serializer,
+                                                                  ReadConsistency readConsistency) {
+        return newAsyncConsistentMap(name, serializer);
+    }
+
     /**
      * Creates a new {@code AsyncConsistentTreeMap}.
      *
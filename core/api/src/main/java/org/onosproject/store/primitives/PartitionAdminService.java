@@ -36,4 +36,15 @@ public interface PartitionAdminService {
      * @return list of {@code PartitionClientInfo}
      */
     List<PartitionClientInfo> partitionClientInfo();
-}
\ No newline at end of file
+
+    /**
+     * Adds partitions to the cluster. The new partitions are opened on every
+     * controller instance without a restart and take part in hosting the
+     * distributed primitives created afterwards; existing primitives keep
+     * the partitions they were created with, until consistent maps are
+     * rebalanced with {@link org.onosproject.store.service.StorageAdminService#rebalanceMap(String)}.
+     *
+     * @param count number of partitions to add
+     */
+    void addPartitions(int count);
+}
@@ -54,6 +54,17 @@ public class PartitionEvent extends AbstractEvent<PartitionEvent.Type, Partition
         UNAVAILABLE,
     }
 
+    /**
+     * Creates an event of a given type and for the specified partition and the
+     * current time.
+     *
+     * @param type     partition event type
+     * @param subject  event partition subject
+     */
+    public PartitionEvent(Type type, Partition subject) {
+        super(type, subject);
+    }
+
     /**
      * Creates an event of a given type and for the specified partition and time.
      *
@@ -15,6 +15,7 @@
  */
 package org.onosproject.store.service;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
@@ -24,6 +25,8 @@ import org.onosproject.cluster.NodeId;
 import org.onosproject.event.Change;
 import org.onosproject.store.primitives.DefaultLeaderElector;
 
+import com.google.common.collect.Maps;
+
 /**
  * Distributed mutual exclusion primitive.
  * <p>
@@ -75,6 +78,76 @@ public interface AsyncLeaderElector extends DistributedPrimitive {
      */
     CompletableFuture<Boolean> anoint(String topic, NodeId nodeId);
 
+    /**
+     * Attempts to become leader for several topics.
+     * <p>
+     * Implementations may apply the registrations as a batch rather than one topic at a time.
+     *
+     * @param topics leadership topics
+     * @param nodeId instance identifier of the node
+     * @return CompletableFuture that is completed with the current Leadership state of each topic
+     */
+    default CompletableFuture<Map<String, Leadership>> runAll(Collection<String> topics, NodeId nodeId) {
+        Map<String, Leadership> leaderships = Maps.newConcurrentMap();
+        return CompletableFuture.allOf(topics.stream()
+                                             .map(topic -> run(topic, nodeId)
+                                                     .thenAccept(l -> leaderships.put(topic, l)))
+                                             .toArray(CompletableFuture[]::new))
+                                .thenApply(v -> leaderships);
+    }
+
+    /**
+     * Withdraws from leadership race for several topics.
+     * <p>
+     * Implementations may apply the withdrawals as a batch rather than one topic at a time.
+     *
+     * @param topics leadership topics
+     * @return CompletableFuture that is completed when the withdrawals are done
+     */
+    default CompletableFuture<Void> withdrawAll(Collection<String> topics) {
+        return CompletableFuture.allOf(topics.stream()
+                                             .map(this::withdraw)
+                                             .toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Attempts to promote nodes to leadership of several topics, displacing the current leaders.
+     * <p>
+     * Implementations may apply the transfers as a batch rather than one topic at a time.
+     *
+     * @param transfers mapping of leadership topic to the instance identifier of its new leader
+     * @return CompletableFuture that is completed with, for each topic, whether the leadership transfer
+     * was successfully executed
+     */
+    default CompletableFuture<Map<String, Boolean>> anointAll(Map<String, NodeId> transfers) {
+        Map<String, Boolean> results = Maps.newConcurrentMap();
+        return CompletableFuture.allOf(transfers.entrySet()
+                                                .stream()
+                                                .map(e -> anoint(e.getKey(), e.getValue())
+                                                        .thenAccept(r -> results.put(e.getKey(), r)))
+                                                .toArray(CompletableFuture[]::new))
+                                .thenApply(v -> results);
+    }
+
+    /**
+     * Attempts to promote nodes to top of the candidate lists of several topics.
+     * <p>
+     * Implementations may apply the promotions as a batch rather than one topic at a time.
+     *
+     * @param promotions mapping of leadership topic to the instance identifier of its new top candidate
+     * @return CompletableFuture that is completed with, for each topic, whether the node is now the
+     * top candidate
+     */
+    default CompletableFuture<Map<String, Boolean>> promoteAll(Map<String, NodeId> promotions) {
+        Map<String, Boolean> results = Maps.newConcurrentMap();
+        return CompletableFuture.allOf(promotions.entrySet()
+                                                 .stream()
+                                                 .map(e -> promote(e.getKey(), e.getValue())
+                                                         .thenAccept(r -> results.put(e.getKey(), r)))
+                                                 .toArray(CompletableFuture[]::new))
+                                .thenApply(v -> results);
+    }
+
     /**
      * Attempts to evict a node from all leadership elections it is registered for.
      * <p>
@@ -17,6 +17,11 @@ package org.onosproject.store.service;
 
 import org.onosproject.store.primitives.DistributedPrimitiveBuilder;
 
+import java.time.Duration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
 /**
  * Builder for {@link ConsistentMap} instances.
  *
@@ -26,7 +31,11 @@ import org.onosproject.store.primitives.DistributedPrimitiveBuilder;
 public abstract class ConsistentMapBuilder<K, V>
     extends DistributedPrimitiveBuilder<ConsistentMapBuilder<K, V>, ConsistentMap<K, V>> {
 
+    private static final Duration DEFAULT_MAX_STALENESS = Duration.ofSeconds(1);
+
     private boolean purgeOnUninstall = false;
+    private ReadConsistency readConsistency = ReadConsistency.SEQUENTIAL;
+    private Duration maxStaleness = DEFAULT_MAX_STALENESS;
 
     public ConsistentMapBuilder() {
         super(DistributedPrimitive.Type.CONSISTENT_MAP);
@@ -50,6 +59,49 @@ public abstract class ConsistentMapBuilder<K, V>
         return purgeOnUninstall;
     }
 
+    /**
+     * Sets the consistency of the read operations of the map.
+     *
+     * @param readConsistency read consistency
+     * @return this builder
+     */
+    public ConsistentMapBuilder<K, V> withReadConsistency(ReadConsistency readConsistency) {
+        this.readConsistency = checkNotNull(readConsistency);
+        return this;
+    }
+
+    /**
+     * Lets reads be served locally from values at most the given duration old.
+     *
+     * @param maxStaleness maximum staleness of the values read
+     * @return this builder
+     */
+    public ConsistentMapBuilder<K, V> withBoundedStaleness(Duration maxStaleness) {
+        checkArgument(!maxStaleness.isNegative() && !maxStaleness.isZero(), "Staleness bound must be positive");
+        this.readConsistency = ReadConsistency.BOUNDED_STALENESS;
+        this.maxStaleness = maxStaleness;
+        return this;
+    }
+
+    /**
+     * Returns the consistency of the read operations of the map.
+     *
+     * @return read consistency
+     */
+    public ReadConsistency readConsistency() {
+        return readConsistency;
+    }
+
+    /**
+     * Returns the maximum staleness of the values read when the read
+     * consistency is {@link ReadConsistency#BOUNDED_STALENESS}.
+     *
+     * @return maximum staleness
+     */
+    public Duration maxStaleness() {
+        return maxStaleness;
+    }
+
     /**
      * Builds an async consistent map based on the configuration options
      * supplied to this builder.
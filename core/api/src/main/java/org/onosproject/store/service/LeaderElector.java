@@ -15,6 +15,7 @@
  */
 package org.onosproject.store.service;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.function.Consumer;
 
@@ -57,6 +58,27 @@ public interface LeaderElector extends DistributedPrimitive {
      */
     boolean anoint(String topic, NodeId nodeId);
 
+    /**
+     * Attempts to become leader for several topics.
+     * @param topics leadership topics
+     * @param nodeId instance identifier of the node
+     * @return current Leadership state of each topic
+     */
+    Map<String, Leadership> runAll(Collection<String> topics, NodeId nodeId);
+
+    /**
+     * Withdraws from leadership race for several topics.
+     * @param topics leadership topics
+     */
+    void withdrawAll(Collection<String> topics);
+
+    /**
+     * Attempts to promote nodes to leadership of several topics, displacing the current leaders.
+     * @param transfers mapping of leadership topic to the instance identifier of its new leader
+     * @return for each topic, {@code true} if leadership transfer was successfully executed
+     */
+    Map<String, Boolean> anointAll(Map<String, NodeId> transfers);
+
     /**
      * Attempts to promote a node to top of candidate list.
      *
@@ -67,6 +89,13 @@ public interface LeaderElector extends DistributedPrimitive {
      */
     boolean promote(String topic, NodeId nodeId);
 
+    /**
+     * Attempts to promote nodes to top of the candidate lists of several topics.
+     * @param promotions mapping of leadership topic to the instance identifier of its new top candidate
+     * @return for each topic, {@code true} if the node is now the top candidate
+     */
+    Map<String, Boolean> promoteAll(Map<String, NodeId> promotions);
+
     /**
      * Attempts to evict a node from all leadership elections it is registered for.
      * <p>
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.service;
+
+/**
+ * Consistency of the read operations of a distributed primitive.
+ */
+public enum ReadConsistency {
+    /**
+     * Reads reflect every update completed before the read was issued, on
+     * any instance. Reads are served by the partition leader.
+     */
+    LINEARIZABLE,
+
+    /**
+     * Reads are served by the partition member this instance is connected
+     * to, which may be a follower; an instance never observes state older
+     * than what it has already observed.
+     */
+    SEQUENTIAL,
+
+    /**
+     * Reads are served from a local cache kept up to date by update events,
+     * falling back to sequential reads; cached values are refreshed at least
+     * as often as the configured staleness bound.
+     */
+    BOUNDED_STALENESS
+}
@@ -64,4 +64,14 @@ public interface StorageAdminService {
      * @return collection of pending transaction identifiers.
      */
     Collection<TransactionId> getPendingTransactions();
+
+    /**
+     * Spreads a consistent map over all the partitions, including the ones
+     * added after its creation. The map stays in use while its entries are
+     * copied; its operations are only held back while the moved entries are
+     * switched over. Moved entries keep their versions and raise no events.
+     *
+     * @param name map name
+     */
+    void rebalanceMap(String name);
 }
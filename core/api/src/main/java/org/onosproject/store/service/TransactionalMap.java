@@ -16,6 +16,8 @@
 
 package org.onosproject.store.service;
 
+import java.util.Map;
+
 /**
  * Transactional Map data structure.
  * <p>
@@ -77,6 +79,22 @@ public interface TransactionalMap<K, V> {
      */
     V putIfAbsent(K key, V value);
 
+    /**
+     * If none of the specified keys is already associated with a value
+     * associates each of them with its given value, else leaves the map unchanged.
+     *
+     * @param entries keys and the values to be associated with them
+     * @return true if the values were associated with the keys, false if
+     * any of the keys was already mapped to a value
+     */
+    default boolean putAllIfAbsent(Map<K, V> entries) {
+        if (entries.keySet().stream().anyMatch(this::containsKey)) {
+            return false;
+        }
+        entries.forEach(this::put);
+        return true;
+    }
+
     /**
      * Removes the entry for the specified key only if it is currently
      * mapped to the specified value.
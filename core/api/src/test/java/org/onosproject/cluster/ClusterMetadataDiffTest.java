@@ -93,4 +93,37 @@ public class ClusterMetadataDiffTest {
         assertFalse(pdiff.isRemoved(nid1));
         assertFalse(pdiff.isAdded(nid1));
     }
+
+    @Test
+    public void testDiffForPartitionAdded() {
+        PartitionId pid1 = PartitionId.from(1);
+        PartitionId pid2 = PartitionId.from(2);
+        NodeId nid1 = NodeId.nodeId("10.0.0.1");
+        ControllerNode n1 = new DefaultControllerNode(nid1, IpAddress.valueOf("10.0.0.1"), 9876);
+        Partition p1 = new DefaultPartition(pid1, ImmutableSet.of(nid1));
+        Partition p2 = new DefaultPartition(pid2, ImmutableSet.of(nid1));
+        ClusterMetadata md1 = new ClusterMetadata("foo", ImmutableSet.of(n1), ImmutableSet.of(p1));
+        ClusterMetadata md12 = new ClusterMetadata("foo", ImmutableSet.of(n1), ImmutableSet.of(p1, p2));
+        ClusterMetadataDiff diff = new ClusterMetadataDiff(md1, md12);
+        assertEquals(diff.partitionDiffs().keySet(), Sets.newHashSet(pid1, pid2));
+        assertFalse(diff.partitionDiffs().get(pid1).hasChanged());
+        PartitionDiff pdiff = diff.partitionDiffs().get(pid2);
+        assertTrue(pdiff.isNewPartition());
+        assertTrue(pdiff.hasChanged());
+        assertEquals(pdiff.partitionId(), pid2);
+        assertTrue(pdiff.isAdded(nid1));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDiffForPartitionRemoved() {
+        PartitionId pid1 = PartitionId.from(1);
+        PartitionId pid2 = PartitionId.from(2);
+        NodeId nid1 = NodeId.nodeId("10.0.0.1");
+        ControllerNode n1 = new DefaultControllerNode(nid1, IpAddress.valueOf("10.0.0.1"), 9876);
+        Partition p1 = new DefaultPartition(pid1, ImmutableSet.of(nid1));
+        Partition p2 = new DefaultPartition(pid2, ImmutableSet.of(nid1));
+        ClusterMetadata md1 = new ClusterMetadata("foo", ImmutableSet.of(n1), ImmutableSet.of(p1));
+        ClusterMetadata md12 = new ClusterMetadata("foo", ImmutableSet.of(n1), ImmutableSet.of(p1, p2));
+        new ClusterMetadataDiff(md12, md1).partitionDiffs();
+    }
 }
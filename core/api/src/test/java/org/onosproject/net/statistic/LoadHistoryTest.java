@@ -0,0 +1,79 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.statistic;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Unit tests for the load history class.
+ */
+public class LoadHistoryTest {
+
+    private static final double DELTA = 0.0001;
+
+    // rates between samples: 100, 200, 0 (reset), 400 B/s
+    private final LoadHistory history =
+            new LoadHistory(new long[]{1000, 2000, 3000, 4000, 5000},
+                            new long[]{0, 100, 300, 50, 450},
+                            new long[]{0, 1, 3, 1, 5});
+
+    /**
+     * Tests an empty history.
+     */
+    @Test
+    public void testEmpty() {
+        LoadHistory empty = LoadHistory.empty();
+        assertThat(empty.size(), is(0));
+        assertThat(empty.rate(1000), closeTo(0, DELTA));
+        assertThat(empty.ewmaRate(0.5), closeTo(0, DELTA));
+        assertThat(empty.percentileRate(50), closeTo(0, DELTA));
+    }
+
+    /**
+     * Tests the windowed rates.
+     */
+    @Test
+    public void testRate() {
+        assertThat(history.rate(60000), closeTo(700 / 4.0, DELTA));
+        assertThat(history.rate(2000), closeTo(400 / 2.0, DELTA));
+        assertThat(history.rate(500), closeTo(0, DELTA));
+        assertThat(history.packetRate(60000), closeTo(7 / 4.0, DELTA));
+    }
+
+    /**
+     * Tests the moving average rate.
+     */
+    @Test
+    public void testEwmaRate() {
+        assertThat(history.ewmaRate(1), closeTo(400, DELTA));
+        // 100 -> 150 -> 75 -> 237.5
+        assertThat(history.ewmaRate(0.5), closeTo(237.5, DELTA));
+    }
+
+    /**
+     * Tests the percentile rates.
+     */
+    @Test
+    public void testPercentileRate() {
+        assertThat(history.percentileRate(50), closeTo(100, DELTA));
+        assertThat(history.percentileRate(95), closeTo(400, DELTA));
+        assertThat(history.percentileRate(1), closeTo(0, DELTA));
+    }
+}
@@ -58,4 +58,19 @@ public class StatisticServiceAdapter implements StatisticService {
     public Load load(Link link, ApplicationId appId, Optional<GroupId> groupId) {
         return null;
     }
+
+    @Override
+    public LoadHistory loadHistory(Link link) {
+        return null;
+    }
+
+    @Override
+    public LoadHistory loadHistory(ConnectPoint connectPoint) {
+        return null;
+    }
+
+    @Override
+    public LoadHistory loadHistory(FlowRule rule) {
+        return null;
+    }
 }
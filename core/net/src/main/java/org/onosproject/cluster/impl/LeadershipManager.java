@@ -17,6 +17,7 @@ package org.onosproject.cluster.impl;
 
 import static org.slf4j.LoggerFactory.getLogger;
 
+import java.util.Collection;
 import java.util.Map;
 
 import org.apache.felix.scr.annotations.Activate;
@@ -70,9 +71,8 @@ public class LeadershipManager
 
     @Deactivate
     public void deactivate() {
-        Maps.filterValues(store.getLeaderships(), v -> v.candidates().contains(localNodeId))
-            .keySet()
-            .forEach(this::withdraw);
+        withdrawAll(Maps.filterValues(store.getLeaderships(), v -> v.candidates().contains(localNodeId))
+                        .keySet());
         store.unsetDelegate(delegate);
         eventDispatcher.removeSink(LeadershipEvent.class);
         log.info("Stopped");
@@ -93,6 +93,11 @@ public class LeadershipManager
         store.removeRegistration(topic);
     }
 
+    @Override
+    public void withdrawAll(Collection<String> topics) {
+        store.removeRegistrations(topics);
+    }
+
     @Override
     public Map<String, Leadership> getLeaderBoard() {
         return store.getLeaderships();
@@ -103,6 +108,11 @@ public class LeadershipManager
         return store.moveLeadership(topic, to);
     }
 
+    @Override
+    public Map<String, Boolean> transferLeadershipAll(Map<String, NodeId> transfers) {
+        return store.moveLeaderships(transfers);
+    }
+
     @Override
     public void unregister(NodeId nodeId) {
         store.removeRegistration(nodeId);
@@ -112,4 +122,9 @@ public class LeadershipManager
     public boolean promoteToTopOfCandidateList(String topic, NodeId nodeId) {
         return store.makeTopCandidate(topic, nodeId);
     }
+
+    @Override
+    public Map<String, Boolean> promoteToTopOfCandidateListAll(Map<String, NodeId> promotions) {
+        return store.makeTopCandidates(promotions);
+    }
 }
@@ -66,7 +66,6 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.Lists.newArrayList;
 import static org.onlab.metrics.MetricsUtil.startTimer;
 import static org.onlab.metrics.MetricsUtil.stopTimer;
-import static org.onosproject.net.MastershipRole.MASTER;
 import static org.onosproject.security.AppGuard.checkPermission;
 import static org.onosproject.security.AppPermission.Type.CLUSTER_READ;
 import static org.onosproject.security.AppPermission.Type.CLUSTER_WRITE;
@@ -320,7 +319,7 @@ public class MastershipManager
         int delta = (maxBucket.size() - minBucket.size()) / 2;
         delta = Math.min(deviceCount / bucketCount, delta);
 
-        List<CompletableFuture<Void>> setRoleFutures = Lists.newLinkedList();
+        List<DeviceId> movedDevices = Lists.newLinkedList();
 
         if (delta > 0) {
             log.info("Attempting to move {} nodes from {} to {}...", delta,
@@ -331,14 +330,29 @@ public class MastershipManager
             while (it.hasNext() && i < delta) {
                 DeviceId deviceId = it.next();
                 log.info("Setting {} as the master for {}", smallest.id(), deviceId);
-                setRoleFutures.add(setRole(smallest.id(), deviceId, MASTER));
+                movedDevices.add(deviceId);
                 controllerDevices.get(smallest).add(deviceId);
                 it.remove();
                 i++;
             }
         }
 
-        return CompletableFuture.allOf(setRoleFutures.toArray(new CompletableFuture[setRoleFutures.size()]));
+        return setMasters(smallest.id(), movedDevices);
+    }
+
+    /**
+     * Sets a node as the master of several devices in a single batch.
+     *
+     * @param nodeId node to become master
+     * @param deviceIds devices to be mastered by the node
+     * @return future for the completion of the role changes
+     */
+    private CompletableFuture<Void> setMasters(NodeId nodeId, Collection<DeviceId> deviceIds) {
+        if (deviceIds.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return store.setMasters(nodeId, deviceIds)
+                    .thenAccept(events -> events.forEach(this::post));
     }
 
     /**
@@ -424,13 +438,16 @@ public class MastershipManager
             Collections.sort(sorted, (o1, o2) ->
                     ((Integer) (regionalControllerDevices.get(o1)).size())
                             .compareTo((Integer) (regionalControllerDevices.get(o2)).size()));
+            Map<ControllerNode, List<DeviceId>> assignedDevices = new HashMap<>();
             int deviceIndex = 0;
             for (DeviceId deviceId : devicesNotMasteredWithControllers) {
                 ControllerNode cnode = sorted.get(deviceIndex % sorted.size());
-                balanceBucketsFutures.add(setRole(cnode.id(), deviceId, MASTER));
+                assignedDevices.computeIfAbsent(cnode, k -> new ArrayList<>()).add(deviceId);
                 regionalControllerDevices.get(cnode).add(deviceId);
                 deviceIndex++;
             }
+            assignedDevices.forEach((cnode, deviceIds) ->
+                    balanceBucketsFutures.add(setMasters(cnode.id(), deviceIds)));
         }
 
         CompletableFuture<Void> balanceRolesFuture = CompletableFuture.allOf(
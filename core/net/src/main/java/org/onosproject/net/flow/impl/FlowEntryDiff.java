@@ -0,0 +1,168 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.net.flow.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import org.onosproject.net.flow.FlowEntry;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Bulk difference between the flow entries reported by a device and the
+ * flow entries held in the store for that device.
+ * <p>
+ * The stored entries are indexed once in a hash table keyed by the flow
+ * rule identity, after which every reported entry is classified with a
+ * single lookup.
+ * </p>
+ */
+final class FlowEntryDiff {
+
+    private final List<Pair> matched;
+    private final List<Pair> mismatched;
+    private final List<FlowEntry> extraneous;
+    private final List<FlowEntry> missing;
+
+    private FlowEntryDiff(List<Pair> matched, List<Pair> mismatched,
+                          List<FlowEntry> extraneous, List<FlowEntry> missing) {
+        this.matched = matched;
+        this.mismatched = mismatched;
+        this.extraneous = extraneous;
+        this.missing = missing;
+    }
+
+    /**
+     * Computes the difference between the stored and the reported flow entries.
+     *
+     * @param stored   flow entries held in the store
+     * @param reported flow entries reported by the device
+     * @return flow entry difference
+     */
+    static FlowEntryDiff compute(Iterable<FlowEntry> stored, Iterable<FlowEntry> reported) {
+        Map<FlowEntry, FlowEntry> index = Maps.newLinkedHashMap();
+        stored.forEach(f -> index.put(f, f));
+
+        ImmutableList.Builder<Pair> matched = ImmutableList.builder();
+        ImmutableList.Builder<Pair> mismatched = ImmutableList.builder();
+        ImmutableList.Builder<FlowEntry> extraneous = ImmutableList.builder();
+
+        for (FlowEntry rule : reported) {
+            FlowEntry storedRule = index.remove(rule);
+            if (storedRule == null) {
+                extraneous.add(rule);
+            } else if (storedRule.exactMatch(rule)) {
+                matched.add(new Pair(rule, storedRule));
+            } else {
+                mismatched.add(new Pair(rule, storedRule));
+            }
+        }
+
+        return new FlowEntryDiff(matched.build(), mismatched.build(), extraneous.build(),
+                                 ImmutableList.copyOf(index.keySet()));
+    }
+
+    /**
+     * Returns the entries present both on the device and in the store.
+     *
+     * @return list of reported/stored pairs
+     */
+    List<Pair> matched() {
+        return matched;
+    }
+
+    /**
+     * Returns the entries present on the device and in the store under the
+     * same identity, but which differ in their instructions or cookie.
+     *
+     * @return list of reported/stored pairs
+     */
+    List<Pair> mismatched() {
+        return mismatched;
+    }
+
+    /**
+     * Returns the entries present on the device but not in the store.
+     *
+     * @return list of reported flow entries
+     */
+    List<FlowEntry> extraneous() {
+        return extraneous;
+    }
+
+    /**
+     * Returns the entries present in the store but not on the device.
+     *
+     * @return list of stored flow entries
+     */
+    List<FlowEntry> missing() {
+        return missing;
+    }
+
+    /**
+     * Returns the total number of entries in this difference.
+     *
+     * @return number of entries
+     */
+    int size() {
+        return matched.size() + mismatched.size() + extraneous.size() + missing.size();
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("matched", matched.size())
+                .add("mismatched", mismatched.size())
+                .add("extraneous", extraneous.size())
+                .add("missing", missing.size())
+                .toString();
+    }
+
+    /**
+     * Flow entry as reported by the device along with its stored counterpart.
+     */
+    static final class Pair {
+        private final FlowEntry reported;
+        private final FlowEntry stored;
+
+        private Pair(FlowEntry reported, FlowEntry stored) {
+            this.reported = reported;
+            this.stored = stored;
+        }
+
+        /**
+         * Returns the flow entry as reported by the device.
+         *
+         * @return reported flow entry
+         */
+        FlowEntry reported() {
+            return reported;
+        }
+
+        /**
+         * Returns the flow entry as held in the store.
+         *
+         * @return stored flow entry
+         */
+        FlowEntry stored() {
+            return stored;
+        }
+    }
+}
@@ -15,6 +15,7 @@
  */
 package org.onosproject.net.flow.impl;
 
+import com.codahale.metrics.Timer;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
@@ -29,11 +30,13 @@ import org.apache.felix.scr.annotations.Property;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.apache.felix.scr.annotations.Service;
+import org.onlab.metrics.MetricsService;
 import org.onlab.util.Tools;
 import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.core.ApplicationId;
 import org.onosproject.core.CoreService;
 import org.onosproject.core.IdGenerator;
+import org.onosproject.core.MetricsHelper;
 import org.onosproject.mastership.MastershipService;
 import org.onosproject.net.Device;
 import org.onosproject.net.DeviceId;
@@ -76,8 +79,12 @@ import java.util.concurrent.Executors;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Strings.isNullOrEmpty;
+import static org.onlab.metrics.MetricsUtil.startTimer;
+import static org.onlab.metrics.MetricsUtil.stopTimer;
 import static org.onlab.util.Tools.get;
 import static org.onlab.util.Tools.groupedThreads;
+import static org.onosproject.net.flow.FlowRuleBatchEntry.FlowRuleOperation.ADD;
+import static org.onosproject.net.flow.FlowRuleBatchEntry.FlowRuleOperation.REMOVE;
 import static org.onosproject.net.flow.FlowRuleEvent.Type.RULE_ADD_REQUESTED;
 import static org.onosproject.net.flow.FlowRuleEvent.Type.RULE_REMOVE_REQUESTED;
 import static org.onosproject.security.AppGuard.checkPermission;
@@ -95,7 +102,7 @@ import static org.slf4j.LoggerFactory.getLogger;
 public class FlowRuleManager
         extends AbstractListenerProviderRegistry<FlowRuleEvent, FlowRuleListener,
                                                  FlowRuleProvider, FlowRuleProviderService>
-        implements FlowRuleService, FlowRuleProviderRegistry {
+        implements FlowRuleService, FlowRuleProviderRegistry, MetricsHelper {
 
     private final Logger log = getLogger(getClass());
 
@@ -130,6 +137,8 @@ public class FlowRuleManager
 
     private final Map<Long, FlowOperationsProcessor> pendingFlowOperations = new ConcurrentHashMap<>();
 
+    private final Map<DeviceId, Timer> reconciliationTimers = new ConcurrentHashMap<>();
+
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected FlowRuleStore store;
 
@@ -145,6 +154,9 @@ public class FlowRuleManager
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected ComponentConfigService cfgService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected MetricsService metricsService;
+
     @Activate
     public void activate(ComponentContext context) {
         modified(context);
@@ -181,6 +193,25 @@ public class FlowRuleManager
         return defaultProvider;
     }
 
+    @Override
+    public MetricsService metricsService() {
+        return metricsService;
+    }
+
+    /**
+     * Returns the timer tracking flow reconciliation time for the given device.
+     *
+     * @param deviceId device identifier
+     * @return reconciliation timer; null if metrics are not available
+     */
+    private Timer reconciliationTimer(DeviceId deviceId) {
+        if (metricsService == null) {
+            return null;
+        }
+        return reconciliationTimers.computeIfAbsent(
+                deviceId, id -> createTimer("FlowRuleManager", "reconciliation", id.toString()));
+    }
+
     /**
      * Extracts properties from the component configuration context.
      *
@@ -372,11 +403,8 @@ public class FlowRuleManager
         }
 
 
-        private void flowMissing(FlowEntry flowRule) {
+        private void flowMissing(FlowEntry flowRule, List<FlowRuleBatchEntry> corrections) {
             checkNotNull(flowRule, FLOW_RULE_NULL);
-            checkValidity();
-            Device device = deviceService.getDevice(flowRule.deviceId());
-            FlowRuleProvider frp = getProvider(device.providerId());
             FlowRuleEvent event = null;
             switch (flowRule.state()) {
                 case PENDING_REMOVE:
@@ -386,15 +414,7 @@ public class FlowRuleManager
                 case ADDED:
                 case PENDING_ADD:
                     event = store.pendingFlowRule(flowRule);
-                    try {
-                        frp.applyFlowRule(flowRule);
-                    } catch (UnsupportedOperationException e) {
-                        log.warn(e.getMessage());
-                        if (flowRule instanceof DefaultFlowEntry) {
-                            //FIXME modification of "stored" flow entry outside of store
-                            ((DefaultFlowEntry) flowRule).setState(FlowEntry.FlowEntryState.FAILED);
-                        }
-                    }
+                    corrections.add(new FlowRuleBatchEntry(ADD, flowRule));
                     break;
                 default:
                     log.debug("Flow {} has not been installed.", flowRule);
@@ -406,19 +426,16 @@ public class FlowRuleManager
             }
         }
 
-        private void extraneousFlow(FlowRule flowRule) {
+        private void extraneousFlow(FlowRule flowRule, List<FlowRuleBatchEntry> corrections) {
             checkNotNull(flowRule, FLOW_RULE_NULL);
-            checkValidity();
-            FlowRuleProvider frp = getProvider(flowRule.deviceId());
-            frp.removeFlowRule(flowRule);
+            corrections.add(new FlowRuleBatchEntry(REMOVE, flowRule));
             log.debug("Flow {} is on switch but not in store.", flowRule);
         }
 
-        private void flowAdded(FlowEntry flowEntry) {
+        private void flowAdded(FlowEntry flowEntry, FlowEntry storedEntry) {
             checkNotNull(flowEntry, FLOW_RULE_NULL);
-            checkValidity();
 
-            if (checkRuleLiveness(flowEntry, store.getFlowEntry(flowEntry))) {
+            if (checkRuleLiveness(flowEntry, storedEntry)) {
                 FlowRuleEvent event = store.addOrUpdateFlowRule(flowEntry);
                 if (event == null) {
                     log.debug("No flow store event generated.");
@@ -485,45 +502,74 @@ public class FlowRuleManager
 
         private void pushFlowMetricsInternal(DeviceId deviceId, Iterable<FlowEntry> flowEntries,
                                              boolean useMissingFlow) {
-            Map<FlowEntry, FlowEntry> storedRules = Maps.newHashMap();
-            store.getFlowEntries(deviceId).forEach(f -> storedRules.put(f, f));
+            checkValidity();
+            final long start = System.nanoTime();
+            final Timer.Context timer = startTimer(reconciliationTimer(deviceId));
 
-            for (FlowEntry rule : flowEntries) {
+            FlowEntryDiff diff = FlowEntryDiff.compute(store.getFlowEntries(deviceId), flowEntries);
+            List<FlowRuleBatchEntry> corrections = Lists.newArrayList();
+
+            for (FlowEntryDiff.Pair pair : diff.matched()) {
                 try {
-                    FlowEntry storedRule = storedRules.remove(rule);
-                    if (storedRule != null) {
-                        if (storedRule.exactMatch(rule)) {
-                            // we both have the rule, let's update some info then.
-                            flowAdded(rule);
-                        } else {
-                            // the two rules are not an exact match - remove the
-                            // switch's rule and install our rule
-                            extraneousFlow(rule);
-                            flowMissing(storedRule);
-                        }
-                    } else {
-                        // the device has a rule the store does not have
-                        if (!allowExtraneousRules) {
-                            extraneousFlow(rule);
-                        }
-                    }
+                    // we both have the rule, let's update some info then.
+                    flowAdded(pair.reported(), pair.stored());
+                } catch (Exception e) {
+                    log.debug("Can't process added rule {}", e.getMessage());
+                }
+            }
+
+            for (FlowEntryDiff.Pair pair : diff.mismatched()) {
+                try {
+                    // the two rules are not an exact match - remove the
+                    // switch's rule and install our rule
+                    extraneousFlow(pair.reported(), corrections);
+                    flowMissing(pair.stored(), corrections);
                 } catch (Exception e) {
-                    log.debug("Can't process added or extra rule {}", e.getMessage());
+                    log.debug("Can't process mismatched rule {}", e.getMessage());
                 }
             }
 
+            // the device has rules the store does not have
+            if (!allowExtraneousRules) {
+                diff.extraneous().forEach(rule -> extraneousFlow(rule, corrections));
+            }
+
             // DO NOT reinstall
             if (useMissingFlow) {
-                for (FlowEntry rule : storedRules.keySet()) {
+                for (FlowEntry rule : diff.missing()) {
                     try {
                         // there are rules in the store that aren't on the switch
                         log.debug("Adding rule in store, but not on switch {}", rule);
-                        flowMissing(rule);
+                        flowMissing(rule, corrections);
                     } catch (Exception e) {
                         log.debug("Can't add missing flow rule:", e);
                     }
                 }
             }
+
+            if (!corrections.isEmpty()) {
+                applyCorrections(deviceId, corrections);
+            }
+
+            stopTimer(timer);
+            log.debug("Reconciled flows of {} in {} ms: {}; {} corrections",
+                      deviceId, (System.nanoTime() - start) / 1_000_000, diff, corrections.size());
+        }
+
+        // Submits all corrections for a device to its provider as a single batch
+        private void applyCorrections(DeviceId deviceId, List<FlowRuleBatchEntry> corrections) {
+            FlowRuleProvider frp = getProvider(deviceId);
+            try {
+                frp.executeBatch(new FlowRuleBatchOperation(corrections, deviceId,
+                                                            idGenerator.getNewId()));
+            } catch (UnsupportedOperationException e) {
+                log.warn(e.getMessage());
+                corrections.stream()
+                        .filter(c -> c.operator() == ADD && c.target() instanceof DefaultFlowEntry)
+                        //FIXME modification of "stored" flow entry outside of store
+                        .forEach(c -> ((DefaultFlowEntry) c.target())
+                                .setState(FlowEntry.FlowEntryState.FAILED));
+            }
         }
 
         @Override
@@ -588,8 +634,12 @@ public class FlowRuleManager
                     if (fops != null) {
                         fops.satisfy(event.deviceId());
                     }
-                } else {
+                } else if (fops != null) {
                     fops.fail(event.deviceId(), event.result().failedItems());
+                } else {
+                    log.debug("Flow reconciliation batch {} for {} failed: {}",
+                              event.subject().batchId(), event.deviceId(),
+                              event.result().failedItems());
                 }
 
                 break;
@@ -16,6 +16,10 @@
 
 package org.onosproject.net.intent.impl.compiler;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.SetMultimap;
@@ -66,10 +70,13 @@ import org.onosproject.net.intent.LinkCollectionIntent;
 import org.onosproject.net.intent.constraint.EncapsulationConstraint;
 import org.onosproject.net.resource.impl.LabelAllocator;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 import static org.onosproject.net.flow.criteria.Criterion.Type.*;
@@ -96,6 +103,23 @@ public class LinkCollectionCompiler<T> {
      */
     static boolean copyTtl;
 
+    /**
+     * Minimum number of devices for which the per-device
+     * computation is split across the fork-join pool.
+     */
+    private static final int PARALLEL_THRESHOLD = 8;
+
+    /**
+     * Maximum number of memoized forwarding treatments.
+     */
+    private static final int MAX_MEMOIZED_TREATMENTS = 10000;
+
+    /**
+     * Maximum number of intents for which the filtered connect
+     * points are indexed at the same time.
+     */
+    private static final int MAX_INDEXED_INTENTS = 64;
+
     /**
      * The allowed tag criterions.
      */
@@ -187,6 +211,36 @@ public class LinkCollectionCompiler<T> {
      */
     private static final String UNSUPPORTED_INSTRUCTION = "Unknown instruction type";
 
+    /**
+     * Memoized transitions between the states of the packets;
+     * the transitions depend only on the two states, so they are
+     * shared by all the (input point, output point) pairs of all the
+     * intents with the same states.
+     */
+    private final LoadingCache<TransitionKey, TrafficTreatment> treatments = CacheBuilder.newBuilder()
+            .maximumSize(MAX_MEMOIZED_TREATMENTS)
+            .build(new CacheLoader<TransitionKey, TrafficTreatment>() {
+                @Override
+                public TrafficTreatment load(TransitionKey key) {
+                    return computeForwardingTreatment(key.ingress, key.egress, key.ethType, key.copyTtl);
+                }
+            });
+
+    /**
+     * Filtered connect points of the intents being compiled, indexed
+     * by connect point. The intents are compared by identity.
+     */
+    private final LoadingCache<LinkCollectionIntent, Map<ConnectPoint, FilteredConnectPoint>> filteredPoints =
+            CacheBuilder.newBuilder()
+                    .weakKeys()
+                    .maximumSize(MAX_INDEXED_INTENTS)
+                    .build(new CacheLoader<LinkCollectionIntent, Map<ConnectPoint, FilteredConnectPoint>>() {
+                        @Override
+                        public Map<ConnectPoint, FilteredConnectPoint> load(LinkCollectionIntent intent) {
+                            return indexFilteredConnectPoints(intent);
+                        }
+                    });
+
     /**
      * Creates the flows representations. This default implementation does
      * nothing. Subclasses should override this method to create their
@@ -207,6 +261,55 @@ public class LinkCollectionCompiler<T> {
         return null;
     }
 
+    /**
+     * Creates the flows representations of all the devices crossed by the
+     * intent. The devices are independent of each other, so for large
+     * intents the work is split across the given fork-join pool.
+     *
+     * @param intent the intent to compile
+     * @param inputPorts the input ports of each device
+     * @param outputPorts the output ports of each device
+     * @param labels the labels for the label switching hop by hop
+     * @param pool the pool to use for large intents
+     * @return the flows representations of each device, in device order
+     */
+    protected Map<DeviceId, List<T>> createRulesPerDevice(LinkCollectionIntent intent,
+                                                          SetMultimap<DeviceId, PortNumber> inputPorts,
+                                                          SetMultimap<DeviceId, PortNumber> outputPorts,
+                                                          Map<ConnectPoint, Identifier<?>> labels,
+                                                          ForkJoinPool pool) {
+        List<DeviceId> devices = Lists.newArrayList(outputPorts.keySet());
+        try {
+            if (pool == null || devices.size() < PARALLEL_THRESHOLD) {
+                Map<DeviceId, List<T>> rules = new LinkedHashMap<>();
+                devices.forEach(deviceId -> rules.put(deviceId, createRules(intent,
+                                                                            deviceId,
+                                                                            inputPorts.get(deviceId),
+                                                                            outputPorts.get(deviceId),
+                                                                            labels)));
+                return rules;
+            }
+            /*
+             * The parallel stream runs in the given pool because it is
+             * started from a task of that pool.
+             */
+            List<List<T>> deviceRules = pool.submit(() -> devices.parallelStream()
+                    .map(deviceId -> createRules(intent,
+                                                 deviceId,
+                                                 inputPorts.get(deviceId),
+                                                 outputPorts.get(deviceId),
+                                                 labels))
+                    .collect(Collectors.toList())).join();
+            Map<DeviceId, List<T>> rules = new LinkedHashMap<>();
+            for (int i = 0; i < devices.size(); i++) {
+                rules.put(devices.get(i), deviceRules.get(i));
+            }
+            return rules;
+        } finally {
+            filteredPoints.invalidate(intent);
+        }
+    }
+
     /**
      * Helper method to handle the different scenario (not encap, single hop, encap).
      *
@@ -960,12 +1063,23 @@ public class LinkCollectionCompiler<T> {
     private Optional<FilteredConnectPoint> getFilteredConnectPointFromIntent(DeviceId deviceId,
                                                                              PortNumber portNumber,
                                                                              LinkCollectionIntent intent) {
+        return Optional.ofNullable(filteredPoints.getUnchecked(intent)
+                                           .get(new ConnectPoint(deviceId, portNumber)));
+    }
+
+    /**
+     * Indexes the filtered connect points of the intent by connect point.
+     * The ingress points take precedence over the egress points.
+     *
+     * @param intent source intent
+     * @return filtered connect points by connect point
+     */
+    private Map<ConnectPoint, FilteredConnectPoint> indexFilteredConnectPoints(LinkCollectionIntent intent) {
         Set<FilteredConnectPoint> filteredConnectPoints =
                 Sets.union(intent.filteredIngressPoints(), intent.filteredEgressPoints());
-        return filteredConnectPoints.stream()
-                .filter(port -> port.connectPoint().deviceId().equals(deviceId))
-                .filter(port -> port.connectPoint().port().equals(portNumber))
-                .findFirst();
+        Map<ConnectPoint, FilteredConnectPoint> index = new LinkedHashMap<>();
+        filteredConnectPoints.forEach(point -> index.putIfAbsent(point.connectPoint(), point));
+        return ImmutableMap.copyOf(index);
     }
 
     /**
@@ -995,7 +1109,22 @@ public class LinkCollectionCompiler<T> {
     private TrafficTreatment forwardingTreatment(TrafficSelector ingress,
                                                  TrafficSelector egress,
                                                  EthType ethType) {
+        return treatments.getUnchecked(new TransitionKey(ingress, egress, ethType, copyTtl));
+    }
 
+    /**
+     * Computes the treatment of a transition between two states.
+     *
+     * @param ingress ingress selector for the intent
+     * @param egress egress selector for the intent
+     * @param ethType the ethertype to use in mpls_pop
+     * @param copyTtl whether or not to copy the ttl
+     * @return the treatment of the transition
+     */
+    private TrafficTreatment computeForwardingTreatment(TrafficSelector ingress,
+                                                        TrafficSelector egress,
+                                                        EthType ethType,
+                                                        boolean copyTtl) {
 
         if (ingress.equals(egress)) {
             return DefaultTrafficTreatment.emptyTreatment();
@@ -1380,4 +1509,43 @@ public class LinkCollectionCompiler<T> {
         return EthType.EtherType.IPV4.ethType();
     }
 
+    /**
+     * Key of a memoized transition between two states.
+     */
+    private static final class TransitionKey {
+
+        private final TrafficSelector ingress;
+        private final TrafficSelector egress;
+        private final EthType ethType;
+        private final boolean copyTtl;
+
+        private TransitionKey(TrafficSelector ingress, TrafficSelector egress,
+                              EthType ethType, boolean copyTtl) {
+            this.ingress = ingress;
+            this.egress = egress;
+            this.ethType = ethType;
+            this.copyTtl = copyTtl;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(ingress, egress, ethType, copyTtl);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof TransitionKey)) {
+                return false;
+            }
+            TransitionKey that = (TransitionKey) obj;
+            return copyTtl == that.copyTtl
+                    && Objects.equals(ingress, that.ingress)
+                    && Objects.equals(egress, that.egress)
+                    && Objects.equals(ethType, that.ethType);
+        }
+    }
+
 }
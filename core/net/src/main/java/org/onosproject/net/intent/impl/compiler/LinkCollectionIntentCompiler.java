@@ -54,6 +54,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 
 import static org.onosproject.net.flow.instructions.Instruction.Type.NOACTION;
 
@@ -82,6 +84,8 @@ public class LinkCollectionIntentCompiler
 
     private ApplicationId appId;
 
+    private ForkJoinPool compilerPool;
+
     @Activate
     public void activate() {
         appId = coreService.registerApplication("org.onosproject.net.intent");
@@ -89,11 +93,21 @@ public class LinkCollectionIntentCompiler
         if (labelAllocator == null) {
             labelAllocator = new LabelAllocator(resourceService);
         }
+        compilerPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(),
+                                        pool -> {
+                                            ForkJoinWorkerThread thread = ForkJoinPool
+                                                    .defaultForkJoinWorkerThreadFactory.newThread(pool);
+                                            thread.setName("onos-link-collection-compiler-" +
+                                                                   thread.getPoolIndex());
+                                            return thread;
+                                        },
+                                        null, false);
     }
 
     @Deactivate
     public void deactivate() {
         registrator.unregisterCompiler(LinkCollectionIntent.class, false);
+        compilerPool.shutdown();
     }
 
     @Override
@@ -114,15 +128,9 @@ public class LinkCollectionIntentCompiler
         }
 
         List<FlowRule> rules = new ArrayList<>();
-        for (DeviceId deviceId: outputPorts.keySet()) {
-            rules.addAll(createRules(
-                    intent,
-                    deviceId,
-                    inputPorts.get(deviceId),
-                    outputPorts.get(deviceId),
-                    labels)
-            );
-        }
+        createRulesPerDevice(intent, inputPorts, outputPorts, labels, compilerPool)
+                .values()
+                .forEach(rules::addAll);
         return Collections.singletonList(new FlowRuleIntent(appId, intent.key(), rules, intent.resources()));
     }
 
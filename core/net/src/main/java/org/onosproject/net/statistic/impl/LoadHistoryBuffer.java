@@ -0,0 +1,99 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.statistic.impl;
+
+import org.onosproject.net.statistic.LoadHistory;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Fixed-size ring of cumulative byte and packet counter samples. Once full,
+ * every new sample overwrites the oldest one, so the memory held per tracked
+ * entity is bounded by the capacity.
+ */
+final class LoadHistoryBuffer {
+
+    private final long[] times;
+    private final long[] bytes;
+    private final long[] packets;
+
+    // index of the slot to be written next
+    private int head;
+    private int count;
+
+    /**
+     * Creates a new buffer holding up to the given number of samples.
+     *
+     * @param capacity maximum number of samples
+     */
+    LoadHistoryBuffer(int capacity) {
+        checkArgument(capacity > 1, "Capacity must be greater than 1");
+        this.times = new long[capacity];
+        this.bytes = new long[capacity];
+        this.packets = new long[capacity];
+    }
+
+    /**
+     * Records a new sample. Samples older than the most recent one are
+     * ignored.
+     *
+     * @param time    sample timestamp in milliseconds
+     * @param bytes   cumulative byte counter
+     * @param packets cumulative packet counter
+     */
+    synchronized void record(long time, long bytes, long packets) {
+        if (count > 0 && time < times[previous(head)]) {
+            return;
+        }
+        this.times[head] = time;
+        this.bytes[head] = bytes;
+        this.packets[head] = packets;
+        head = (head + 1) % times.length;
+        count = Math.min(count + 1, times.length);
+    }
+
+    /**
+     * Returns the maximum number of samples held.
+     *
+     * @return capacity
+     */
+    int capacity() {
+        return times.length;
+    }
+
+    /**
+     * Returns an immutable copy of the samples, oldest first.
+     *
+     * @return load history
+     */
+    synchronized LoadHistory snapshot() {
+        long[] t = new long[count];
+        long[] b = new long[count];
+        long[] p = new long[count];
+        int start = (head - count + times.length) % times.length;
+        for (int i = 0; i < count; i++) {
+            int slot = (start + i) % times.length;
+            t[i] = times[slot];
+            b[i] = bytes[slot];
+            p[i] = packets[slot];
+        }
+        return new LoadHistory(t, b, p);
+    }
+
+    private int previous(int slot) {
+        return (slot - 1 + times.length) % times.length;
+    }
+}
@@ -19,12 +19,16 @@ import com.google.common.base.MoreObjects;
 import com.google.common.base.Predicate;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Deactivate;
+import org.apache.felix.scr.annotations.Modified;
+import org.apache.felix.scr.annotations.Property;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.apache.felix.scr.annotations.Service;
+import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.core.ApplicationId;
 import org.onosproject.core.GroupId;
 import org.onosproject.net.ConnectPoint;
@@ -32,22 +36,36 @@ import org.onosproject.net.Link;
 import org.onosproject.net.Path;
 
 import org.onosproject.net.flow.FlowEntry;
+import org.onosproject.net.flow.FlowId;
 import org.onosproject.net.flow.FlowRule;
 import org.onosproject.net.flow.FlowRuleEvent;
 import org.onosproject.net.flow.FlowRuleListener;
 import org.onosproject.net.flow.FlowRuleService;
+import org.onosproject.net.link.LinkService;
 import org.onosproject.net.statistic.DefaultLoad;
 import org.onosproject.net.statistic.Load;
+import org.onosproject.net.statistic.LoadHistory;
 import org.onosproject.net.statistic.StatisticService;
 import org.onosproject.net.statistic.StatisticStore;
+import org.osgi.service.component.ComponentContext;
 import org.slf4j.Logger;
 
 import java.util.Collections;
+import java.util.Dictionary;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Strings.isNullOrEmpty;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static org.onlab.util.Tools.get;
+import static org.onlab.util.Tools.groupedThreads;
 import static org.slf4j.LoggerFactory.getLogger;
 import static org.onosproject.security.AppGuard.checkPermission;
 import static org.onosproject.security.AppPermission.Type.*;
@@ -68,11 +86,35 @@ public class StatisticManager implements StatisticService {
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected StatisticStore statisticStore;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected LinkService linkService;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected ComponentConfigService cfgService;
+
+    private static final int DEFAULT_HISTORY_SIZE = 60;
+    @Property(name = "loadHistorySize", intValue = DEFAULT_HISTORY_SIZE,
+            label = "Number of load samples retained per link and per flow")
+    private int loadHistorySize = DEFAULT_HISTORY_SIZE;
+
+    private static final int DEFAULT_HISTORY_PERIOD = 10;
+    @Property(name = "loadHistoryPeriod", intValue = DEFAULT_HISTORY_PERIOD,
+            label = "Period (in seconds) for sampling link load into the history")
+    private int loadHistoryPeriod = DEFAULT_HISTORY_PERIOD;
 
     private final InternalFlowRuleListener listener = new InternalFlowRuleListener();
 
+    private final Map<ConnectPoint, LoadHistoryBuffer> linkHistory = new ConcurrentHashMap<>();
+    private final Map<FlowId, LoadHistoryBuffer> flowHistory = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService executor =
+            newSingleThreadScheduledExecutor(groupedThreads("onos/statistic", "load-history", log));
+    private ScheduledFuture<?> sampler;
+
     @Activate
-    public void activate() {
+    public void activate(ComponentContext context) {
+        cfgService.registerProperties(getClass());
+        modified(context);
         flowRuleService.addListener(listener);
         log.info("Started");
 
@@ -80,10 +122,49 @@ public class StatisticManager implements StatisticService {
 
     @Deactivate
     public void deactivate() {
+        cfgService.unregisterProperties(getClass(), false);
         flowRuleService.removeListener(listener);
+        executor.shutdownNow();
+        linkHistory.clear();
+        flowHistory.clear();
         log.info("Stopped");
     }
 
+    @Modified
+    public void modified(ComponentContext context) {
+        if (context != null) {
+            Dictionary<?, ?> properties = context.getProperties();
+            int newHistorySize = getInteger(properties, "loadHistorySize", loadHistorySize);
+            if (newHistorySize > 1 && newHistorySize != loadHistorySize) {
+                loadHistorySize = newHistorySize;
+                // existing rings have the old capacity; start over
+                linkHistory.clear();
+                flowHistory.clear();
+            }
+            int newHistoryPeriod = getInteger(properties, "loadHistoryPeriod", loadHistoryPeriod);
+            if (newHistoryPeriod > 0) {
+                loadHistoryPeriod = newHistoryPeriod;
+            }
+        }
+
+        if (sampler != null) {
+            sampler.cancel(false);
+        }
+        sampler = executor.scheduleAtFixedRate(this::sampleLinks, loadHistoryPeriod,
+                                               loadHistoryPeriod, TimeUnit.SECONDS);
+        log.info("Settings: loadHistorySize={}, loadHistoryPeriod={}",
+                 loadHistorySize, loadHistoryPeriod);
+    }
+
+    private static int getInteger(Dictionary<?, ?> properties, String name, int defaultValue) {
+        try {
+            String s = get(properties, name);
+            return isNullOrEmpty(s) ? defaultValue : Integer.parseInt(s.trim());
+        } catch (NumberFormatException | ClassCastException e) {
+            return defaultValue;
+        }
+    }
+
     @Override
     public Load load(Link link) {
         checkPermission(STATISTIC_READ);
@@ -157,6 +238,29 @@ public class StatisticManager implements StatisticService {
         return minLink;
     }
 
+    @Override
+    public LoadHistory loadHistory(Link link) {
+        checkPermission(STATISTIC_READ);
+
+        return loadHistory(link.src());
+    }
+
+    @Override
+    public LoadHistory loadHistory(ConnectPoint connectPoint) {
+        checkPermission(STATISTIC_READ);
+
+        LoadHistoryBuffer buffer = linkHistory.get(connectPoint);
+        return buffer == null ? LoadHistory.empty() : buffer.snapshot();
+    }
+
+    @Override
+    public LoadHistory loadHistory(FlowRule rule) {
+        checkPermission(STATISTIC_READ);
+
+        LoadHistoryBuffer buffer = flowHistory.get(rule.id());
+        return buffer == null ? LoadHistory.empty() : buffer.snapshot();
+    }
+
     @Override
     public FlowRule highestHitter(ConnectPoint connectPoint) {
         checkPermission(STATISTIC_READ);
@@ -231,6 +335,34 @@ public class StatisticManager implements StatisticService {
         }
     }
 
+    /**
+     * Records the aggregate counters of every link source port into the
+     * link load history, dropping the history of ports no longer in use.
+     */
+    private void sampleLinks() {
+        try {
+            long now = System.currentTimeMillis();
+            Set<ConnectPoint> sampled = Sets.newHashSet();
+            linkService.getLinks().forEach(link -> {
+                ConnectPoint cp = link.src();
+                if (!sampled.add(cp)) {
+                    return;
+                }
+                long bytes = 0;
+                long packets = 0;
+                for (FlowEntry f : getCurrentStatistic(cp)) {
+                    bytes += f.bytes();
+                    packets += f.packets();
+                }
+                linkHistory.computeIfAbsent(cp, k -> new LoadHistoryBuffer(loadHistorySize))
+                        .record(now, bytes, packets);
+            });
+            linkHistory.keySet().retainAll(sampled);
+        } catch (Exception e) {
+            log.warn("Unable to sample link load", e);
+        }
+    }
+
     // TODO: make aggregation function generic by passing a function
     // (applying Java 8 Stream API?)
     /**
@@ -258,7 +390,10 @@ public class StatisticManager implements StatisticService {
                 case RULE_ADDED:
                 case RULE_UPDATED:
                     if (rule instanceof FlowEntry) {
-                        statisticStore.addOrUpdateStatistic((FlowEntry) rule);
+                        FlowEntry entry = (FlowEntry) rule;
+                        statisticStore.addOrUpdateStatistic(entry);
+                        flowHistory.computeIfAbsent(entry.id(), k -> new LoadHistoryBuffer(loadHistorySize))
+                                .record(System.currentTimeMillis(), entry.bytes(), entry.packets());
                     }
                     break;
                 case RULE_ADD_REQUESTED:
@@ -268,6 +403,7 @@ public class StatisticManager implements StatisticService {
                     statisticStore.removeFromStatistics(rule);
                     break;
                 case RULE_REMOVED:
+                    flowHistory.remove(rule.id());
                     break;
                 default:
                     log.warn("Unknown flow rule event {}", event);
@@ -15,12 +15,15 @@
  */
 package org.onosproject.cluster.impl;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
 import org.easymock.EasyMock;
 import org.junit.After;
 import org.junit.Before;
@@ -33,6 +36,7 @@ import org.onosproject.cluster.ControllerNode;
 import org.onosproject.cluster.DefaultControllerNode;
 import org.onosproject.cluster.NodeId;
 import org.onosproject.common.event.impl.TestEventDispatcher;
+import org.onosproject.mastership.MastershipEvent;
 import org.onosproject.mastership.MastershipService;
 import org.onosproject.mastership.MastershipStore;
 import org.onosproject.mastership.MastershipTermService;
@@ -96,6 +100,7 @@ public class MastershipManagerTest {
     private TestRegionManager regionManager;
     private RegionStore regionStore;
     private TestClusterService testClusterService;
+    private TestSimpleMastershipStore testStore;
 
     @Before
     public void setUp() throws Exception {
@@ -104,7 +109,8 @@ public class MastershipManagerTest {
         injectEventDispatcher(mgr, new TestEventDispatcher());
         testClusterService = new TestClusterService();
         mgr.clusterService = testClusterService;
-        mgr.store = new TestSimpleMastershipStore(mgr.clusterService);
+        testStore = new TestSimpleMastershipStore(mgr.clusterService);
+        mgr.store = testStore;
         regionStore = new DistributedRegionStore();
         TestUtils.setField(regionStore, "storageService", new TestStorageService());
         TestUtils.callMethod(regionStore, "activate",
@@ -217,6 +223,21 @@ public class MastershipManagerTest {
         assertEquals("inconsistent terms: ", 3, ts.getMastershipTerm(DEV_MASTER).termNumber());
     }
 
+    @Test
+    public void balanceInBatches() {
+        testClusterService.put(CNODE1, ControllerNode.State.ACTIVE);
+        testClusterService.put(CNODE2, ControllerNode.State.ACTIVE);
+        Set<DeviceId> deviceIds = ImmutableSet.of(DID1, DID2, DEV_MASTER, DEV_OTHER);
+        deviceIds.forEach(deviceId -> mgr.setRole(NID1, deviceId, MASTER));
+
+        mgr.balanceRoles();
+        // the two devices handed over are moved in a single request
+        assertEquals("wrong number of batches:", 1, testStore.setMastersCalls.size());
+        assertEquals("wrong batch size:", 2, testStore.setMastersCalls.get(0).size());
+        assertEquals("wrong device count:", 2, mgr.getDevicesOf(NID2).size());
+        checkDeviceMasters(deviceIds, ImmutableSet.of(NID1, NID2));
+    }
+
     @Test
     public void balanceWithRegion1() {
         //set up region - 2 sets of masters with 1 node in each
@@ -367,9 +388,17 @@ public class MastershipManagerTest {
     private final class TestSimpleMastershipStore extends SimpleMastershipStore
             implements MastershipStore {
 
+        private final List<Collection<DeviceId>> setMastersCalls = Lists.newArrayList();
+
         public TestSimpleMastershipStore(ClusterService clusterService) {
             super.clusterService = clusterService;
         }
+
+        @Override
+        public CompletableFuture<List<MastershipEvent>> setMasters(NodeId nodeId, Collection<DeviceId> deviceIds) {
+            setMastersCalls.add(ImmutableList.copyOf(deviceIds));
+            return super.setMasters(nodeId, deviceIds);
+        }
     }
 
     private class TestRegionManager extends RegionManager {
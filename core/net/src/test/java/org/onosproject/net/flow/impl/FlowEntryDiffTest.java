@@ -0,0 +1,83 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.net.flow.impl;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import org.onosproject.core.DefaultApplicationId;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.flow.DefaultFlowEntry;
+import org.onosproject.net.flow.DefaultFlowRule;
+import org.onosproject.net.flow.DefaultTrafficSelector;
+import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.flow.FlowEntry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Unit tests for the flow entry difference computation.
+ */
+public class FlowEntryDiffTest {
+
+    private static final DeviceId DID = DeviceId.deviceId("of:001");
+
+    private FlowEntry entry(int inPort, int outPort) {
+        return new DefaultFlowEntry(DefaultFlowRule.builder()
+                .forDevice(DID)
+                .withSelector(DefaultTrafficSelector.builder()
+                                      .matchInPort(PortNumber.portNumber(inPort)).build())
+                .withTreatment(DefaultTrafficTreatment.builder()
+                                       .setOutput(PortNumber.portNumber(outPort)).build())
+                .withPriority(10)
+                .fromApp(new DefaultApplicationId(1, "test"))
+                .makePermanent()
+                .build());
+    }
+
+    @Test
+    public void empty() {
+        FlowEntryDiff diff = FlowEntryDiff.compute(ImmutableList.of(), ImmutableList.of());
+        assertEquals("incorrect size", 0, diff.size());
+    }
+
+    @Test
+    public void classification() {
+        FlowEntry stored1 = entry(1, 2);
+        FlowEntry stored2 = entry(2, 3);
+        FlowEntry stored3 = entry(3, 4);
+        FlowEntry reported1 = entry(1, 2);
+        FlowEntry reported2 = entry(2, 4);
+        FlowEntry reported4 = entry(4, 5);
+
+        FlowEntryDiff diff = FlowEntryDiff.compute(ImmutableList.of(stored1, stored2, stored3),
+                                                   ImmutableList.of(reported1, reported2, reported4));
+
+        assertEquals("incorrect matched", 1, diff.matched().size());
+        assertSame("incorrect reported", reported1, diff.matched().get(0).reported());
+        assertSame("incorrect stored", stored1, diff.matched().get(0).stored());
+
+        assertEquals("incorrect mismatched", 1, diff.mismatched().size());
+        assertSame("incorrect reported", reported2, diff.mismatched().get(0).reported());
+        assertSame("incorrect stored", stored2, diff.mismatched().get(0).stored());
+
+        assertEquals("incorrect extraneous", ImmutableList.of(reported4), diff.extraneous());
+        assertEquals("incorrect missing", ImmutableList.of(stored3), diff.missing());
+        assertEquals("incorrect size", 4, diff.size());
+    }
+}
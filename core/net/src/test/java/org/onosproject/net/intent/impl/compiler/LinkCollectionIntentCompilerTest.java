@@ -37,6 +37,7 @@ import org.onosproject.net.flow.TrafficTreatment;
 import org.onosproject.net.flow.criteria.MplsCriterion;
 import org.onosproject.net.flow.criteria.PortCriterion;
 import org.onosproject.net.flow.criteria.VlanIdCriterion;
+import org.onosproject.net.flow.instructions.Instructions;
 import org.onosproject.net.intent.FlowRuleIntent;
 import org.onosproject.net.intent.Intent;
 import org.onosproject.net.intent.IntentExtensionService;
@@ -1112,4 +1113,62 @@ public class LinkCollectionIntentCompilerTest extends AbstractLinkCollectionTest
 
     }
 
+    /**
+     * Multi point to single point case spanning enough devices to
+     * split the computation across the compiler pool. Scenario is the follow:
+     *
+     * -3 of1 2-1 of2 2-1 ... 2-1 of10 2-
+     *            3               3
+     *
+     * We test that the rules of every device are computed and
+     * that they forward to the egress.
+     */
+    @Test
+    public void testMpToSpLongChain() {
+        int numDevices = 10;
+        ImmutableSet.Builder<Link> chain = ImmutableSet.builder();
+        ImmutableSet.Builder<ConnectPoint> ingressPoints = ImmutableSet.builder();
+        for (int i = 1; i < numDevices; i++) {
+            chain.add(DefaultLink.builder()
+                              .providerId(PID)
+                              .src(connectPoint("of" + i, 2))
+                              .dst(connectPoint("of" + (i + 1), 1))
+                              .type(DIRECT)
+                              .build());
+            ingressPoints.add(connectPoint("of" + i, 3));
+        }
+
+        LinkCollectionIntent chainIntent = LinkCollectionIntent.builder()
+                .appId(APP_ID)
+                .selector(selector)
+                .treatment(treatment)
+                .links(chain.build())
+                .ingressPoints(ingressPoints.build())
+                .egressPoints(ImmutableSet.of(connectPoint("of" + numDevices, 2)))
+                .build();
+
+        sut.activate();
+
+        List<Intent> compiled = sut.compile(chainIntent, Collections.emptyList());
+        assertThat(compiled, hasSize(1));
+
+        Collection<FlowRule> rules = ((FlowRuleIntent) compiled.get(0)).flowRules();
+        // one rule per ingress point and one per link
+        assertThat(rules, hasSize(2 * (numDevices - 1)));
+
+        for (int i = 1; i <= numDevices; i++) {
+            ConnectPoint egress = connectPoint("of" + i, 2);
+            Set<FlowRule> deviceRules = rules.stream()
+                    .filter(rule -> rule.deviceId().equals(egress.deviceId()))
+                    .collect(Collectors.toSet());
+            assertThat(deviceRules, hasSize(i == 1 || i == numDevices ? 1 : 2));
+            deviceRules.forEach(rule -> assertThat(
+                    rule.treatment().immediate().get(rule.treatment().immediate().size() - 1),
+                    is(Instructions.createOutput(egress.port()))
+            ));
+        }
+
+        sut.deactivate();
+    }
+
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.statistic.impl;
+
+import org.junit.Test;
+import org.onosproject.net.statistic.LoadHistory;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Unit tests for the load history ring buffer.
+ */
+public class LoadHistoryBufferTest {
+
+    /**
+     * Tests that samples are returned oldest first before wrapping.
+     */
+    @Test
+    public void testPartial() {
+        LoadHistoryBuffer buffer = new LoadHistoryBuffer(4);
+        buffer.record(1, 10, 1);
+        buffer.record(2, 20, 2);
+
+        LoadHistory history = buffer.snapshot();
+        assertThat(history.size(), is(2));
+        assertThat(history.time(0), is(1L));
+        assertThat(history.bytes(1), is(20L));
+        assertThat(history.packets(1), is(2L));
+    }
+
+    /**
+     * Tests that the oldest samples are overwritten once the buffer is full.
+     */
+    @Test
+    public void testWrap() {
+        LoadHistoryBuffer buffer = new LoadHistoryBuffer(3);
+        for (int i = 1; i <= 5; i++) {
+            buffer.record(i, i * 10, i);
+        }
+
+        LoadHistory history = buffer.snapshot();
+        assertThat(history.size(), is(3));
+        assertThat(history.time(0), is(3L));
+        assertThat(history.time(1), is(4L));
+        assertThat(history.time(2), is(5L));
+        assertThat(history.bytes(2), is(50L));
+    }
+
+    /**
+     * Tests that out of order samples are ignored.
+     */
+    @Test
+    public void testOutOfOrder() {
+        LoadHistoryBuffer buffer = new LoadHistoryBuffer(3);
+        buffer.record(5, 50, 5);
+        buffer.record(4, 40, 4);
+
+        assertThat(buffer.snapshot().size(), is(1));
+    }
+}
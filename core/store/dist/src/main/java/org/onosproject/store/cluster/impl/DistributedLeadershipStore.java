@@ -18,12 +18,14 @@ package org.onosproject.store.cluster.impl;
 import static org.onlab.util.Tools.groupedThreads;
 import static org.slf4j.LoggerFactory.getLogger;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
@@ -99,7 +101,8 @@ public class DistributedLeadershipStore
         // Notify mastership Service of disconnect and reconnect
         if (status == Status.ACTIVE) {
             // Service Restored
-            localLeaderCache.forEach((topic, leadership) -> leaderElector.run(topic, localNodeId));
+            // Re-register all held leaderships in one batch per partition
+            leaderElector.runAll(ImmutableSet.copyOf(localLeaderCache.keySet()), localNodeId);
             leaderElector.getLeaderships().forEach((topic, leadership) ->
                     notifyDelegate(new LeadershipEvent(LeadershipEvent.Type.SERVICE_RESTORED, leadership)));
         } else if (status == Status.SUSPENDED) {
@@ -145,6 +148,11 @@ public class DistributedLeadershipStore
         leaderElector.withdraw(topic);
     }
 
+    @Override
+    public void removeRegistrations(Collection<String> topics) {
+        leaderElector.withdrawAll(topics);
+    }
+
     @Override
     public void removeRegistration(NodeId nodeId) {
         leaderElector.evict(nodeId);
@@ -155,11 +163,21 @@ public class DistributedLeadershipStore
         return leaderElector.anoint(topic, toNodeId);
     }
 
+    @Override
+    public Map<String, Boolean> moveLeaderships(Map<String, NodeId> transfers) {
+        return leaderElector.anointAll(transfers);
+    }
+
     @Override
     public boolean makeTopCandidate(String topic, NodeId nodeId) {
         return leaderElector.promote(topic, nodeId);
     }
 
+    @Override
+    public Map<String, Boolean> makeTopCandidates(Map<String, NodeId> promotions) {
+        return leaderElector.promoteAll(promotions);
+    }
+
     @Override
     public Leadership getLeadership(String topic) {
         return leaderElector.getLeadership(topic);
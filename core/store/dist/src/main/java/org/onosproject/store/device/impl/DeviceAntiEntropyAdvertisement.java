@@ -15,45 +15,92 @@
  */
 package org.onosproject.store.device.impl;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.Map;
 
 import org.onosproject.cluster.NodeId;
 import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
 import org.onosproject.store.Timestamp;
 
 
 /**
  * Device Advertisement message.
+ * <p>
+ * An advertisement only covers the slice of devices selected by
+ * {@link #covers(DeviceId)}, so that the devices are advertised over several
+ * rounds rather than all at once. Port timestamps are grouped per device
+ * fragment instead of repeating the device and provider for every port.
+ * </p>
  */
 public class DeviceAntiEntropyAdvertisement {
 
     private final NodeId sender;
+    private final int slice;
+    private final int slices;
     private final Map<DeviceFragmentId, Timestamp> deviceFingerPrints;
-    private final Map<PortFragmentId, Timestamp> portFingerPrints;
+    private final Map<DeviceFragmentId, Map<PortNumber, Timestamp>> portFingerPrints;
     private final Map<DeviceId, Timestamp> offline;
 
 
     public DeviceAntiEntropyAdvertisement(NodeId sender,
+                int slice,
+                int slices,
                 Map<DeviceFragmentId, Timestamp> devices,
-                Map<PortFragmentId, Timestamp> ports,
+                Map<DeviceFragmentId, Map<PortNumber, Timestamp>> ports,
                 Map<DeviceId, Timestamp> offline) {
+        checkArgument(slices > 0 && slice >= 0 && slice < slices, "Invalid slice");
         this.sender = checkNotNull(sender);
+        this.slice = slice;
+        this.slices = slices;
         this.deviceFingerPrints = checkNotNull(devices);
         this.portFingerPrints = checkNotNull(ports);
         this.offline = checkNotNull(offline);
     }
 
+    /**
+     * Returns whether the given device belongs to the slice of devices
+     * {@code slice} out of {@code slices}.
+     *
+     * @param deviceId device identifier
+     * @param slice    slice index
+     * @param slices   number of slices
+     * @return true if the device belongs to the slice
+     */
+    public static boolean inSlice(DeviceId deviceId, int slice, int slices) {
+        // hash of the string form, which is stable across instances
+        return Math.floorMod(deviceId.toString().hashCode(), slices) == slice;
+    }
+
     public NodeId sender() {
         return sender;
     }
 
+    public int slice() {
+        return slice;
+    }
+
+    public int slices() {
+        return slices;
+    }
+
+    /**
+     * Returns whether the given device is covered by this advertisement.
+     *
+     * @param deviceId device identifier
+     * @return true if the device is covered
+     */
+    public boolean covers(DeviceId deviceId) {
+        return inSlice(deviceId, slice, slices);
+    }
+
     public Map<DeviceFragmentId, Timestamp> deviceFingerPrints() {
         return deviceFingerPrints;
     }
 
-    public Map<PortFragmentId, Timestamp> ports() {
+    public Map<DeviceFragmentId, Map<PortNumber, Timestamp>> ports() {
         return portFingerPrints;
     }
 
@@ -65,6 +112,8 @@ public class DeviceAntiEntropyAdvertisement {
     @SuppressWarnings("unused")
     private DeviceAntiEntropyAdvertisement() {
         this.sender = null;
+        this.slice = 0;
+        this.slices = 1;
         this.deviceFingerPrints = null;
         this.portFingerPrints = null;
         this.offline = null;
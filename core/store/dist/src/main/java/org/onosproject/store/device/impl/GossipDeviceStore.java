@@ -17,8 +17,10 @@ package org.onosproject.store.device.impl;
 
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.MoreExecutors;
 import org.apache.commons.lang3.RandomUtils;
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
@@ -28,6 +30,7 @@ import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.apache.felix.scr.annotations.Service;
 import org.onlab.packet.ChassisId;
 import org.onlab.util.KryoNamespace;
+import org.onlab.util.PredictableExecutor;
 import org.onosproject.cluster.ClusterService;
 import org.onosproject.cluster.ControllerNode;
 import org.onosproject.cluster.NodeId;
@@ -67,15 +70,8 @@ import org.onosproject.store.Timestamp;
 import org.onosproject.store.cluster.messaging.ClusterCommunicationService;
 import org.onosproject.store.cluster.messaging.MessageSubject;
 import org.onosproject.store.impl.Timestamped;
-import org.onosproject.store.serializers.KryoNamespaces;
 import org.onosproject.store.serializers.StoreSerializer;
 import org.onosproject.store.serializers.custom.DistributedStoreSerializers;
-import org.onosproject.store.service.EventuallyConsistentMap;
-import org.onosproject.store.service.EventuallyConsistentMapEvent;
-import org.onosproject.store.service.EventuallyConsistentMapListener;
-import org.onosproject.store.service.MultiValuedTimestamp;
-import org.onosproject.store.service.StorageService;
-import org.onosproject.store.service.WallClockTimestamp;
 import org.slf4j.Logger;
 
 import java.io.IOException;
@@ -96,7 +92,10 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -104,6 +103,7 @@ import static com.google.common.base.Predicates.notNull;
 import static com.google.common.base.Verify.verify;
 import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static org.onlab.util.PredictableExecutor.newPredictableExecutor;
 import static org.onlab.util.Tools.groupedThreads;
 import static org.onlab.util.Tools.minPriority;
 import static org.onosproject.cluster.ControllerNodeToNodeId.toNodeId;
@@ -120,9 +120,9 @@ import static org.onosproject.store.device.impl.GossipDeviceStoreMessageSubjects
 import static org.onosproject.store.device.impl.GossipDeviceStoreMessageSubjects.DEVICE_REMOVE_REQ;
 import static org.onosproject.store.device.impl.GossipDeviceStoreMessageSubjects.DEVICE_UPDATE;
 import static org.onosproject.store.device.impl.GossipDeviceStoreMessageSubjects.PORT_INJECTED;
+import static org.onosproject.store.device.impl.GossipDeviceStoreMessageSubjects.PORT_STATS_SUMMARY;
 import static org.onosproject.store.device.impl.GossipDeviceStoreMessageSubjects.PORT_STATUS_UPDATE;
 import static org.onosproject.store.device.impl.GossipDeviceStoreMessageSubjects.PORT_UPDATE;
-import static org.onosproject.store.service.EventuallyConsistentMapEvent.Type.PUT;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
@@ -150,10 +150,14 @@ public class GossipDeviceStore
     private final ConcurrentMap<DeviceId, Device> devices = Maps.newConcurrentMap();
     private final ConcurrentMap<DeviceId, ConcurrentMap<PortNumber, Port>> devicePorts = Maps.newConcurrentMap();
 
-    private EventuallyConsistentMap<DeviceId, Map<PortNumber, PortStatistics>> devicePortStats;
-    private EventuallyConsistentMap<DeviceId, Map<PortNumber, PortStatistics>> devicePortDeltaStats;
-    private final EventuallyConsistentMapListener<DeviceId, Map<PortNumber, PortStatistics>>
-            portStatsListener = new InternalPortStatsListener();
+    // port statistics are updated in place by the master of a device, which
+    // periodically replicates the ports that changed to the other instances
+    private final ConcurrentMap<DeviceId, ConcurrentMap<PortNumber, PortStatistics>>
+            devicePortStats = Maps.newConcurrentMap();
+    private final ConcurrentMap<DeviceId, ConcurrentMap<PortNumber, PortStatistics>>
+            devicePortDeltaStats = Maps.newConcurrentMap();
+    // ports whose statistics changed since the last summary, by device
+    private final ConcurrentMap<DeviceId, Set<PortNumber>> updatedPortStats = Maps.newConcurrentMap();
 
     // to be updated under Device lock
     private final Map<DeviceId, Timestamp> offline = Maps.newHashMap();
@@ -165,9 +169,6 @@ public class GossipDeviceStore
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected DeviceClockService deviceClockService;
 
-    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
-    protected StorageService storageService;
-
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected ClusterCommunicationService clusterCommunicator;
 
@@ -194,59 +195,53 @@ public class GossipDeviceStore
                     .register(PortFragmentId.class)
                     .register(DeviceInjectedEvent.class)
                     .register(PortInjectedEvent.class)
+                    .register(InternalPortStatsEvent.class)
                     .build("GossipDevice"));
 
     private ExecutorService executor;
 
+    // applies peer updates; updates of a given device are applied in order
+    // by a single thread, so that devices are processed in parallel without
+    // contending for the same device locks
+    private PredictableExecutor deviceEventExecutor;
+
     private ScheduledExecutorService backgroundExecutor;
 
+    // maximum number of devices covered by a single anti-entropy advertisement
+    private static final int DEVICES_PER_ADVERTISEMENT = 500;
+    private final AtomicInteger advertisementRound = new AtomicInteger();
+
     // TODO make these anti-entropy parameters configurable
     private long initialDelaySec = 5;
     private long periodSec = 5;
 
+    private static final long PORT_STATS_SUMMARY_PERIOD_SEC = 5;
+
     @Activate
     public void activate() {
         executor = newCachedThreadPool(groupedThreads("onos/device", "fg-%d", log));
+        deviceEventExecutor = newPredictableExecutor(0, groupedThreads("onos/device", "event-%d", log));
 
         backgroundExecutor =
                 newSingleThreadScheduledExecutor(minPriority(groupedThreads("onos/device", "bg-%d", log)));
 
-        addSubscriber(DEVICE_UPDATE, this::handleDeviceEvent);
-        addSubscriber(DEVICE_OFFLINE, this::handleDeviceOfflineEvent);
+        addDeviceSubscriber(DEVICE_UPDATE, InternalDeviceEvent::deviceId, this::handleDeviceEvent);
+        addDeviceSubscriber(DEVICE_OFFLINE, InternalDeviceOfflineEvent::deviceId, this::handleDeviceOfflineEvent);
         addSubscriber(DEVICE_REMOVE_REQ, this::handleRemoveRequest);
-        addSubscriber(DEVICE_REMOVED, this::handleDeviceRemovedEvent);
-        addSubscriber(PORT_UPDATE, this::handlePortEvent);
-        addSubscriber(PORT_STATUS_UPDATE, this::handlePortStatusEvent);
+        addDeviceSubscriber(DEVICE_REMOVED, InternalDeviceRemovedEvent::deviceId, this::handleDeviceRemovedEvent);
+        addDeviceSubscriber(PORT_UPDATE, InternalPortEvent::deviceId, this::handlePortEvent);
+        addDeviceSubscriber(PORT_STATUS_UPDATE, InternalPortStatusEvent::deviceId, this::handlePortStatusEvent);
         addSubscriber(DEVICE_ADVERTISE, this::handleDeviceAdvertisement);
         addSubscriber(DEVICE_INJECTED, this::handleDeviceInjectedEvent);
         addSubscriber(PORT_INJECTED, this::handlePortInjectedEvent);
+        addSubscriber(PORT_STATS_SUMMARY, this::handlePortStatsSummary);
 
         // start anti-entropy thread
         backgroundExecutor.scheduleAtFixedRate(new SendAdvertisementTask(),
                                                initialDelaySec, periodSec, TimeUnit.SECONDS);
-
-        // Create a distributed map for port stats.
-        KryoNamespace.Builder deviceDataSerializer = KryoNamespace.newBuilder()
-                .register(KryoNamespaces.API)
-                .nextId(KryoNamespaces.BEGIN_USER_CUSTOM_ID)
-                .register(MultiValuedTimestamp.class);
-
-        devicePortStats = storageService.<DeviceId, Map<PortNumber, PortStatistics>>eventuallyConsistentMapBuilder()
-                .withName("port-stats")
-                .withSerializer(deviceDataSerializer)
-                .withAntiEntropyPeriod(5, TimeUnit.SECONDS)
-                .withTimestampProvider((k, v) -> new WallClockTimestamp())
-                .withTombstonesDisabled()
-                .build();
-        devicePortDeltaStats = storageService.<DeviceId, Map<PortNumber, PortStatistics>>
-                eventuallyConsistentMapBuilder()
-                .withName("port-stats-delta")
-                .withSerializer(deviceDataSerializer)
-                .withAntiEntropyPeriod(5, TimeUnit.SECONDS)
-                .withTimestampProvider((k, v) -> new WallClockTimestamp())
-                .withTombstonesDisabled()
-                .build();
-        devicePortStats.addListener(portStatsListener);
+        backgroundExecutor.scheduleAtFixedRate(this::sendPortStatsSummary,
+                                               PORT_STATS_SUMMARY_PERIOD_SEC, PORT_STATS_SUMMARY_PERIOD_SEC,
+                                               TimeUnit.SECONDS);
         log.info("Started");
     }
 
@@ -254,12 +249,19 @@ public class GossipDeviceStore
         clusterCommunicator.addSubscriber(subject, SERIALIZER::decode, handler, executor);
     }
 
+    private <M> void addDeviceSubscriber(MessageSubject subject, Function<M, DeviceId> deviceId,
+                                         Consumer<M> handler) {
+        // dispatches directly on the messaging thread so the updates of one device
+        // reach their queue of the predictable executor in order
+        clusterCommunicator.addSubscriber(subject, SERIALIZER::decode, (M message) ->
+                deviceEventExecutor.execute(() -> handler.accept(message), deviceId.apply(message).hashCode()),
+                MoreExecutors.directExecutor());
+    }
+
     @Deactivate
     public void deactivate() {
-        devicePortStats.removeListener(portStatsListener);
-        devicePortStats.destroy();
-        devicePortDeltaStats.destroy();
         executor.shutdownNow();
+        deviceEventExecutor.shutdownNow();
 
         backgroundExecutor.shutdownNow();
         try {
@@ -273,6 +275,8 @@ public class GossipDeviceStore
         deviceDescs.clear();
         devices.clear();
         devicePorts.clear();
+        devicePortStats.clear();
+        devicePortDeltaStats.clear();
         availableDevices.clear();
         clusterCommunicator.removeSubscriber(DEVICE_UPDATE);
         clusterCommunicator.removeSubscriber(DEVICE_OFFLINE);
@@ -283,6 +287,7 @@ public class GossipDeviceStore
         clusterCommunicator.removeSubscriber(DEVICE_ADVERTISE);
         clusterCommunicator.removeSubscriber(DEVICE_INJECTED);
         clusterCommunicator.removeSubscriber(PORT_INJECTED);
+        clusterCommunicator.removeSubscriber(PORT_STATS_SUMMARY);
         log.info("Stopped");
     }
 
@@ -909,32 +914,49 @@ public class GossipDeviceStore
     public DeviceEvent updatePortStatistics(ProviderId providerId, DeviceId deviceId,
                                             Collection<PortStatistics> newStatsCollection) {
 
-        Map<PortNumber, PortStatistics> prvStatsMap = devicePortStats.get(deviceId);
-        Map<PortNumber, PortStatistics> newStatsMap = Maps.newHashMap();
-        Map<PortNumber, PortStatistics> deltaStatsMap = Maps.newHashMap();
-
-        if (prvStatsMap != null) {
-            for (PortStatistics newStats : newStatsCollection) {
-                PortNumber port = PortNumber.portNumber(newStats.port());
-                PortStatistics prvStats = prvStatsMap.get(port);
-                DefaultPortStatistics.Builder builder = DefaultPortStatistics.builder();
-                PortStatistics deltaStats = builder.build();
-                if (prvStats != null) {
-                    deltaStats = calcDeltaStats(deviceId, prvStats, newStats);
+        ConcurrentMap<PortNumber, PortStatistics> statsMap =
+                devicePortStats.computeIfAbsent(deviceId, k -> Maps.newConcurrentMap());
+        ConcurrentMap<PortNumber, PortStatistics> deltaStatsMap =
+                devicePortDeltaStats.computeIfAbsent(deviceId, k -> Maps.newConcurrentMap());
+
+        // ports to replicate; an idle port is only replicated when it becomes idle
+        Set<PortNumber> changed = Sets.newHashSet();
+        // no delta can be computed on the first poll
+        final boolean firstPoll = statsMap.isEmpty();
+        for (PortStatistics newStats : newStatsCollection) {
+            PortNumber port = PortNumber.portNumber(newStats.port());
+            PortStatistics prvStats = statsMap.put(port, newStats);
+            if (prvStats != null) {
+                PortStatistics deltaStats = calcDeltaStats(deviceId, prvStats, newStats);
+                PortStatistics prvDeltaStats = deltaStatsMap.put(port, deltaStats);
+                if (!deltaStats.isZero() || prvDeltaStats == null || !prvDeltaStats.isZero()) {
+                    changed.add(port);
                 }
-                deltaStatsMap.put(port, deltaStats);
-                newStatsMap.put(port, newStats);
-            }
-        } else {
-            for (PortStatistics newStats : newStatsCollection) {
-                PortNumber port = PortNumber.portNumber(newStats.port());
-                newStatsMap.put(port, newStats);
+            } else {
+                if (!firstPoll) {
+                    deltaStatsMap.put(port, DefaultPortStatistics.builder().build());
+                }
+                changed.add(port);
             }
         }
-        devicePortDeltaStats.put(deviceId, deltaStatsMap);
-        devicePortStats.put(deviceId, newStatsMap);
-        // DeviceEvent returns null because of InternalPortStatsListener usage
-        return null;
+        if (statsMap.size() > newStatsCollection.size()) {
+            // drop the statistics of ports no longer reported
+            Set<PortNumber> reported = newStatsCollection.stream()
+                    .map(stats -> PortNumber.portNumber(stats.port()))
+                    .collect(Collectors.toSet());
+            statsMap.keySet().stream().filter(port -> !reported.contains(port)).forEach(changed::add);
+            statsMap.keySet().retainAll(reported);
+            deltaStatsMap.keySet().retainAll(reported);
+        }
+
+        if (!changed.isEmpty()) {
+            updatedPortStats.merge(deviceId, changed, (pending, ports) -> {
+                pending.addAll(ports);
+                return pending;
+            });
+        }
+        Device device = devices.get(deviceId);
+        return device == null ? null : new DeviceEvent(PORT_STATS_UPDATED, device);
     }
 
     /**
@@ -1113,6 +1135,8 @@ public class GossipDeviceStore
             removalRequest.put(deviceId, timestamp);
 
             Device device = devices.remove(deviceId);
+            devicePortStats.remove(deviceId);
+            devicePortDeltaStats.remove(deviceId);
             // should DEVICE_REMOVED carry removed ports?
             Map<PortNumber, Port> ports = devicePorts.get(deviceId);
             if (ports != null) {
@@ -1379,17 +1403,34 @@ public class GossipDeviceStore
         }
     }
 
-    private DeviceAntiEntropyAdvertisement createAdvertisement() {
+    /**
+     * Creates the advertisement of the next slice of devices. Each round
+     * advertises one slice, starting over with the first slice after the
+     * last one.
+     *
+     * @param devicesPerAdvertisement number of devices to advertise per round
+     * @return advertisement
+     */
+    DeviceAntiEntropyAdvertisement createNextAdvertisement(int devicesPerAdvertisement) {
+        int slices = Math.max(1, (deviceDescs.size() + devicesPerAdvertisement - 1) / devicesPerAdvertisement);
+        int slice = Math.floorMod(advertisementRound.getAndIncrement(), slices);
+        return createAdvertisement(slice, slices);
+    }
+
+    DeviceAntiEntropyAdvertisement createAdvertisement(int slice, int slices) {
         final NodeId self = clusterService.getLocalNode().id();
 
-        final int numDevices = deviceDescs.size();
+        final int numDevices = deviceDescs.size() / slices + 1;
         Map<DeviceFragmentId, Timestamp> adDevices = new HashMap<>(numDevices);
-        final int portsPerDevice = 8; // random factor to minimize reallocation
-        Map<PortFragmentId, Timestamp> adPorts = new HashMap<>(numDevices * portsPerDevice);
+        Map<DeviceFragmentId, Map<PortNumber, Timestamp>> adPorts = new HashMap<>(numDevices);
         Map<DeviceId, Timestamp> adOffline = new HashMap<>(numDevices);
 
         deviceDescs.forEach((deviceId, devDescs) -> {
 
+            if (!DeviceAntiEntropyAdvertisement.inSlice(deviceId, slice, slices)) {
+                return;
+            }
+
             // for each Device...
             synchronized (devDescs) {
 
@@ -1405,22 +1446,25 @@ public class GossipDeviceStore
                     // for each Provider Descriptions...
                     final ProviderId provId = prov.getKey();
                     final DeviceDescriptions descs = prov.getValue();
+                    final DeviceFragmentId devFragId = new DeviceFragmentId(deviceId, provId);
 
-                    adDevices.put(new DeviceFragmentId(deviceId, provId),
-                                  descs.getDeviceDesc().timestamp());
+                    adDevices.put(devFragId, descs.getDeviceDesc().timestamp());
 
+                    Map<PortNumber, Timestamp> portTimestamps =
+                            new HashMap<>(descs.getPortDescs().size());
                     for (Entry<PortNumber, Timestamped<PortDescription>>
                             portDesc : descs.getPortDescs().entrySet()) {
 
-                        final PortNumber number = portDesc.getKey();
-                        adPorts.put(new PortFragmentId(deviceId, provId, number),
-                                    portDesc.getValue().timestamp());
+                        portTimestamps.put(portDesc.getKey(), portDesc.getValue().timestamp());
+                    }
+                    if (!portTimestamps.isEmpty()) {
+                        adPorts.put(devFragId, portTimestamps);
                     }
                 }
             }
         });
 
-        return new DeviceAntiEntropyAdvertisement(self, adDevices, adPorts, adOffline);
+        return new DeviceAntiEntropyAdvertisement(self, slice, slices, adDevices, adPorts, adOffline);
     }
 
     /**
@@ -1431,12 +1475,12 @@ public class GossipDeviceStore
      *
      * @param advertisement to respond to
      */
-    private void handleAdvertisement(DeviceAntiEntropyAdvertisement advertisement) {
+    void handleAdvertisement(DeviceAntiEntropyAdvertisement advertisement) {
 
         final NodeId sender = advertisement.sender();
 
         Map<DeviceFragmentId, Timestamp> devAds = new HashMap<>(advertisement.deviceFingerPrints());
-        Map<PortFragmentId, Timestamp> portAds = new HashMap<>(advertisement.ports());
+        Map<DeviceFragmentId, Map<PortNumber, Timestamp>> portAds = new HashMap<>(advertisement.ports());
         Map<DeviceId, Timestamp> offlineAds = new HashMap<>(advertisement.offline());
 
         // Fragments to request
@@ -1447,6 +1491,11 @@ public class GossipDeviceStore
             final DeviceId deviceId = de.getKey();
             final Map<ProviderId, DeviceDescriptions> lDevice = de.getValue();
 
+            if (!advertisement.covers(deviceId)) {
+                // left to the rounds advertising the other slices
+                continue;
+            }
+
             synchronized (lDevice) {
                 // latestTimestamp across provider
                 // Note: can be null initially
@@ -1473,6 +1522,9 @@ public class GossipDeviceStore
                     }
 
                     // handle port Ads
+                    Map<PortNumber, Timestamp> portTimestamps =
+                            new HashMap<>(portAds.getOrDefault(devFragId, Collections.emptyMap()));
+                    portAds.remove(devFragId);
                     for (Entry<PortNumber, Timestamped<PortDescription>>
                             pe : lDeviceDescs.getPortDescs().entrySet()) {
 
@@ -1481,7 +1533,7 @@ public class GossipDeviceStore
 
                         final PortFragmentId portFragId = new PortFragmentId(deviceId, provId, num);
 
-                        Timestamp advPortTimestamp = portAds.get(portFragId);
+                        Timestamp advPortTimestamp = portTimestamps.remove(num);
                         if (advPortTimestamp == null || lPort.isNewerThan(
                                 advPortTimestamp)) {
                             // remote does not have it or outdated, suggest
@@ -1491,11 +1543,12 @@ public class GossipDeviceStore
                             log.trace("need update {} < {}", lPort.timestamp(), advPortTimestamp);
                             reqPorts.add(portFragId);
                         }
-
-                        // remove port Ad already processed
-                        portAds.remove(portFragId);
                     } // end local port loop
 
+                    // ports only known remotely
+                    portTimestamps.keySet()
+                            .forEach(num -> reqPorts.add(new PortFragmentId(deviceId, provId, num)));
+
                     // remove device Ad already processed
                     devAds.remove(devFragId);
 
@@ -1530,7 +1583,8 @@ public class GossipDeviceStore
         // If there is any Ads left, request them
         log.trace("Ads left {}, {}", devAds, portAds);
         reqDevices.addAll(devAds.keySet());
-        reqPorts.addAll(portAds.keySet());
+        portAds.forEach((devFragId, ports) -> ports.keySet().forEach(num ->
+                reqPorts.add(new PortFragmentId(devFragId.deviceId, devFragId.providerId, num))));
 
         if (reqDevices.isEmpty() && reqPorts.isEmpty()) {
             log.trace("Nothing to request to remote peer {}", sender);
@@ -1541,7 +1595,8 @@ public class GossipDeviceStore
 
         // 2-way Anti-Entropy for now
         try {
-            unicastMessage(sender, DEVICE_ADVERTISE, createAdvertisement());
+            unicastMessage(sender, DEVICE_ADVERTISE,
+                           createAdvertisement(advertisement.slice(), advertisement.slices()));
         } catch (IOException e) {
             log.error("Failed to send response advertisement to " + sender, e);
         }
@@ -1595,7 +1650,7 @@ public class GossipDeviceStore
                     peer = nodeIds.get(idx);
                 } while (peer.equals(self));
 
-                DeviceAntiEntropyAdvertisement ad = createAdvertisement();
+                DeviceAntiEntropyAdvertisement ad = createNextAdvertisement(DEVICES_PER_ADVERTISEMENT);
 
                 if (Thread.currentThread().isInterrupted()) {
                     log.debug("Interrupted, quitting");
@@ -1736,16 +1791,73 @@ public class GossipDeviceStore
         }
     }
 
-    private class InternalPortStatsListener
-            implements EventuallyConsistentMapListener<DeviceId, Map<PortNumber, PortStatistics>> {
-        @Override
-        public void event(EventuallyConsistentMapEvent<DeviceId, Map<PortNumber, PortStatistics>> event) {
-            if (event.type() == PUT) {
-                Device device = devices.get(event.key());
-                if (device != null) {
-                    notifyDelegate(new DeviceEvent(PORT_STATS_UPDATED, device));
+    /**
+     * Broadcasts the port statistics that changed since the previous summary.
+     */
+    void sendPortStatsSummary() {
+        try {
+            List<InternalPortStatsEvent> events = new ArrayList<>();
+            for (DeviceId deviceId : updatedPortStats.keySet()) {
+                Set<PortNumber> ports = updatedPortStats.remove(deviceId);
+                if (ports != null) {
+                    events.add(portStatsEvent(deviceId, ports));
                 }
             }
+            if (!events.isEmpty()) {
+                broadcastMessage(PORT_STATS_SUMMARY, events);
+            }
+        } catch (Exception e) {
+            log.warn("Exception thrown while sending port statistics summary", e);
+        }
+    }
+
+    private InternalPortStatsEvent portStatsEvent(DeviceId deviceId, Set<PortNumber> ports) {
+        Map<PortNumber, PortStatistics> statsMap = devicePortStats.get(deviceId);
+        Map<PortNumber, PortStatistics> deltaStatsMap = devicePortDeltaStats.get(deviceId);
+        ImmutableList.Builder<PortStatistics> statistics = ImmutableList.builder();
+        ImmutableList.Builder<PortStatistics> deltaStatistics = ImmutableList.builder();
+        ImmutableSet.Builder<PortNumber> removedPorts = ImmutableSet.builder();
+        for (PortNumber port : ports) {
+            PortStatistics stats = statsMap == null ? null : statsMap.get(port);
+            PortStatistics deltaStats = deltaStatsMap == null ? null : deltaStatsMap.get(port);
+            if (stats == null) {
+                removedPorts.add(port);
+                continue;
+            }
+            statistics.add(stats);
+            if (deltaStats != null) {
+                deltaStatistics.add(deltaStats);
+            }
         }
+        return new InternalPortStatsEvent(deviceId, statistics.build(), deltaStatistics.build(),
+                                          removedPorts.build());
+    }
+
+    /**
+     * Applies the port statistics replicated by the masters of devices.
+     *
+     * @param events port statistics of the devices
+     */
+    void handlePortStatsSummary(List<InternalPortStatsEvent> events) {
+        events.forEach(event -> {
+            DeviceId deviceId = event.deviceId();
+            Device device = devices.get(deviceId);
+            // statistics polled by the local master are more recent than the
+            // ones still in flight from a previous master
+            if (device == null || mastershipService.getLocalRole(deviceId) == MastershipRole.MASTER) {
+                return;
+            }
+            applyPortStats(devicePortStats, deviceId, event.statistics(), event.removedPorts());
+            applyPortStats(devicePortDeltaStats, deviceId, event.deltaStatistics(), event.removedPorts());
+            notifyDelegate(new DeviceEvent(PORT_STATS_UPDATED, device));
+        });
+    }
+
+    private void applyPortStats(ConcurrentMap<DeviceId, ConcurrentMap<PortNumber, PortStatistics>> stats,
+                                DeviceId deviceId, List<PortStatistics> updated, Set<PortNumber> removed) {
+        ConcurrentMap<PortNumber, PortStatistics> statsMap =
+                stats.computeIfAbsent(deviceId, k -> Maps.newConcurrentMap());
+        statsMap.keySet().removeAll(removed);
+        updated.forEach(portStats -> statsMap.put(PortNumber.portNumber(portStats.port()), portStats));
     }
 }
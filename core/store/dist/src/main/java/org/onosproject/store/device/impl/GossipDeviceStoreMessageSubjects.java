@@ -31,6 +31,9 @@ public final class GossipDeviceStoreMessageSubjects {
     public static final MessageSubject PORT_UPDATE = new MessageSubject("peer-port-update");
     public static final MessageSubject PORT_STATUS_UPDATE = new MessageSubject("peer-port-status-update");
 
+    // port statistics that changed, replicated by the master of a device
+    public static final MessageSubject PORT_STATS_SUMMARY = new MessageSubject("peer-port-stats-summary");
+
     public static final MessageSubject DEVICE_ADVERTISE = new MessageSubject("peer-device-advertisements");
     // to be used with 3-way anti-entropy process
     public static final MessageSubject DEVICE_REQUEST = new MessageSubject("peer-device-request");
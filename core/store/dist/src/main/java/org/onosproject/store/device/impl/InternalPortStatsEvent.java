@@ -0,0 +1,89 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.device.impl;
+
+import java.util.List;
+import java.util.Set;
+
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.device.PortStatistics;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Information published by GossipDeviceStore to replicate the port statistics
+ * of a device that changed since the previous summary of its master.
+ */
+public class InternalPortStatsEvent {
+
+    private final DeviceId deviceId;
+    private final List<PortStatistics> statistics;
+    private final List<PortStatistics> deltaStatistics;
+    private final Set<PortNumber> removedPorts;
+
+    /**
+     * Creates a InternalPortStatsEvent.
+     * @param deviceId identifier of the device.
+     * @param statistics statistics of the ports that changed.
+     * @param deltaStatistics delta statistics of the ports that changed.
+     * @param removedPorts ports whose statistics are no longer reported.
+     */
+    public InternalPortStatsEvent(DeviceId deviceId,
+                                  List<PortStatistics> statistics,
+                                  List<PortStatistics> deltaStatistics,
+                                  Set<PortNumber> removedPorts) {
+        this.deviceId = deviceId;
+        this.statistics = statistics;
+        this.deltaStatistics = deltaStatistics;
+        this.removedPorts = removedPorts;
+    }
+
+    public DeviceId deviceId() {
+        return deviceId;
+    }
+
+    public List<PortStatistics> statistics() {
+        return statistics;
+    }
+
+    public List<PortStatistics> deltaStatistics() {
+        return deltaStatistics;
+    }
+
+    public Set<PortNumber> removedPorts() {
+        return removedPorts;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass())
+                .add("deviceId", deviceId)
+                .add("statistics", statistics.size())
+                .add("deltaStatistics", deltaStatistics.size())
+                .add("removedPorts", removedPorts)
+                .toString();
+    }
+
+    // for serializer
+    @SuppressWarnings("unused")
+    private InternalPortStatsEvent() {
+        deviceId = null;
+        statistics = null;
+        deltaStatistics = null;
+        removedPorts = null;
+    }
+}
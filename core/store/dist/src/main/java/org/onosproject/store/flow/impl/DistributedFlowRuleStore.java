@@ -22,12 +22,12 @@ package org.onosproject.store.flow.impl;
  import java.util.Map;
  import java.util.Objects;
  import java.util.Set;
+ import java.util.concurrent.CompletableFuture;
  import java.util.concurrent.ExecutorService;
  import java.util.concurrent.Executors;
  import java.util.concurrent.ScheduledExecutorService;
  import java.util.concurrent.ScheduledFuture;
  import java.util.concurrent.TimeUnit;
- import java.util.concurrent.atomic.AtomicInteger;
  import java.util.concurrent.atomic.AtomicReference;
  import java.util.stream.Collectors;
 
@@ -87,6 +87,7 @@ package org.onosproject.store.flow.impl;
  import org.slf4j.Logger;
 
  import com.google.common.collect.ImmutableList;
+ import com.google.common.collect.ImmutableSet;
  import com.google.common.collect.Iterables;
  import com.google.common.collect.Maps;
  import com.google.common.collect.Sets;
@@ -100,6 +101,7 @@ package org.onosproject.store.flow.impl;
  import static org.onosproject.store.flow.impl.FlowStoreMessageSubjects.APPLY_BATCH_FLOWS;
  import static org.onosproject.store.flow.impl.FlowStoreMessageSubjects.FLOW_TABLE_BACKUP;
  import static org.onosproject.store.flow.impl.FlowStoreMessageSubjects.GET_DEVICE_FLOW_ENTRIES;
+ import static org.onosproject.store.flow.impl.FlowStoreMessageSubjects.GET_FLOW_ENTRY_COUNT;
  import static org.onosproject.store.flow.impl.FlowStoreMessageSubjects.GET_FLOW_ENTRY;
  import static org.onosproject.store.flow.impl.FlowStoreMessageSubjects.REMOTE_APPLY_COMPLETED;
  import static org.onosproject.store.flow.impl.FlowStoreMessageSubjects.REMOVE_FLOW_ENTRY;
@@ -121,6 +123,7 @@ public class DistributedFlowRuleStore
     private static final int DEFAULT_MAX_BACKUP_COUNT = 2;
     private static final boolean DEFAULT_PERSISTENCE_ENABLED = false;
     private static final int DEFAULT_BACKUP_PERIOD_MILLIS = 2000;
+    private static final boolean DEFAULT_BACKUP_READS_ENABLED = false;
     private static final long FLOW_RULE_STORE_TIMEOUT_MILLIS = 5000;
     // number of devices whose flow entries will be backed up in one communication round
     private static final int FLOW_TABLE_BACKUP_BATCH_SIZE = 1;
@@ -144,6 +147,11 @@ public class DistributedFlowRuleStore
             label = "Max number of backup copies for each device")
     private volatile int backupCount = DEFAULT_MAX_BACKUP_COUNT;
 
+    @Property(name = "backupReadsEnabled", boolValue = DEFAULT_BACKUP_READS_ENABLED,
+            label = "Indicates whether flow entries may be read from local backup copies, " +
+                    "which can be stale by up to the backup period")
+    private volatile boolean backupReadsEnabled = DEFAULT_BACKUP_READS_ENABLED;
+
     private InternalFlowTable flowTable = new InternalFlowTable();
 
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
@@ -171,6 +179,9 @@ public class DistributedFlowRuleStore
     protected PersistenceService persistenceService;
 
     private Map<Long, NodeId> pendingResponses = Maps.newConcurrentMap();
+    // in-flight remote reads of device flow entries, shared by concurrent callers
+    private final Map<DeviceId, CompletableFuture<Set<FlowEntry>>> pendingFlowEntriesRequests =
+            Maps.newConcurrentMap();
     private ExecutorService messageHandlingExecutor;
     private ExecutorService eventHandler;
 
@@ -261,6 +272,7 @@ public class DistributedFlowRuleStore
         boolean newBackupEnabled;
         int newBackupPeriod;
         int newBackupCount;
+        boolean newBackupReadsEnabled;
         try {
             String s = get(properties, "msgHandlerPoolSize");
             newPoolSize = isNullOrEmpty(s) ? msgHandlerPoolSize : Integer.parseInt(s.trim());
@@ -273,11 +285,15 @@ public class DistributedFlowRuleStore
 
             s = get(properties, "backupCount");
             newBackupCount = isNullOrEmpty(s) ? backupCount : Integer.parseInt(s.trim());
+
+            s = get(properties, "backupReadsEnabled");
+            newBackupReadsEnabled = isNullOrEmpty(s) ? backupReadsEnabled : Boolean.parseBoolean(s.trim());
         } catch (NumberFormatException | ClassCastException e) {
             newPoolSize = MESSAGE_HANDLER_THREAD_POOL_SIZE;
             newBackupEnabled = DEFAULT_BACKUP_ENABLED;
             newBackupPeriod = DEFAULT_BACKUP_PERIOD_MILLIS;
             newBackupCount = DEFAULT_MAX_BACKUP_COUNT;
+            newBackupReadsEnabled = DEFAULT_BACKUP_READS_ENABLED;
         }
 
         boolean restartBackupTask = false;
@@ -322,6 +338,7 @@ public class DistributedFlowRuleStore
         if (backupCount != newBackupCount) {
             backupCount = newBackupCount;
         }
+        backupReadsEnabled = newBackupReadsEnabled;
         logConfig("Reconfigured");
     }
 
@@ -334,6 +351,8 @@ public class DistributedFlowRuleStore
                 GET_FLOW_ENTRY, serializer::decode, flowTable::getFlowEntry, serializer::encode, executor);
         clusterCommunicator.addSubscriber(
                 GET_DEVICE_FLOW_ENTRIES, serializer::decode, flowTable::getFlowEntries, serializer::encode, executor);
+        clusterCommunicator.addSubscriber(
+                GET_FLOW_ENTRY_COUNT, serializer::decode, flowTable::getFlowEntryCount, serializer::encode, executor);
         clusterCommunicator.addSubscriber(
                 REMOVE_FLOW_ENTRY, serializer::decode, this::removeFlowRuleInternal, serializer::encode, executor);
         clusterCommunicator.addSubscriber(
@@ -345,6 +364,7 @@ public class DistributedFlowRuleStore
     private void unregisterMessageHandlers() {
         clusterCommunicator.removeSubscriber(REMOVE_FLOW_ENTRY);
         clusterCommunicator.removeSubscriber(GET_DEVICE_FLOW_ENTRIES);
+        clusterCommunicator.removeSubscriber(GET_FLOW_ENTRY_COUNT);
         clusterCommunicator.removeSubscriber(GET_FLOW_ENTRY);
         clusterCommunicator.removeSubscriber(APPLY_BATCH_FLOWS);
         clusterCommunicator.removeSubscriber(REMOTE_APPLY_COMPLETED);
@@ -352,8 +372,9 @@ public class DistributedFlowRuleStore
     }
 
     private void logConfig(String prefix) {
-        log.info("{} with msgHandlerPoolSize = {}; backupEnabled = {}, backupPeriod = {}, backupCount = {}",
-                 prefix, msgHandlerPoolSize, backupEnabled, backupPeriod, backupCount);
+        log.info("{} with msgHandlerPoolSize = {}; backupEnabled = {}, backupPeriod = {}, backupCount = {}, "
+                         + "backupReadsEnabled = {}",
+                 prefix, msgHandlerPoolSize, backupEnabled, backupPeriod, backupCount, backupReadsEnabled);
     }
 
     // This is not a efficient operation on a distributed sharded
@@ -361,21 +382,67 @@ public class DistributedFlowRuleStore
     // make it device specific.
     @Override
     public int getFlowRuleCount() {
-        AtomicInteger sum = new AtomicInteger(0);
-        deviceService.getDevices().forEach(device -> sum.addAndGet(Iterables.size(getFlowEntries(device.id()))));
-        return sum.get();
+        // count locally mastered devices and ask every other master once
+        // for the count of all of its devices
+        Map<NodeId, Set<DeviceId>> devicesByMaster = Maps.newHashMap();
+        deviceService.getDevices().forEach(device -> {
+            NodeId master = masterFor(device.id());
+            if (master != null) {
+                devicesByMaster.computeIfAbsent(master, k -> Sets.newHashSet()).add(device.id());
+            }
+        });
+
+        int sum = flowTable.getFlowEntryCount(devicesByMaster.getOrDefault(local, Collections.emptySet()));
+        List<CompletableFuture<Integer>> counts = devicesByMaster.entrySet().stream()
+                .filter(e -> !Objects.equals(local, e.getKey()))
+                .map(e -> clusterCommunicator.<Set<DeviceId>, Integer>sendAndReceive(
+                        ImmutableSet.copyOf(e.getValue()),
+                        GET_FLOW_ENTRY_COUNT,
+                        serializer::encode,
+                        serializer::decode,
+                        e.getKey()))
+                .collect(Collectors.toList());
+        for (CompletableFuture<Integer> count : counts) {
+            sum += Tools.futureGetOrElse(count, FLOW_RULE_STORE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS, 0);
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the node reads of the flow rules of the given device should be
+     * routed to, from the locally cached replica placement. Writes ask the
+     * mastership service instead, as the cache may lag behind a role change.
+     *
+     * @param deviceId identifier of the device
+     * @return master node; null if the device has no master
+     */
+    private NodeId masterFor(DeviceId deviceId) {
+        return replicaInfoManager.getReplicaInfoFor(deviceId).master().orElse(null);
+    }
+
+    /**
+     * Returns whether reads of the flow entries of the given device can be
+     * answered from the local backup copy.
+     *
+     * @param deviceId identifier of the device
+     * @return true if backup reads are enabled and a local backup exists
+     */
+    private boolean isBackupReadable(DeviceId deviceId) {
+        return backupReadsEnabled
+                && replicaInfoManager.getReplicaInfoFor(deviceId).backups().contains(local)
+                && flowTable.hasFlowTable(deviceId);
     }
 
     @Override
     public FlowEntry getFlowEntry(FlowRule rule) {
-        NodeId master = mastershipService.getMasterFor(rule.deviceId());
+        NodeId master = masterFor(rule.deviceId());
 
         if (master == null) {
             log.debug("Failed to getFlowEntry: No master for {}", rule.deviceId());
             return null;
         }
 
-        if (Objects.equals(local, master)) {
+        if (Objects.equals(local, master) || isBackupReadable(rule.deviceId())) {
             return flowTable.getFlowEntry(rule);
         }
 
@@ -394,28 +461,47 @@ public class DistributedFlowRuleStore
 
     @Override
     public Iterable<FlowEntry> getFlowEntries(DeviceId deviceId) {
-        NodeId master = mastershipService.getMasterFor(deviceId);
+        NodeId master = masterFor(deviceId);
 
         if (master == null) {
             log.debug("Failed to getFlowEntries: No master for {}", deviceId);
             return Collections.emptyList();
         }
 
-        if (Objects.equals(local, master)) {
+        if (Objects.equals(local, master) || isBackupReadable(deviceId)) {
             return flowTable.getFlowEntries(deviceId);
         }
 
         log.trace("Forwarding getFlowEntries to {}, which is the primary (master) for device {}",
                   master, deviceId);
 
-        return Tools.futureGetOrElse(clusterCommunicator.sendAndReceive(deviceId,
-                                    FlowStoreMessageSubjects.GET_DEVICE_FLOW_ENTRIES,
-                                    serializer::encode,
-                                    serializer::decode,
-                                    master),
+        return Tools.futureGetOrElse(getRemoteFlowEntries(deviceId, master),
                                FLOW_RULE_STORE_TIMEOUT_MILLIS,
                                TimeUnit.MILLISECONDS,
-                               Collections.emptyList());
+                               Collections.emptySet());
+    }
+
+    private CompletableFuture<Set<FlowEntry>> getRemoteFlowEntries(DeviceId deviceId, NodeId master) {
+        // concurrent readers of the same device share a single request
+        CompletableFuture<Set<FlowEntry>> future = new CompletableFuture<>();
+        CompletableFuture<Set<FlowEntry>> pending = pendingFlowEntriesRequests.putIfAbsent(deviceId, future);
+        if (pending != null) {
+            return pending;
+        }
+        clusterCommunicator.<DeviceId, Set<FlowEntry>>sendAndReceive(deviceId,
+                                                                    GET_DEVICE_FLOW_ENTRIES,
+                                                                    serializer::encode,
+                                                                    serializer::decode,
+                                                                    master)
+                .whenComplete((entries, error) -> {
+                    pendingFlowEntriesRequests.remove(deviceId, future);
+                    if (error != null) {
+                        future.completeExceptionally(error);
+                    } else {
+                        future.complete(entries);
+                    }
+                });
+        return future;
     }
 
     @Override
@@ -836,6 +922,19 @@ public class DistributedFlowRuleStore
             return getFlowEntriesInternal(deviceId);
         }
 
+        public int getFlowEntryCount(Set<DeviceId> deviceIds) {
+            return deviceIds.stream()
+                    .map(flowEntries::get)
+                    .filter(Objects::nonNull)
+                    .flatMap(table -> table.values().stream())
+                    .mapToInt(Map::size)
+                    .sum();
+        }
+
+        public boolean hasFlowTable(DeviceId deviceId) {
+            return flowEntries.containsKey(deviceId);
+        }
+
         public void add(FlowEntry rule) {
             getFlowEntriesInternal(rule.deviceId(), rule.id())
                     .compute((StoredFlowEntry) rule, (k, stored) -> {
@@ -944,7 +1043,7 @@ public class DistributedFlowRuleStore
 
     @Override
     public Iterable<TableStatisticsEntry> getTableStatistics(DeviceId deviceId) {
-        NodeId master = mastershipService.getMasterFor(deviceId);
+        NodeId master = masterFor(deviceId);
 
         if (master == null) {
             log.debug("Failed to getTableStats: No master for {}", deviceId);
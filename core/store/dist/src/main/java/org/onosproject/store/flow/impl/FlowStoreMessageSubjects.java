@@ -32,6 +32,9 @@ public final class FlowStoreMessageSubjects {
     public static final MessageSubject GET_DEVICE_FLOW_ENTRIES
         = new MessageSubject("peer-forward-get-device-flow-entries");
 
+    public static final MessageSubject GET_FLOW_ENTRY_COUNT
+        = new MessageSubject("peer-forward-get-flow-entry-count");
+
     public static final MessageSubject REMOVE_FLOW_ENTRY
         = new MessageSubject("peer-forward-remove-flow-entry");
 
@@ -16,6 +16,7 @@
 package org.onosproject.store.flow.impl;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Deactivate;
@@ -30,6 +31,9 @@ import org.onosproject.mastership.MastershipEvent;
 import org.onosproject.mastership.MastershipListener;
 import org.onosproject.mastership.MastershipService;
 import org.onosproject.net.DeviceId;
+import org.onosproject.net.device.DeviceEvent;
+import org.onosproject.net.device.DeviceListener;
+import org.onosproject.net.device.DeviceService;
 import org.onosproject.store.flow.ReplicaInfo;
 import org.onosproject.store.flow.ReplicaInfoEvent;
 import org.onosproject.store.flow.ReplicaInfoEventListener;
@@ -38,6 +42,8 @@ import org.slf4j.Logger;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.onosproject.store.flow.ReplicaInfoEvent.Type.BACKUPS_CHANGED;
 import static org.onosproject.store.flow.ReplicaInfoEvent.Type.MASTER_CHANGED;
@@ -45,6 +51,13 @@ import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * Manages replica placement information.
+ * <p>
+ * Placement information is cached locally and kept up to date from mastership
+ * events, so that stores can route reads without querying the mastership
+ * service. As those events are delivered asynchronously, the cache may lag
+ * behind a role change; devices without a master are not cached and removed
+ * devices are evicted.
+ * </p>
  */
 @Component(immediate = true)
 @Service
@@ -53,6 +66,7 @@ public class ReplicaInfoManager implements ReplicaInfoService {
     private final Logger log = getLogger(getClass());
 
     private final MastershipListener mastershipListener = new InternalMastershipListener();
+    private final DeviceListener deviceListener = new InternalDeviceListener();
 
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected EventDeliveryService eventDispatcher;
@@ -60,13 +74,19 @@ public class ReplicaInfoManager implements ReplicaInfoService {
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected MastershipService mastershipService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected DeviceService deviceService;
+
     protected final ListenerRegistry<ReplicaInfoEvent, ReplicaInfoEventListener>
         listenerRegistry = new ListenerRegistry<>();
 
+    private final ConcurrentMap<DeviceId, ReplicaInfo> replicaInfos = Maps.newConcurrentMap();
+
     @Activate
     public void activate() {
         eventDispatcher.addSink(ReplicaInfoEvent.class, listenerRegistry);
         mastershipService.addListener(mastershipListener);
+        deviceService.addListener(deviceListener);
         log.info("Started");
     }
 
@@ -74,12 +94,27 @@ public class ReplicaInfoManager implements ReplicaInfoService {
     public void deactivate() {
         eventDispatcher.removeSink(ReplicaInfoEvent.class);
         mastershipService.removeListener(mastershipListener);
+        deviceService.removeListener(deviceListener);
+        replicaInfos.clear();
         log.info("Stopped");
     }
 
     @Override
     public ReplicaInfo getReplicaInfoFor(DeviceId deviceId) {
-        return buildFromRoleInfo(mastershipService.getNodesFor(deviceId));
+        ReplicaInfo replicaInfo = replicaInfos.get(deviceId);
+        if (replicaInfo == null || !replicaInfo.master().isPresent()) {
+            replicaInfo = buildFromRoleInfo(mastershipService.getNodesFor(deviceId));
+            cache(deviceId, replicaInfo);
+        }
+        return replicaInfo;
+    }
+
+    private void cache(DeviceId deviceId, ReplicaInfo replicaInfo) {
+        if (replicaInfo.master().isPresent()) {
+            replicaInfos.put(deviceId, replicaInfo);
+        } else {
+            replicaInfos.remove(deviceId);
+        }
     }
 
     @Override
@@ -102,7 +137,13 @@ public class ReplicaInfoManager implements ReplicaInfoService {
 
         @Override
         public void event(MastershipEvent event) {
+            if (event.type() == MastershipEvent.Type.SUSPENDED) {
+                // mastership may change without notice
+                replicaInfos.clear();
+                return;
+            }
             final ReplicaInfo replicaInfo = buildFromRoleInfo(event.roleInfo());
+            cache(event.subject(), replicaInfo);
             switch (event.type()) {
             case MASTER_CHANGED:
                 eventDispatcher.post(new ReplicaInfoEvent(MASTER_CHANGED,
@@ -120,4 +161,14 @@ public class ReplicaInfoManager implements ReplicaInfoService {
         }
     }
 
+    final class InternalDeviceListener implements DeviceListener {
+
+        @Override
+        public void event(DeviceEvent event) {
+            if (event.type() == DeviceEvent.Type.DEVICE_REMOVED) {
+                replicaInfos.remove(event.subject().id());
+            }
+        }
+    }
+
 }
@@ -22,6 +22,7 @@ import static org.onosproject.mastership.MastershipEvent.Type.SUSPENDED;
 import static org.slf4j.LoggerFactory.getLogger;
 import static com.google.common.base.Preconditions.checkArgument;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -64,6 +65,7 @@ import org.slf4j.Logger;
 
 import com.google.common.base.Objects;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
@@ -231,6 +233,27 @@ public class ConsistentDeviceMastershipStore
         return CompletableFuture.completedFuture(null);
     }
 
+    @Override
+    public CompletableFuture<List<MastershipEvent>> setMasters(NodeId nodeId, Collection<DeviceId> deviceIds) {
+        checkArgument(nodeId != null, NODE_ID_NULL);
+        checkArgument(deviceIds != null, DEVICE_ID_NULL);
+
+        Map<String, NodeId> promotions = deviceIds.stream()
+                .map(this::createDeviceMastershipTopic)
+                .distinct()
+                .collect(Collectors.toMap(topic -> topic, topic -> nodeId));
+        // promotes all the devices in a single batch
+        Map<String, Boolean> promoted = leadershipAdminService.promoteToTopOfCandidateListAll(promotions);
+        Map<String, NodeId> transfers = ImmutableMap.copyOf(
+                Maps.filterKeys(promotions, topic -> Boolean.TRUE.equals(promoted.get(topic))));
+        if (!transfers.isEmpty()) {
+            // hands off all the promoted devices in a single batch
+            transferExecutor.schedule(() -> leadershipAdminService.transferLeadershipAll(transfers),
+                    WAIT_BEFORE_MASTERSHIP_HANDOFF_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        return CompletableFuture.completedFuture(ImmutableList.of());
+    }
+
     @Override
     public MastershipTerm getTermFor(DeviceId deviceId) {
         checkArgument(deviceId != null, DEVICE_ID_NULL);
@@ -213,9 +213,26 @@ public class ConsistentResourceStore extends AbstractStore<ResourceEvent, Resour
 
         TransactionalDiscreteResourceSubStore discreteTxStore = discreteStore.transactional(tx);
         TransactionalContinuousResourceSubStore continuousTxStore = continuousStore.transactional(tx);
+
+        // discrete resources are allocated in a batch per parent
+        // the order is preserved by LinkedHashMap
+        Map<DiscreteResourceId, Set<DiscreteResource>> discreteMap = resources.stream()
+                .filter(x -> x instanceof DiscreteResource)
+                .filter(x -> x.parent().isPresent())
+                .map(x -> (DiscreteResource) x)
+                .collect(Collectors.groupingBy(x -> x.parent().get().id(), LinkedHashMap::new,
+                                               Collectors.toCollection(LinkedHashSet::new)));
+        for (Map.Entry<DiscreteResourceId, Set<DiscreteResource>> entry : discreteMap.entrySet()) {
+            if (!discreteTxStore.allocate(consumer.consumerId(), entry.getKey(), entry.getValue())) {
+                return abortTransaction(tx);
+            }
+        }
+
         for (Resource resource : resources) {
             if (resource instanceof DiscreteResource) {
-                if (!discreteTxStore.allocate(consumer.consumerId(), (DiscreteResource) resource)) {
+                // the root resource is the only discrete resource without parent
+                if (!resource.parent().isPresent()
+                        && !discreteTxStore.allocate(consumer.consumerId(), (DiscreteResource) resource)) {
                     return abortTransaction(tx);
                 }
             } else if (resource instanceof ContinuousResource) {
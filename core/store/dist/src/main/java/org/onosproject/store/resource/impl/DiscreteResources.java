@@ -76,6 +76,15 @@ interface DiscreteResources {
      */
     boolean containsAny(Set<DiscreteResource> other);
 
+    /**
+     * Checks that this instance contains all of the given resources.
+     *
+     * @param other resources
+     * @return true if this instance contains every resource included in the given resources,
+     * otherwise false.
+     */
+    boolean containsAll(Set<DiscreteResource> other);
+
     /**
      * Returns a union set of this instance and the given instance.
      * Note: This method returns a new instance, not mutate the current instance
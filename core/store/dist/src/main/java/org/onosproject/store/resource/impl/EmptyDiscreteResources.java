@@ -52,6 +52,11 @@ final class EmptyDiscreteResources implements DiscreteResources {
         return false;
     }
 
+    @Override
+    public boolean containsAll(Set<DiscreteResource> other) {
+        return other.isEmpty();
+    }
+
     @Override
     public DiscreteResources add(DiscreteResources other) {
         return other;
@@ -139,6 +139,27 @@ final class EncodableDiscreteResources implements DiscreteResources {
                 .anyMatch(x -> map.get(getClass(x)).contains(x));
     }
 
+    // encodes the given resources as ranges and compares them range by range,
+    // instead of looking up the given resources one by one
+    @Override
+    public boolean containsAll(Set<DiscreteResource> other) {
+        boolean sameParent = other.stream()
+                .allMatch(x -> x.parent().map(DiscreteResource::id).filter(parent.id()::equals).isPresent());
+        if (!sameParent) {
+            return false;
+        }
+
+        Map<Class<?>, Set<DiscreteResource>> grouped = other.stream()
+                .collect(Collectors.groupingBy(x -> getClass(x), Collectors.toCollection(LinkedHashSet::new)));
+        for (Map.Entry<Class<?>, Set<DiscreteResource>> entry : grouped.entrySet()) {
+            EncodedDiscreteResources values = map.get(entry.getKey());
+            if (values == null || !values.containsAll(EncodedDiscreteResources.of(entry.getValue(), values.codec()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public DiscreteResources add(DiscreteResources other) {
         if (other instanceof EncodableDiscreteResources) {
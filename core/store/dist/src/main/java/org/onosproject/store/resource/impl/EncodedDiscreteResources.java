@@ -16,7 +16,6 @@
 package org.onosproject.store.resource.impl;
 
 import com.google.common.base.MoreObjects;
-import com.google.common.collect.DiscreteDomain;
 import com.google.common.collect.Range;
 import com.google.common.collect.RangeSet;
 import com.google.common.collect.TreeRangeSet;
@@ -46,15 +45,25 @@ final class EncodedDiscreteResources {
         this.codec = codec;
     }
 
+    // sorts the encoded values first so that runs of consecutive values are
+    // added as a single range rather than as one singleton range per value
+    @SuppressWarnings("unchecked")
     static EncodedDiscreteResources of(Set<DiscreteResource> resources, DiscreteResourceCodec codec) {
-        RangeSet<Integer> rangeSet = TreeRangeSet.create();
-        resources.stream()
+        int[] encoded = resources.stream()
                 .map(x -> x.valueAs(Object.class))
                 .flatMap(Tools::stream)
-                .map(x -> codec.encode(x))
-                .map(Range::singleton)
-                .map(x -> x.canonical(DiscreteDomain.integers()))
-                .forEach(rangeSet::add);
+                .mapToInt(x -> codec.encode(x))
+                .sorted()
+                .toArray();
+
+        RangeSet<Integer> rangeSet = TreeRangeSet.create();
+        int start = 0;
+        for (int i = 1; i <= encoded.length; i++) {
+            if (i == encoded.length || encoded[i] - encoded[i - 1] > 1) {
+                rangeSet.add(Range.closedOpen(encoded[start], encoded[i - 1] + 1));
+                start = i;
+            }
+        }
 
         return new EncodedDiscreteResources(rangeSet, codec);
     }
@@ -89,6 +98,12 @@ final class EncodedDiscreteResources {
                 .orElse(false);
     }
 
+    boolean containsAll(EncodedDiscreteResources other) {
+        checkArgument(this.codec.getClass() == other.codec.getClass());
+
+        return rangeSet.enclosesAll(other.rangeSet);
+    }
+
     EncodedDiscreteResources difference(EncodedDiscreteResources other) {
         checkArgument(this.codec.getClass() == other.codec.getClass());
 
@@ -80,6 +80,11 @@ final class GenericDiscreteResources implements DiscreteResources {
         return !Sets.intersection(this.values(), other).isEmpty();
     }
 
+    @Override
+    public boolean containsAll(Set<DiscreteResource> other) {
+        return this.values().containsAll(other);
+    }
+
     // returns a new instance, not mutate the current instance
     @Override
     public DiscreteResources add(DiscreteResources other) {
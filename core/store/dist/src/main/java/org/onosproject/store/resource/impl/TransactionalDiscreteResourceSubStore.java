@@ -24,8 +24,10 @@ import org.onosproject.store.service.TransactionalMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.onosproject.store.resource.impl.ConsistentResourceStore.SERIALIZER;
 
@@ -122,6 +124,26 @@ class TransactionalDiscreteResourceSubStore {
         return oldValue == null;
     }
 
+    // reads the child set of the parent once and checks the existence of
+    // all the resources against it, instead of a lookup per resource,
+    // then writes the consumers of all the resources in one bulk update
+    boolean allocate(ResourceConsumerId consumerId, DiscreteResourceId parent, Set<DiscreteResource> resources) {
+        // short-circuit: receiving empty resource is regarded as success
+        if (resources.isEmpty()) {
+            return true;
+        }
+
+        // if any of the resources is not registered, then abort
+        DiscreteResources values = childMap.get(parent);
+        if (values == null || !values.containsAll(resources)) {
+            return false;
+        }
+
+        Map<DiscreteResourceId, ResourceConsumerId> allocations = resources.stream()
+                .collect(Collectors.toMap(DiscreteResource::id, x -> consumerId));
+        return consumers.putAllIfAbsent(allocations);
+    }
+
     boolean release(DiscreteResource resource, ResourceConsumerId consumerId) {
         // if this single release fails (because the resource is allocated to another consumer)
         // the whole release fails
@@ -91,6 +91,13 @@ final class UnifiedDiscreteResources implements DiscreteResources {
         return generics.containsAny(partitioned.get(false)) || encodables.containsAny(partitioned.get(true));
     }
 
+    @Override
+    public boolean containsAll(Set<DiscreteResource> other) {
+        Map<Boolean, Set<DiscreteResource>> partitioned = other.stream()
+                .collect(Collectors.partitioningBy(CODECS::isEncodable, Collectors.toCollection(LinkedHashSet::new)));
+        return generics.containsAll(partitioned.get(false)) && encodables.containsAll(partitioned.get(true));
+    }
+
     @Override
     public DiscreteResources add(DiscreteResources other) {
         if (other instanceof UnifiedDiscreteResources) {
@@ -15,9 +15,11 @@
  */
 package org.onosproject.store.device.impl;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
 import org.easymock.Capture;
+import org.easymock.CaptureType;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -26,7 +28,6 @@ import org.junit.Ignore;
 import org.junit.Test;
 import org.onlab.packet.ChassisId;
 import org.onlab.packet.IpAddress;
-import org.onlab.util.KryoNamespace;
 import org.onosproject.cluster.ClusterService;
 import org.onosproject.cluster.ControllerNode;
 import org.onosproject.cluster.DefaultControllerNode;
@@ -42,6 +43,7 @@ import org.onosproject.net.PortNumber;
 import org.onosproject.net.SparseAnnotations;
 import org.onosproject.net.device.DefaultDeviceDescription;
 import org.onosproject.net.device.DefaultPortDescription;
+import org.onosproject.net.device.DefaultPortStatistics;
 import org.onosproject.net.device.DeviceClockService;
 import org.onosproject.net.device.DeviceClockServiceAdapter;
 import org.onosproject.net.device.DeviceDescription;
@@ -49,6 +51,7 @@ import org.onosproject.net.device.DeviceEvent;
 import org.onosproject.net.device.DeviceStore;
 import org.onosproject.net.device.DeviceStoreDelegate;
 import org.onosproject.net.device.PortDescription;
+import org.onosproject.net.device.PortStatistics;
 import org.onosproject.net.provider.ProviderId;
 import org.onosproject.store.Timestamp;
 import org.onosproject.store.cluster.StaticClusterService;
@@ -56,14 +59,13 @@ import org.onosproject.store.cluster.messaging.ClusterCommunicationService;
 import org.onosproject.store.cluster.messaging.ClusterMessage;
 import org.onosproject.store.cluster.messaging.MessageSubject;
 import org.onosproject.store.impl.MastershipBasedTimestamp;
-import org.onosproject.store.service.EventuallyConsistentMap;
-import org.onosproject.store.service.EventuallyConsistentMapBuilder;
-import org.onosproject.store.service.StorageService;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -71,13 +73,13 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.function.BiFunction;
 import java.util.function.Function;
 
 import static java.util.Arrays.asList;
 import static org.easymock.EasyMock.anyObject;
 import static org.easymock.EasyMock.capture;
 import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.eq;
 import static org.easymock.EasyMock.expect;
 import static org.easymock.EasyMock.expectLastCall;
 import static org.easymock.EasyMock.replay;
@@ -99,7 +101,12 @@ import static org.onosproject.net.device.DeviceEvent.Type.DEVICE_REMOVED;
 import static org.onosproject.net.device.DeviceEvent.Type.DEVICE_UPDATED;
 import static org.onosproject.net.device.DeviceEvent.Type.PORT_ADDED;
 import static org.onosproject.net.device.DeviceEvent.Type.PORT_REMOVED;
+import static org.onosproject.net.device.DeviceEvent.Type.PORT_STATS_UPDATED;
 import static org.onosproject.net.device.DeviceEvent.Type.PORT_UPDATED;
+import static org.onosproject.store.device.impl.GossipDeviceStoreMessageSubjects.DEVICE_ADVERTISE;
+import static org.onosproject.store.device.impl.GossipDeviceStoreMessageSubjects.DEVICE_UPDATE;
+import static org.onosproject.store.device.impl.GossipDeviceStoreMessageSubjects.PORT_STATS_SUMMARY;
+import static org.onosproject.store.device.impl.GossipDeviceStoreMessageSubjects.PORT_STATUS_UPDATE;
 
 
 // TODO add tests for remote replication
@@ -151,9 +158,6 @@ public class GossipDeviceStoreTest {
             new DefaultControllerNode(NID2, IpAddress.valueOf("127.0.0.2"));
     private static final List<SparseAnnotations> NO_ANNOTATION = Collections.emptyList();
 
-    EventuallyConsistentMapBuilder ecMapBuilder;
-    EventuallyConsistentMap ecMap;
-    StorageService testStorageService;
     private TestGossipDeviceStore testGossipDeviceStore;
     private GossipDeviceStore gossipDeviceStore;
     private DeviceStore deviceStore;
@@ -179,21 +183,6 @@ public class GossipDeviceStoreTest {
         testGossipDeviceStore = new TestGossipDeviceStore(deviceClockService, clusterService, clusterCommunicator);
         testGossipDeviceStore.mastershipService = new TestMastershipService();
 
-        ecMapBuilder = createNiceMock(EventuallyConsistentMapBuilder.class);
-        expect(ecMapBuilder.withName(anyObject(String.class))).andReturn(ecMapBuilder).anyTimes();
-        expect(ecMapBuilder.withSerializer(anyObject(KryoNamespace.Builder.class))).andReturn(ecMapBuilder).anyTimes();
-        expect(ecMapBuilder.withAntiEntropyPeriod(5, TimeUnit.SECONDS)).andReturn(ecMapBuilder).anyTimes();
-        expect(ecMapBuilder.withTimestampProvider(anyObject(BiFunction.class))).andReturn(ecMapBuilder).anyTimes();
-        expect(ecMapBuilder.withTombstonesDisabled()).andReturn(ecMapBuilder).anyTimes();
-
-        ecMap = createNiceMock(EventuallyConsistentMap.class);
-        expect(ecMapBuilder.build()).andReturn(ecMap).anyTimes();
-        testStorageService = createNiceMock(StorageService.class);
-        expect(testStorageService.eventuallyConsistentMapBuilder()).andReturn(ecMapBuilder).anyTimes();
-
-        replay(testStorageService, ecMapBuilder, ecMap);
-
-        testGossipDeviceStore.storageService = testStorageService;
         testGossipDeviceStore.deviceClockService = deviceClockService;
 
         gossipDeviceStore = testGossipDeviceStore;
@@ -781,6 +770,107 @@ public class GossipDeviceStoreTest {
         assertNull("P3 not expected", port3);
     }
 
+    private PortStatistics portStatistics(PortNumber port, long packetsReceived, long durationSec) {
+        return DefaultPortStatistics.builder()
+                .setDeviceId(DID1)
+                .setPort((int) port.toLong())
+                .setPacketsReceived(packetsReceived)
+                .setDurationSec(durationSec)
+                .build();
+    }
+
+    @Test
+    public final void testUpdatePortStatistics() {
+        putDevice(DID1, SW1);
+
+        DeviceEvent event = deviceStore.updatePortStatistics(PID, DID1, Arrays.asList(
+                portStatistics(P1, 10, 5), portStatistics(P2, 20, 5)));
+        assertEquals(PORT_STATS_UPDATED, event.type());
+        assertEquals(2, deviceStore.getPortStatistics(DID1).size());
+        assertTrue("No delta on first poll", deviceStore.getPortDeltaStatistics(DID1).isEmpty());
+
+        deviceStore.updatePortStatistics(PID, DID1, Arrays.asList(portStatistics(P1, 15, 10)));
+        assertEquals(15, deviceStore.getStatisticsForPort(DID1, P1).packetsReceived());
+        assertNull("Stale port dropped", deviceStore.getStatisticsForPort(DID1, P2));
+
+        PortStatistics delta = deviceStore.getDeltaStatisticsForPort(DID1, P1);
+        assertEquals(5, delta.packetsReceived());
+        assertEquals(5, delta.durationSec());
+        assertEquals(1, deviceStore.getPortDeltaStatistics(DID1).size());
+    }
+
+    @Test
+    public final void testPortStatisticsSummary() {
+        putDevice(DID1, SW1);
+        deviceStore.updatePortStatistics(PID, DID1, Arrays.asList(
+                portStatistics(P1, 10, 5), portStatistics(P2, 20, 5)));
+        deviceStore.updatePortStatistics(PID, DID1, Arrays.asList(
+                portStatistics(P1, 15, 10), portStatistics(P2, 20, 10)));
+        InternalPortStatsEvent summary = captureSummary();
+        assertEquals(2, summary.statistics().size());
+        assertEquals(2, summary.deltaStatistics().size());
+
+        // P2 stays idle and is no longer replicated, P3 is no longer reported
+        deviceStore.updatePortStatistics(PID, DID1, Arrays.asList(
+                portStatistics(P1, 20, 15), portStatistics(P2, 20, 15), portStatistics(P3, 1, 15)));
+        captureSummary();
+        deviceStore.updatePortStatistics(PID, DID1, Arrays.asList(
+                portStatistics(P1, 25, 20), portStatistics(P2, 20, 20)));
+        summary = captureSummary();
+        assertEquals(DID1, summary.deviceId());
+        assertEquals(P1.toLong(), summary.statistics().get(0).port());
+        assertEquals(1, summary.statistics().size());
+        assertEquals(1, summary.deltaStatistics().size());
+        assertEquals(Sets.newHashSet(P3), summary.removedPorts());
+
+        // nothing changed since the last summary
+        reset(clusterCommunicator);
+        replay(clusterCommunicator);
+        gossipDeviceStore.sendPortStatsSummary();
+        verify(clusterCommunicator);
+    }
+
+    @Test
+    public final void testHandlePortStatisticsSummary() {
+        putDevice(DID1, SW1);
+        deviceStore.updatePortStatistics(PID, DID1, Arrays.asList(
+                portStatistics(P1, 10, 5), portStatistics(P2, 20, 5)));
+
+        final CountDownLatch updateLatch = new CountDownLatch(1);
+        DeviceStoreDelegate checkUpdate = event -> {
+            assertEquals(PORT_STATS_UPDATED, event.type());
+            updateLatch.countDown();
+        };
+        deviceStore.setDelegate(checkUpdate);
+        gossipDeviceStore.handlePortStatsSummary(Arrays.asList(new InternalPortStatsEvent(
+                DID1, Arrays.asList(portStatistics(P3, 15, 10)), Arrays.asList(portStatistics(P3, 5, 5)),
+                Sets.newHashSet(P1))));
+        deviceStore.unsetDelegate(checkUpdate);
+        assertEquals("Statistics update expected", 0, updateLatch.getCount());
+
+        // read locally, without asking the master
+        assertNull("Removed port dropped", deviceStore.getStatisticsForPort(DID1, P1));
+        assertEquals(20, deviceStore.getStatisticsForPort(DID1, P2).packetsReceived());
+        assertEquals(15, deviceStore.getStatisticsForPort(DID1, P3).packetsReceived());
+        assertEquals(5, deviceStore.getDeltaStatisticsForPort(DID1, P3).packetsReceived());
+    }
+
+    private InternalPortStatsEvent captureSummary() {
+        Capture<List<InternalPortStatsEvent>> message = new Capture<>();
+        Capture<Function<List<InternalPortStatsEvent>, byte[]>> encoder = new Capture<>();
+        reset(clusterCommunicator);
+        clusterCommunicator.broadcast(capture(message), eq(PORT_STATS_SUMMARY), capture(encoder));
+        expectLastCall().once();
+        replay(clusterCommunicator);
+        gossipDeviceStore.sendPortStatsSummary();
+        verify(clusterCommunicator);
+        // as received by the peers
+        List<InternalPortStatsEvent> summary =
+                GossipDeviceStore.SERIALIZER.decode(encoder.getValue().apply(message.getValue()));
+        assertEquals(1, summary.size());
+        return summary.get(0);
+    }
+
     @Test
     public final void testRemoveDevice() {
         putDevice(DID1, SW1, A1);
@@ -872,6 +962,119 @@ public class GossipDeviceStoreTest {
         assertTrue("Remove event fired", removeLatch.await(1, TimeUnit.SECONDS));
     }
 
+    @Test
+    public final void testAdvertisementSlicesWrapAround() {
+        putDevice(DID1, SW1);
+        putDevice(DID2, SW1);
+
+        // one device per round makes two slices
+        List<DeviceAntiEntropyAdvertisement> ads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            ads.add(gossipDeviceStore.createNextAdvertisement(1));
+        }
+        for (int i = 0; i < ads.size(); i++) {
+            assertEquals("wrong slice count", 2, ads.get(i).slices());
+            assertEquals("wrong slice", i % 2, ads.get(i).slice());
+        }
+
+        // each device is advertised once per cycle, in the slice covering it
+        Set<DeviceId> advertised = new HashSet<>();
+        for (DeviceAntiEntropyAdvertisement ad : ads.subList(0, 2)) {
+            for (DeviceFragmentId fragmentId : ad.deviceFingerPrints().keySet()) {
+                assertTrue("advertised outside its slice", ad.covers(fragmentId.deviceId));
+                assertTrue("advertised twice", advertised.add(fragmentId.deviceId));
+            }
+        }
+        assertEquals(Sets.newHashSet(DID1, DID2), advertised);
+
+        // the third round starts over with the first slice
+        assertEquals(ads.get(0).deviceFingerPrints(), ads.get(2).deviceFingerPrints());
+        assertEquals(ads.get(1).deviceFingerPrints(), ads.get(3).deviceFingerPrints());
+    }
+
+    @Test
+    public final void testAdvertisementIgnoresDevicesOutsideSlice() {
+        putDevice(DID1, SW1);
+        putDevice(DID2, SW1);
+
+        // a slicing that puts the two devices in different slices
+        int slices = 2;
+        while (DeviceAntiEntropyAdvertisement.inSlice(DID1, sliceOf(DID2, slices), slices)) {
+            slices++;
+        }
+        DeviceAntiEntropyAdvertisement local = gossipDeviceStore.createAdvertisement(sliceOf(DID1, slices), slices);
+        assertEquals(Collections.singleton(new DeviceFragmentId(DID1, PID)), local.deviceFingerPrints().keySet());
+
+        Capture<Object> messages = new Capture<>(CaptureType.ALL);
+        Capture<MessageSubject> subjects = new Capture<>(CaptureType.ALL);
+        resetCommunicatorCapturingUnicasts(messages, subjects);
+        gossipDeviceStore.handleAdvertisement(remoteCopy(local, local.slice(), local.slices(), local.ports()));
+        verify(clusterCommunicator);
+        assertFalse("DID2 is not missing remotely", messages.hasCaptured());
+
+        // the same fingerprints advertised as covering all devices
+        resetCommunicatorCapturingUnicasts(messages, subjects);
+        gossipDeviceStore.handleAdvertisement(remoteCopy(local, 0, 1, local.ports()));
+        verify(clusterCommunicator);
+        assertEquals(Collections.singletonList(DEVICE_UPDATE), subjects.getValues());
+        assertEquals(DID2, ((InternalDeviceEvent) messages.getValue()).deviceId());
+    }
+
+    @Test
+    public final void testAdvertisementPortTimestamps() {
+        putDevice(DID1, SW1);
+        deviceStore.updatePorts(PID, DID1, Arrays.asList(
+                new DefaultPortDescription(P1, true),
+                new DefaultPortDescription(P2, true)));
+
+        DeviceAntiEntropyAdvertisement local = gossipDeviceStore.createAdvertisement(0, 1);
+        DeviceFragmentId fragmentId = new DeviceFragmentId(DID1, PID);
+        Map<PortNumber, Timestamp> localPorts = local.ports().get(fragmentId);
+        assertEquals(Sets.newHashSet(P1, P2), localPorts.keySet());
+
+        // P1 in sync, P2 outdated remotely, P3 only known remotely
+        Map<PortNumber, Timestamp> remotePorts = new HashMap<>();
+        remotePorts.put(P1, localPorts.get(P1));
+        remotePorts.put(P2, new MastershipBasedTimestamp(0, 0));
+        remotePorts.put(P3, new MastershipBasedTimestamp(2, 0));
+
+        Capture<Object> messages = new Capture<>(CaptureType.ALL);
+        Capture<MessageSubject> subjects = new Capture<>(CaptureType.ALL);
+        resetCommunicatorCapturingUnicasts(messages, subjects);
+        gossipDeviceStore.handleAdvertisement(remoteCopy(local, 0, 1, ImmutableMap.of(fragmentId, remotePorts)));
+        verify(clusterCommunicator);
+
+        assertEquals(Arrays.asList(PORT_STATUS_UPDATE, DEVICE_ADVERTISE), subjects.getValues());
+        InternalPortStatusEvent pushed = (InternalPortStatusEvent) messages.getValues().get(0);
+        assertEquals(P2, pushed.portDescription().value().portNumber());
+    }
+
+    private static int sliceOf(DeviceId deviceId, int slices) {
+        for (int slice = 0; slice < slices; slice++) {
+            if (DeviceAntiEntropyAdvertisement.inSlice(deviceId, slice, slices)) {
+                return slice;
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private static DeviceAntiEntropyAdvertisement remoteCopy(DeviceAntiEntropyAdvertisement ad,
+                                                             int slice, int slices,
+                                                             Map<DeviceFragmentId, Map<PortNumber, Timestamp>> ports) {
+        return new DeviceAntiEntropyAdvertisement(NID2, slice, slices,
+                                                  ad.deviceFingerPrints(), ports, ad.offline());
+    }
+
+    private void resetCommunicatorCapturingUnicasts(Capture<Object> messages, Capture<MessageSubject> subjects) {
+        messages.reset();
+        subjects.reset();
+        reset(clusterCommunicator);
+        expect(clusterCommunicator.unicast(capture(messages), capture(subjects),
+                                           anyObject(Function.class), eq(NID2)))
+                .andReturn(CompletableFuture.completedFuture(null)).anyTimes();
+        replay(clusterCommunicator);
+    }
+
     private final class TestMastershipService extends MastershipServiceAdapter {
         @Override
         public NodeId getMasterFor(DeviceId deviceId) {
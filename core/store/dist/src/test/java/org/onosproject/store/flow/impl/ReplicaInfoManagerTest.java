@@ -19,6 +19,7 @@ import com.google.common.collect.Maps;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.onlab.packet.ChassisId;
 import org.onosproject.cluster.NodeId;
 import org.onosproject.cluster.RoleInfo;
 import org.onosproject.common.event.impl.TestEventDispatcher;
@@ -28,7 +29,13 @@ import org.onosproject.mastership.MastershipEvent.Type;
 import org.onosproject.mastership.MastershipListener;
 import org.onosproject.mastership.MastershipService;
 import org.onosproject.mastership.MastershipServiceAdapter;
+import org.onosproject.net.DefaultDevice;
+import org.onosproject.net.Device;
 import org.onosproject.net.DeviceId;
+import org.onosproject.net.device.DeviceEvent;
+import org.onosproject.net.device.DeviceListener;
+import org.onosproject.net.device.DeviceServiceAdapter;
+import org.onosproject.net.provider.ProviderId;
 import org.onosproject.store.flow.ReplicaInfo;
 import org.onosproject.store.flow.ReplicaInfoEvent;
 import org.onosproject.store.flow.ReplicaInfoEventListener;
@@ -50,6 +57,7 @@ public class ReplicaInfoManagerTest {
     private static final DeviceId DID1 = DeviceId.deviceId("of:1");
     private static final DeviceId DID2 = DeviceId.deviceId("of:2");
     private static final NodeId NID1 = new NodeId("foo");
+    private static final NodeId NID2 = new NodeId("bar");
 
     private ReplicaInfoManager mgr;
     private ReplicaInfoService service;
@@ -57,6 +65,8 @@ public class ReplicaInfoManagerTest {
     private ListenerRegistry<MastershipEvent, MastershipListener>
         mastershipListenerRegistry;
     private TestEventDispatcher eventDispatcher;
+    private TestMastershipService testMastershipService;
+    private TestDeviceService testDeviceService;
 
 
     @Before
@@ -68,7 +78,10 @@ public class ReplicaInfoManagerTest {
 
         eventDispatcher = new TestEventDispatcher();
         mgr.eventDispatcher = eventDispatcher;
-        mgr.mastershipService = new TestMastershipService();
+        testMastershipService = new TestMastershipService();
+        mgr.mastershipService = testMastershipService;
+        testDeviceService = new TestDeviceService();
+        mgr.deviceService = testDeviceService;
 
         // register dummy mastership event source
         mgr.eventDispatcher.addSink(MastershipEvent.class, mastershipListenerRegistry);
@@ -106,6 +119,47 @@ public class ReplicaInfoManagerTest {
         assertTrue(latch.await(1, TimeUnit.SECONDS));
     }
 
+    @Test
+    public void testReplicaInfoCache() {
+        assertEquals(Optional.of(NID1), service.getReplicaInfoFor(DID1).master());
+
+        // cached from mastership events
+        testMastershipService.masters.put(DID1, NID2);
+        assertEquals(Optional.of(NID1), service.getReplicaInfoFor(DID1).master());
+        eventDispatcher.post(new MastershipEvent(Type.MASTER_CHANGED, DID1,
+                new RoleInfo(NID2, new LinkedList<>())));
+        assertEquals(Optional.of(NID2), service.getReplicaInfoFor(DID1).master());
+
+        // suspended mastership clears the cache
+        testMastershipService.masters.put(DID1, NID1);
+        eventDispatcher.post(new MastershipEvent(Type.SUSPENDED, DID1,
+                new RoleInfo(null, new LinkedList<>())));
+        assertEquals(Optional.of(NID1), service.getReplicaInfoFor(DID1).master());
+    }
+
+    @Test
+    public void testReplicaInfoCacheWithoutMaster() {
+        assertEquals(Optional.empty(), service.getReplicaInfoFor(DID2).master());
+
+        // a device without master is not cached
+        testMastershipService.masters.put(DID2, NID1);
+        assertEquals(Optional.of(NID1), service.getReplicaInfoFor(DID2).master());
+    }
+
+    @Test
+    public void testReplicaInfoCacheDeviceRemoved() {
+        assertEquals(Optional.of(NID1), service.getReplicaInfoFor(DID1).master());
+
+        testMastershipService.masters.put(DID1, NID2);
+        testDeviceService.listener.event(new DeviceEvent(DeviceEvent.Type.DEVICE_REMOVED, device(DID1)));
+        assertEquals(Optional.of(NID2), service.getReplicaInfoFor(DID1).master());
+    }
+
+    private static Device device(DeviceId deviceId) {
+        return new DefaultDevice(new ProviderId("of", "foo"), deviceId, Device.Type.SWITCH,
+                                 "mfr", "hw", "sw", "sn", new ChassisId());
+    }
+
 
     private final class MasterNodeCheck implements ReplicaInfoEventListener {
         private final CountDownLatch latch;
@@ -164,4 +218,19 @@ public class ReplicaInfoManagerTest {
         }
     }
 
+    private final class TestDeviceService extends DeviceServiceAdapter {
+
+        private DeviceListener listener;
+
+        @Override
+        public void addListener(DeviceListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void removeListener(DeviceListener listener) {
+            this.listener = null;
+        }
+    }
+
 }
@@ -191,6 +191,35 @@ public class EncodableDiscreteResourcesTest {
         assertThat(sut.containsAny(ImmutableSet.of()), is(false));
     }
 
+    @Test
+    public void testIfAllResourcesAreContained() {
+        DiscreteResource device = Resources.discrete(DeviceId.deviceId("a")).resource();
+        Set<DiscreteResource> resources = IntStream.range(0, 100)
+                .mapToObj(PortNumber::portNumber)
+                .map(device::child)
+                .collect(Collectors.toSet());
+        Set<DiscreteResource> requested = IntStream.range(10, 20)
+                .mapToObj(PortNumber::portNumber)
+                .map(device::child)
+                .collect(Collectors.toSet());
+
+        DiscreteResources sut = EncodableDiscreteResources.of(resources);
+
+        assertThat(sut.containsAll(requested), is(true));
+    }
+
+    @Test
+    public void testIfNotAllResourcesAreContained() {
+        DiscreteResource res1 = Resources.discrete(DeviceId.deviceId("a"), PortNumber.portNumber(1)).resource();
+        DiscreteResource res2 = Resources.discrete(DeviceId.deviceId("a"), PortNumber.portNumber(2)).resource();
+        DiscreteResource res3 = Resources.discrete(DeviceId.deviceId("b"), PortNumber.portNumber(1)).resource();
+
+        DiscreteResources sut = EncodableDiscreteResources.of(ImmutableSet.of(res1));
+
+        assertThat(sut.containsAll(ImmutableSet.of(res1, res2)), is(false));
+        assertThat(sut.containsAll(ImmutableSet.of(res3)), is(false));
+    }
+
     @Test
     public void testAdd() {
         DiscreteResource res1 = Resources.discrete(DeviceId.deviceId("a"), PortNumber.portNumber(1)).resource();
@@ -75,4 +75,30 @@ public class EncodedDiscreteResourcesTest {
                 is(EncodedDiscreteResources.of(ImmutableSet.of(res1, res2, res3), new VlanIdCodec())));
     }
 
+    @Test
+    public void testContainsAll() {
+        DiscreteResource res1 = Resources.discrete(DID, PN, VID1).resource();
+        DiscreteResource res2 = Resources.discrete(DID, PN, VID2).resource();
+        DiscreteResource res3 = Resources.discrete(DID, PN, VID3).resource();
+
+        EncodedDiscreteResources sut = EncodedDiscreteResources.of(ImmutableSet.of(res1, res2), new VlanIdCodec());
+
+        assertThat(sut.containsAll(EncodedDiscreteResources.of(ImmutableSet.of(res1, res2), new VlanIdCodec())),
+                is(true));
+        assertThat(sut.containsAll(EncodedDiscreteResources.of(ImmutableSet.of(res2, res3), new VlanIdCodec())),
+                is(false));
+    }
+
+    @Test
+    public void testConsecutiveValuesAreEncodedAsSingleRange() {
+        DiscreteResource res1 = Resources.discrete(DID, PN, VID1).resource();
+        DiscreteResource res2 = Resources.discrete(DID, PN, VID2).resource();
+        DiscreteResource res3 = Resources.discrete(DID, PN, VID3).resource();
+
+        EncodedDiscreteResources sut = EncodedDiscreteResources.of(ImmutableSet.of(res3, res1, res2),
+                new VlanIdCodec());
+
+        assertThat(sut.rangeSet().asRanges().size(), is(1));
+        assertThat(sut.values(Resources.discrete(DID, PN).id()), is(ImmutableSet.of(res1, res2, res3)));
+    }
 }
@@ -17,7 +17,9 @@ package org.onosproject.store.primitives.impl;
 
 import static org.slf4j.LoggerFactory.getLogger;
 
+import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -70,10 +72,27 @@ public class CachingAsyncConsistentMap<K, V> extends DelegatingAsyncConsistentMa
      * @param cacheSize the maximum size of the cache
      */
     public CachingAsyncConsistentMap(AsyncConsistentMap<K, V> backingMap, int cacheSize) {
+        this(backingMap, CacheBuilder.newBuilder().maximumSize(cacheSize));
+    }
+
+    /**
+     * Constructor to bound the staleness of cached entries. Entries are
+     * reloaded from the backing map once they have been cached for the
+     * given duration, even if no update was detected.
+     *
+     * @param backingMap a distributed, strongly consistent map for backing
+     * @param maxStaleness the maximum time an entry is served from the cache
+     */
+    public CachingAsyncConsistentMap(AsyncConsistentMap<K, V> backingMap, Duration maxStaleness) {
+        this(backingMap, CacheBuilder.newBuilder()
+                                     .maximumSize(DEFAULT_CACHE_SIZE)
+                                     .expireAfterWrite(maxStaleness.toNanos(), TimeUnit.NANOSECONDS));
+    }
+
+    private CachingAsyncConsistentMap(AsyncConsistentMap<K, V> backingMap,
+                                      CacheBuilder<Object, Object> cacheBuilder) {
         super(backingMap);
-        cache = CacheBuilder.newBuilder()
-                            .maximumSize(cacheSize)
-                            .build(CacheLoader.from(CachingAsyncConsistentMap.super::get));
+        cache = cacheBuilder.build(CacheLoader.from(CachingAsyncConsistentMap.super::get));
         cacheUpdater = event -> {
             Versioned<V> newValue = event.newValue();
             if (newValue == null) {
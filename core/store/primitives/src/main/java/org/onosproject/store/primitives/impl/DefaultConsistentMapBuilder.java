@@ -19,6 +19,7 @@ import org.onosproject.store.primitives.DistributedPrimitiveCreator;
 import org.onosproject.store.service.AsyncConsistentMap;
 import org.onosproject.store.service.ConsistentMap;
 import org.onosproject.store.service.ConsistentMapBuilder;
+import org.onosproject.store.service.ReadConsistency;
 
 /**
  * Default {@link AsyncConsistentMap} builder.
@@ -41,8 +42,13 @@ public class DefaultConsistentMapBuilder<K, V> extends ConsistentMapBuilder<K, V
 
     @Override
     public AsyncConsistentMap<K, V> buildAsyncMap() {
-        AsyncConsistentMap<K, V> map = primitiveCreator.newAsyncConsistentMap(name(), serializer());
-        map = relaxedReadConsistency() ? DistributedPrimitives.newCachingMap(map) : map;
+        AsyncConsistentMap<K, V> map =
+                primitiveCreator.newAsyncConsistentMap(name(), serializer(), readConsistency());
+        if (readConsistency() == ReadConsistency.BOUNDED_STALENESS) {
+            map = DistributedPrimitives.newCachingMap(map, maxStaleness());
+        } else if (relaxedReadConsistency()) {
+            map = DistributedPrimitives.newCachingMap(map);
+        }
         map = readOnly() ? DistributedPrimitives.newUnmodifiableMap(map) : map;
         return meteringEnabled() ? DistributedPrimitives.newMeteredMap(map) : map;
     }
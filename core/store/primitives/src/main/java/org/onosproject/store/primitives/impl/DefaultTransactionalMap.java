@@ -20,6 +20,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.commons.lang3.tuple.Pair;
@@ -27,6 +30,8 @@ import org.onlab.util.HexString;
 import org.onosproject.store.primitives.MapUpdate;
 import org.onosproject.store.service.AsyncConsistentMap;
 import org.onosproject.store.service.ConsistentMap;
+import org.onosproject.store.service.ConsistentMapException;
+import org.onosproject.store.service.DistributedPrimitive;
 import org.onosproject.store.service.MapTransaction;
 import org.onosproject.store.service.Serializer;
 import org.onosproject.store.service.TransactionContext;
@@ -37,6 +42,7 @@ import static com.google.common.base.Preconditions.*;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Objects;
+import com.google.common.base.Throwables;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
@@ -171,6 +177,50 @@ public class DefaultTransactionalMap<K, V> implements TransactionalMap<K, V>, Tr
         return latest;
     }
 
+    @Override
+    public boolean putAllIfAbsent(Map<K, V> entries) {
+        checkState(txContext.isOpen(), TX_CLOSED_ERROR);
+        entries.values().forEach(value -> checkNotNull(value, ERROR_NULL_VALUE));
+
+        // keys not read by this transaction yet are read concurrently,
+        // instead of one round trip per key
+        Map<K, CompletableFuture<Versioned<V>>> reads = entries.keySet().stream()
+                .filter(key -> !deleteSet.contains(key) && !writeCache.containsKey(key)
+                        && !readCache.containsKey(key))
+                .collect(Collectors.toMap(key -> key, backingMap::get));
+        complete(CompletableFuture.allOf(reads.values().toArray(new CompletableFuture[reads.size()])));
+        reads.forEach((key, read) -> {
+            Versioned<V> value = read.join();
+            if (value != null) {
+                readCache.putIfAbsent(key, value);
+            }
+        });
+
+        boolean present = entries.keySet().stream()
+                .anyMatch(key -> !deleteSet.contains(key)
+                        && (writeCache.containsKey(key) || readCache.containsKey(key)));
+        if (present) {
+            return false;
+        }
+        writeCache.putAll(entries);
+        deleteSet.removeAll(entries.keySet());
+        return true;
+    }
+
+    private <T> T complete(CompletableFuture<T> future) {
+        try {
+            return future.get(DistributedPrimitive.DEFAULT_OPERTATION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConsistentMapException.Interrupted();
+        } catch (TimeoutException e) {
+            throw new ConsistentMapException.Timeout(name);
+        } catch (ExecutionException e) {
+            Throwables.propagateIfPossible(e.getCause());
+            throw new ConsistentMapException(e.getCause());
+        }
+    }
+
     @Override
     public CompletableFuture<Boolean> prepare() {
         return backingMap.prepare(new MapTransaction<>(txContext.transactionId(), updates()));
@@ -15,6 +15,7 @@
  */
 package org.onosproject.store.primitives.impl;
 
+import java.time.Duration;
 import java.util.function.Function;
 
 import org.onosproject.store.service.AsyncConsistentMap;
@@ -64,6 +65,21 @@ public final class DistributedPrimitives {
         return new CachingAsyncConsistentMap<>(map);
     }
 
+    /**
+     * Creates an instance of {@code AsyncConsistentMap} that caches entries on get
+     * for no longer than the given duration.
+     *
+     * @param map backing map
+     * @param maxStaleness maximum time an entry is served from the cache
+     * @return caching map
+     * @param <K> map key type
+     * @param <V> map value type
+     */
+    public static <K, V> AsyncConsistentMap<K, V> newCachingMap(AsyncConsistentMap<K, V> map,
+                                                                Duration maxStaleness) {
+        return new CachingAsyncConsistentMap<>(map, maxStaleness);
+    }
+
     /**
      * Creates an instance of {@code AsyncConsistentMap} that disallows updates.
      *
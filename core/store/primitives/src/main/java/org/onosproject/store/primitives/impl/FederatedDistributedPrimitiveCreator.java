@@ -16,14 +16,35 @@
 package org.onosproject.store.primitives.impl;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static org.onlab.util.Tools.groupedThreads;
+import static org.slf4j.LoggerFactory.getLogger;
+import io.atomix.copycat.Query.ConsistencyLevel;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
+import org.onlab.util.HexString;
+import org.onlab.util.Tools;
+import org.onosproject.cluster.NodeId;
 import org.onosproject.cluster.PartitionId;
 import org.onosproject.store.primitives.DistributedPrimitiveCreator;
+import org.onosproject.store.primitives.resources.impl.AtomixConsistentMap;
+import org.onosproject.store.serializers.KryoNamespaces;
 import org.onosproject.store.service.AsyncAtomicCounter;
 import org.onosproject.store.service.AsyncAtomicValue;
 import org.onosproject.store.service.AsyncConsistentMap;
@@ -32,11 +53,21 @@ import org.onosproject.store.service.AsyncConsistentTreeMap;
 import org.onosproject.store.service.AsyncDistributedSet;
 import org.onosproject.store.service.AsyncDocumentTree;
 import org.onosproject.store.service.AsyncLeaderElector;
+import org.onosproject.store.service.MapEvent;
+import org.onosproject.store.service.MapEventListener;
+import org.onosproject.store.service.ReadConsistency;
 import org.onosproject.store.service.Serializer;
+import org.onosproject.store.service.StorageException;
+import org.onosproject.store.service.Versioned;
 import org.onosproject.store.service.WorkQueue;
+import org.slf4j.Logger;
 
 import com.google.common.base.Charsets;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -45,29 +76,145 @@ import com.google.common.hash.Hashing;
 /**
  * {@code DistributedPrimitiveCreator} that federates responsibility for creating
  * distributed primitives to a collection of other {@link DistributedPrimitiveCreator creators}.
+ * <p>
+ * Members may be added while primitives are in use. In order for every
+ * instance to locate the state of a consistent map on the same partitions,
+ * the number of partitions a map is spread over is recorded in a registry on
+ * the first partition when the map is first created, and maps only ever use
+ * that many partitions, taken in partition identifier order. The registry is
+ * loaded when the creator is constructed and kept up to date by its events.
+ * A map the cluster does not know yet is registered in the background; its
+ * operations are held back until it is. The other primitives are spread over
+ * the partitions there were when the registry was created, as their state
+ * cannot be moved without resetting it.
+ * </p>
+ * <p>
+ * Consistent maps, and the sets built on them, are spread over the members
+ * added after their creation by {@link #rebalance(String)}. The entries to
+ * move are first staged on the partitions they move to while the map is in
+ * use; staged entries are not visible. The map is then marked as being moved
+ * in the registry, and every active instance holds back the operations on the
+ * map and acknowledges once none of its operations on the map is pending
+ * anymore. The entries changed in the meantime are staged again, the staged
+ * entries are made visible and the moved entries removed from their former
+ * partitions, after which the instances resume the operations on the new
+ * partitions. Moved entries keep their versions, and no map event is
+ * published for moving them.
+ * </p>
  */
 public class FederatedDistributedPrimitiveCreator implements DistributedPrimitiveCreator {
-    private final TreeMap<PartitionId, DistributedPrimitiveCreator> members;
-    private final List<PartitionId> sortedMemberPartitionIds;
+    private static final Logger log = getLogger(FederatedDistributedPrimitiveCreator.class);
 
-    public FederatedDistributedPrimitiveCreator(Map<PartitionId, DistributedPrimitiveCreator> members) {
-        this.members = Maps.newTreeMap();
+    private static final String PLACEMENTS_NAME = "onos-primitive-partitions";
+    private static final String FENCES_NAME = "onos-primitive-partition-fences";
+    private static final String MAP_PLACEMENT_PREFIX = "map:";
+    // number of partitions the primitives other than maps are spread over
+    private static final String PRIMITIVES_PLACEMENT_KEY = "primitives";
+    private static final Serializer SERIALIZER = Serializer.using(KryoNamespaces.BASIC);
+    private static final long TIMEOUT_MILLIS = 30_000;
+    private static final long RETRY_DELAY_MILLIS = 100;
+    private static final int MOVE_ATTEMPTS = 100;
+    private static final int MOVE_BATCH_SIZE = 1000;
+
+    private final ConcurrentNavigableMap<PartitionId, DistributedPrimitiveCreator> members =
+            new ConcurrentSkipListMap<>();
+    private final NodeId localNodeId;
+    private final Supplier<Set<NodeId>> activeNodes;
+    private final ScheduledExecutorService executor =
+            newSingleThreadScheduledExecutor(groupedThreads("onos/store/primitives", "placement", log));
+    // cache of the placement registry
+    private final Map<String, Versioned<Integer>> placements = Maps.newConcurrentMap();
+    private final Map<String, MapPlacement> mapPlacements = Maps.newConcurrentMap();
+    private final MapEventListener<String, Integer> registryListener = this::registryUpdated;
+    private AsyncConsistentMap<String, Integer> placementRegistry;
+    private AsyncConsistentMap<String, Integer> fenceRegistry;
+    private volatile int primitivePartitions;
+
+    /**
+     * Creates a federated primitive creator, loading the placement registry
+     * if there already are members.
+     *
+     * @param members     primitive creators of the open partitions
+     * @param localNodeId identifier of the local node
+     * @param activeNodes supplies the identifiers of the active nodes
+     */
+    public FederatedDistributedPrimitiveCreator(Map<PartitionId, DistributedPrimitiveCreator> members,
+                                                NodeId localNodeId,
+                                                Supplier<Set<NodeId>> activeNodes) {
         this.members.putAll(checkNotNull(members));
-        this.sortedMemberPartitionIds = Lists.newArrayList(members.keySet());
+        this.localNodeId = checkNotNull(localNodeId);
+        this.activeNodes = checkNotNull(activeNodes);
+        if (!this.members.isEmpty()) {
+            placementRegistry();
+        }
+    }
+
+    /**
+     * Adds a member to the federation. Maps created afterwards are spread
+     * over the new member, and existing maps once rebalanced.
+     *
+     * @param partitionId partition identifier of the member
+     * @param creator     primitive creator of the partition
+     */
+    public void addMember(PartitionId partitionId, DistributedPrimitiveCreator creator) {
+        members.putIfAbsent(checkNotNull(partitionId), checkNotNull(creator));
+        placementRegistry();
+        // serves the maps that waited for the partition
+        executor.execute(() -> mapPlacements.keySet().forEach(this::refresh));
+    }
+
+    /**
+     * Spreads a consistent map over all the members, moving the entries that
+     * belong to another member afterwards. The operations on the map are only
+     * held back while the moved entries are switched over. A move that did
+     * not complete is resumed by rebalancing the map again.
+     *
+     * @param name map name
+     * @return future that is completed once the map is spread over all the members
+     */
+    public CompletableFuture<Void> rebalance(String name) {
+        String key = MAP_PLACEMENT_PREFIX + checkNotNull(name);
+        int count = members.size();
+        return placementRegistry().get(key).thenComposeAsync(placement -> {
+            if (placement == null || placement.value() >= count) {
+                return CompletableFuture.completedFuture(null);
+            }
+            // a move that did not complete is resumed as it was recorded
+            int target = placement.value() < 0 ? -placement.value() : count;
+            return new MapMove(name, target).run(placement);
+        }, executor);
+    }
+
+    /**
+     * Stops following the placement of the primitives.
+     */
+    public void close() {
+        AsyncConsistentMap<String, Integer> registry;
+        synchronized (this) {
+            registry = placementRegistry;
+        }
+        if (registry != null) {
+            registry.removeListener(registryListener);
+        }
+        executor.shutdownNow();
     }
 
     @Override
     public <K, V> AsyncConsistentMap<K, V> newAsyncConsistentMap(String name, Serializer serializer) {
+        return newAsyncConsistentMap(name, serializer, ReadConsistency.SEQUENTIAL);
+    }
+
+    @Override
+    public <K, V> AsyncConsistentMap<K, V> newAsyncConsistentMap(String name, Serializer serializer,
+                                                                 ReadConsistency readConsistency) {
         checkNotNull(name);
         checkNotNull(serializer);
-        Map<PartitionId, AsyncConsistentMap<K, V>> maps =
-                Maps.transformValues(members,
-                                     partition -> partition.newAsyncConsistentMap(name, serializer));
-        Hasher<K> hasher = key -> {
-            int hashCode = Hashing.sha256().hashBytes(serializer.encode(key)).asInt();
-            return sortedMemberPartitionIds.get(Math.abs(hashCode) % members.size());
-        };
-        return new PartitionedAsyncConsistentMap<>(name, maps, hasher);
+        checkNotNull(readConsistency);
+        MapPlacement placement = mapPlacement(name);
+        Function<PartitionId, AsyncConsistentMap<K, V>> opener =
+                partitionId -> members.get(partitionId).newAsyncConsistentMap(name, serializer, readConsistency);
+        Hasher<K> hasher = key -> partitionOf(serializer.encode(key), placement.partitionIds);
+        return placement.newMap(opener, hasher);
     }
 
     @Override
@@ -101,12 +248,12 @@ public class FederatedDistributedPrimitiveCreator implements DistributedPrimitiv
     @Override
     public AsyncLeaderElector newAsyncLeaderElector(String name) {
         checkNotNull(name);
+        List<PartitionId> partitionIds = primitivePartitions();
         Map<PartitionId, AsyncLeaderElector> leaderElectors =
-                Maps.transformValues(members,
-                                     partition -> partition.newAsyncLeaderElector(name));
+                Maps.toMap(partitionIds, partitionId -> members.get(partitionId).newAsyncLeaderElector(name));
         Hasher<String> hasher = topic -> {
             int hashCode = Hashing.sha256().hashString(topic, Charsets.UTF_8).asInt();
-            return sortedMemberPartitionIds.get(Math.abs(hashCode) % members.size());
+            return partitionIds.get(Math.abs(hashCode) % partitionIds.size());
         };
         return new PartitionedAsyncLeaderElector(name, leaderElectors, hasher);
     }
@@ -123,11 +270,12 @@ public class FederatedDistributedPrimitiveCreator implements DistributedPrimitiv
 
     @Override
     public Set<String> getAsyncConsistentMapNames() {
+        // the registries are internal to the federation
         return members.values()
                       .stream()
-                      .map(DistributedPrimitiveCreator::getAsyncConsistentMapNames)
-                      .reduce(Sets::union)
-                      .orElse(ImmutableSet.of());
+                      .flatMap(member -> member.getAsyncConsistentMapNames().stream())
+                      .filter(name -> !name.equals(PLACEMENTS_NAME) && !name.equals(FENCES_NAME))
+                      .collect(Collectors.toSet());
     }
 
     @Override
@@ -154,7 +302,422 @@ public class FederatedDistributedPrimitiveCreator implements DistributedPrimitiv
      * @return primitive creator
      */
     private DistributedPrimitiveCreator getCreator(String name) {
+        List<PartitionId> partitionIds = primitivePartitions();
         int hashCode = Hashing.sha256().hashString(name, Charsets.UTF_8).asInt();
-        return members.get(sortedMemberPartitionIds.get(Math.abs(hashCode) % members.size()));
+        return members.get(partitionIds.get(Math.abs(hashCode) % partitionIds.size()));
+    }
+
+    /**
+     * Returns the partition an encoded map key belongs to.
+     * @param encodedKey encoded key
+     * @param partitionIds partitions the map is spread over
+     * @return partition identifier
+     */
+    private static PartitionId partitionOf(byte[] encodedKey, List<PartitionId> partitionIds) {
+        int hashCode = Hashing.sha256().hashBytes(encodedKey).asInt();
+        return partitionIds.get(Math.abs(hashCode) % partitionIds.size());
+    }
+
+    /**
+     * Returns the partitions the primitives other than maps are spread over.
+     * @return sorted partition identifiers
+     */
+    private List<PartitionId> primitivePartitions() {
+        placementRegistry();
+        return firstPartitions(primitivePartitions);
+    }
+
+    /**
+     * Returns the first partitions in identifier order.
+     * @param count number of partitions, at most the number of members
+     * @return sorted partition identifiers
+     */
+    private List<PartitionId> firstPartitions(int count) {
+        checkState(members.size() >= count, "Only %s of %s partitions are open", members.size(), count);
+        return ImmutableList.copyOf(Iterables.limit(members.keySet(), count));
+    }
+
+    private Versioned<Integer> cache(String key, Versioned<Integer> placement) {
+        return placements.merge(key, placement,
+                                (cached, update) -> update.version() > cached.version() ? update : cached);
+    }
+
+    private MapPlacement mapPlacement(String name) {
+        MapPlacement placement = mapPlacements.get(name);
+        if (placement == null) {
+            MapPlacement newPlacement = new MapPlacement(name);
+            placement = mapPlacements.putIfAbsent(name, newPlacement);
+            if (placement == null) {
+                placement = newPlacement;
+                if (placements.containsKey(MAP_PLACEMENT_PREFIX + name)) {
+                    refresh(name);
+                } else {
+                    register(name);
+                }
+            }
+        }
+        return placement;
+    }
+
+    /**
+     * Registers the current number of partitions for a map the cluster may
+     * not know yet, and applies the number registered.
+     * @param name map name
+     */
+    private void register(String name) {
+        String key = MAP_PLACEMENT_PREFIX + name;
+        int count = members.size();
+        placementRegistry().putIfAbsent(key, count).whenComplete((registered, error) -> {
+            if (error != null) {
+                log.warn("Failed to register the placement of map {}, retrying", name, error);
+                executor.schedule(() -> register(name), RETRY_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+            } else {
+                cache(key, registered != null ? registered : new Versioned<>(count, 0));
+                executor.execute(() -> refresh(name));
+            }
+        });
+    }
+
+    /**
+     * Loads the placement registry, if not loaded yet.
+     * @return placement registry
+     */
+    private synchronized AsyncConsistentMap<String, Integer> placementRegistry() {
+        if (placementRegistry == null) {
+            // partitions are never removed, so the first one is stable
+            DistributedPrimitiveCreator first = members.firstEntry().getValue();
+            placementRegistry = first.newAsyncConsistentMap(PLACEMENTS_NAME, SERIALIZER);
+            fenceRegistry = first.newAsyncConsistentMap(FENCES_NAME, SERIALIZER);
+            complete(placementRegistry.addListener(registryListener, executor));
+            complete(placementRegistry.entrySet()).forEach(entry -> cache(entry.getKey(), entry.getValue()));
+            Versioned<Integer> primitives =
+                    complete(placementRegistry.putIfAbsent(PRIMITIVES_PLACEMENT_KEY, members.size()));
+            primitivePartitions = primitives != null ? primitives.value() : members.size();
+        }
+        return placementRegistry;
+    }
+
+    private synchronized AsyncConsistentMap<String, Integer> fenceRegistry() {
+        placementRegistry();
+        return fenceRegistry;
+    }
+
+    private static String fenceKey(String name, NodeId nodeId) {
+        return name + "@" + nodeId;
+    }
+
+    private void registryUpdated(MapEvent<String, Integer> event) {
+        if (event.newValue() != null) {
+            cache(event.key(), event.newValue());
+        }
+        if (event.key().startsWith(MAP_PLACEMENT_PREFIX)) {
+            refresh(event.key().substring(MAP_PLACEMENT_PREFIX.length()));
+        }
+    }
+
+    /**
+     * Applies the recorded placement of a map on this instance, and
+     * acknowledges a move of the map.
+     * @param name map name
+     */
+    private void refresh(String name) {
+        MapPlacement placement = mapPlacements.get(name);
+        try {
+            int count;
+            if (placement != null) {
+                count = placement.refresh();
+            } else {
+                Versioned<Integer> recorded = placements.get(MAP_PLACEMENT_PREFIX + name);
+                count = recorded != null ? recorded.value() : 0;
+            }
+            if (count < 0) {
+                acknowledgeFence(name, placement, -count);
+            }
+        } catch (StorageException e) {
+            log.warn("Failed to apply the placement of map {}, retrying", name, e);
+            executor.schedule(() -> refresh(name), RETRY_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void acknowledgeFence(String name, MapPlacement placement, int count) {
+        if (placement != null && placement.gate.isOpen()) {
+            // the move completed in the meantime
+            return;
+        }
+        if (placement != null && !placement.gate.isIdle()) {
+            executor.schedule(() -> acknowledgeFence(name, placement, count),
+                              RETRY_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+            return;
+        }
+        // no operation of this instance on the map is pending anymore
+        fenceRegistry().put(fenceKey(name, localNodeId), count);
+    }
+
+    private void awaitFences(String name, int count, long deadline, CompletableFuture<Void> fenced) {
+        Tools.allOf(activeNodes.get()
+                               .stream()
+                               .map(nodeId -> fenceRegistry().get(fenceKey(name, nodeId)))
+                               .collect(Collectors.toList()))
+             .whenComplete((fences, error) -> {
+                 if (error != null) {
+                     fenced.completeExceptionally(error);
+                 } else if (fences.stream().allMatch(fence -> fence != null && fence.value() == count)) {
+                     fenced.complete(null);
+                 } else if (System.currentTimeMillis() > deadline) {
+                     fenced.completeExceptionally(new StorageException.Timeout());
+                 } else {
+                     executor.schedule(() -> awaitFences(name, count, deadline, fenced),
+                                       RETRY_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+                 }
+             });
+    }
+
+    private CompletableFuture<Void> removeFences(String name) {
+        return CompletableFuture.allOf(activeNodes.get()
+                                                  .stream()
+                                                  .map(nodeId -> fenceRegistry().remove(fenceKey(name, nodeId)))
+                                                  .toArray(CompletableFuture[]::new));
+    }
+
+    private static <T> T complete(CompletableFuture<T> future) {
+        try {
+            return future.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageException.Interrupted();
+        } catch (TimeoutException e) {
+            throw new StorageException.Timeout();
+        } catch (ExecutionException e) {
+            Throwables.propagateIfPossible(e.getCause());
+            throw new StorageException(e.getCause());
+        }
+    }
+
+    /**
+     * Placement of a consistent map, shared by the instances of the map on
+     * this controller instance. The operations on the map are held back
+     * until the placement is known and while the map is being moved.
+     */
+    private final class MapPlacement {
+        private final String name;
+        private final OperationGate gate = new OperationGate(false);
+        // instances of the map, guarded by this
+        private final Set<PartitionedAsyncConsistentMap<?, ?>> instances =
+                Collections.newSetFromMap(new WeakHashMap<>());
+        private volatile List<PartitionId> partitionIds = ImmutableList.of();
+
+        private MapPlacement(String name) {
+            this.name = name;
+        }
+
+        private synchronized <K, V> AsyncConsistentMap<K, V> newMap(
+                Function<PartitionId, AsyncConsistentMap<K, V>> opener, Hasher<K> hasher) {
+            PartitionedAsyncConsistentMap<K, V> map =
+                    new PartitionedAsyncConsistentMap<>(name, Maps.toMap(partitionIds, opener::apply),
+                                                        hasher, gate, opener);
+            instances.add(map);
+            return map;
+        }
+
+        /**
+         * Applies the cached placement: holds the operations back while the
+         * map is being moved, and otherwise spreads the instances over the
+         * recorded number of partitions once they are open and serves them.
+         *
+         * @return recorded number of partitions, negated while the map is
+         * being moved, or 0 if not known yet
+         */
+        private synchronized int refresh() {
+            Versioned<Integer> recorded = placements.get(MAP_PLACEMENT_PREFIX + name);
+            if (recorded == null) {
+                return 0;
+            }
+            int count = recorded.value();
+            if (count < 0) {
+                gate.close();
+            } else if (count <= members.size() && !(gate.isOpen() && partitionIds.size() == count)) {
+                List<PartitionId> ids = firstPartitions(count);
+                instances.forEach(instance -> complete(instance.addPartitions(ids)));
+                partitionIds = ids;
+                gate.open();
+                log.debug("Map {} is spread over {} partitions", name, count);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Move of the entries of a consistent map to the partitions they belong
+     * to. The maps of the partitions are accessed as stored, keyed by the
+     * hexadecimal strings of the encoded keys.
+     */
+    private final class MapMove {
+        private final String name;
+        private final String key;
+        private final int count;
+        private final List<PartitionId> partitionIds;
+        private final Map<PartitionId, AtomixConsistentMap> maps;
+        // versions of the moved entries held by the partitions they move to
+        private final Map<String, Long> moved = Maps.newConcurrentMap();
+        private volatile boolean promoted;
+
+        private MapMove(String name, int count) {
+            this.name = name;
+            this.key = MAP_PLACEMENT_PREFIX + name;
+            this.count = count;
+            this.partitionIds = firstPartitions(count);
+            this.maps = Maps.toMap(partitionIds, partitionId -> {
+                DistributedPrimitiveCreator member = members.get(partitionId);
+                checkState(member instanceof RawMapCreator, "Entries cannot be moved to partition %s", partitionId);
+                return ((RawMapCreator) member).newRawConsistentMap(name);
+            });
+        }
+
+        private CompletableFuture<Void> run(Versioned<Integer> placement) {
+            log.info("Moving the entries of map {} to {} partitions", name, count);
+            // staged entries left by a move that did not complete are staged again
+            return allOf(partitionIds, partitionId -> maps.get(partitionId).discardStaged())
+                    .thenCompose(v -> scan())
+                    .thenCompose(this::stage)
+                    .thenCompose(v -> placement.value() < 0 ? CompletableFuture.completedFuture(null)
+                            : fence(placement))
+                    .thenCompose(v -> settle(MOVE_ATTEMPTS))
+                    .thenCompose(v -> placementRegistry().put(key, count))
+                    .thenCompose(v -> removeFences(name))
+                    .thenRun(() -> log.info("Moved {} entries of map {} to {} partitions",
+                                            moved.size(), name, count));
+        }
+
+        /**
+         * Marks the map as being moved and waits for every active instance to
+         * hold back its operations on the map. The move is called off if an
+         * instance does not acknowledge in time.
+         */
+        private CompletableFuture<Void> fence(Versioned<Integer> placement) {
+            return placementRegistry().replace(key, placement.version(), -count).thenCompose(replaced -> {
+                if (!replaced) {
+                    return callOff(new StorageException.ConcurrentModification(),
+                                   CompletableFuture.completedFuture(null));
+                }
+                CompletableFuture<Void> fenced = new CompletableFuture<>();
+                awaitFences(name, count, System.currentTimeMillis() + TIMEOUT_MILLIS, fenced);
+                return fenced.handle((r, e) -> e).thenCompose(error -> error == null
+                        ? CompletableFuture.completedFuture(null)
+                        : callOff(error, placementRegistry().replace(key, Integer.valueOf(-count),
+                                                                     placement.value())
+                                                            .thenCompose(v -> removeFences(name))));
+            });
+        }
+
+        private CompletableFuture<Void> callOff(Throwable error, CompletableFuture<?> unfence) {
+            log.warn("Called off the move of map {}", name, error);
+            return unfence.thenCompose(v -> allOf(partitionIds, partitionId -> maps.get(partitionId).discardStaged()))
+                          .thenCompose(v -> Tools.exceptionalFuture(error));
+        }
+
+        /**
+         * Stages the entries changed since last staged, makes the staged
+         * entries visible and removes the moved entries from their former
+         * partitions, until no entry changed in the meantime. Entries are
+         * only changed by the transactions prepared before the operations
+         * were held back.
+         */
+        private CompletableFuture<Void> settle(int attempts) {
+            return scan().thenCompose(entries -> stage(entries)
+                    .thenCompose(v -> allOf(partitionIds, partitionId -> maps.get(partitionId).promoteStaged()))
+                    .thenRun(() -> promoted = true)
+                    .thenCompose(v -> evict(entries)))
+                         .thenCompose(retained -> {
+                             if (retained.isEmpty()) {
+                                 return CompletableFuture.completedFuture(null);
+                             }
+                             if (attempts <= 1) {
+                                 return Tools.exceptionalFuture(new StorageException.ConcurrentModification());
+                             }
+                             CompletableFuture<Void> retry = new CompletableFuture<>();
+                             executor.schedule(() -> settle(attempts - 1).whenComplete((r, e) -> {
+                                 if (e != null) {
+                                     retry.completeExceptionally(e);
+                                 } else {
+                                     retry.complete(null);
+                                 }
+                             }), RETRY_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+                             return retry;
+                         });
+        }
+
+        /**
+         * Returns the entries of each partition that belong to another one.
+         */
+        private CompletableFuture<Map<PartitionId, Map<String, Versioned<byte[]>>>> scan() {
+            List<CompletableFuture<Map<String, Versioned<byte[]>>>> scans = partitionIds.stream().map(
+                    partitionId -> maps.get(partitionId).entrySet(ConsistencyLevel.LINEARIZABLE).thenApply(
+                            entries -> entries.stream()
+                                              .filter(entry -> !targetOf(entry.getKey()).equals(partitionId))
+                                              .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue))))
+                    .collect(Collectors.toList());
+            return Tools.allOf(scans).thenApply(results -> {
+                Map<PartitionId, Map<String, Versioned<byte[]>>> entries = Maps.newHashMap();
+                for (int i = 0; i < partitionIds.size(); i++) {
+                    entries.put(partitionIds.get(i), results.get(i));
+                }
+                return entries;
+            });
+        }
+
+        /**
+         * Stages the entries not staged with their current version yet, and
+         * withdraws the entries removed since from the partitions they move to.
+         */
+        private CompletableFuture<Void> stage(Map<PartitionId, Map<String, Versioned<byte[]>>> entries) {
+            Map<PartitionId, Map<String, Versioned<byte[]>>> staged = Maps.newHashMap();
+            Map<PartitionId, Map<String, Long>> withdrawn = Maps.newHashMap();
+            Set<String> present = Sets.newHashSet();
+            entries.values().forEach(partitionEntries -> partitionEntries.forEach((key, value) -> {
+                present.add(key);
+                Long version = moved.put(key, value.version());
+                if (version == null || version != value.version()) {
+                    staged.computeIfAbsent(targetOf(key), id -> Maps.newHashMap()).put(key, value);
+                }
+            }));
+            moved.entrySet().removeIf(entry -> {
+                if (present.contains(entry.getKey())) {
+                    return false;
+                }
+                withdrawn.computeIfAbsent(targetOf(entry.getKey()), id -> Maps.newHashMap())
+                         .put(entry.getKey(), entry.getValue());
+                return true;
+            });
+            List<CompletableFuture<?>> updates = Lists.newArrayList();
+            staged.forEach((partitionId, partitionEntries) ->
+                    Iterables.partition(partitionEntries.keySet(), MOVE_BATCH_SIZE).forEach(keys -> updates.add(
+                            maps.get(partitionId).stage(Maps.toMap(keys, partitionEntries::get), ImmutableSet.of()))));
+            withdrawn.forEach((partitionId, versions) -> updates.add(promoted
+                    ? maps.get(partitionId).evict(versions)
+                    : maps.get(partitionId).stage(ImmutableMap.of(), versions.keySet())));
+            return CompletableFuture.allOf(updates.toArray(new CompletableFuture[updates.size()]));
+        }
+
+        /**
+         * Removes the moved entries from their former partitions.
+         *
+         * @return future for the keys of the entries that changed in the meantime
+         */
+        private CompletableFuture<Set<String>> evict(Map<PartitionId, Map<String, Versioned<byte[]>>> entries) {
+            List<CompletableFuture<Set<String>>> evictions = Lists.newArrayList();
+            entries.forEach((partitionId, partitionEntries) ->
+                    Iterables.partition(partitionEntries.keySet(), MOVE_BATCH_SIZE).forEach(keys -> evictions.add(
+                            maps.get(partitionId).evict(Maps.toMap(keys, k -> partitionEntries.get(k).version())))));
+            return Tools.allOf(evictions, Sets::union, ImmutableSet.of());
+        }
+
+        private PartitionId targetOf(String key) {
+            return partitionOf(HexString.fromHexString(key), partitionIds);
+        }
+
+        private <T> CompletableFuture<Void> allOf(List<PartitionId> ids,
+                                                  Function<PartitionId, CompletableFuture<T>> operation) {
+            return CompletableFuture.allOf(ids.stream().map(operation).toArray(CompletableFuture[]::new));
+        }
     }
 }
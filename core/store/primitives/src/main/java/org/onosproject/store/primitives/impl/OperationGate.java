@@ -0,0 +1,109 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.primitives.impl;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Gate for the operations on a distributed primitive. Operations are let
+ * through while the gate is open and are held back while it is closed, until
+ * it is opened again. The operations let through are tracked until they
+ * complete, so that once the gate is closed one can tell when no operation
+ * is pending anymore.
+ */
+final class OperationGate {
+
+    private final AtomicInteger pendingOperations = new AtomicInteger();
+    // completed when the gate is opened, null while it is open
+    private volatile CompletableFuture<Void> opened;
+
+    /**
+     * Creates a gate.
+     *
+     * @param open whether the gate is initially open
+     */
+    OperationGate(boolean open) {
+        this.opened = open ? null : new CompletableFuture<>();
+    }
+
+    /**
+     * Applies an operation once the gate is open.
+     *
+     * @param operation operation to apply
+     * @param <T> operation result type
+     * @return future for the operation result
+     */
+    <T> CompletableFuture<T> apply(Supplier<CompletableFuture<T>> operation) {
+        // counted before checking the gate, so that close() never misses it
+        pendingOperations.incrementAndGet();
+        CompletableFuture<Void> opening = opened;
+        if (opening != null) {
+            pendingOperations.decrementAndGet();
+            // the gate may have been closed again in the meantime
+            return opening.thenCompose(v -> apply(operation));
+        }
+        try {
+            return operation.get().whenComplete((r, e) -> pendingOperations.decrementAndGet());
+        } catch (RuntimeException e) {
+            pendingOperations.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens the gate, letting the operations held back through.
+     */
+    void open() {
+        CompletableFuture<Void> opening;
+        synchronized (this) {
+            opening = opened;
+            opened = null;
+        }
+        if (opening != null) {
+            opening.complete(null);
+        }
+    }
+
+    /**
+     * Closes the gate. Operations let through before remain pending until
+     * they complete.
+     */
+    synchronized void close() {
+        if (opened == null) {
+            opened = new CompletableFuture<>();
+        }
+    }
+
+    /**
+     * Returns whether the gate is open.
+     *
+     * @return true if the gate is open
+     */
+    boolean isOpen() {
+        return opened == null;
+    }
+
+    /**
+     * Returns whether no operation let through is pending.
+     *
+     * @return true if no operation is pending
+     */
+    boolean isIdle() {
+        return pendingOperations.get() == 0;
+    }
+}
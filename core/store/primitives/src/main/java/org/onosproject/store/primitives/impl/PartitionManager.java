@@ -16,9 +16,16 @@
 
 package org.onosproject.store.primitives.impl;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Strings.isNullOrEmpty;
+import static org.onlab.util.Tools.get;
 import static org.slf4j.LoggerFactory.getLogger;
 
+import io.atomix.copycat.server.storage.StorageLevel;
+
 import java.io.File;
+import java.util.Comparator;
+import java.util.Dictionary;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -29,17 +36,25 @@ import java.util.stream.Collectors;
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Deactivate;
+import org.apache.felix.scr.annotations.Modified;
+import org.apache.felix.scr.annotations.Property;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
+import org.apache.felix.scr.annotations.ReferencePolicy;
 import org.apache.felix.scr.annotations.Service;
 import org.onlab.util.Tools;
+import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.cluster.ClusterMetadata;
+import org.onosproject.cluster.ClusterMetadataAdminService;
 import org.onosproject.cluster.ClusterMetadataDiff;
 import org.onosproject.cluster.ClusterMetadataEvent;
 import org.onosproject.cluster.ClusterMetadataEventListener;
 import org.onosproject.cluster.ClusterMetadataService;
 import org.onosproject.cluster.ClusterService;
+import org.onosproject.cluster.ControllerNode;
+import org.onosproject.cluster.DefaultPartition;
 import org.onosproject.cluster.NodeId;
+import org.onosproject.cluster.Partition;
 import org.onosproject.cluster.PartitionDiff;
 import org.onosproject.cluster.PartitionId;
 import org.onosproject.event.AbstractListenerManager;
@@ -51,10 +66,12 @@ import org.onosproject.store.primitives.PartitionEventListener;
 import org.onosproject.store.primitives.PartitionService;
 import org.onosproject.store.service.PartitionClientInfo;
 import org.onosproject.store.service.PartitionInfo;
+import org.osgi.service.component.ComponentContext;
 import org.slf4j.Logger;
 
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 import static org.onosproject.security.AppGuard.checkPermission;
 import static org.onosproject.security.AppPermission.Type.PARTITION_READ;
@@ -69,31 +86,59 @@ public class PartitionManager extends AbstractListenerManager<PartitionEvent, Pa
 
     private final Logger log = getLogger(getClass());
 
+    private static final String DEFAULT_STORAGE_LEVEL = "DISK";
+    private static final int DEFAULT_MAX_ENTRIES_PER_LOG_SEGMENT = 32768;
+    private static final boolean DEFAULT_FLUSH_ON_COMMIT = false;
+
+    @Property(name = "storageLevel", value = DEFAULT_STORAGE_LEVEL,
+            label = "Storage level of the partition logs; DISK, MAPPED or MEMORY")
+    private String storageLevel = DEFAULT_STORAGE_LEVEL;
+
+    @Property(name = "maxEntriesPerLogSegment", intValue = DEFAULT_MAX_ENTRIES_PER_LOG_SEGMENT,
+            label = "Maximum number of entries per partition log segment")
+    private int maxEntriesPerLogSegment = DEFAULT_MAX_ENTRIES_PER_LOG_SEGMENT;
+
+    @Property(name = "flushOnCommit", boolValue = DEFAULT_FLUSH_ON_COMMIT,
+            label = "Flush the partition logs to disk on every commit rather than in batches")
+    private boolean flushOnCommit = DEFAULT_FLUSH_ON_COMMIT;
+
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected MessagingService messagingService;
 
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected ClusterMetadataService metadataService;
 
+    // provided by the same component as the metadata service, hence no new
+    // activation dependency; used to publish the partitions added at runtime
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected ClusterMetadataAdminService metadataAdminService;
+
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected ClusterService clusterService;
 
+    // optional, since the component configuration service itself depends on
+    // the partitions; the properties are registered once it is available
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL_UNARY,
+               policy = ReferencePolicy.DYNAMIC)
+    protected ComponentConfigService cfgService;
+
     private final Map<PartitionId, StoragePartition> partitions = Maps.newConcurrentMap();
     private final AtomicReference<ClusterMetadata> currentClusterMetadata = new AtomicReference<>();
     private final InternalClusterMetadataListener metadataListener = new InternalClusterMetadataListener();
+    private final AtomicReference<PartitionStorageConfig> storageConfig =
+            new AtomicReference<>(new PartitionStorageConfig(StorageLevel.valueOf(DEFAULT_STORAGE_LEVEL),
+                                                             DEFAULT_MAX_ENTRIES_PER_LOG_SEGMENT,
+                                                             DEFAULT_FLUSH_ON_COMMIT));
 
     @Activate
-    public void activate() {
+    public void activate(ComponentContext context) {
+        modified(context);
         eventDispatcher.addSink(PartitionEvent.class, listenerRegistry);
         currentClusterMetadata.set(metadataService.getClusterMetadata());
         metadataService.addListener(metadataListener);
         currentClusterMetadata.get()
                        .getPartitions()
-                       .forEach(partition -> partitions.put(partition.getId(), new StoragePartition(partition,
-                               messagingService,
-                               clusterService,
-                               CatalystSerializers.getSerializer(),
-                               new File(System.getProperty("karaf.data") + "/partitions/" + partition.getId()))));
+                       .forEach(partition -> partitions.put(partition.getId(), newStoragePartition(partition)));
 
         CompletableFuture<Void> openFuture = CompletableFuture.allOf(partitions.values()
                                                                                .stream()
@@ -116,6 +161,56 @@ public class PartitionManager extends AbstractListenerManager<PartitionEvent, Pa
         log.info("Stopped");
     }
 
+    protected void bindCfgService(ComponentConfigService service) {
+        if (cfgService == null) {
+            cfgService = service;
+            cfgService.registerProperties(getClass());
+        }
+    }
+
+    protected void unbindCfgService(ComponentConfigService service) {
+        if (cfgService == service) {
+            cfgService.unregisterProperties(getClass(), false);
+            cfgService = null;
+        }
+    }
+
+    @Modified
+    public void modified(ComponentContext context) {
+        if (context == null) {
+            return;
+        }
+        Dictionary<?, ?> properties = context.getProperties();
+
+        String s = get(properties, "storageLevel");
+        try {
+            storageLevel = isNullOrEmpty(s) ? storageLevel : StorageLevel.valueOf(s.trim()).name();
+        } catch (IllegalArgumentException e) {
+            log.warn("Unknown storage level {}, using {}", s, storageLevel);
+        }
+
+        s = get(properties, "maxEntriesPerLogSegment");
+        try {
+            maxEntriesPerLogSegment = isNullOrEmpty(s) ? maxEntriesPerLogSegment : Integer.parseInt(s.trim());
+        } catch (NumberFormatException e) {
+            log.warn("Invalid max entries per log segment {}, using {}", s, maxEntriesPerLogSegment);
+        }
+        if (maxEntriesPerLogSegment <= 0) {
+            maxEntriesPerLogSegment = DEFAULT_MAX_ENTRIES_PER_LOG_SEGMENT;
+        }
+
+        Boolean flag = Tools.isPropertyEnabled(properties, "flushOnCommit");
+        flushOnCommit = flag == null ? flushOnCommit : flag;
+
+        PartitionStorageConfig config = new PartitionStorageConfig(StorageLevel.valueOf(storageLevel),
+                                                                   maxEntriesPerLogSegment,
+                                                                   flushOnCommit);
+        if (!config.equals(storageConfig.getAndSet(config))) {
+            // Servers already running keep their storage until they rejoin
+            log.info("Configured. Partition log storage is {}", config);
+        }
+    }
+
     @Override
     public int getNumberOfPartitions() {
         checkPermission(PARTITION_READ);
@@ -157,14 +252,78 @@ public class PartitionManager extends AbstractListenerManager<PartitionEvent, Pa
                          .collect(Collectors.toList());
     }
 
-    private void processMetadataUpdate(ClusterMetadata clusterMetadata) {
+    @Override
+    public void addPartitions(int count) {
+        checkArgument(count > 0, "Number of partitions to add must be positive");
+        ClusterMetadata metadata = currentClusterMetadata.get();
+        List<NodeId> nodes = metadata.getNodes()
+                                     .stream()
+                                     .map(ControllerNode::id)
+                                     .sorted(Comparator.comparing(NodeId::toString))
+                                     .collect(Collectors.toList());
+        int partitionSize = metadata.getPartitions()
+                                    .stream()
+                                    .mapToInt(p -> p.getMembers().size())
+                                    .max()
+                                    .orElse(nodes.size());
+        int nextId = metadata.getPartitions()
+                             .stream()
+                             .mapToInt(p -> p.getId().asInt())
+                             .max()
+                             .orElse(0) + 1;
+        // members are picked in the same rotation as the initial partitions
+        Set<Partition> newPartitions = Sets.newHashSet(metadata.getPartitions());
+        for (int i = 0; i < count; i++) {
+            int id = nextId + i;
+            Set<NodeId> members = Sets.newHashSet();
+            for (int j = 0; j < Math.min(partitionSize, nodes.size()); j++) {
+                members.add(nodes.get((id - 1 + j) % nodes.size()));
+            }
+            newPartitions.add(new DefaultPartition(PartitionId.from(id), members));
+        }
+        log.info("Adding {} partitions", count);
+        metadataAdminService.setClusterMetadata(new ClusterMetadata(metadata.getName(),
+                                                                    ImmutableSet.copyOf(metadata.getNodes()),
+                                                                    newPartitions));
+    }
+
+    private StoragePartition newStoragePartition(Partition partition) {
+        return new StoragePartition(partition,
+                messagingService,
+                clusterService,
+                CatalystSerializers.getSerializer(),
+                new File(System.getProperty("karaf.data") + "/partitions/" + partition.getId()),
+                storageConfig::get);
+    }
+
+    private synchronized void processMetadataUpdate(ClusterMetadata clusterMetadata) {
         ClusterMetadataDiff diffExaminer =
                 new ClusterMetadataDiff(currentClusterMetadata.get(), clusterMetadata);
         diffExaminer.partitionDiffs()
                     .values()
                     .stream()
                     .filter(PartitionDiff::hasChanged)
-                    .forEach(diff -> partitions.get(diff.partitionId()).onUpdate(diff.newValue()));
+                    .forEach(diff -> {
+                        if (diff.isNewPartition()) {
+                            openPartition(diff.newValue());
+                        } else {
+                            partitions.get(diff.partitionId()).onUpdate(diff.newValue());
+                        }
+                    });
+        currentClusterMetadata.set(clusterMetadata);
+    }
+
+    private void openPartition(Partition partition) {
+        StoragePartition storagePartition = newStoragePartition(partition);
+        storagePartition.open().whenComplete((r, e) -> {
+            if (e != null) {
+                log.warn("Failed to open partition {}", partition.getId(), e);
+            } else {
+                partitions.put(partition.getId(), storagePartition);
+                log.info("Opened partition {}", partition.getId());
+                post(new PartitionEvent(PartitionEvent.Type.OPENED, partition));
+            }
+        });
     }
 
     private class InternalClusterMetadataListener implements ClusterMetadataEventListener {
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.primitives.impl;
+
+import io.atomix.copycat.server.storage.Storage;
+import io.atomix.copycat.server.storage.StorageLevel;
+
+import java.io.File;
+import java.util.Objects;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Storage settings of the Raft log of a {@link StoragePartitionServer}.
+ * <p>
+ * {@link StorageLevel#DISK} writes segments through file channels,
+ * {@link StorageLevel#MAPPED} memory maps them and {@link StorageLevel#MEMORY}
+ * keeps the log on the heap only, losing it when the instance is restarted.
+ * Unless flushing on every commit is enabled, writes to persistent segments
+ * are left to the log to flush in batches, which trades the durability of
+ * the most recent entries on a crash for lower commit latency.
+ * </p>
+ */
+public final class PartitionStorageConfig {
+
+    private final StorageLevel storageLevel;
+    private final int maxEntriesPerSegment;
+    private final boolean flushOnCommit;
+
+    /**
+     * Creates new storage settings.
+     *
+     * @param storageLevel         storage level of the log
+     * @param maxEntriesPerSegment maximum number of entries per log segment
+     * @param flushOnCommit        whether to flush the log on every commit
+     */
+    public PartitionStorageConfig(StorageLevel storageLevel, int maxEntriesPerSegment,
+                                  boolean flushOnCommit) {
+        checkArgument(maxEntriesPerSegment > 0, "Max entries per segment must be positive");
+        this.storageLevel = checkNotNull(storageLevel);
+        this.maxEntriesPerSegment = maxEntriesPerSegment;
+        this.flushOnCommit = flushOnCommit;
+    }
+
+    /**
+     * Returns the storage level of the log.
+     *
+     * @return storage level
+     */
+    public StorageLevel storageLevel() {
+        return storageLevel;
+    }
+
+    /**
+     * Returns the maximum number of entries per log segment.
+     *
+     * @return max entries per segment
+     */
+    public int maxEntriesPerSegment() {
+        return maxEntriesPerSegment;
+    }
+
+    /**
+     * Returns whether the log is flushed on every commit.
+     *
+     * @return true if flushed on every commit
+     */
+    public boolean flushOnCommit() {
+        return flushOnCommit;
+    }
+
+    /**
+     * Builds the Copycat storage for a log in the given directory.
+     *
+     * @param directory log directory
+     * @return storage
+     */
+    Storage toStorage(File directory) {
+        return Storage.builder()
+                .withStorageLevel(storageLevel)
+                .withCompactionThreads(1)
+                .withDirectory(directory)
+                .withMaxEntriesPerSegment(maxEntriesPerSegment)
+                .withFlushOnCommit(flushOnCommit)
+                .build();
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(storageLevel, maxEntriesPerSegment, flushOnCommit);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj instanceof PartitionStorageConfig) {
+            PartitionStorageConfig that = (PartitionStorageConfig) obj;
+            return storageLevel == that.storageLevel
+                    && maxEntriesPerSegment == that.maxEntriesPerSegment
+                    && flushOnCommit == that.flushOnCommit;
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("storageLevel", storageLevel)
+                .add("maxEntriesPerSegment", maxEntriesPerSegment)
+                .add("flushOnCommit", flushOnCommit)
+                .toString();
+    }
+}
@@ -22,11 +22,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -48,6 +51,11 @@ import com.google.common.collect.Maps;
 /**
  * {@link AsyncConsistentMap} that has its entries partitioned horizontally across
  * several {@link AsyncConsistentMap maps}.
+ * <p>
+ * Partitions may be added while the map is in use. Operations on entries are
+ * held back while the placement of the map is resolved and while moved
+ * entries are switched over to their new partitions.
+ * </p>
  *
  * @param <K> key type
  * @param <V> value type
@@ -55,15 +63,55 @@ import com.google.common.collect.Maps;
 public class PartitionedAsyncConsistentMap<K, V> implements AsyncConsistentMap<K, V> {
 
     private final String name;
-    private final TreeMap<PartitionId, AsyncConsistentMap<K, V>> partitions = Maps.newTreeMap();
+    private final ConcurrentNavigableMap<PartitionId, AsyncConsistentMap<K, V>> partitions =
+            new ConcurrentSkipListMap<>();
     private final Hasher<K> keyHasher;
+    private final OperationGate gate;
+    private final Function<PartitionId, AsyncConsistentMap<K, V>> partitionOpener;
+    private final Map<MapEventListener<K, V>, Executor> listeners = Maps.newConcurrentMap();
+    private final List<Consumer<Status>> statusListeners = new CopyOnWriteArrayList<>();
 
-    public PartitionedAsyncConsistentMap(String name,
+    /**
+     * Creates a partitioned map that can be spread over more partitions later.
+     *
+     * @param name            map name
+     * @param partitions      maps of the partitions the map is initially spread over
+     * @param keyHasher       hasher mapping keys to partitions
+     * @param gate            gate for the operations on entries
+     * @param partitionOpener opens the map on a partition that is added
+     */
+    PartitionedAsyncConsistentMap(String name,
             Map<PartitionId, AsyncConsistentMap<K, V>> partitions,
-            Hasher<K> keyHasher) {
+            Hasher<K> keyHasher,
+            OperationGate gate,
+            Function<PartitionId, AsyncConsistentMap<K, V>> partitionOpener) {
         this.name = name;
         this.partitions.putAll(checkNotNull(partitions));
         this.keyHasher = checkNotNull(keyHasher);
+        this.gate = checkNotNull(gate);
+        this.partitionOpener = checkNotNull(partitionOpener);
+    }
+
+    /**
+     * Spreads the map over the given partitions, opening the map on those it
+     * is not yet spread over. The listeners of the map are registered on the
+     * added partitions.
+     *
+     * @param partitionIds partition identifiers
+     * @return future that is completed when the listeners are registered
+     */
+    CompletableFuture<Void> addPartitions(Collection<PartitionId> partitionIds) {
+        List<CompletableFuture<Void>> futures = Lists.newArrayList();
+        partitionIds.stream()
+                    .filter(partitionId -> !partitions.containsKey(partitionId))
+                    .forEach(partitionId -> {
+                        AsyncConsistentMap<K, V> map = partitionOpener.apply(partitionId);
+                        statusListeners.forEach(map::addStatusChangeListener);
+                        listeners.forEach((listener, executor) ->
+                                                  futures.add(map.addListener(listener, executor)));
+                        partitions.put(partitionId, map);
+                    });
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]));
     }
 
     @Override
@@ -73,9 +121,9 @@ public class PartitionedAsyncConsistentMap<K, V> implements AsyncConsistentMap<K
 
     @Override
     public CompletableFuture<Integer> size() {
-        return Tools.allOf(getMaps().stream().map(m -> m.size()).collect(Collectors.toList()),
+        return onMaps(maps -> Tools.allOf(maps.stream().map(m -> m.size()).collect(Collectors.toList()),
                             Math::addExact,
-                            0);
+                            0));
     }
 
     @Override
@@ -85,102 +133,104 @@ public class PartitionedAsyncConsistentMap<K, V> implements AsyncConsistentMap<K
 
     @Override
     public CompletableFuture<Boolean> containsKey(K key) {
-        return getMap(key).containsKey(key);
+        return onMap(key, map -> map.containsKey(key));
     }
 
     @Override
     public CompletableFuture<Boolean> containsValue(V value) {
-        return Tools.firstOf(getMaps().stream().map(m -> m.containsValue(value)).collect(Collectors.toList()),
-                            Match.ifValue(true),
-                            false);
+        return onMaps(maps -> Tools.firstOf(maps.stream().map(m -> m.containsValue(value))
+                                                .collect(Collectors.toList()),
+                                            Match.ifValue(true),
+                                            false));
     }
     @Override
     public CompletableFuture<Versioned<V>> get(K key) {
-        return getMap(key).get(key);
+        return onMap(key, map -> map.get(key));
     }
 
     @Override
     public CompletableFuture<Versioned<V>> computeIf(K key,
             Predicate<? super V> condition,
             BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
-        return getMap(key).computeIf(key, condition, remappingFunction);
+        return onMap(key, map -> map.computeIf(key, condition, remappingFunction));
     }
 
     @Override
     public CompletableFuture<Versioned<V>> put(K key, V value) {
-        return getMap(key).put(key, value);
+        return onMap(key, map -> map.put(key, value));
     }
 
     @Override
     public CompletableFuture<Versioned<V>> putAndGet(K key, V value) {
-        return getMap(key).putAndGet(key, value);
+        return onMap(key, map -> map.putAndGet(key, value));
     }
 
     @Override
     public CompletableFuture<Versioned<V>> remove(K key) {
-        return getMap(key).remove(key);
+        return onMap(key, map -> map.remove(key));
     }
 
     @Override
     public CompletableFuture<Void> clear() {
-        return CompletableFuture.allOf(getMaps().stream()
-                                                .map(map -> map.clear())
-                                                .toArray(CompletableFuture[]::new));
+        return onMaps(maps -> CompletableFuture.allOf(maps.stream()
+                                                          .map(map -> map.clear())
+                                                          .toArray(CompletableFuture[]::new)));
     }
 
     @Override
     public CompletableFuture<Set<K>> keySet() {
-        return Tools.allOf(getMaps().stream().map(m -> m.keySet()).collect(Collectors.toList()),
+        return onMaps(maps -> Tools.allOf(maps.stream().map(m -> m.keySet()).collect(Collectors.toList()),
                     (s1, s2) -> ImmutableSet.<K>builder().addAll(s1).addAll(s2).build(),
-                    ImmutableSet.of());
+                    ImmutableSet.of()));
     }
 
     @Override
     public CompletableFuture<Collection<Versioned<V>>> values() {
-        return Tools.allOf(getMaps().stream().map(m -> m.values()).collect(Collectors.toList()),
+        return onMaps(maps -> Tools.allOf(maps.stream().map(m -> m.values()).collect(Collectors.toList()),
                     (c1, c2) -> ImmutableList.<Versioned<V>>builder().addAll(c1).addAll(c2).build(),
-                    ImmutableList.of());
+                    ImmutableList.of()));
     }
 
     @Override
     public CompletableFuture<Set<Entry<K, Versioned<V>>>> entrySet() {
-        return Tools.allOf(getMaps().stream().map(m -> m.entrySet()).collect(Collectors.toList()),
+        return onMaps(maps -> Tools.allOf(maps.stream().map(m -> m.entrySet()).collect(Collectors.toList()),
                 (s1, s2) -> ImmutableSet.<Entry<K, Versioned<V>>>builder().addAll(s1).addAll(s2).build(),
-                ImmutableSet.of());
+                ImmutableSet.of()));
     }
 
     @Override
     public CompletableFuture<Versioned<V>> putIfAbsent(K key, V value) {
-        return getMap(key).putIfAbsent(key, value);
+        return onMap(key, map -> map.putIfAbsent(key, value));
     }
 
     @Override
     public CompletableFuture<Boolean> remove(K key, V value) {
-        return getMap(key).remove(key, value);
+        return onMap(key, map -> map.remove(key, value));
     }
 
     @Override
     public CompletableFuture<Boolean> remove(K key, long version) {
-        return getMap(key).remove(key, version);
+        return onMap(key, map -> map.remove(key, version));
     }
 
     @Override
     public CompletableFuture<Versioned<V>> replace(K key, V value) {
-        return getMap(key).replace(key, value);
+        return onMap(key, map -> map.replace(key, value));
     }
 
     @Override
     public CompletableFuture<Boolean> replace(K key, V oldValue, V newValue) {
-        return getMap(key).replace(key, oldValue, newValue);
+        return onMap(key, map -> map.replace(key, oldValue, newValue));
     }
 
     @Override
     public CompletableFuture<Boolean> replace(K key, long oldVersion, V newValue) {
-        return getMap(key).replace(key, oldVersion, newValue);
+        return onMap(key, map -> map.replace(key, oldVersion, newValue));
     }
 
     @Override
     public CompletableFuture<Void> addListener(MapEventListener<K, V> listener, Executor executor) {
+        listeners.put(listener, executor);
         return CompletableFuture.allOf(getMaps().stream()
                                                 .map(map -> map.addListener(listener, executor))
                                                 .toArray(CompletableFuture[]::new));
@@ -188,6 +238,7 @@ public class PartitionedAsyncConsistentMap<K, V> implements AsyncConsistentMap<K
 
     @Override
     public CompletableFuture<Void> removeListener(MapEventListener<K, V> listener) {
+        listeners.remove(listener);
         return CompletableFuture.allOf(getMaps().stream()
                                                 .map(map -> map.removeListener(listener))
                                                 .toArray(CompletableFuture[]::new));
@@ -195,7 +246,10 @@ public class PartitionedAsyncConsistentMap<K, V> implements AsyncConsistentMap<K
 
     @Override
     public CompletableFuture<Boolean> prepare(MapTransaction<K, V> transaction) {
+        return gate.apply(() -> doPrepare(transaction));
+    }
 
+    private CompletableFuture<Boolean> doPrepare(MapTransaction<K, V> transaction) {
         Map<AsyncConsistentMap<K, V>, List<MapUpdate<K, V>>> updatesGroupedByMap = Maps.newIdentityHashMap();
         transaction.updates().forEach(update -> {
             AsyncConsistentMap<K, V> map = getMap(update.key());
@@ -228,6 +282,10 @@ public class PartitionedAsyncConsistentMap<K, V> implements AsyncConsistentMap<K
 
     @Override
     public CompletableFuture<Boolean> prepareAndCommit(MapTransaction<K, V> transaction) {
+        return gate.apply(() -> doPrepareAndCommit(transaction));
+    }
+
+    private CompletableFuture<Boolean> doPrepareAndCommit(MapTransaction<K, V> transaction) {
         Map<AsyncConsistentMap<K, V>, List<MapUpdate<K, V>>> updatesGroupedByMap = Maps.newIdentityHashMap();
         transaction.updates().forEach(update -> {
             AsyncConsistentMap<K, V> map = getMap(update.key());
@@ -246,11 +304,13 @@ public class PartitionedAsyncConsistentMap<K, V> implements AsyncConsistentMap<K
 
     @Override
     public void addStatusChangeListener(Consumer<Status> listener) {
+        statusListeners.add(listener);
         partitions.values().forEach(map -> map.addStatusChangeListener(listener));
     }
 
     @Override
     public void removeStatusChangeListener(Consumer<Status> listener) {
+        statusListeners.remove(listener);
         partitions.values().forEach(map -> map.removeStatusChangeListener(listener));
     }
 
@@ -268,6 +328,30 @@ public class PartitionedAsyncConsistentMap<K, V> implements AsyncConsistentMap<K
         return partitions.get(keyHasher.hash(key));
     }
 
+    /**
+     * Applies an operation to the map (partition) to which the specified key
+     * maps, if the gate lets it through.
+     * @param key key
+     * @param operation operation on the map
+     * @param <T> operation result type
+     * @return future for the operation result
+     */
+    private <T> CompletableFuture<T> onMap(K key, Function<AsyncConsistentMap<K, V>, CompletableFuture<T>> operation) {
+        return gate.apply(() -> operation.apply(getMap(key)));
+    }
+
+    /**
+     * Applies an operation to all the constituent maps, if the gate lets it
+     * through.
+     * @param operation operation on the maps
+     * @param <T> operation result type
+     * @return future for the operation result
+     */
+    private <T> CompletableFuture<T> onMaps(
+            Function<Collection<AsyncConsistentMap<K, V>>, CompletableFuture<T>> operation) {
+        return gate.apply(() -> operation.apply(getMaps()));
+    }
+
     /**
      * Returns all the constituent maps.
      * @return collection of maps.
@@ -18,10 +18,12 @@ package org.onosproject.store.primitives.impl;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import org.onosproject.cluster.Leadership;
 import org.onosproject.cluster.NodeId;
@@ -68,11 +70,55 @@ public class PartitionedAsyncLeaderElector implements AsyncLeaderElector {
         return getLeaderElector(topic).anoint(topic, nodeId);
     }
 
+    @Override
+    public CompletableFuture<Map<String, Leadership>> runAll(Collection<String> topics, NodeId nodeId) {
+        Map<String, Leadership> leaderships = Maps.newConcurrentMap();
+        return CompletableFuture.allOf(groupByPartition(topics).entrySet()
+                                             .stream()
+                                             .map(e -> partitions.get(e.getKey())
+                                                     .runAll(e.getValue(), nodeId)
+                                                     .thenAccept(leaderships::putAll))
+                                             .toArray(CompletableFuture[]::new))
+                                .thenApply(v -> leaderships);
+    }
+
+    @Override
+    public CompletableFuture<Void> withdrawAll(Collection<String> topics) {
+        return CompletableFuture.allOf(groupByPartition(topics).entrySet()
+                                             .stream()
+                                             .map(e -> partitions.get(e.getKey()).withdrawAll(e.getValue()))
+                                             .toArray(CompletableFuture[]::new));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Boolean>> anointAll(Map<String, NodeId> transfers) {
+        Map<String, Boolean> results = Maps.newConcurrentMap();
+        return CompletableFuture.allOf(groupByPartition(transfers.keySet()).entrySet()
+                                             .stream()
+                                             .map(e -> partitions.get(e.getKey())
+                                                     .anointAll(Maps.toMap(e.getValue(), transfers::get))
+                                                     .thenAccept(results::putAll))
+                                             .toArray(CompletableFuture[]::new))
+                                .thenApply(v -> results);
+    }
+
     @Override
     public CompletableFuture<Boolean> promote(String topic, NodeId nodeId) {
         return getLeaderElector(topic).promote(topic, nodeId);
     }
 
+    @Override
+    public CompletableFuture<Map<String, Boolean>> promoteAll(Map<String, NodeId> promotions) {
+        Map<String, Boolean> results = Maps.newConcurrentMap();
+        return CompletableFuture.allOf(groupByPartition(promotions.keySet()).entrySet()
+                                             .stream()
+                                             .map(e -> partitions.get(e.getKey())
+                                                     .promoteAll(Maps.toMap(e.getValue(), promotions::get))
+                                                     .thenAccept(results::putAll))
+                                             .toArray(CompletableFuture[]::new))
+                                .thenApply(v -> results);
+    }
+
     @Override
     public CompletableFuture<Void> evict(NodeId nodeId) {
         return CompletableFuture.allOf(getLeaderElectors().stream()
@@ -118,6 +164,16 @@ public class PartitionedAsyncLeaderElector implements AsyncLeaderElector {
         return partitions.get(topicHasher.hash(topic));
     }
 
+    /**
+     * Groups topics by the partition to which they map, so that each partition
+     * receives a single batch.
+     * @param topics topic names
+     * @return mapping of partition to the topics it hosts
+     */
+    private Map<PartitionId, List<String>> groupByPartition(Collection<String> topics) {
+        return topics.stream().distinct().collect(Collectors.groupingBy(topicHasher::hash));
+    }
+
     /**
      * Returns all the constituent leader electors.
      * @return collection of leader electors.
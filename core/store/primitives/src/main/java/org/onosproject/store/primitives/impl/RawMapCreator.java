@@ -0,0 +1,34 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.primitives.impl;
+
+import org.onosproject.store.primitives.resources.impl.AtomixConsistentMap;
+
+/**
+ * Creator of the consistent maps of a partition as stored by the partition,
+ * that is keyed by the hexadecimal strings of the encoded keys. Used to move
+ * entries between partitions.
+ */
+interface RawMapCreator {
+
+    /**
+     * Returns the consistent map of the given name as stored by the partition.
+     *
+     * @param name map name
+     * @return stored map
+     */
+    AtomixConsistentMap newRawConsistentMap(String name);
+}
@@ -22,6 +22,7 @@ import static org.slf4j.LoggerFactory.getLogger;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -33,11 +34,15 @@ import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.apache.felix.scr.annotations.Service;
 import org.onosproject.cluster.ClusterService;
+import org.onosproject.cluster.ControllerNode;
+import org.onosproject.cluster.NodeId;
 import org.onosproject.cluster.PartitionId;
 import org.onosproject.persistence.PersistenceService;
 import org.onosproject.store.cluster.messaging.ClusterCommunicationService;
 import org.onosproject.store.primitives.DistributedPrimitiveCreator;
 import org.onosproject.store.primitives.PartitionAdminService;
+import org.onosproject.store.primitives.PartitionEvent;
+import org.onosproject.store.primitives.PartitionEventListener;
 import org.onosproject.store.primitives.PartitionService;
 import org.onosproject.store.primitives.TransactionId;
 import org.onosproject.store.serializers.KryoNamespaces;
@@ -96,7 +101,8 @@ public class StorageManager implements StorageService, StorageAdminService {
 
     private final Supplier<TransactionId> transactionIdGenerator =
             () -> TransactionId.from(UUID.randomUUID().toString());
-    private DistributedPrimitiveCreator federatedPrimitiveCreator;
+    private final PartitionEventListener partitionListener = new InternalPartitionListener();
+    private FederatedDistributedPrimitiveCreator federatedPrimitiveCreator;
     private AsyncConsistentMap<TransactionId, Transaction.State> transactions;
     private TransactionCoordinator transactionCoordinator;
 
@@ -106,7 +112,10 @@ public class StorageManager implements StorageService, StorageAdminService {
         partitionService.getAllPartitionIds().stream()
             .filter(id -> !id.equals(PartitionId.from(0)))
             .forEach(id -> partitionMap.put(id, partitionService.getDistributedPrimitiveCreator(id)));
-        federatedPrimitiveCreator = new FederatedDistributedPrimitiveCreator(partitionMap);
+        NodeId localNodeId = clusterService.getLocalNode().id();
+        federatedPrimitiveCreator = new FederatedDistributedPrimitiveCreator(partitionMap, localNodeId,
+                                                                             this::activeNodes);
+        partitionService.addListener(partitionListener);
         transactions = this.<TransactionId, Transaction.State>consistentMapBuilder()
                     .withName("onos-transactions")
                     .withSerializer(Serializer.using(KryoNamespaces.API,
@@ -119,6 +128,8 @@ public class StorageManager implements StorageService, StorageAdminService {
 
     @Deactivate
     public void deactivate() {
+        partitionService.removeListener(partitionListener);
+        federatedPrimitiveCreator.close();
         log.info("Stopped");
     }
 
@@ -267,6 +278,19 @@ public class StorageManager implements StorageService, StorageAdminService {
         }).collect(Collectors.toList());
     }
 
+    @Override
+    public void rebalanceMap(String name) {
+        Futures.getUnchecked(federatedPrimitiveCreator.rebalance(name));
+    }
+
+    private Set<NodeId> activeNodes() {
+        return clusterService.getNodes()
+                             .stream()
+                             .map(ControllerNode::id)
+                             .filter(id -> clusterService.getState(id).isActive())
+                             .collect(Collectors.toSet());
+    }
+
     @Override
     public <T> Topic<T> getTopic(String name, Serializer serializer) {
         AsyncAtomicValue<T> atomicValue = this.<T>atomicValueBuilder()
@@ -275,4 +299,15 @@ public class StorageManager implements StorageService, StorageAdminService {
                                               .build();
         return new DefaultDistributedTopic<>(atomicValue);
     }
+
+    private class InternalPartitionListener implements PartitionEventListener {
+        @Override
+        public void event(PartitionEvent event) {
+            if (event.type() == PartitionEvent.Type.OPENED) {
+                PartitionId partitionId = event.subject().getId();
+                federatedPrimitiveCreator.addMember(partitionId,
+                                                    partitionService.getDistributedPrimitiveCreator(partitionId));
+            }
+        }
+    }
 }
@@ -18,6 +18,7 @@ package org.onosproject.store.primitives.impl;
 import static org.slf4j.LoggerFactory.getLogger;
 import io.atomix.AtomixClient;
 import io.atomix.catalyst.transport.Transport;
+import io.atomix.copycat.Query.ConsistencyLevel;
 import io.atomix.copycat.client.ConnectionStrategies;
 import io.atomix.copycat.client.CopycatClient;
 import io.atomix.copycat.client.CopycatClient.State;
@@ -31,6 +32,7 @@ import io.atomix.resource.ResourceType;
 import io.atomix.variables.DistributedLong;
 
 import java.util.Collection;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
@@ -56,7 +58,9 @@ import org.onosproject.store.service.AsyncDocumentTree;
 import org.onosproject.store.service.AsyncLeaderElector;
 import org.onosproject.store.service.DistributedPrimitive.Status;
 import org.onosproject.store.service.PartitionClientInfo;
+import org.onosproject.store.service.ReadConsistency;
 import org.onosproject.store.service.Serializer;
+import org.onosproject.store.service.Versioned;
 import org.onosproject.store.service.WorkQueue;
 import org.slf4j.Logger;
 
@@ -66,7 +70,8 @@ import com.google.common.base.Suppliers;
 /**
  * StoragePartition client.
  */
-public class StoragePartitionClient implements DistributedPrimitiveCreator, Managed<StoragePartitionClient> {
+public class StoragePartitionClient implements DistributedPrimitiveCreator, RawMapCreator,
+        Managed<StoragePartitionClient> {
 
     private final Logger log = getLogger(getClass());
 
@@ -126,7 +131,16 @@ public class StoragePartitionClient implements DistributedPrimitiveCreator, Mana
 
     @Override
     public <K, V> AsyncConsistentMap<K, V> newAsyncConsistentMap(String name, Serializer serializer) {
+        return newAsyncConsistentMap(name, serializer, ReadConsistency.SEQUENTIAL);
+    }
+
+    @Override
+    public <K, V> AsyncConsistentMap<K, V> newAsyncConsistentMap(String name, Serializer serializer,
+                                                                 ReadConsistency readConsistency) {
         AtomixConsistentMap atomixConsistentMap = client.getResource(name, AtomixConsistentMap.class).join();
+        // Bounded staleness is provided by a cache on top of sequential reads
+        ConsistencyLevel consistency = readConsistency == ReadConsistency.LINEARIZABLE
+                ? ConsistencyLevel.LINEARIZABLE : AtomixConsistentMap.DEFAULT_READ_CONSISTENCY;
         Consumer<State> statusListener = state -> {
             atomixConsistentMap.statusChangeListeners()
                                .forEach(listener -> listener.accept(mapper.apply(state)));
@@ -138,6 +152,46 @@ public class StoragePartitionClient implements DistributedPrimitiveCreator, Mana
                     public String name() {
                         return name;
                     }
+
+                    @Override
+                    public CompletableFuture<Integer> size() {
+                        return atomixConsistentMap.size(consistency);
+                    }
+
+                    @Override
+                    public CompletableFuture<Boolean> isEmpty() {
+                        return atomixConsistentMap.isEmpty(consistency);
+                    }
+
+                    @Override
+                    public CompletableFuture<Boolean> containsKey(String key) {
+                        return atomixConsistentMap.containsKey(key, consistency);
+                    }
+
+                    @Override
+                    public CompletableFuture<Boolean> containsValue(byte[] value) {
+                        return atomixConsistentMap.containsValue(value, consistency);
+                    }
+
+                    @Override
+                    public CompletableFuture<Versioned<byte[]>> get(String key) {
+                        return atomixConsistentMap.get(key, consistency);
+                    }
+
+                    @Override
+                    public CompletableFuture<Set<String>> keySet() {
+                        return atomixConsistentMap.keySet(consistency);
+                    }
+
+                    @Override
+                    public CompletableFuture<Collection<Versioned<byte[]>>> values() {
+                        return atomixConsistentMap.values(consistency);
+                    }
+
+                    @Override
+                    public CompletableFuture<Set<Entry<String, Versioned<byte[]>>>> entrySet() {
+                        return atomixConsistentMap.entrySet(consistency);
+                    }
                 };
         AsyncConsistentMap<K, V> transcodedMap = DistributedPrimitives.<K, V, String, byte[]>newTranscodingMap(rawMap,
                         key -> HexString.toHexString(serializer.encode(key)),
@@ -148,6 +202,11 @@ public class StoragePartitionClient implements DistributedPrimitiveCreator, Mana
         return transcodedMap;
     }
 
+    @Override
+    public AtomixConsistentMap newRawConsistentMap(String name) {
+        return client.getResource(name, AtomixConsistentMap.class).join();
+    }
+
     @Override
     public <V> AsyncConsistentTreeMap<V> newAsyncConsistentTreeMap(String name, Serializer serializer) {
         AtomixConsistentTreeMap atomixConsistentTreeMap =
@@ -20,8 +20,6 @@ import io.atomix.catalyst.serializer.Serializer;
 import io.atomix.catalyst.transport.Address;
 import io.atomix.catalyst.transport.Transport;
 import io.atomix.copycat.server.CopycatServer;
-import io.atomix.copycat.server.storage.Storage;
-import io.atomix.copycat.server.storage.StorageLevel;
 import io.atomix.manager.internal.ResourceManagerState;
 import io.atomix.manager.util.ResourceManagerTypeResolver;
 
@@ -40,24 +38,26 @@ public class StoragePartitionServer implements Managed<StoragePartitionServer> {
 
     private final Logger log = getLogger(getClass());
 
-    private static final int MAX_ENTRIES_PER_LOG_SEGMENT = 32768;
     private final StoragePartition partition;
     private final Address localAddress;
     private final Supplier<Transport> transport;
     private final Serializer serializer;
     private final File dataFolder;
+    private final PartitionStorageConfig storageConfig;
     private CopycatServer server;
 
     public StoragePartitionServer(Address localAddress,
             StoragePartition partition,
             Serializer serializer,
             Supplier<Transport> transport,
-            File dataFolder) {
+            File dataFolder,
+            PartitionStorageConfig storageConfig) {
         this.partition = partition;
         this.localAddress = localAddress;
         this.serializer = serializer;
         this.transport = transport;
         this.dataFolder = dataFolder;
+        this.storageConfig = storageConfig;
     }
 
     @Override
@@ -102,14 +102,10 @@ public class StoragePartitionServer implements Managed<StoragePartitionServer> {
                 .withSerializer(serializer.clone())
                 .withTransport(transport.get())
                 .withStateMachine(ResourceManagerState::new)
-                .withStorage(Storage.builder()
-                        .withStorageLevel(StorageLevel.DISK)
-                        .withCompactionThreads(1)
-                        .withDirectory(dataFolder)
-                        .withMaxEntriesPerSegment(MAX_ENTRIES_PER_LOG_SEGMENT)
-                        .build())
+                .withStorage(storageConfig.toStorage(dataFolder))
                 .build();
         server.serializer().resolve(new ResourceManagerTypeResolver());
+        log.debug("Using {} for partition {}", storageConfig, partition.getId());
         return server;
     }
 
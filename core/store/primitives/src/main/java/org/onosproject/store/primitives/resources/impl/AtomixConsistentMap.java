@@ -15,6 +15,7 @@
  */
 package org.onosproject.store.primitives.resources.impl;
 
+import io.atomix.copycat.Query.ConsistencyLevel;
 import io.atomix.copycat.client.CopycatClient;
 import io.atomix.resource.AbstractResource;
 import io.atomix.resource.ResourceTypeInfo;
@@ -40,12 +41,16 @@ import org.onosproject.store.primitives.TransactionId;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.Clear;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.ContainsKey;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.ContainsValue;
+import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.DiscardStaged;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.EntrySet;
+import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.Evict;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.Get;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.IsEmpty;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.KeySet;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.Listen;
+import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.PromoteStaged;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.Size;
+import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.Stage;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.TransactionCommit;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.TransactionPrepare;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.TransactionPrepareAndCommit;
@@ -75,6 +80,12 @@ public class AtomixConsistentMap extends AbstractResource<AtomixConsistentMap>
 
     public static final String CHANGE_SUBJECT = "changeEvents";
 
+    /**
+     * Consistency level of the reads for which none is given; these may be
+     * served by the partition member the client is connected to.
+     */
+    public static final ConsistencyLevel DEFAULT_READ_CONSISTENCY = ConsistencyLevel.SEQUENTIAL;
+
     public AtomixConsistentMap(CopycatClient client, Properties properties) {
         super(client, properties);
     }
@@ -104,42 +115,125 @@ public class AtomixConsistentMap extends AbstractResource<AtomixConsistentMap>
 
     @Override
     public CompletableFuture<Boolean> isEmpty() {
-        return client.submit(new IsEmpty());
+        return isEmpty(DEFAULT_READ_CONSISTENCY);
+    }
+
+    /**
+     * Returns whether the map is empty, evaluated at the given consistency level.
+     *
+     * @param consistency read consistency level
+     * @return future for the result
+     */
+    public CompletableFuture<Boolean> isEmpty(ConsistencyLevel consistency) {
+        return client.submit(new IsEmpty().withConsistency(consistency));
     }
 
     @Override
     public CompletableFuture<Integer> size() {
-        return client.submit(new Size());
+        return size(DEFAULT_READ_CONSISTENCY);
+    }
+
+    /**
+     * Returns the size of the map, evaluated at the given consistency level.
+     *
+     * @param consistency read consistency level
+     * @return future for the result
+     */
+    public CompletableFuture<Integer> size(ConsistencyLevel consistency) {
+        return client.submit(new Size().withConsistency(consistency));
     }
 
     @Override
     public CompletableFuture<Boolean> containsKey(String key) {
-        return client.submit(new ContainsKey(key));
+        return containsKey(key, DEFAULT_READ_CONSISTENCY);
+    }
+
+    /**
+     * Returns whether the map contains the key, evaluated at the given consistency level.
+     *
+     * @param key key
+     * @param consistency read consistency level
+     * @return future for the result
+     */
+    public CompletableFuture<Boolean> containsKey(String key, ConsistencyLevel consistency) {
+        return client.submit(new ContainsKey(key).withConsistency(consistency));
     }
 
     @Override
     public CompletableFuture<Boolean> containsValue(byte[] value) {
-        return client.submit(new ContainsValue(value));
+        return containsValue(value, DEFAULT_READ_CONSISTENCY);
+    }
+
+    /**
+     * Returns whether the map contains the value, evaluated at the given consistency level.
+     *
+     * @param value value
+     * @param consistency read consistency level
+     * @return future for the result
+     */
+    public CompletableFuture<Boolean> containsValue(byte[] value, ConsistencyLevel consistency) {
+        return client.submit(new ContainsValue(value).withConsistency(consistency));
     }
 
     @Override
     public CompletableFuture<Versioned<byte[]>> get(String key) {
-        return client.submit(new Get(key));
+        return get(key, DEFAULT_READ_CONSISTENCY);
+    }
+
+    /**
+     * Returns the value of the key, evaluated at the given consistency level.
+     *
+     * @param key key
+     * @param consistency read consistency level
+     * @return future for the result
+     */
+    public CompletableFuture<Versioned<byte[]>> get(String key, ConsistencyLevel consistency) {
+        return client.submit(new Get(key).withConsistency(consistency));
     }
 
     @Override
     public CompletableFuture<Set<String>> keySet() {
-        return client.submit(new KeySet());
+        return keySet(DEFAULT_READ_CONSISTENCY);
+    }
+
+    /**
+     * Returns the keys of the map, evaluated at the given consistency level.
+     *
+     * @param consistency read consistency level
+     * @return future for the result
+     */
+    public CompletableFuture<Set<String>> keySet(ConsistencyLevel consistency) {
+        return client.submit(new KeySet().withConsistency(consistency));
     }
 
     @Override
     public CompletableFuture<Collection<Versioned<byte[]>>> values() {
-        return client.submit(new Values());
+        return values(DEFAULT_READ_CONSISTENCY);
+    }
+
+    /**
+     * Returns the values of the map, evaluated at the given consistency level.
+     *
+     * @param consistency read consistency level
+     * @return future for the result
+     */
+    public CompletableFuture<Collection<Versioned<byte[]>>> values(ConsistencyLevel consistency) {
+        return client.submit(new Values().withConsistency(consistency));
     }
 
     @Override
     public CompletableFuture<Set<Entry<String, Versioned<byte[]>>>> entrySet() {
-        return client.submit(new EntrySet());
+        return entrySet(DEFAULT_READ_CONSISTENCY);
+    }
+
+    /**
+     * Returns the entries of the map, evaluated at the given consistency level.
+     *
+     * @param consistency read consistency level
+     * @return future for the result
+     */
+    public CompletableFuture<Set<Entry<String, Versioned<byte[]>>>> entrySet(ConsistencyLevel consistency) {
+        return client.submit(new EntrySet().withConsistency(consistency));
     }
 
     @Override
@@ -308,6 +402,50 @@ public class AtomixConsistentMap extends AbstractResource<AtomixConsistentMap>
         return client.submit(new TransactionPrepareAndCommit(transaction)).thenApply(v -> v == PrepareResult.OK);
     }
 
+    /**
+     * Stages entries moved to this map from another partition. Staged entries
+     * are not visible until promoted, and staging publishes no event.
+     *
+     * @param entries entries to stage, with the versions to keep
+     * @param droppedKeys keys whose staged entry is dropped
+     * @return future that is completed once the entries are staged
+     */
+    public CompletableFuture<Void> stage(Map<String, Versioned<byte[]>> entries, Set<String> droppedKeys) {
+        return client.submit(new Stage(entries, droppedKeys));
+    }
+
+    /**
+     * Makes the staged entries visible with the versions they were staged
+     * with, replacing the entries of the same keys. Promoting publishes no
+     * event.
+     *
+     * @return future for the number of promoted entries
+     */
+    public CompletableFuture<Integer> promoteStaged() {
+        return client.submit(new PromoteStaged());
+    }
+
+    /**
+     * Drops all the staged entries.
+     *
+     * @return future that is completed once the entries are dropped
+     */
+    public CompletableFuture<Void> discardStaged() {
+        return client.submit(new DiscardStaged());
+    }
+
+    /**
+     * Removes entries moved to another partition, if their version still
+     * matches and no transaction updating them is pending. Evicting publishes
+     * no event.
+     *
+     * @param versions versions of the entries to remove, by key
+     * @return future for the keys whose entry was not removed
+     */
+    public CompletableFuture<Set<String>> evict(Map<String, Long> versions) {
+        return client.submit(new Evict(versions));
+    }
+
     @Override
     public void addStatusChangeListener(Consumer<Status> listener) {
         statusChangeListeners.add(listener);
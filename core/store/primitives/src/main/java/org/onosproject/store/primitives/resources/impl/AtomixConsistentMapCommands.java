@@ -35,6 +35,8 @@ import org.onosproject.store.service.MapTransaction;
 import org.onosproject.store.service.Versioned;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 /**
  * {@link AtomixConsistentMap} resource state machine operations.
@@ -70,10 +72,21 @@ public final class AtomixConsistentMapCommands {
      */
     @SuppressWarnings("serial")
     public abstract static class MapQuery<V> implements Query<V>, CatalystSerializable {
+        private ConsistencyLevel consistency = ConsistencyLevel.SEQUENTIAL;
 
         @Override
         public ConsistencyLevel consistency() {
-          return ConsistencyLevel.SEQUENTIAL;
+          return consistency;
+        }
+
+        /**
+         * Sets the consistency level at which the query is evaluated.
+         * @param consistency consistency level
+         * @return this query
+         */
+        public MapQuery<V> withConsistency(ConsistencyLevel consistency) {
+            this.consistency = Assert.notNull(consistency, "consistency");
+            return this;
         }
 
         @Override
@@ -84,10 +97,12 @@ public final class AtomixConsistentMapCommands {
 
         @Override
         public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+            buffer.writeByte(consistency.ordinal());
         }
 
         @Override
         public void readObject(BufferInput<?> buffer, Serializer serializer) {
+            consistency = ConsistencyLevel.values()[buffer.readByte()];
         }
     }
 
@@ -485,6 +500,162 @@ public final class AtomixConsistentMapCommands {
         }
     }
 
+    /**
+     * Command staging entries moved to the map from another partition. Staged
+     * entries are not visible until promoted.
+     */
+    @SuppressWarnings("serial")
+    public static class Stage extends MapCommand<Void> {
+        private Map<String, Versioned<byte[]>> entries;
+        private Set<String> droppedKeys;
+
+        public Stage() {
+        }
+
+        public Stage(Map<String, Versioned<byte[]>> entries, Set<String> droppedKeys) {
+            this.entries = Assert.notNull(entries, "entries");
+            this.droppedKeys = Assert.notNull(droppedKeys, "droppedKeys");
+        }
+
+        /**
+         * Returns the entries to stage.
+         * @return staged entries
+         */
+        public Map<String, Versioned<byte[]>> entries() {
+            return entries;
+        }
+
+        /**
+         * Returns the keys whose staged entry is dropped.
+         * @return dropped keys
+         */
+        public Set<String> droppedKeys() {
+            return droppedKeys;
+        }
+
+        @Override
+        public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+            super.writeObject(buffer, serializer);
+            buffer.writeInt(entries.size());
+            entries.forEach((key, value) -> {
+                serializer.writeObject(key, buffer);
+                buffer.writeLong(value.version());
+                serializer.writeObject(value.value(), buffer);
+            });
+            buffer.writeInt(droppedKeys.size());
+            droppedKeys.forEach(key -> serializer.writeObject(key, buffer));
+        }
+
+        @Override
+        public void readObject(BufferInput<?> buffer, Serializer serializer) {
+            super.readObject(buffer, serializer);
+            int size = buffer.readInt();
+            entries = Maps.newHashMapWithExpectedSize(size);
+            for (int i = 0; i < size; i++) {
+                String key = serializer.readObject(buffer);
+                long version = buffer.readLong();
+                byte[] value = serializer.readObject(buffer);
+                entries.put(key, new Versioned<>(value, version));
+            }
+            size = buffer.readInt();
+            droppedKeys = Sets.newHashSetWithExpectedSize(size);
+            for (int i = 0; i < size; i++) {
+                droppedKeys.add(serializer.readObject(buffer));
+            }
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(getClass())
+                    .add("entries", entries.size())
+                    .add("droppedKeys", droppedKeys.size())
+                    .toString();
+        }
+    }
+
+    /**
+     * Command making the staged entries visible, with the versions they were
+     * staged with.
+     */
+    @SuppressWarnings("serial")
+    public static class PromoteStaged extends MapCommand<Integer> {
+
+        @Override
+        public CompactionMode compaction() {
+          return CompactionMode.FULL;
+        }
+    }
+
+    /**
+     * Command dropping all the staged entries.
+     */
+    @SuppressWarnings("serial")
+    public static class DiscardStaged extends MapCommand<Void> {
+
+        @Override
+        public CompactionMode compaction() {
+          return CompactionMode.FULL;
+        }
+    }
+
+    /**
+     * Command removing entries moved to another partition. An entry is only
+     * removed if its version still matches and no transaction updating it
+     * is pending.
+     */
+    @SuppressWarnings("serial")
+    public static class Evict extends MapCommand<Set<String>> {
+        private Map<String, Long> versions;
+
+        public Evict() {
+        }
+
+        public Evict(Map<String, Long> versions) {
+            this.versions = Assert.notNull(versions, "versions");
+        }
+
+        /**
+         * Returns the versions of the entries to remove.
+         * @return versions by key
+         */
+        public Map<String, Long> versions() {
+            return versions;
+        }
+
+        @Override
+        public CompactionMode compaction() {
+          return CompactionMode.FULL;
+        }
+
+        @Override
+        public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+            super.writeObject(buffer, serializer);
+            buffer.writeInt(versions.size());
+            versions.forEach((key, version) -> {
+                serializer.writeObject(key, buffer);
+                buffer.writeLong(version);
+            });
+        }
+
+        @Override
+        public void readObject(BufferInput<?> buffer, Serializer serializer) {
+            super.readObject(buffer, serializer);
+            int size = buffer.readInt();
+            versions = Maps.newHashMapWithExpectedSize(size);
+            for (int i = 0; i < size; i++) {
+                String key = serializer.readObject(buffer);
+                versions.put(key, buffer.readLong());
+            }
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(getClass())
+                    .add("versions", versions.size())
+                    .toString();
+        }
+    }
+
     /**
      * Change listen.
      */
@@ -535,6 +706,10 @@ public final class AtomixConsistentMapCommands {
             registry.register(TransactionRollback.class, -774);
             registry.register(TransactionPrepareAndCommit.class, -775);
             registry.register(UpdateAndGet.class, -776);
+            registry.register(Stage.class, -777);
+            registry.register(PromoteStaged.class, -778);
+            registry.register(DiscardStaged.class, -779);
+            registry.register(Evict.class, -780);
         }
     }
 }
@@ -29,6 +29,7 @@ import io.atomix.copycat.server.storage.snapshot.SnapshotReader;
 import io.atomix.copycat.server.storage.snapshot.SnapshotWriter;
 import io.atomix.resource.ResourceStateMachine;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -46,12 +47,16 @@ import org.onosproject.store.primitives.TransactionId;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.Clear;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.ContainsKey;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.ContainsValue;
+import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.DiscardStaged;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.EntrySet;
+import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.Evict;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.Get;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.IsEmpty;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.KeySet;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.Listen;
+import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.PromoteStaged;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.Size;
+import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.Stage;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.TransactionCommit;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.TransactionPrepare;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.TransactionPrepareAndCommit;
@@ -74,9 +79,13 @@ import com.google.common.collect.Sets;
  */
 public class AtomixConsistentMapState extends ResourceStateMachine implements SessionListener, Snapshottable {
 
+    private static final int SNAPSHOT_CHUNK_SIZE = 1024;
+
     private final Logger log = getLogger(getClass());
     private final Map<Long, Commit<? extends Listen>> listeners = new HashMap<>();
     private final Map<String, MapEntryValue> mapEntries = new HashMap<>();
+    // entries moved from another partition, not visible until promoted
+    private final Map<String, MapEntryValue> stagedEntries = new HashMap<>();
     private final Set<String> preparedKeys = Sets.newHashSet();
     private final Map<TransactionId, Commit<? extends TransactionPrepare>> pendingTransactions = Maps.newHashMap();
     private AtomicLong versionCounter = new AtomicLong(0);
@@ -85,14 +94,92 @@ public class AtomixConsistentMapState extends ResourceStateMachine implements Se
         super(properties);
     }
 
+    /**
+     * Writes the version counter followed by the map entries, in chunks of up
+     * to {@link #SNAPSHOT_CHUNK_SIZE} entries each prefixed with its size and
+     * terminated by an empty chunk, and then the staged entries the same way.
+     * Only the key, version and value bytes of each entry are written, so the
+     * snapshot is streamed without building an intermediate copy of the map.
+     * Once written, the entries are detached from the commits that created
+     * them and those commits are released, so the log can be compacted.
+     *
+     * @param writer snapshot writer
+     */
     @Override
     public void snapshot(SnapshotWriter writer) {
+        long start = System.currentTimeMillis();
         writer.writeLong(versionCounter.get());
+        writeEntries(writer, mapEntries);
+        writeEntries(writer, stagedEntries);
+        log.debug("Took state machine snapshot of {} entries in {} ms",
+                  mapEntries.size(), System.currentTimeMillis() - start);
     }
 
     @Override
     public void install(SnapshotReader reader) {
         versionCounter = new AtomicLong(reader.readLong());
+        mapEntries.values().forEach(MapEntryValue::discard);
+        mapEntries.clear();
+        stagedEntries.values().forEach(MapEntryValue::discard);
+        stagedEntries.clear();
+        // snapshots taken by earlier versions only hold the version counter,
+        // or no staged entries
+        readEntries(reader, mapEntries);
+        readEntries(reader, stagedEntries);
+        log.debug("Reinstated state machine from snapshot of {} entries", mapEntries.size());
+    }
+
+    private static void writeEntries(SnapshotWriter writer, Map<String, MapEntryValue> entries) {
+        int remaining = entries.size();
+        Iterator<Map.Entry<String, MapEntryValue>> iterator = entries.entrySet().iterator();
+        while (remaining > 0) {
+            int chunkSize = Math.min(remaining, SNAPSHOT_CHUNK_SIZE);
+            writer.writeInt(chunkSize);
+            for (int i = 0; i < chunkSize; i++) {
+                Map.Entry<String, MapEntryValue> entry = iterator.next();
+                MapEntryValue value = entry.getValue();
+                writeBytes(writer, entry.getKey().getBytes(StandardCharsets.UTF_8));
+                writer.writeLong(value.version());
+                writeBytes(writer, value.value());
+                if (!(value instanceof SnapshotValue)) {
+                    entry.setValue(new SnapshotValue(value.version(), value.value()));
+                    value.discard();
+                }
+            }
+            remaining -= chunkSize;
+        }
+        writer.writeInt(0);
+    }
+
+    private static void readEntries(SnapshotReader reader, Map<String, MapEntryValue> entries) {
+        int chunkSize = reader.hasRemaining() ? reader.readInt() : 0;
+        while (chunkSize > 0) {
+            for (int i = 0; i < chunkSize; i++) {
+                String key = new String(readBytes(reader), StandardCharsets.UTF_8);
+                long version = reader.readLong();
+                entries.put(key, new SnapshotValue(version, readBytes(reader)));
+            }
+            chunkSize = reader.readInt();
+        }
+    }
+
+    private static void writeBytes(SnapshotWriter writer, byte[] bytes) {
+        if (bytes == null) {
+            writer.writeInt(-1);
+        } else {
+            writer.writeInt(bytes.length);
+            writer.write(bytes);
+        }
+    }
+
+    private static byte[] readBytes(SnapshotReader reader) {
+        int length = reader.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        reader.read(bytes);
+        return bytes;
     }
 
     @Override
@@ -116,6 +203,10 @@ public class AtomixConsistentMapState extends ResourceStateMachine implements Se
         executor.register(TransactionCommit.class, this::commit);
         executor.register(TransactionRollback.class, this::rollback);
         executor.register(TransactionPrepareAndCommit.class, this::prepareAndCommit);
+        executor.register(Stage.class, this::stage);
+        executor.register(PromoteStaged.class, this::promoteStaged);
+        executor.register(DiscardStaged.class, this::discardStaged);
+        executor.register(Evict.class, this::evict);
     }
 
     @Override
@@ -127,6 +218,8 @@ public class AtomixConsistentMapState extends ResourceStateMachine implements Se
         // Delete Map entries
         mapEntries.values().forEach(MapEntryValue::discard);
         mapEntries.clear();
+        stagedEntries.values().forEach(MapEntryValue::discard);
+        stagedEntries.clear();
     }
 
     /**
@@ -321,6 +414,97 @@ public class AtomixConsistentMapState extends ResourceStateMachine implements Se
         }
     }
 
+    /**
+     * Handles a stage commit. Staging publishes no event.
+     *
+     * @param commit stage commit
+     */
+    protected void stage(Commit<? extends Stage> commit) {
+        Stage stage = commit.operation();
+        stage.droppedKeys().forEach(key -> {
+            MapEntryValue dropped = stagedEntries.remove(key);
+            if (dropped != null) {
+                dropped.discard();
+            }
+        });
+        CountDownCompleter<Commit<? extends Stage>> completer =
+                new CountDownCompleter<>(commit, stage.entries().size(), Commit::close);
+        stage.entries().forEach((key, value) -> {
+            MapEntryValue previous = stagedEntries.put(key, new StagedCommit(key, value.version(), completer));
+            if (previous != null) {
+                previous.discard();
+            }
+        });
+    }
+
+    /**
+     * Handles a promote staged commit. The staged entries replace the entries
+     * of their keys with the versions they were staged with, and later
+     * updates get higher versions. Promoting publishes no event.
+     *
+     * @param commit promote staged commit
+     * @return number of promoted entries
+     */
+    protected int promoteStaged(Commit<? extends PromoteStaged> commit) {
+        try {
+            stagedEntries.forEach((key, value) -> {
+                MapEntryValue previous = mapEntries.put(key, value);
+                if (previous != null) {
+                    previous.discard();
+                }
+                if (value.version() > versionCounter.get()) {
+                    versionCounter.set(value.version());
+                }
+            });
+            int promoted = stagedEntries.size();
+            stagedEntries.clear();
+            return promoted;
+        } finally {
+            commit.close();
+        }
+    }
+
+    /**
+     * Handles a discard staged commit.
+     *
+     * @param commit discard staged commit
+     */
+    protected void discardStaged(Commit<? extends DiscardStaged> commit) {
+        try {
+            stagedEntries.values().forEach(MapEntryValue::discard);
+            stagedEntries.clear();
+        } finally {
+            commit.close();
+        }
+    }
+
+    /**
+     * Handles an evict commit. Evicting publishes no event.
+     *
+     * @param commit evict commit
+     * @return keys that were not removed as their entry changed or is locked
+     */
+    protected Set<String> evict(Commit<? extends Evict> commit) {
+        try {
+            Set<String> retained = Sets.newHashSet();
+            commit.operation().versions().forEach((key, version) -> {
+                MapEntryValue value = mapEntries.get(key);
+                if (value == null) {
+                    return;
+                }
+                if (value.version() != version || preparedKeys.contains(key)) {
+                    retained.add(key);
+                } else {
+                    mapEntries.remove(key);
+                    value.discard();
+                }
+            });
+            return retained;
+        } finally {
+            commit.close();
+        }
+    }
+
     /**
      * Handles a listen commit.
      *
@@ -659,4 +843,63 @@ public class AtomixConsistentMapState extends ResourceStateMachine implements Se
             return update == null ? null : update.value();
         }
     }
+
+    /**
+     * A {@code MapEntryValue} that is derived from a staged entry.
+     */
+    private class StagedCommit implements MapEntryValue {
+        private final String key;
+        private final long version;
+        private final CountDownCompleter<Commit<? extends Stage>> completer;
+
+        public StagedCommit(String key, long version, CountDownCompleter<Commit<? extends Stage>> completer) {
+            this.key = key;
+            this.version = version;
+            this.completer = completer;
+        }
+
+        @Override
+        public byte[] value() {
+            return completer.object().operation().entries().get(key).value();
+        }
+
+        @Override
+        public long version() {
+            return version;
+        }
+
+        @Override
+        public void discard() {
+            completer.countDown();
+        }
+    }
+
+    /**
+     * A {@code MapEntryValue} that is restored from a snapshot or detached
+     * from its commit once written to a snapshot. It only holds the value
+     * bytes, as the commit that created it may already be compacted.
+     */
+    private static class SnapshotValue implements MapEntryValue {
+        private final long version;
+        private final byte[] value;
+
+        public SnapshotValue(long version, byte[] value) {
+            this.version = version;
+            this.value = value;
+        }
+
+        @Override
+        public byte[] value() {
+            return value;
+        }
+
+        @Override
+        public long version() {
+            return version;
+        }
+
+        @Override
+        public void discard() {
+        }
+    }
 }
@@ -32,14 +32,18 @@ import org.onosproject.cluster.Leadership;
 import org.onosproject.cluster.NodeId;
 import org.onosproject.event.Change;
 import org.onosproject.store.primitives.resources.impl.AtomixLeaderElectorCommands.Anoint;
+import org.onosproject.store.primitives.resources.impl.AtomixLeaderElectorCommands.AnointAll;
 import org.onosproject.store.primitives.resources.impl.AtomixLeaderElectorCommands.GetAllLeaderships;
 import org.onosproject.store.primitives.resources.impl.AtomixLeaderElectorCommands.GetElectedTopics;
 import org.onosproject.store.primitives.resources.impl.AtomixLeaderElectorCommands.GetLeadership;
 import org.onosproject.store.primitives.resources.impl.AtomixLeaderElectorCommands.Listen;
 import org.onosproject.store.primitives.resources.impl.AtomixLeaderElectorCommands.Promote;
+import org.onosproject.store.primitives.resources.impl.AtomixLeaderElectorCommands.PromoteAll;
 import org.onosproject.store.primitives.resources.impl.AtomixLeaderElectorCommands.Run;
+import org.onosproject.store.primitives.resources.impl.AtomixLeaderElectorCommands.RunAll;
 import org.onosproject.store.primitives.resources.impl.AtomixLeaderElectorCommands.Unlisten;
 import org.onosproject.store.primitives.resources.impl.AtomixLeaderElectorCommands.Withdraw;
+import org.onosproject.store.primitives.resources.impl.AtomixLeaderElectorCommands.WithdrawAll;
 import org.onosproject.store.service.AsyncLeaderElector;
 
 import com.google.common.collect.ImmutableSet;
@@ -143,11 +147,33 @@ public class AtomixLeaderElector extends AbstractResource<AtomixLeaderElector>
         return client.submit(new Anoint(topic, nodeId)).whenComplete((r, e) -> cache.invalidate(topic));
     }
 
+    @Override
+    public CompletableFuture<Map<String, Leadership>> runAll(Collection<String> topics, NodeId nodeId) {
+        return client.submit(new RunAll(topics, nodeId)).whenComplete((r, e) -> cache.invalidateAll(topics));
+    }
+
+    @Override
+    public CompletableFuture<Void> withdrawAll(Collection<String> topics) {
+        return client.submit(new WithdrawAll(topics)).whenComplete((r, e) -> cache.invalidateAll(topics));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Boolean>> anointAll(Map<String, NodeId> transfers) {
+        return client.submit(new AnointAll(transfers))
+                     .whenComplete((r, e) -> cache.invalidateAll(transfers.keySet()));
+    }
+
     @Override
     public CompletableFuture<Boolean> promote(String topic, NodeId nodeId) {
         return client.submit(new Promote(topic, nodeId)).whenComplete((r, e) -> cache.invalidate(topic));
     }
 
+    @Override
+    public CompletableFuture<Map<String, Boolean>> promoteAll(Map<String, NodeId> promotions) {
+        return client.submit(new PromoteAll(promotions))
+                     .whenComplete((r, e) -> cache.invalidateAll(promotions.keySet()));
+    }
+
     @Override
     public CompletableFuture<Void> evict(NodeId nodeId) {
         return client.submit(new AtomixLeaderElectorCommands.Evict(nodeId));
@@ -15,6 +15,8 @@
  */
 package org.onosproject.store.primitives.resources.impl;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -24,6 +26,10 @@ import org.onosproject.cluster.NodeId;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 
 import io.atomix.catalyst.buffer.BufferInput;
 import io.atomix.catalyst.buffer.BufferOutput;
@@ -292,6 +298,210 @@ public final class AtomixLeaderElectorCommands {
         }
     }
 
+    /**
+     * Enter and run for leadership of several topics.
+     */
+    @SuppressWarnings("serial")
+    public static class RunAll extends ElectionCommand<Map<String, Leadership>> {
+        private List<String> topics;
+        private NodeId nodeId;
+
+        public RunAll() {
+        }
+
+        public RunAll(Collection<String> topics, NodeId nodeId) {
+            this.topics = ImmutableList.copyOf(Assert.notNull(topics, "topics"));
+            this.nodeId = Assert.argNot(nodeId, nodeId == null, "nodeId cannot be null");
+        }
+
+        /**
+         * Returns the topics.
+         *
+         * @return topics
+         */
+        public List<String> topics() {
+            return topics;
+        }
+
+        /**
+         * Returns the nodeId.
+         *
+         * @return the nodeId
+         */
+        public NodeId nodeId() {
+            return nodeId;
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(getClass())
+                    .add("topics", topics.size())
+                    .add("nodeId", nodeId)
+                    .toString();
+        }
+
+        @Override
+        public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+            buffer.writeInt(topics.size());
+            topics.forEach(buffer::writeString);
+            buffer.writeString(nodeId.toString());
+        }
+
+        @Override
+        public void readObject(BufferInput<?> buffer, Serializer serializer) {
+            int size = buffer.readInt();
+            topics = Lists.newArrayListWithCapacity(size);
+            for (int i = 0; i < size; i++) {
+                topics.add(buffer.readString());
+            }
+            nodeId = new NodeId(buffer.readString());
+        }
+    }
+
+    /**
+     * Withdraw from the leadership contests of several topics.
+     */
+    @SuppressWarnings("serial")
+    public static class WithdrawAll extends ElectionCommand<Void> {
+        private List<String> topics;
+
+        public WithdrawAll() {
+        }
+
+        public WithdrawAll(Collection<String> topics) {
+            this.topics = ImmutableList.copyOf(Assert.notNull(topics, "topics"));
+        }
+
+        /**
+         * Returns the topics.
+         *
+         * @return The topics
+         */
+        public List<String> topics() {
+            return topics;
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(getClass())
+                    .add("topics", topics.size())
+                    .toString();
+        }
+
+        @Override
+        public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+            buffer.writeInt(topics.size());
+            topics.forEach(buffer::writeString);
+        }
+
+        @Override
+        public void readObject(BufferInput<?> buffer, Serializer serializer) {
+            int size = buffer.readInt();
+            topics = Lists.newArrayListWithCapacity(size);
+            for (int i = 0; i < size; i++) {
+                topics.add(buffer.readString());
+            }
+        }
+    }
+
+    /**
+     * Command for administratively anointing leaders of several topics.
+     */
+    @SuppressWarnings("serial")
+    public static class AnointAll extends ElectionCommand<Map<String, Boolean>> {
+        private Map<String, NodeId> transfers;
+
+        public AnointAll() {
+        }
+
+        public AnointAll(Map<String, NodeId> transfers) {
+            this.transfers = ImmutableMap.copyOf(Assert.notNull(transfers, "transfers"));
+        }
+
+        /**
+         * Returns the mapping of topic to the nodeId to make leader.
+         *
+         * @return The transfers
+         */
+        public Map<String, NodeId> transfers() {
+            return transfers;
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(getClass())
+                    .add("transfers", transfers.size())
+                    .toString();
+        }
+
+        @Override
+        public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+            buffer.writeInt(transfers.size());
+            transfers.forEach((topic, nodeId) -> {
+                buffer.writeString(topic);
+                buffer.writeString(nodeId.toString());
+            });
+        }
+
+        @Override
+        public void readObject(BufferInput<?> buffer, Serializer serializer) {
+            int size = buffer.readInt();
+            transfers = Maps.newLinkedHashMap();
+            for (int i = 0; i < size; i++) {
+                transfers.put(buffer.readString(), new NodeId(buffer.readString()));
+            }
+        }
+    }
+
+    /**
+     * Command for administratively promoting nodes to top candidates of several topics.
+     */
+    @SuppressWarnings("serial")
+    public static class PromoteAll extends ElectionCommand<Map<String, Boolean>> {
+        private Map<String, NodeId> promotions;
+
+        public PromoteAll() {
+        }
+
+        public PromoteAll(Map<String, NodeId> promotions) {
+            this.promotions = ImmutableMap.copyOf(Assert.notNull(promotions, "promotions"));
+        }
+
+        /**
+         * Returns the mapping of topic to the nodeId to make top candidate.
+         *
+         * @return The promotions
+         */
+        public Map<String, NodeId> promotions() {
+            return promotions;
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(getClass())
+                    .add("promotions", promotions.size())
+                    .toString();
+        }
+
+        @Override
+        public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+            buffer.writeInt(promotions.size());
+            promotions.forEach((topic, nodeId) -> {
+                buffer.writeString(topic);
+                buffer.writeString(nodeId.toString());
+            });
+        }
+
+        @Override
+        public void readObject(BufferInput<?> buffer, Serializer serializer) {
+            int size = buffer.readInt();
+            promotions = Maps.newLinkedHashMap();
+            for (int i = 0; i < size; i++) {
+                promotions.put(buffer.readString(), new NodeId(buffer.readString()));
+            }
+        }
+    }
+
     /**
      * Command for administratively changing the leadership state for a node.
      */
@@ -434,6 +644,10 @@ public final class AtomixLeaderElectorCommands {
             registry.register(Unlisten.class, -868);
             registry.register(Promote.class, -869);
             registry.register(Evict.class, -870);
+            registry.register(RunAll.class, -871);
+            registry.register(WithdrawAll.class, -872);
+            registry.register(AnointAll.class, -873);
+            registry.register(PromoteAll.class, -874);
         }
     }
 }
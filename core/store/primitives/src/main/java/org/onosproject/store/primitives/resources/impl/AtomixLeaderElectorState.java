@@ -45,15 +45,19 @@ import org.onosproject.cluster.Leadership;
 import org.onosproject.cluster.NodeId;
 import org.onosproject.event.Change;
 import org.onosproject.store.primitives.resources.impl.AtomixLeaderElectorCommands.Anoint;
+import org.onosproject.store.primitives.resources.impl.AtomixLeaderElectorCommands.AnointAll;
 import org.onosproject.store.primitives.resources.impl.AtomixLeaderElectorCommands.Evict;
 import org.onosproject.store.primitives.resources.impl.AtomixLeaderElectorCommands.GetAllLeaderships;
 import org.onosproject.store.primitives.resources.impl.AtomixLeaderElectorCommands.GetElectedTopics;
 import org.onosproject.store.primitives.resources.impl.AtomixLeaderElectorCommands.GetLeadership;
 import org.onosproject.store.primitives.resources.impl.AtomixLeaderElectorCommands.Listen;
 import org.onosproject.store.primitives.resources.impl.AtomixLeaderElectorCommands.Promote;
+import org.onosproject.store.primitives.resources.impl.AtomixLeaderElectorCommands.PromoteAll;
 import org.onosproject.store.primitives.resources.impl.AtomixLeaderElectorCommands.Run;
+import org.onosproject.store.primitives.resources.impl.AtomixLeaderElectorCommands.RunAll;
 import org.onosproject.store.primitives.resources.impl.AtomixLeaderElectorCommands.Unlisten;
 import org.onosproject.store.primitives.resources.impl.AtomixLeaderElectorCommands.Withdraw;
+import org.onosproject.store.primitives.resources.impl.AtomixLeaderElectorCommands.WithdrawAll;
 import org.onosproject.store.serializers.KryoNamespaces;
 import org.onosproject.store.service.Serializer;
 import org.slf4j.Logger;
@@ -93,6 +97,10 @@ public class AtomixLeaderElectorState extends ResourceStateMachine
         executor.register(Anoint.class, this::anoint);
         executor.register(Promote.class, this::promote);
         executor.register(Evict.class, this::evict);
+        executor.register(RunAll.class, this::runAll);
+        executor.register(WithdrawAll.class, this::withdrawAll);
+        executor.register(AnointAll.class, this::anointAll);
+        executor.register(PromoteAll.class, this::promoteAll);
         // Queries
         executor.register(GetLeadership.class, this::leadership);
         executor.register(GetAllLeaderships.class, this::allLeaderships);
@@ -153,26 +161,11 @@ public class AtomixLeaderElectorState extends ResourceStateMachine
      */
     public Leadership run(Commit<? extends Run> commit) {
         try {
-            String topic = commit.operation().topic();
-            Leadership oldLeadership = leadership(topic);
-            Registration registration = new Registration(commit.operation().nodeId(), commit.session().id());
-            elections.compute(topic, (k, v) -> {
-                if (v == null) {
-                    return new ElectionState(registration, termCounter(topic)::incrementAndGet);
-                } else {
-                    if (!v.isDuplicate(registration)) {
-                        return new ElectionState(v).addRegistration(registration, termCounter(topic)::incrementAndGet);
-                    } else {
-                        return v;
-                    }
-                }
-            });
-            Leadership newLeadership = leadership(topic);
-
-            if (!Objects.equal(oldLeadership, newLeadership)) {
-                notifyLeadershipChange(oldLeadership, newLeadership);
-            }
-            return newLeadership;
+            List<Change<Leadership>> changes = Lists.newArrayList();
+            Leadership leadership = runTopic(commit.operation().topic(), commit.operation().nodeId(),
+                                             commit.session(), changes);
+            notifyLeadershipChanges(changes);
+            return leadership;
         } catch (Exception e) {
             log.error("State machine operation failed", e);
             throw Throwables.propagate(e);
@@ -187,14 +180,9 @@ public class AtomixLeaderElectorState extends ResourceStateMachine
      */
     public void withdraw(Commit<? extends Withdraw> commit) {
         try {
-            String topic = commit.operation().topic();
-            Leadership oldLeadership = leadership(topic);
-            elections.computeIfPresent(topic, (k, v) -> v.cleanup(commit.session(),
-                                        termCounter(topic)::incrementAndGet));
-            Leadership newLeadership = leadership(topic);
-            if (!Objects.equal(oldLeadership, newLeadership)) {
-                notifyLeadershipChange(oldLeadership, newLeadership);
-            }
+            List<Change<Leadership>> changes = Lists.newArrayList();
+            withdrawTopic(commit.operation().topic(), commit.session(), changes);
+            notifyLeadershipChanges(changes);
         } catch (Exception e) {
             log.error("State machine operation failed", e);
             throw Throwables.propagate(e);
@@ -210,18 +198,51 @@ public class AtomixLeaderElectorState extends ResourceStateMachine
      */
     public boolean anoint(Commit<? extends Anoint> commit) {
         try {
-            String topic = commit.operation().topic();
+            List<Change<Leadership>> changes = Lists.newArrayList();
+            boolean anointed = anointTopic(commit.operation().topic(), commit.operation().nodeId(), changes);
+            notifyLeadershipChanges(changes);
+            return anointed;
+        } catch (Exception e) {
+            log.error("State machine operation failed", e);
+            throw Throwables.propagate(e);
+        } finally {
+            commit.close();
+        }
+    }
+
+    /**
+     * Applies an {@link AtomixLeaderElectorCommands.RunAll} commit. The resulting
+     * leadership changes are published as a single event.
+     * @param commit commit entry
+     * @return topic leaderships
+     */
+    public Map<String, Leadership> runAll(Commit<? extends RunAll> commit) {
+        try {
+            List<Change<Leadership>> changes = Lists.newArrayList();
+            Map<String, Leadership> leaderships = new HashMap<>();
             NodeId nodeId = commit.operation().nodeId();
-            Leadership oldLeadership = leadership(topic);
-            ElectionState electionState = elections.computeIfPresent(topic,
-                    (k, v) -> v.transferLeadership(nodeId, termCounter(topic)));
-            Leadership newLeadership = leadership(topic);
-            if (!Objects.equal(oldLeadership, newLeadership)) {
-                notifyLeadershipChange(oldLeadership, newLeadership);
-            }
-            return (electionState != null &&
-                    electionState.leader() != null &&
-                    commit.operation().nodeId().equals(electionState.leader().nodeId()));
+            commit.operation().topics()
+                    .forEach(topic -> leaderships.put(topic, runTopic(topic, nodeId, commit.session(), changes)));
+            notifyLeadershipChanges(changes);
+            return leaderships;
+        } catch (Exception e) {
+            log.error("State machine operation failed", e);
+            throw Throwables.propagate(e);
+        } finally {
+            commit.close();
+        }
+    }
+
+    /**
+     * Applies an {@link AtomixLeaderElectorCommands.WithdrawAll} commit. The resulting
+     * leadership changes are published as a single event.
+     * @param commit withdrawAll commit
+     */
+    public void withdrawAll(Commit<? extends WithdrawAll> commit) {
+        try {
+            List<Change<Leadership>> changes = Lists.newArrayList();
+            commit.operation().topics().forEach(topic -> withdrawTopic(topic, commit.session(), changes));
+            notifyLeadershipChanges(changes);
         } catch (Exception e) {
             log.error("State machine operation failed", e);
             throw Throwables.propagate(e);
@@ -230,6 +251,72 @@ public class AtomixLeaderElectorState extends ResourceStateMachine
         }
     }
 
+    /**
+     * Applies an {@link AtomixLeaderElectorCommands.AnointAll} commit. The resulting
+     * leadership changes are published as a single event.
+     * @param commit anointAll commit
+     * @return for each topic, {@code true} if the transfer occurred
+     */
+    public Map<String, Boolean> anointAll(Commit<? extends AnointAll> commit) {
+        try {
+            List<Change<Leadership>> changes = Lists.newArrayList();
+            Map<String, Boolean> results = new HashMap<>();
+            commit.operation().transfers()
+                    .forEach((topic, nodeId) -> results.put(topic, anointTopic(topic, nodeId, changes)));
+            notifyLeadershipChanges(changes);
+            return results;
+        } catch (Exception e) {
+            log.error("State machine operation failed", e);
+            throw Throwables.propagate(e);
+        } finally {
+            commit.close();
+        }
+    }
+
+    private Leadership runTopic(String topic, NodeId nodeId, ServerSession session,
+                                List<Change<Leadership>> changes) {
+        Leadership oldLeadership = leadership(topic);
+        Registration registration = new Registration(nodeId, session.id());
+        elections.compute(topic, (k, v) -> {
+            if (v == null) {
+                return new ElectionState(registration, termCounter(topic)::incrementAndGet);
+            } else {
+                if (!v.isDuplicate(registration)) {
+                    return new ElectionState(v).addRegistration(registration, termCounter(topic)::incrementAndGet);
+                } else {
+                    return v;
+                }
+            }
+        });
+        Leadership newLeadership = leadership(topic);
+        if (!Objects.equal(oldLeadership, newLeadership)) {
+            changes.add(new Change<>(oldLeadership, newLeadership));
+        }
+        return newLeadership;
+    }
+
+    private void withdrawTopic(String topic, ServerSession session, List<Change<Leadership>> changes) {
+        Leadership oldLeadership = leadership(topic);
+        elections.computeIfPresent(topic, (k, v) -> v.cleanup(session, termCounter(topic)::incrementAndGet));
+        Leadership newLeadership = leadership(topic);
+        if (!Objects.equal(oldLeadership, newLeadership)) {
+            changes.add(new Change<>(oldLeadership, newLeadership));
+        }
+    }
+
+    private boolean anointTopic(String topic, NodeId nodeId, List<Change<Leadership>> changes) {
+        Leadership oldLeadership = leadership(topic);
+        ElectionState electionState = elections.computeIfPresent(topic,
+                (k, v) -> v.transferLeadership(nodeId, termCounter(topic)));
+        Leadership newLeadership = leadership(topic);
+        if (!Objects.equal(oldLeadership, newLeadership)) {
+            changes.add(new Change<>(oldLeadership, newLeadership));
+        }
+        return electionState != null
+                && electionState.leader() != null
+                && nodeId.equals(electionState.leader().nodeId());
+    }
+
     /**
      * Applies an {@link AtomixLeaderElectorCommands.Promote} commit.
      * @param commit promote commit
@@ -237,18 +324,10 @@ public class AtomixLeaderElectorState extends ResourceStateMachine
      */
     public boolean promote(Commit<? extends Promote> commit) {
         try {
-            String topic = commit.operation().topic();
-            NodeId nodeId = commit.operation().nodeId();
-            Leadership oldLeadership = leadership(topic);
-            if (oldLeadership == null || !oldLeadership.candidates().contains(nodeId)) {
-                return false;
-            }
-            elections.computeIfPresent(topic, (k, v) -> v.promote(nodeId));
-            Leadership newLeadership = leadership(topic);
-            if (!Objects.equal(oldLeadership, newLeadership)) {
-                notifyLeadershipChange(oldLeadership, newLeadership);
-            }
-            return true;
+            List<Change<Leadership>> changes = Lists.newArrayList();
+            boolean promoted = promoteTopic(commit.operation().topic(), commit.operation().nodeId(), changes);
+            notifyLeadershipChanges(changes);
+            return promoted;
         } catch (Exception e) {
             log.error("State machine operation failed", e);
             throw Throwables.propagate(e);
@@ -257,6 +336,41 @@ public class AtomixLeaderElectorState extends ResourceStateMachine
         }
     }
 
+    /**
+     * Applies an {@link AtomixLeaderElectorCommands.PromoteAll} commit. The resulting
+     * leadership changes are published as a single event.
+     * @param commit promoteAll commit
+     * @return for each topic, {@code true} if the node is now the top candidate
+     */
+    public Map<String, Boolean> promoteAll(Commit<? extends PromoteAll> commit) {
+        try {
+            List<Change<Leadership>> changes = Lists.newArrayList();
+            Map<String, Boolean> results = new HashMap<>();
+            commit.operation().promotions()
+                    .forEach((topic, nodeId) -> results.put(topic, promoteTopic(topic, nodeId, changes)));
+            notifyLeadershipChanges(changes);
+            return results;
+        } catch (Exception e) {
+            log.error("State machine operation failed", e);
+            throw Throwables.propagate(e);
+        } finally {
+            commit.close();
+        }
+    }
+
+    private boolean promoteTopic(String topic, NodeId nodeId, List<Change<Leadership>> changes) {
+        Leadership oldLeadership = leadership(topic);
+        if (oldLeadership == null || !oldLeadership.candidates().contains(nodeId)) {
+            return false;
+        }
+        elections.computeIfPresent(topic, (k, v) -> v.promote(nodeId));
+        Leadership newLeadership = leadership(topic);
+        if (!Objects.equal(oldLeadership, newLeadership)) {
+            changes.add(new Change<>(oldLeadership, newLeadership));
+        }
+        return true;
+    }
+
     /**
      * Applies an {@link AtomixLeaderElectorCommands.Evict} commit.
      * @param commit evict commit
@@ -0,0 +1,374 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.primitives.impl;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import io.atomix.AtomixClient;
+import io.atomix.resource.ResourceType;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.onlab.util.HexString;
+import org.onosproject.cluster.NodeId;
+import org.onosproject.cluster.PartitionId;
+import org.onosproject.store.primitives.DistributedPrimitiveCreator;
+import org.onosproject.store.primitives.resources.impl.AtomixConsistentMap;
+import org.onosproject.store.primitives.resources.impl.AtomixTestBase;
+import org.onosproject.store.serializers.KryoNamespaces;
+import org.onosproject.store.service.AsyncAtomicCounter;
+import org.onosproject.store.service.AsyncAtomicValue;
+import org.onosproject.store.service.AsyncConsistentMap;
+import org.onosproject.store.service.AsyncConsistentMultimap;
+import org.onosproject.store.service.AsyncConsistentTreeMap;
+import org.onosproject.store.service.AsyncDistributedSet;
+import org.onosproject.store.service.AsyncDocumentTree;
+import org.onosproject.store.service.AsyncLeaderElector;
+import org.onosproject.store.service.MapEvent;
+import org.onosproject.store.service.Serializer;
+import org.onosproject.store.service.Versioned;
+import org.onosproject.store.service.WorkQueue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link FederatedDistributedPrimitiveCreator}.
+ */
+public class FederatedDistributedPrimitiveCreatorTest extends AtomixTestBase {
+
+    private static final Serializer SERIALIZER = Serializer.using(KryoNamespaces.BASIC);
+    private static final NodeId NODE1 = new NodeId("node1");
+    private static final NodeId NODE2 = new NodeId("node2");
+    private static final PartitionId P1 = PartitionId.from(1);
+    private static final PartitionId P2 = PartitionId.from(2);
+    private static final int ENTRIES = 50;
+
+    private final List<FederatedDistributedPrimitiveCreator> creators = Lists.newArrayList();
+
+    @BeforeClass
+    public static void preTestSetup() throws Throwable {
+        createCopycatServers(3);
+    }
+
+    @AfterClass
+    public static void postTestCleanup() throws Exception {
+        clearTests();
+    }
+
+    @After
+    public void tearDown() {
+        creators.forEach(FederatedDistributedPrimitiveCreator::close);
+    }
+
+    @Override
+    protected ResourceType resourceType() {
+        return new ResourceType(AtomixConsistentMap.class);
+    }
+
+    private FederatedDistributedPrimitiveCreator newCreator(NodeId nodeId,
+                                                            Map<PartitionId, DistributedPrimitiveCreator> members) {
+        FederatedDistributedPrimitiveCreator creator =
+                new FederatedDistributedPrimitiveCreator(members, nodeId, () -> ImmutableSet.of(NODE1, NODE2));
+        creators.add(creator);
+        return creator;
+    }
+
+    private static <T> T get(CompletableFuture<T> future) throws Exception {
+        return future.get(30, TimeUnit.SECONDS);
+    }
+
+    private static void putEntries(AsyncConsistentMap<String, String> map) throws Exception {
+        for (int i = 0; i < ENTRIES; i++) {
+            get(map.put("key" + i, "value" + i));
+        }
+    }
+
+    private static void assertEntries(AsyncConsistentMap<String, String> map) throws Exception {
+        assertThat(get(map.size()), is(ENTRIES));
+        for (int i = 0; i < ENTRIES; i++) {
+            assertThat(Versioned.valueOrNull(get(map.get("key" + i))), is("value" + i));
+        }
+    }
+
+    private static int partitionSize(TestCreator member, String name) throws Exception {
+        return get(member.<String, String>newAsyncConsistentMap(name, SERIALIZER).size());
+    }
+
+    /**
+     * Tests that a map keeps the partitions it was created with on an
+     * instance with more partitions.
+     */
+    @Test
+    public void testExistingPlacementKept() throws Exception {
+        TestCreator p1 = new TestCreator(createAtomixClient(), P1);
+        TestCreator p2 = new TestCreator(createAtomixClient(), P2);
+        FederatedDistributedPrimitiveCreator creator1 = newCreator(NODE1, ImmutableMap.of(P1, p1));
+        putEntries(creator1.newAsyncConsistentMap("kept", SERIALIZER));
+
+        FederatedDistributedPrimitiveCreator creator2 = newCreator(NODE2, ImmutableMap.of(P1, p1, P2, p2));
+        AsyncConsistentMap<String, String> map = creator2.newAsyncConsistentMap("kept", SERIALIZER);
+        assertEntries(map);
+        get(map.put("other", "value"));
+        get(map.remove("other"));
+        assertThat(partitionSize(p2, "kept"), is(0));
+    }
+
+    /**
+     * Tests that maps created after a partition was added use it.
+     */
+    @Test
+    public void testNewMapUsesAddedPartition() throws Exception {
+        TestCreator p1 = new TestCreator(createAtomixClient(), P1);
+        TestCreator p2 = new TestCreator(createAtomixClient(), P2);
+        FederatedDistributedPrimitiveCreator creator = newCreator(NODE1, ImmutableMap.of(P1, p1));
+        creator.addMember(P2, p2);
+
+        AsyncConsistentMap<String, String> map = creator.newAsyncConsistentMap("added", SERIALIZER);
+        putEntries(map);
+        assertEntries(map);
+        assertThat(partitionSize(p1, "added"), greaterThan(0));
+        assertThat(partitionSize(p2, "added"), greaterThan(0));
+    }
+
+    /**
+     * Tests that the operations on a map spread over a partition not opened
+     * yet on this instance wait for the partition.
+     */
+    @Test
+    public void testWaitForPartition() throws Exception {
+        TestCreator p1 = new TestCreator(createAtomixClient(), P1);
+        TestCreator p2 = new TestCreator(createAtomixClient(), P2);
+        FederatedDistributedPrimitiveCreator creator1 = newCreator(NODE1, ImmutableMap.of(P1, p1, P2, p2));
+        putEntries(creator1.newAsyncConsistentMap("wait", SERIALIZER));
+
+        FederatedDistributedPrimitiveCreator creator2 = newCreator(NODE2, ImmutableMap.of(P1, p1));
+        AsyncConsistentMap<String, String> map = creator2.newAsyncConsistentMap("wait", SERIALIZER);
+        CompletableFuture<Integer> size = map.size();
+        Thread.sleep(500);
+        assertFalse(size.isDone());
+
+        creator2.addMember(P2, p2);
+        assertThat(get(size), is(ENTRIES));
+        assertEntries(map);
+    }
+
+    /**
+     * Tests that rebalancing a map moves its entries to the added partition
+     * and that the instances of the map on every node follow.
+     */
+    @Test
+    public void testRebalance() throws Exception {
+        TestCreator p1 = new TestCreator(createAtomixClient(), P1);
+        TestCreator p2 = new TestCreator(createAtomixClient(), P2);
+        FederatedDistributedPrimitiveCreator creator1 = newCreator(NODE1, ImmutableMap.of(P1, p1));
+        FederatedDistributedPrimitiveCreator creator2 = newCreator(NODE2, ImmutableMap.of(P1, p1));
+        AsyncConsistentMap<String, String> map1 = creator1.newAsyncConsistentMap("moved", SERIALIZER);
+        AsyncConsistentMap<String, String> map2 = creator2.newAsyncConsistentMap("moved", SERIALIZER);
+        putEntries(map1);
+
+        creator1.addMember(P2, p2);
+        creator2.addMember(P2, p2);
+        get(creator1.rebalance("moved"));
+
+        assertThat(partitionSize(p2, "moved"), greaterThan(0));
+        assertThat(partitionSize(p1, "moved") + partitionSize(p2, "moved"), is(ENTRIES));
+        assertEntries(map1);
+        assertEventually(() -> map2.get("key0").join() != null);
+        assertEntries(map2);
+        assertEntries(creator2.newAsyncConsistentMap("moved", SERIALIZER));
+
+        // nothing left to move
+        get(creator2.rebalance("moved"));
+        assertEntries(map2);
+    }
+
+    /**
+     * Tests that listeners attached during a rebalance see no event for the
+     * moved entries, that the moved entries keep their versions and that
+     * the map stays in use.
+     */
+    @Test
+    public void testRebalanceListener() throws Exception {
+        TestCreator p1 = new TestCreator(createAtomixClient(), P1);
+        TestCreator p2 = new TestCreator(createAtomixClient(), P2);
+        FederatedDistributedPrimitiveCreator creator1 = newCreator(NODE1, ImmutableMap.of(P1, p1));
+        FederatedDistributedPrimitiveCreator creator2 = newCreator(NODE2, ImmutableMap.of(P1, p1));
+        AsyncConsistentMap<String, String> map1 = creator1.newAsyncConsistentMap("listened", SERIALIZER);
+        AsyncConsistentMap<String, String> map2 = creator2.newAsyncConsistentMap("listened", SERIALIZER);
+        putEntries(map1);
+        Map<String, Long> versions = Maps.newHashMap();
+        get(map1.entrySet()).forEach(entry -> versions.put(entry.getKey(), entry.getValue().version()));
+
+        List<MapEvent<String, String>> events = new CopyOnWriteArrayList<>();
+        get(map2.addListener(events::add));
+        creator1.addMember(P2, p2);
+        creator2.addMember(P2, p2);
+        CompletableFuture<Void> rebalanced = creator1.rebalance("listened");
+        get(map2.put("during", "value"));
+        get(rebalanced);
+        assertEventually(() -> events.stream().anyMatch(event -> event.key().equals("during")));
+
+        assertThat(partitionSize(p2, "listened"), greaterThan(0));
+        for (Map.Entry<String, Long> entry : versions.entrySet()) {
+            assertThat(get(map2.get(entry.getKey())).version(), is(entry.getValue()));
+        }
+        assertTrue(events.stream().allMatch(event -> event.key().equals("during")));
+
+        // the listener follows the entries moved to the added partition
+        String moved = get(p2.<String, String>newAsyncConsistentMap("listened", SERIALIZER).keySet())
+                .stream().filter(versions::containsKey).findFirst().get();
+        get(map1.put(moved, "updated"));
+        assertEventually(() -> events.stream().anyMatch(event -> event.key().equals(moved)
+                && event.type() == MapEvent.Type.UPDATE));
+        assertThat(get(map2.get(moved)).version(), greaterThan(versions.get(moved)));
+    }
+
+    /**
+     * Tests that the placement registries are not listed as maps.
+     */
+    @Test
+    public void testRegistriesHidden() throws Exception {
+        TestCreator p1 = new TestCreator(createAtomixClient(), P1);
+        FederatedDistributedPrimitiveCreator creator = newCreator(NODE1, ImmutableMap.of(P1, p1));
+        putEntries(creator.newAsyncConsistentMap("listed", SERIALIZER));
+        Set<String> names = creator.getAsyncConsistentMapNames();
+        assertThat(names, hasItem("listed"));
+        assertThat(names, not(hasItem("onos-primitive-partitions")));
+        assertThat(names, not(hasItem("onos-primitive-partition-fences")));
+    }
+
+    private static void assertEventually(BooleanSupplier condition) throws Exception {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (true) {
+            try {
+                if (condition.getAsBoolean()) {
+                    return;
+                }
+            } catch (RuntimeException e) {
+                // unavailable while the instance follows the move
+            }
+            assertTrue("Condition not met", System.currentTimeMillis() < deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    /**
+     * Partition primitive creator hosting the maps of a partition on a
+     * shared cluster, under a partition specific resource name.
+     */
+    private static class TestCreator implements DistributedPrimitiveCreator, RawMapCreator {
+        private final AtomixClient client;
+        private final PartitionId partitionId;
+
+        TestCreator(AtomixClient client, PartitionId partitionId) {
+            this.client = client;
+            this.partitionId = partitionId;
+        }
+
+        @Override
+        public AtomixConsistentMap newRawConsistentMap(String name) {
+            return client.getResource("p" + partitionId + "-" + name, AtomixConsistentMap.class).join();
+        }
+
+        @Override
+        public <K, V> AsyncConsistentMap<K, V> newAsyncConsistentMap(String name, Serializer serializer) {
+            return DistributedPrimitives.<K, V, String, byte[]>newTranscodingMap(newRawConsistentMap(name),
+                    key -> HexString.toHexString(serializer.encode(key)),
+                    string -> serializer.decode(HexString.fromHexString(string)),
+                    value -> value == null ? null : serializer.encode(value),
+                    bytes -> serializer.decode(bytes));
+        }
+
+        @Override
+        public <V> AsyncConsistentTreeMap<V> newAsyncConsistentTreeMap(String name, Serializer serializer) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <K, V> AsyncConsistentMultimap<K, V> newAsyncConsistentSetMultimap(String name,
+                                                                                 Serializer serializer) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public AsyncAtomicCounter newAsyncCounter(String name) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <V> AsyncAtomicValue<V> newAsyncAtomicValue(String name, Serializer serializer) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <E> AsyncDistributedSet<E> newAsyncDistributedSet(String name, Serializer serializer) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public AsyncLeaderElector newAsyncLeaderElector(String name) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <E> WorkQueue<E> newWorkQueue(String name, Serializer serializer) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <V> AsyncDocumentTree<V> newAsyncDocumentTree(String name, Serializer serializer) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Set<String> getAsyncConsistentMapNames() {
+            String prefix = "p" + partitionId + "-";
+            return client.keys(AtomixConsistentMap.class).join()
+                         .stream()
+                         .filter(name -> name.startsWith(prefix))
+                         .map(name -> name.substring(prefix.length()))
+                         .collect(Collectors.toSet());
+        }
+
+        @Override
+        public Set<String> getAsyncAtomicCounterNames() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Set<String> getWorkQueueNames() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.primitives.resources.impl;
+
+import io.atomix.catalyst.serializer.Serializer;
+import io.atomix.copycat.Operation;
+import io.atomix.copycat.server.Commit;
+import io.atomix.copycat.server.storage.Storage;
+import io.atomix.copycat.server.storage.StorageLevel;
+import io.atomix.copycat.server.storage.snapshot.Snapshot;
+import io.atomix.copycat.server.storage.snapshot.SnapshotReader;
+import io.atomix.copycat.server.storage.snapshot.SnapshotStore;
+import io.atomix.copycat.server.storage.snapshot.SnapshotWriter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.util.Match;
+import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.EntrySet;
+import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapCommands.UpdateAndGet;
+import org.onosproject.store.service.Versioned;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Unit tests for the snapshots of {@link AtomixConsistentMapState}.
+ */
+public class AtomixConsistentMapStateTest {
+
+    // more than two chunks of 1024 entries
+    private static final int ENTRIES = 2500;
+
+    private Storage storage;
+    private SnapshotStore snapshotStore;
+
+    @Before
+    public void setUp() {
+        storage = Storage.builder().withStorageLevel(StorageLevel.MEMORY).build();
+        // opened directly, as Storage only opens stores on Catalyst threads
+        snapshotStore = new SnapshotStore("test", storage, new Serializer());
+    }
+
+    @After
+    public void tearDown() {
+        snapshotStore.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Operation> Commit<T> commit(T operation) {
+        Commit<T> commit = createNiceMock(Commit.class);
+        expect(commit.operation()).andReturn(operation).anyTimes();
+        replay(commit);
+        return commit;
+    }
+
+    private static long put(AtomixConsistentMapState state, String key, byte[] value) {
+        Versioned<byte[]> newValue =
+                state.updateAndGet(commit(new UpdateAndGet(key, value, Match.ANY, Match.ANY))).newValue();
+        return newValue == null ? -1 : newValue.version();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, Versioned<byte[]>> contents(AtomixConsistentMapState state) {
+        Map<String, Versioned<byte[]>> contents = new HashMap<>();
+        state.entrySet(commit(new EntrySet())).forEach(entry -> contents.put(entry.getKey(), entry.getValue()));
+        return contents;
+    }
+
+    /**
+     * Tests that a map spanning several snapshot chunks, with entries
+     * updated and removed since their creation, is installed with the same
+     * entries, versions and version counter.
+     */
+    @Test
+    public void testSnapshotRoundTrip() {
+        AtomixConsistentMapState state = new AtomixConsistentMapState(new Properties());
+        for (int i = 0; i < ENTRIES; i++) {
+            put(state, "key" + i, bytes("value" + i));
+        }
+        // updated entries get later versions, removed ones leave version gaps
+        for (int i = 0; i < ENTRIES; i += 3) {
+            put(state, "key" + i, bytes("updated" + i));
+        }
+        for (int i = 1; i < ENTRIES; i += 7) {
+            put(state, "key" + i, null);
+        }
+        // an entry with an empty value
+        put(state, "empty", new byte[0]);
+        Map<String, Versioned<byte[]>> expected = contents(state);
+
+        Snapshot snapshot = snapshotStore.createSnapshot(1);
+        try (SnapshotWriter writer = snapshot.writer()) {
+            state.snapshot(writer);
+        }
+        snapshot.complete();
+
+        // the entries written to the snapshot still read the same
+        assertContents(expected, contents(state));
+
+        AtomixConsistentMapState installed = new AtomixConsistentMapState(new Properties());
+        try (SnapshotReader reader = snapshotStore.snapshot(1).reader()) {
+            installed.install(reader);
+        }
+        assertContents(expected, contents(installed));
+
+        // the version counter carries on from where the snapshot left it
+        assertEquals(put(state, "next", bytes("next")), put(installed, "next", bytes("next")));
+    }
+
+    private static void assertContents(Map<String, Versioned<byte[]>> expected,
+                                       Map<String, Versioned<byte[]>> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        expected.forEach((key, value) -> {
+            Versioned<byte[]> actualValue = actual.get(key);
+            assertNotNull(key, actualValue);
+            assertEquals(key, value.version(), actualValue.version());
+            assertArrayEquals(key, value.value(), actualValue.value());
+        });
+        assertFalse("removed entry restored", actual.containsKey("key1"));
+    }
+}
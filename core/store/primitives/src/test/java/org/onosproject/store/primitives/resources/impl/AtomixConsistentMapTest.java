@@ -16,7 +16,10 @@
 package org.onosproject.store.primitives.resources.impl;
 
 import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
+import io.atomix.copycat.Query.ConsistencyLevel;
 import io.atomix.resource.ResourceType;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
@@ -106,6 +109,23 @@ public class AtomixConsistentMapTest extends AtomixTestBase {
         transactionRollbackTests();
     }
 
+    /**
+     * Tests reads at each consistency level observe a prior update by another client.
+     */
+    @Test
+    public void testReadConsistency() throws Throwable {
+        readConsistencyTests();
+    }
+
+    /**
+     * Tests that staged entries stay hidden until promoted, keep their
+     * versions and are moved without map events.
+     */
+    @Test
+    public void testStagedEntries() throws Throwable {
+        stagedEntriesTests();
+    }
+
     protected void basicMapOperationTests() throws Throwable {
         final byte[] rawFooValue = Tools.getBytesUtf8("Hello foo!");
         final byte[] rawBarValue = Tools.getBytesUtf8("Hello bar!");
@@ -235,6 +255,28 @@ public class AtomixConsistentMapTest extends AtomixTestBase {
         }).join();
     }
 
+    protected void readConsistencyTests() throws Throwable {
+        final byte[] rawFooValue = Tools.getBytesUtf8("Hello foo!");
+
+        AtomixConsistentMap writer = createAtomixClient().getResource("testReadConsistencyMap",
+                                                                      AtomixConsistentMap.class).join();
+        AtomixConsistentMap reader = createAtomixClient().getResource("testReadConsistencyMap",
+                                                                      AtomixConsistentMap.class).join();
+
+        writer.put("foo", rawFooValue).join();
+
+        Versioned<byte[]> value = reader.get("foo", ConsistencyLevel.LINEARIZABLE).join();
+        assertArrayEquals(rawFooValue, value.value());
+        assertThat(reader.size(ConsistencyLevel.LINEARIZABLE).join(), is(1));
+        assertTrue(reader.containsKey("foo", ConsistencyLevel.LINEARIZABLE).join());
+
+        // sequential reads of the same client observe its own updates
+        writer.remove("foo").join();
+        assertNull(writer.get("foo", ConsistencyLevel.SEQUENTIAL).join());
+        assertTrue(writer.isEmpty(ConsistencyLevel.SEQUENTIAL).join());
+        assertTrue(reader.keySet(ConsistencyLevel.LINEARIZABLE).join().isEmpty());
+    }
+
     public void mapComputeOperationTests() throws Throwable {
         final byte[] value1 = Tools.getBytesUtf8("value1");
         final byte[] value2 = Tools.getBytesUtf8("value2");
@@ -465,6 +507,48 @@ public class AtomixConsistentMapTest extends AtomixTestBase {
         assertTrue(Arrays.equals(value2, event.newValue().value()));
     }
 
+    protected void stagedEntriesTests() throws Throwable {
+        final byte[] rawFooValue = Tools.getBytesUtf8("Hello foo!");
+        final byte[] rawBarValue = Tools.getBytesUtf8("Hello bar!");
+
+        AtomixConsistentMap map = createAtomixClient().getResource("testStagedEntriesMap",
+                                                                   AtomixConsistentMap.class).join();
+        TestMapEventListener listener = new TestMapEventListener();
+        map.addListener(listener).join();
+
+        map.stage(ImmutableMap.of("foo", new Versioned<>(rawFooValue, 100),
+                                  "bar", new Versioned<>(rawBarValue, 101)),
+                  ImmutableSet.of()).join();
+        assertTrue(map.isEmpty().join());
+        map.stage(ImmutableMap.of(), ImmutableSet.of("bar")).join();
+        assertThat(map.promoteStaged().join(), is(1));
+        Versioned<byte[]> foo = map.get("foo").join();
+        assertArrayEquals(rawFooValue, foo.value());
+        assertThat(foo.version(), is(100L));
+        assertNull(map.get("bar").join());
+
+        // later updates get higher versions
+        Versioned<byte[]> baz = map.putAndGet("baz", rawBarValue).join();
+        assertTrue(baz.version() > foo.version());
+        MapEvent<String, byte[]> event = listener.event();
+        assertEquals(MapEvent.Type.INSERT, event.type());
+        assertEquals("baz", event.key());
+
+        // entries changed in the meantime are not evicted
+        assertThat(map.evict(ImmutableMap.of("foo", foo.version(), "baz", baz.version() - 1)).join(),
+                   is(ImmutableSet.of("baz")));
+        assertNull(map.get("foo").join());
+        assertArrayEquals(rawBarValue, map.get("baz").join().value());
+
+        // discarded entries are never promoted
+        map.stage(ImmutableMap.of("foo", new Versioned<>(rawFooValue, 200)), ImmutableSet.of()).join();
+        map.discardStaged().join();
+        assertThat(map.promoteStaged().join(), is(0));
+        assertNull(map.get("foo").join());
+        assertFalse(listener.eventReceived());
+        map.removeListener(listener).join();
+    }
+
     private static class TestMapEventListener implements MapEventListener<String, byte[]> {
 
         private final BlockingQueue<MapEvent<String, byte[]>> queue = new ArrayBlockingQueue<>(1);
@@ -25,6 +25,9 @@ import org.onosproject.cluster.Leadership;
 import org.onosproject.cluster.NodeId;
 import org.onosproject.event.Change;
 
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
@@ -239,6 +242,64 @@ public class AtomixLeaderElectorTest extends AtomixTestBase {
         }).join();
     }
 
+    @Test
+    public void testBatchOperations() throws Throwable {
+        leaderElectorBatchTests();
+    }
+
+    private void leaderElectorBatchTests() throws Throwable {
+        Atomix client1 = createAtomixClient();
+        AtomixLeaderElector elector1 = client1.getResource("test-elector-batch",
+                                                           AtomixLeaderElector.class).join();
+        Atomix client2 = createAtomixClient();
+        AtomixLeaderElector elector2 = client2.getResource("test-elector-batch",
+                                                           AtomixLeaderElector.class).join();
+        elector1.runAll(Arrays.asList("foo", "bar"), node1).thenAccept(result -> {
+            assertEquals(2, result.size());
+            assertEquals(node1, result.get("foo").leaderNodeId());
+            assertEquals(node1, result.get("bar").leaderNodeId());
+        }).join();
+        elector2.runAll(Arrays.asList("foo", "bar"), node2).thenAccept(result -> {
+            assertEquals(node1, result.get("foo").leaderNodeId());
+            assertEquals(node2, result.get("bar").candidates().get(1));
+        }).join();
+
+        LeaderEventListener listener = new LeaderEventListener();
+        elector2.addChangeListener(listener).join();
+
+        elector2.promoteAll(ImmutableMap.of("foo", node2, "bar", node3)).thenAccept(result -> {
+            assertTrue(result.get("foo"));
+            assertFalse(result.get("bar"));
+        }).join();
+        listener.nextEvent().thenAccept(result -> {
+            assertEquals("foo", result.newValue().topic());
+            assertEquals(node1, result.newValue().leaderNodeId());
+            assertEquals(node2, result.newValue().candidates().get(0));
+        }).join();
+        assertFalse(listener.hasEvent());
+
+        elector2.anointAll(ImmutableMap.of("foo", node2, "bar", node3)).thenAccept(result -> {
+            assertTrue(result.get("foo"));
+            assertFalse(result.get("bar"));
+        }).join();
+        listener.nextEvent().thenAccept(result -> {
+            assertEquals("foo", result.newValue().topic());
+            assertEquals(node2, result.newValue().leaderNodeId());
+        }).join();
+        assertFalse(listener.hasEvent());
+
+        elector2.withdrawAll(Arrays.asList("foo", "bar")).join();
+        listener.nextEvent().thenAccept(result -> {
+            assertEquals(node1, result.newValue().leaderNodeId());
+        }).join();
+        elector1.getLeaderships().thenAccept(result -> {
+            assertEquals(node1, result.get("foo").leaderNodeId());
+            assertEquals(1, result.get("foo").candidates().size());
+            assertEquals(node1, result.get("bar").leaderNodeId());
+            assertEquals(1, result.get("bar").candidates().size());
+        }).join();
+    }
+
     @Test
     public void testLeaderSessionClose() throws Throwable {
         leaderElectorLeaderSessionCloseTests();
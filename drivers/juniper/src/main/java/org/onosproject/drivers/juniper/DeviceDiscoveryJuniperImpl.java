@@ -31,6 +31,8 @@ import org.onosproject.netconf.NetconfSession;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.onosproject.drivers.juniper.JuniperUtils.FAILED_CFG;
@@ -55,13 +57,19 @@ public class DeviceDiscoveryJuniperImpl extends AbstractHandlerBehaviour
         DeviceId deviceId = handler().data().deviceId();
         NetconfController controller = checkNotNull(handler().get(NetconfController.class));
         NetconfSession session = controller.getDevicesMap().get(deviceId).getSession();
+        // both requests are pipelined on the session
+        CompletableFuture<String> sysInfoReply = session.requestAsync(requestBuilder(REQ_SYS_INFO));
+        CompletableFuture<String> chassisReply = session.requestAsync(requestBuilder(REQ_MAC_ADD_INFO));
         String sysInfo;
         String chassis;
         try {
-            sysInfo = session.get(requestBuilder(REQ_SYS_INFO));
-            chassis = session.get(requestBuilder(REQ_MAC_ADD_INFO));
-        } catch (IOException e) {
+            sysInfo = sysInfoReply.get();
+            chassis = chassisReply.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             throw new RuntimeException(new NetconfException(FAILED_CFG, e));
+        } catch (ExecutionException e) {
+            throw new RuntimeException(new NetconfException(FAILED_CFG, e.getCause()));
         }
         DeviceDescription description =
                 JuniperUtils.parseJuniperDescription(deviceId, XmlConfigParser.
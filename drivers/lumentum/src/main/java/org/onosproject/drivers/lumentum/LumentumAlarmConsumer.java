@@ -24,15 +24,13 @@ import org.onosproject.incubator.net.faultmanagement.alarm.DefaultAlarm;
 import org.onosproject.net.DeviceId;
 import org.onosproject.net.driver.AbstractHandlerBehaviour;
 import org.onosproject.snmp.SnmpController;
-import org.onosproject.snmp.SnmpDevice;
 import org.slf4j.Logger;
 import org.snmp4j.smi.OID;
 import org.snmp4j.smi.VariableBinding;
-import org.snmp4j.util.TreeEvent;
 
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletionException;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.onosproject.incubator.net.faultmanagement.alarm.Alarm.SeverityLevel;
@@ -45,45 +43,33 @@ public class LumentumAlarmConsumer extends AbstractHandlerBehaviour implements A
 
     private final Logger log = getLogger(getClass());
 
-    private static final String ALARM_TABLE = ".1.3.6.1.4.1.46184.1.3.2";
     private static final String ALARM_ID = ".1.3.6.1.4.1.46184.1.3.2.1.1";
-    private static final OID ALARMS_TABLE_OID = new OID(ALARM_TABLE);
     private static final OID ALARMS_ID_OID = new OID(ALARM_ID);
-    private LumentumSnmpDevice snmp;
 
     @Override
     public List<Alarm> consumeAlarms() {
 
         SnmpController controller = checkNotNull(handler().get(SnmpController.class));
-        List<Alarm> alarms = new ArrayList<>();
         DeviceId deviceId = handler().data().deviceId();
-        SnmpDevice device = controller.getDevice(deviceId);
+        List<VariableBinding> alarmIds;
         try {
-            snmp = new LumentumSnmpDevice(device.getSnmpHost(), device.getSnmpPort());
-        } catch (IOException e) {
-            log.error("Failed to connect to device: ", e);
+            alarmIds = controller.walk(deviceId, ImmutableList.of(ALARMS_ID_OID)).join();
+        } catch (CompletionException e) {
+            log.error("Failed to retrieve alarms of device {}", deviceId, e.getCause());
+            return ImmutableList.of(controller.buildWalkFailedAlarm(deviceId));
         }
 
-        // Gets the alarm table and for each entry get the ID and create the proper alarm.
-        snmp.get(ALARMS_TABLE_OID)
-                .forEach(alarm -> snmp.get(ALARMS_ID_OID).forEach(alarmIdEvent -> {
-                    int alarmId = getAlarmId(alarmIdEvent);
-                    alarms.add(new DefaultAlarm.Builder(deviceId, getMessage(alarmId),
-                                                        getSeverity(alarmId),
-                                                        System.currentTimeMillis())
-                                       .withId(AlarmId.alarmId(alarmId))
-                                       .build());
-                }));
-        return ImmutableList.copyOf(alarms);
-    }
-
-    //Walks the tree and retrieves the alarmId
-    private int getAlarmId(TreeEvent treeEvents) {
-        VariableBinding[] varBindings = treeEvents.getVariableBindings();
-        for (VariableBinding varBinding : varBindings) {
-            return varBinding.getVariable().toInt();
+        // Creates an alarm for each entry of the alarm table, from its ID.
+        List<Alarm> alarms = new ArrayList<>();
+        for (VariableBinding alarmIdBinding : alarmIds) {
+            int alarmId = alarmIdBinding.getVariable().toInt();
+            alarms.add(new DefaultAlarm.Builder(deviceId, getMessage(alarmId),
+                                                getSeverity(alarmId),
+                                                System.currentTimeMillis())
+                               .withId(AlarmId.alarmId(alarmId))
+                               .build());
         }
-        return -1;
+        return ImmutableList.copyOf(alarms);
     }
 
     //Returns the severity level.
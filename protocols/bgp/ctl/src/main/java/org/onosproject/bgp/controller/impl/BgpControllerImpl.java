@@ -42,9 +42,13 @@ import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static org.onlab.util.Tools.groupedThreads;
+
 @Component(immediate = true)
 @Service
 public class BgpControllerImpl implements BgpController {
@@ -55,8 +59,12 @@ public class BgpControllerImpl implements BgpController {
 
     protected BgpPeerManagerImpl peerManager = new BgpPeerManagerImpl();
 
-    private BgpLocalRib bgplocalRib = new BgpLocalRibImpl(this);
-    private BgpLocalRib bgplocalRibVpn = new BgpLocalRibImpl(this);
+    // delivers the local RIB notifications, outside of the peer I/O threads
+    private final ExecutorService ribNotifier =
+            newSingleThreadExecutor(groupedThreads("onos/bgp", "local-rib-notifier", log));
+
+    private BgpLocalRib bgplocalRib = new BgpLocalRibImpl(this, ribNotifier);
+    private BgpLocalRib bgplocalRibVpn = new BgpLocalRibImpl(this, ribNotifier);
 
     protected Set<BgpNodeListener> bgpNodeListener = new CopyOnWriteArraySet<>();
     protected Set<BgpLinkListener> bgpLinkListener = new CopyOnWriteArraySet<>();
@@ -76,6 +84,7 @@ public class BgpControllerImpl implements BgpController {
         // Close all connected peers
         closeConnectedPeers();
         this.ctrl.stop();
+        ribNotifier.shutdownNow();
         log.info("Stopped");
     }
 
@@ -36,32 +36,61 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Implementation of local RIB.
+ * <p>
+ * The NLRI trees are concurrent sorted maps: readers iterate them without
+ * locking and never see a tree being rebalanced. Updates of each NLRI type
+ * are serialized by a lock of their own, so that node, link and prefix
+ * updates received from different peers proceed in parallel. Listeners are
+ * notified in order, in batches, outside of the peer I/O threads.
+ * </p>
  */
 public class BgpLocalRibImpl implements BgpLocalRib {
 
     private static final Logger log = LoggerFactory.getLogger(BgpLocalRibImpl.class);
+
     private BgpController bgpController;
+    private final Executor notifier;
 
-    private Map<BgpNodeLSIdentifier, PathAttrNlriDetailsLocalRib> nodeTree = new TreeMap<>();
-    private Map<BgpLinkLSIdentifier, PathAttrNlriDetailsLocalRib> linkTree = new TreeMap<>();
-    private Map<BgpPrefixLSIdentifier, PathAttrNlriDetailsLocalRib> prefixTree = new TreeMap<>();
+    private Map<BgpNodeLSIdentifier, PathAttrNlriDetailsLocalRib> nodeTree = new ConcurrentSkipListMap<>();
+    private Map<BgpLinkLSIdentifier, PathAttrNlriDetailsLocalRib> linkTree = new ConcurrentSkipListMap<>();
+    private Map<BgpPrefixLSIdentifier, PathAttrNlriDetailsLocalRib> prefixTree = new ConcurrentSkipListMap<>();
 
     private Map<RouteDistinguisher, Map<BgpNodeLSIdentifier, PathAttrNlriDetailsLocalRib>> vpnNodeTree
-                                                                                                   = new TreeMap<>();
+                                                                                    = new ConcurrentSkipListMap<>();
     private Map<RouteDistinguisher, Map<BgpLinkLSIdentifier, PathAttrNlriDetailsLocalRib>> vpnLinkTree
-                                                                                                   = new TreeMap<>();
+                                                                                    = new ConcurrentSkipListMap<>();
     private Map<RouteDistinguisher, Map<BgpPrefixLSIdentifier, PathAttrNlriDetailsLocalRib>> vpnPrefixTree
-                                                                                                   = new TreeMap<>();
+                                                                                    = new ConcurrentSkipListMap<>();
+
+    private final Lock nodeLock = new ReentrantLock();
+    private final Lock linkLock = new ReentrantLock();
+    private final Lock prefixLock = new ReentrantLock();
+
+    private final Queue<Runnable> notifications = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean notifying = new AtomicBoolean();
 
-    public BgpLocalRibImpl(BgpController bgpController) {
+    /**
+     * Creates a local RIB notifying the listeners of the controller.
+     *
+     * @param bgpController BGP controller
+     * @param notifier executor delivering the listener notifications, in order
+     */
+    public BgpLocalRibImpl(BgpController bgpController, Executor notifier) {
         this.bgpController = bgpController;
+        this.notifier = checkNotNull(notifier);
     }
 
     /**
@@ -120,6 +149,16 @@ public class BgpLocalRibImpl implements BgpLocalRib {
 
     @Override
     public void add(BgpSessionInfo sessionInfo, BgpLSNlri nlri, PathAttrNlriDetails details) throws BgpParseException {
+        Lock lock = lockFor(nlri);
+        lock.lock();
+        try {
+            updateLocalRib(sessionInfo, nlri, details);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void updateLocalRib(BgpSessionInfo sessionInfo, BgpLSNlri nlri, PathAttrNlriDetails details) {
         int decisionResult;
 
         log.debug("Add to local RIB {}", details.toString());
@@ -136,17 +175,13 @@ public class BgpLocalRibImpl implements BgpLocalRib {
                 // Compare local RIB entry with the current attribute
                 decisionResult = selectionAlgo.compare(nodeTree.get(nodeLsIdentifier), detailsLocRib);
                 if (decisionResult <= 0) {
-                    for (BgpNodeListener l : bgpController.listener()) {
-                        l.addNode((BgpNodeLSNlriVer4) nlri, details);
-                    }
+                    nodeAdded((BgpNodeLSNlriVer4) nlri, details);
                     nodeTree.replace(nodeLsIdentifier, detailsLocRib);
                     log.debug("Local RIB update node: {}", detailsLocRib.toString());
                 }
             } else {
                 nodeTree.put(nodeLsIdentifier, detailsLocRib);
-                for (BgpNodeListener l : bgpController.listener()) {
-                    l.addNode((BgpNodeLSNlriVer4) nlri, details);
-                }
+                nodeAdded((BgpNodeLSNlriVer4) nlri, details);
                 log.debug("Local RIB ad node: {}", detailsLocRib.toString());
             }
         } else if (nlri instanceof BgpLinkLsNlriVer4) {
@@ -157,16 +192,12 @@ public class BgpLocalRibImpl implements BgpLocalRib {
                 decisionResult = selectionAlgo.compare(linkTree.get(linkLsIdentifier), detailsLocRib);
                 if (decisionResult <= 0) {
                     linkTree.replace(linkLsIdentifier, detailsLocRib);
-                    for (BgpLinkListener l : bgpController.linkListener()) {
-                        l.addLink((BgpLinkLsNlriVer4) nlri, details);
-                    }
+                    linkAdded((BgpLinkLsNlriVer4) nlri, details);
                     log.debug("Local RIB update link: {}", detailsLocRib.toString());
                 }
             } else {
                 linkTree.put(linkLsIdentifier, detailsLocRib);
-                for (BgpLinkListener l : bgpController.linkListener()) {
-                    l.addLink((BgpLinkLsNlriVer4) nlri, details);
-                }
+                linkAdded((BgpLinkLsNlriVer4) nlri, details);
                 log.debug("Local RIB add link: {}", detailsLocRib.toString());
             }
         } else if (nlri instanceof BgpPrefixIPv4LSNlriVer4) {
@@ -220,27 +251,33 @@ public class BgpLocalRibImpl implements BgpLocalRib {
      */
     public void decisionProcess(BgpLSNlri nlri, RouteDistinguisher routeDistinguisher) throws BgpParseException {
         checkNotNull(nlri);
-        if (nlri instanceof BgpNodeLSNlriVer4) {
-            if (vpnNodeTree.containsKey(routeDistinguisher)) {
-                selectionProcessNode(nlri, true);
-                if (nodeTree.size() == 0) {
-                    vpnNodeTree.remove(routeDistinguisher);
+        Lock lock = lockFor(nlri);
+        lock.lock();
+        try {
+            if (nlri instanceof BgpNodeLSNlriVer4) {
+                if (vpnNodeTree.containsKey(routeDistinguisher)) {
+                    selectionProcessNode(nlri, true);
+                    if (nodeTree.isEmpty()) {
+                        vpnNodeTree.remove(routeDistinguisher);
+                    }
                 }
-            }
-        } else if (nlri instanceof BgpLinkLsNlriVer4) {
-            if (vpnLinkTree.containsKey(routeDistinguisher)) {
-                selectionProcessLink(nlri, true);
-                if (linkTree.size() == 0) {
-                    vpnLinkTree.remove(routeDistinguisher);
+            } else if (nlri instanceof BgpLinkLsNlriVer4) {
+                if (vpnLinkTree.containsKey(routeDistinguisher)) {
+                    selectionProcessLink(nlri, true);
+                    if (linkTree.isEmpty()) {
+                        vpnLinkTree.remove(routeDistinguisher);
+                    }
                 }
-            }
-        } else if (nlri instanceof BgpPrefixIPv4LSNlriVer4) {
-            if (vpnPrefixTree.containsKey(routeDistinguisher)) {
-                selectionProcessPrefix(nlri, true);
-                if (prefixTree.size() == 0) {
-                    vpnPrefixTree.remove(routeDistinguisher);
+            } else if (nlri instanceof BgpPrefixIPv4LSNlriVer4) {
+                if (vpnPrefixTree.containsKey(routeDistinguisher)) {
+                    selectionProcessPrefix(nlri, true);
+                    if (prefixTree.isEmpty()) {
+                        vpnPrefixTree.remove(routeDistinguisher);
+                    }
                 }
             }
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -252,6 +289,15 @@ public class BgpLocalRibImpl implements BgpLocalRib {
      * @throws BgpParseException throws BGP parse exception
      */
     public void selectionProcessNode(BgpLSNlri nlri, boolean isVpnRib) throws BgpParseException {
+        nodeLock.lock();
+        try {
+            selectNode(nlri, isVpnRib);
+        } finally {
+            nodeLock.unlock();
+        }
+    }
+
+    private void selectNode(BgpLSNlri nlri, boolean isVpnRib) throws BgpParseException {
         BgpPeerImpl peer;
         BgpSessionInfo sessionInfo;
         int decisionResult;
@@ -260,9 +306,7 @@ public class BgpLocalRibImpl implements BgpLocalRib {
         BgpNodeLSIdentifier nodeLsIdentifier = ((BgpNodeLSNlriVer4) nlri).getLocalNodeDescriptors();
 
         if (nodeTree.containsKey(nodeLsIdentifier)) {
-            for (BgpNodeListener l : bgpController.listener()) {
-                l.deleteNode((BgpNodeLSNlriVer4) nlri);
-            }
+            nodeDeleted((BgpNodeLSNlriVer4) nlri);
             log.debug("Local RIB delete node: {}", nodeLsIdentifier.toString());
             nodeTree.remove(nodeLsIdentifier);
         }
@@ -316,6 +360,15 @@ public class BgpLocalRibImpl implements BgpLocalRib {
      * @throws BgpParseException BGP parse exception
      */
     public void selectionProcessLink(BgpLSNlri nlri, boolean isVpnRib) throws BgpParseException {
+        linkLock.lock();
+        try {
+            selectLink(nlri, isVpnRib);
+        } finally {
+            linkLock.unlock();
+        }
+    }
+
+    private void selectLink(BgpLSNlri nlri, boolean isVpnRib) throws BgpParseException {
         BgpPeerImpl peer;
         BgpSessionInfo sessionInfo;
         int decisionResult;
@@ -325,9 +378,7 @@ public class BgpLocalRibImpl implements BgpLocalRib {
 
         if (linkTree.containsKey(linkLsIdentifier)) {
             log.debug("Local RIB remove link: {}", linkLsIdentifier.toString());
-            for (BgpLinkListener l : bgpController.linkListener()) {
-                l.deleteLink((BgpLinkLsNlriVer4) nlri);
-            }
+            linkDeleted((BgpLinkLsNlriVer4) nlri);
             linkTree.remove(linkLsIdentifier);
         }
 
@@ -383,6 +434,15 @@ public class BgpLocalRibImpl implements BgpLocalRib {
      * @throws BgpParseException BGP parse exception
      */
     public void selectionProcessPrefix(BgpLSNlri nlri, boolean isVpnRib) throws BgpParseException {
+        prefixLock.lock();
+        try {
+            selectPrefix(nlri, isVpnRib);
+        } finally {
+            prefixLock.unlock();
+        }
+    }
+
+    private void selectPrefix(BgpLSNlri nlri, boolean isVpnRib) throws BgpParseException {
         BgpPeerImpl peer;
         BgpSessionInfo sessionInfo;
         int decisionResult;
@@ -440,19 +500,25 @@ public class BgpLocalRibImpl implements BgpLocalRib {
     @Override
     public void add(BgpSessionInfo sessionInfo, BgpLSNlri nlri, PathAttrNlriDetails details,
                     RouteDistinguisher routeDistinguisher) throws BgpParseException {
-        add(sessionInfo, nlri, details);
-        if (nlri instanceof BgpNodeLSNlriVer4) {
-            if (!vpnNodeTree.containsKey(routeDistinguisher)) {
-                vpnNodeTree.put(routeDistinguisher, nodeTree);
-            }
-        } else if (nlri instanceof BgpLinkLsNlriVer4) {
-            if (!vpnLinkTree.containsKey(routeDistinguisher)) {
-                vpnLinkTree.put(routeDistinguisher, linkTree);
-            }
-        } else if (nlri instanceof BgpPrefixIPv4LSNlriVer4) {
-            if (!vpnPrefixTree.containsKey(routeDistinguisher)) {
-                vpnPrefixTree.put(routeDistinguisher, prefixTree);
+        Lock lock = lockFor(nlri);
+        lock.lock();
+        try {
+            updateLocalRib(sessionInfo, nlri, details);
+            if (nlri instanceof BgpNodeLSNlriVer4) {
+                if (!vpnNodeTree.containsKey(routeDistinguisher)) {
+                    vpnNodeTree.put(routeDistinguisher, nodeTree);
+                }
+            } else if (nlri instanceof BgpLinkLsNlriVer4) {
+                if (!vpnLinkTree.containsKey(routeDistinguisher)) {
+                    vpnLinkTree.put(routeDistinguisher, linkTree);
+                }
+            } else if (nlri instanceof BgpPrefixIPv4LSNlriVer4) {
+                if (!vpnPrefixTree.containsKey(routeDistinguisher)) {
+                    vpnPrefixTree.put(routeDistinguisher, prefixTree);
+                }
             }
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -619,6 +685,78 @@ public class BgpLocalRibImpl implements BgpLocalRib {
         localRibUpdatePrefix(vpnAdjRibIn);
     }
 
+    private Lock lockFor(BgpLSNlri nlri) {
+        if (nlri instanceof BgpLinkLsNlriVer4) {
+            return linkLock;
+        } else if (nlri instanceof BgpPrefixIPv4LSNlriVer4) {
+            return prefixLock;
+        }
+        return nodeLock;
+    }
+
+    private void nodeAdded(BgpNodeLSNlriVer4 nlri, PathAttrNlriDetails details) {
+        notifyListeners(() -> {
+            for (BgpNodeListener l : bgpController.listener()) {
+                l.addNode(nlri, details);
+            }
+        });
+    }
+
+    private void nodeDeleted(BgpNodeLSNlriVer4 nlri) {
+        notifyListeners(() -> {
+            for (BgpNodeListener l : bgpController.listener()) {
+                l.deleteNode(nlri);
+            }
+        });
+    }
+
+    private void linkAdded(BgpLinkLsNlriVer4 nlri, PathAttrNlriDetails details) {
+        notifyListeners(() -> {
+            for (BgpLinkListener l : bgpController.linkListener()) {
+                try {
+                    l.addLink(nlri, details);
+                } catch (BgpParseException e) {
+                    log.error("Listener {} failed to add link {}", l, nlri, e);
+                }
+            }
+        });
+    }
+
+    private void linkDeleted(BgpLinkLsNlriVer4 nlri) {
+        notifyListeners(() -> {
+            for (BgpLinkListener l : bgpController.linkListener()) {
+                try {
+                    l.deleteLink(nlri);
+                } catch (BgpParseException e) {
+                    log.error("Listener {} failed to delete link {}", l, nlri, e);
+                }
+            }
+        });
+    }
+
+    // queued while the NLRI type lock is held, so that notifications follow the RIB updates
+    private void notifyListeners(Runnable notification) {
+        notifications.add(notification);
+        if (notifying.compareAndSet(false, true)) {
+            notifier.execute(this::deliverNotifications);
+        }
+    }
+
+    private void deliverNotifications() {
+        do {
+            Runnable notification;
+            while ((notification = notifications.poll()) != null) {
+                try {
+                    notification.run();
+                } catch (RuntimeException e) {
+                    log.error("Error notifying local RIB listener", e);
+                }
+            }
+            notifying.set(false);
+            // notifications queued after the last poll but before the flag was cleared
+        } while (!notifications.isEmpty() && notifying.compareAndSet(false, true));
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(getClass()).omitNullValues().add("nodeTree", nodeTree)
@@ -15,14 +15,12 @@
  */
 package org.onosproject.bgp.controller.impl;
 
-import static org.onlab.util.Tools.groupedThreads;
 import io.netty.util.internal.PlatformDependent;
 import java.lang.management.ManagementFactory;
 import java.lang.management.RuntimeMXBean;
 import java.net.InetSocketAddress;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.Executors;
 
 import org.jboss.netty.bootstrap.ClientBootstrap;
 import org.jboss.netty.bootstrap.ServerBootstrap;
@@ -32,6 +30,7 @@ import org.jboss.netty.channel.group.ChannelGroup;
 import org.jboss.netty.channel.group.DefaultChannelGroup;
 import org.jboss.netty.channel.socket.nio.NioClientSocketChannelFactory;
 import org.jboss.netty.channel.socket.nio.NioServerSocketChannelFactory;
+import org.onlab.util.SharedNettyWorkers;
 import org.onosproject.bgp.controller.BgpController;
 import org.onosproject.bgpio.protocol.BgpFactories;
 import org.onosproject.bgpio.protocol.BgpFactory;
@@ -58,8 +57,6 @@ public class Controller {
     private static final short PORT_NUM_ZERO = 0;
     private static boolean isPortNumSet = false;
     private static short portNumber = BGP_PORT_NUM;
-    private final int workerThreads = 16;
-    private final int peerWorkerThreads = 16;
 
     // Start time of the controller
     private long systemStartTime;
@@ -139,19 +136,8 @@ public class Controller {
      * @return ServerBootStrap
      */
     private ServerBootstrap createServerBootStrap() {
-
-        if (workerThreads == 0) {
-            serverExecFactory = new NioServerSocketChannelFactory(
-                                    Executors.newCachedThreadPool(groupedThreads("onos/bgp", "boss-%d")),
-                                    Executors.newCachedThreadPool(groupedThreads("onos/bgp", "worker-%d")));
-            return new ServerBootstrap(serverExecFactory);
-        } else {
-            serverExecFactory = new NioServerSocketChannelFactory(
-                                    Executors.newCachedThreadPool(groupedThreads("onos/bgp", "boss-%d")),
-                                    Executors.newCachedThreadPool(groupedThreads("onos/bgp", "worker-%d")),
-                                                                  workerThreads);
-            return new ServerBootstrap(serverExecFactory);
-        }
+        serverExecFactory = SharedNettyWorkers.newServerChannelFactory("onos/bgp");
+        return new ServerBootstrap(serverExecFactory);
     }
 
     /**
@@ -160,19 +146,8 @@ public class Controller {
      * @return ClientBootstrap
      */
     private ClientBootstrap createPeerBootStrap() {
-
-        if (peerWorkerThreads == 0) {
-            peerExecFactory = new NioClientSocketChannelFactory(
-                              Executors.newCachedThreadPool(groupedThreads("onos/bgp", "boss-%d")),
-                             Executors.newCachedThreadPool(groupedThreads("onos/bgp", "worker-%d")));
-            return new ClientBootstrap(peerExecFactory);
-        } else {
-            peerExecFactory = new NioClientSocketChannelFactory(
-                              Executors.newCachedThreadPool(groupedThreads("onos/bgp",  "boss-%d")),
-                              Executors.newCachedThreadPool(groupedThreads("onos/bgp", "worker-%d")),
-                                                                          peerWorkerThreads);
-            return new ClientBootstrap(peerExecFactory);
-        }
+        peerExecFactory = SharedNettyWorkers.newClientChannelFactory("onos/bgp");
+        return new ClientBootstrap(peerExecFactory);
     }
 
     /**
@@ -235,8 +210,8 @@ public class Controller {
      */
     public void stop() {
         log.info("Stopped");
-        serverExecFactory.shutdown();
-        peerExecFactory.shutdown();
+        serverExecFactory.releaseExternalResources();
+        peerExecFactory.releaseExternalResources();
         cg.close();
     }
 
@@ -0,0 +1,270 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.bgp;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.packet.Ip4Address;
+import org.onlab.packet.IpAddress;
+import org.onosproject.bgp.controller.BgpId;
+import org.onosproject.bgp.controller.BgpLinkListener;
+import org.onosproject.bgp.controller.BgpNodeListener;
+import org.onosproject.bgp.controller.BgpSessionInfo;
+import org.onosproject.bgp.controller.impl.BgpControllerImpl;
+import org.onosproject.bgp.controller.impl.BgpLocalRibImpl;
+import org.onosproject.bgp.controller.impl.BgpSessionInfoImpl;
+import org.onosproject.bgpio.exceptions.BgpParseException;
+import org.onosproject.bgpio.protocol.BgpVersion;
+import org.onosproject.bgpio.protocol.linkstate.BgpLinkLSIdentifier;
+import org.onosproject.bgpio.protocol.linkstate.BgpLinkLsNlriVer4;
+import org.onosproject.bgpio.protocol.linkstate.BgpNodeLSIdentifier;
+import org.onosproject.bgpio.protocol.linkstate.BgpNodeLSNlriVer4;
+import org.onosproject.bgpio.protocol.linkstate.NodeDescriptors;
+import org.onosproject.bgpio.protocol.linkstate.PathAttrNlriDetails;
+import org.onosproject.bgpio.types.AutonomousSystemTlv;
+import org.onosproject.bgpio.types.BgpLSIdentifierTlv;
+import org.onosproject.bgpio.types.BgpValueType;
+import org.onosproject.bgpio.types.IPv4AddressTlv;
+import org.onosproject.bgpio.types.RouteDistinguisher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the concurrent updates and the listener notifications of
+ * {@link BgpLocalRibImpl}.
+ */
+public class BgpLocalRibImplTest {
+
+    private static final int TIMEOUT_SEC = 5;
+
+    private final BgpSessionInfo sessionInfo =
+            new BgpSessionInfoImpl(new BgpId(IpAddress.valueOf("127.0.0.1")), BgpVersion.BGP_4, 100,
+                                   (short) 180, 1, (short) 180, false, new LinkedList<>());
+
+    private final BgpControllerImpl controller = new BgpControllerImpl();
+    private ExecutorService notifier;
+    private BgpLocalRibImpl localRib;
+
+    @Before
+    public void setUp() {
+        notifier = Executors.newSingleThreadExecutor();
+        localRib = new BgpLocalRibImpl(controller, notifier);
+    }
+
+    @After
+    public void tearDown() {
+        notifier.shutdownNow();
+    }
+
+    private static BgpNodeLSIdentifier nodeId(int id) {
+        List<BgpValueType> subTlvs = new LinkedList<>();
+        subTlvs.add(AutonomousSystemTlv.of(100));
+        subTlvs.add(BgpLSIdentifierTlv.of(id));
+        return new BgpNodeLSIdentifier(new NodeDescriptors(subTlvs, (short) 0x10, (short) 256));
+    }
+
+    private static BgpNodeLSNlriVer4 node(int id, RouteDistinguisher rd) {
+        return new BgpNodeLSNlriVer4(0, (byte) 1, nodeId(id), rd != null, rd);
+    }
+
+    private static BgpLinkLsNlriVer4 link(String address) {
+        LinkedList<BgpValueType> linkDescriptor = new LinkedList<>();
+        linkDescriptor.add(IPv4AddressTlv.of(Ip4Address.valueOf(address), (short) 0x103));
+        BgpLinkLSIdentifier linkId = new BgpLinkLSIdentifier(nodeId(1).getNodedescriptors(),
+                                                             nodeId(2).getNodedescriptors(), linkDescriptor);
+        return new BgpLinkLsNlriVer4((byte) 1, 0, linkId, null, false);
+    }
+
+    private static PathAttrNlriDetails details() {
+        PathAttrNlriDetails details = new PathAttrNlriDetails();
+        details.setIdentifier(0);
+        details.setProtocolID(BgpNodeLSNlriVer4.ProtocolType.ISIS_LEVEL_ONE);
+        details.setPathAttribute(new LinkedList<>());
+        return details;
+    }
+
+    /**
+     * Node listener recording the nodes it was notified of and the threads
+     * notifying it.
+     */
+    private static class RecordingNodeListener implements BgpNodeListener {
+        final List<BgpNodeLSIdentifier> added = Collections.synchronizedList(new ArrayList<>());
+        final List<BgpNodeLSIdentifier> deleted = Collections.synchronizedList(new ArrayList<>());
+        final List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch latch;
+
+        RecordingNodeListener(int expected) {
+            latch = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void addNode(BgpNodeLSNlriVer4 nodeNlri, PathAttrNlriDetails details) {
+            threads.add(Thread.currentThread());
+            added.add(nodeNlri.getLocalNodeDescriptors());
+            latch.countDown();
+        }
+
+        @Override
+        public void deleteNode(BgpNodeLSNlriVer4 nodeNlri) {
+            threads.add(Thread.currentThread());
+            deleted.add(nodeNlri.getLocalNodeDescriptors());
+            latch.countDown();
+        }
+    }
+
+    /**
+     * Tests that the listeners are notified in the order of the updates, off
+     * the thread updating the local RIB.
+     */
+    @Test
+    public void testNotificationOrder() throws Exception {
+        int count = 50;
+        RecordingNodeListener listener = new RecordingNodeListener(count);
+        controller.addListener(listener);
+
+        List<BgpNodeLSIdentifier> expected = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            localRib.add(sessionInfo, node(i, null), details());
+            expected.add(nodeId(i));
+        }
+
+        assertTrue(listener.latch.await(TIMEOUT_SEC, TimeUnit.SECONDS));
+        assertThat(listener.added, is(expected));
+        assertThat(listener.threads.contains(Thread.currentThread()), is(false));
+    }
+
+    /**
+     * Tests that nodes added concurrently from several peers are all in the
+     * local RIB and all notified exactly once.
+     */
+    @Test
+    public void testConcurrentUpdates() throws Exception {
+        int peers = 4;
+        int perPeer = 100;
+        RecordingNodeListener listener = new RecordingNodeListener(peers * perPeer);
+        controller.addListener(listener);
+
+        ExecutorService peerThreads = Executors.newFixedThreadPool(peers);
+        try {
+            List<Future<?>> updates = new ArrayList<>();
+            for (int p = 0; p < peers; p++) {
+                int first = p * perPeer;
+                updates.add(peerThreads.submit(() -> {
+                    for (int i = first; i < first + perPeer; i++) {
+                        localRib.add(sessionInfo, node(i, null), details());
+                        // a link update from the same peer contends on its own lock
+                        localRib.add(sessionInfo, link("10.0." + (i / 250) + "." + (i % 250)), details());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> update : updates) {
+                update.get(TIMEOUT_SEC, TimeUnit.SECONDS);
+            }
+        } finally {
+            peerThreads.shutdownNow();
+        }
+
+        assertTrue(listener.latch.await(TIMEOUT_SEC, TimeUnit.SECONDS));
+        assertThat(localRib.nodeTree().size(), is(peers * perPeer));
+        assertThat(localRib.linkTree().size(), is(peers * perPeer));
+        assertThat(listener.added.stream().distinct().count(), is((long) peers * perPeer));
+        assertThat(listener.added.size(), is(peers * perPeer));
+    }
+
+    /**
+     * Tests that a link listener failing to parse a link neither stops the
+     * other listeners nor the following notifications.
+     */
+    @Test
+    public void testFailingLinkListener() throws Exception {
+        CountDownLatch latch = new CountDownLatch(2);
+        List<BgpLinkLsNlriVer4> added = Collections.synchronizedList(new ArrayList<>());
+        controller.addLinkListener(new BgpLinkListener() {
+            @Override
+            public void addLink(BgpLinkLsNlriVer4 linkNlri, PathAttrNlriDetails details)
+                    throws BgpParseException {
+                throw new BgpParseException("test");
+            }
+
+            @Override
+            public void deleteLink(BgpLinkLsNlriVer4 linkNlri) throws BgpParseException {
+                throw new BgpParseException("test");
+            }
+        });
+        controller.addLinkListener(new BgpLinkListener() {
+            @Override
+            public void addLink(BgpLinkLsNlriVer4 linkNlri, PathAttrNlriDetails details) {
+                added.add(linkNlri);
+                latch.countDown();
+            }
+
+            @Override
+            public void deleteLink(BgpLinkLsNlriVer4 linkNlri) {
+            }
+        });
+
+        BgpLinkLsNlriVer4 link1 = link("2.2.2.2");
+        BgpLinkLsNlriVer4 link2 = link("3.3.3.3");
+        localRib.add(sessionInfo, link1, details());
+        localRib.add(sessionInfo, link2, details());
+
+        assertTrue(latch.await(TIMEOUT_SEC, TimeUnit.SECONDS));
+        assertThat(added.stream().map(BgpLinkLsNlriVer4::getLinkIdentifier).collect(Collectors.toList()),
+                   is(Arrays.asList(link1.getLinkIdentifier(), link2.getLinkIdentifier())));
+    }
+
+    /**
+     * Tests that a VPN is registered with its first node and dropped with
+     * its last one.
+     */
+    @Test
+    public void testVpnNode() throws Exception {
+        RouteDistinguisher rd = new RouteDistinguisher(42);
+        RecordingNodeListener listener = new RecordingNodeListener(2);
+        controller.addListener(listener);
+
+        localRib.add(sessionInfo, node(1, rd), details(), rd);
+        assertThat(localRib.vpnNodeTree().containsKey(rd), is(true));
+        assertThat(localRib.nodeTree().containsKey(nodeId(1)), is(true));
+
+        // no peer advertises the node anymore
+        localRib.delete(node(1, rd), rd);
+        assertThat(localRib.nodeTree().isEmpty(), is(true));
+        assertThat(localRib.vpnNodeTree().containsKey(rd), is(false));
+
+        assertTrue(listener.latch.await(TIMEOUT_SEC, TimeUnit.SECONDS));
+        assertThat(listener.added, is(Collections.singletonList(nodeId(1))));
+        assertThat(listener.deleted, is(Collections.singletonList(nodeId(1))));
+        assertThat(listener.threads.get(0), not(Thread.currentThread()));
+    }
+}
@@ -18,21 +18,50 @@ package org.onosproject.lisp.ctl;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import org.onlab.packet.IpAddress;
 import org.onlab.packet.IpPrefix;
 import org.onosproject.lisp.msg.protocols.LispEidRecord;
 import org.onosproject.lisp.msg.protocols.LispMapRecord;
 import org.onosproject.lisp.msg.types.LispAfiAddress;
+import org.onosproject.lisp.msg.types.LispIpAddress;
+import org.onosproject.lisp.msg.types.LispSegmentLcafAddress;
+import org.slf4j.Logger;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.onlab.util.Tools.groupedThreads;
+import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * A singleton class that stores EID-RLOC mapping information.
+ * <p>
+ * IP EID prefixes are indexed per instance ID and address family, and are
+ * resolved by longest prefix match. Other EIDs are matched exactly. Mapping
+ * records expire once their TTL, given in minutes, has elapsed; records
+ * with a zero TTL are kept until removed.
+ * </p>
  */
 public final class LispEidRlocMap {
 
-    private ConcurrentMap<LispEidRecord, LispMapRecord> map = Maps.newConcurrentMap();
+    private static final Logger log = getLogger(LispEidRlocMap.class);
+
+    private static final int DEFAULT_INSTANCE_ID = 0;
+    private static final long NO_EXPIRY = Long.MAX_VALUE;
+
+    private final HashedWheelTimer expiryTimer =
+            new HashedWheelTimer(groupedThreads("onos/lisp", "eid-expiry", log), 1, TimeUnit.SECONDS);
+    private final ConcurrentMap<TableKey, PrefixTable> prefixTables = Maps.newConcurrentMap();
+    private final ConcurrentMap<LispEidRecord, MappingEntry> otherRecords = Maps.newConcurrentMap();
 
     /**
      * Obtains a singleton instance.
@@ -44,13 +73,29 @@ public final class LispEidRlocMap {
     }
 
     /**
-     * Inserts a new EID-RLOC mapping record.
+     * Inserts a new EID-RLOC mapping record, replacing and refreshing any
+     * record previously registered for the same EID.
      *
      * @param eid  endpoint identifier
      * @param rloc route locator record
      */
     public void insertMapRecord(LispEidRecord eid, LispMapRecord rloc) {
-        map.putIfAbsent(eid, rloc);
+        MappingEntry entry = new MappingEntry(rloc);
+        IpEid ipEid = IpEid.of(eid);
+        MappingEntry previous;
+        if (ipEid != null) {
+            previous = prefixTables.computeIfAbsent(ipEid.tableKey(), k -> new PrefixTable())
+                    .put(ipEid.prefix, entry);
+        } else {
+            previous = otherRecords.put(eid, entry);
+        }
+        if (previous != null) {
+            previous.cancelExpiry();
+        }
+        if (rloc.getRecordTtl() > 0) {
+            entry.expiry = expiryTimer.newTimeout(timeout -> remove(eid, ipEid, entry),
+                                                  rloc.getRecordTtl(), TimeUnit.MINUTES);
+        }
     }
 
     /**
@@ -59,24 +104,44 @@ public final class LispEidRlocMap {
      * @param eid endpoint identifier
      */
     public void removeMapRecordByEid(LispEidRecord eid) {
-        map.remove(eid);
+        remove(eid, IpEid.of(eid), null);
+    }
+
+    // removes the mapping of the EID, only if it is the given entry when not null
+    private void remove(LispEidRecord eid, IpEid ipEid, MappingEntry entry) {
+        MappingEntry removed;
+        if (ipEid != null) {
+            PrefixTable table = prefixTables.get(ipEid.tableKey());
+            removed = table == null ? null : table.remove(ipEid.prefix, entry);
+        } else if (entry != null) {
+            removed = otherRecords.remove(eid, entry) ? entry : null;
+        } else {
+            removed = otherRecords.remove(eid);
+        }
+        if (removed != null) {
+            removed.cancelExpiry();
+            log.debug("Removed EID-RLOC mapping record of {}", eid);
+        }
     }
 
     /**
-     * Obtains an EID-RLOC mapping record with given EID record.
+     * Obtains the EID-RLOC mapping record of the longest registered EID
+     * prefix covering the given EID record.
      *
      * @param eid endpoint identifier record
-     * @return an EID-RLOC mapping record
+     * @return an EID-RLOC mapping record, or null if none covers the EID
      */
     public LispMapRecord getMapRecordByEidRecord(LispEidRecord eid) {
-
-        for (LispEidRecord key : map.keySet()) {
-            if (isInRange(key, eid)) {
-                return map.get(key);
-            }
+        long now = System.currentTimeMillis();
+        MappingEntry entry;
+        IpEid ipEid = IpEid.of(eid);
+        if (ipEid != null) {
+            PrefixTable table = prefixTables.get(ipEid.tableKey());
+            entry = table == null ? null : table.longestMatch(ipEid.prefix, now);
+        } else {
+            entry = otherRecords.get(eid);
         }
-
-        return null;
+        return entry == null || entry.isExpired(now) ? null : entry.record;
     }
 
     /**
@@ -103,13 +168,19 @@ public final class LispEidRlocMap {
      * @return an EID-RLOC mapping record
      */
     public LispMapRecord getMapRecordByEidAddress(LispAfiAddress address) {
-        Optional<LispEidRecord> eidRecord =
-                map.keySet().stream().filter(k -> k.getPrefix().equals(address)).findFirst();
-        if (eidRecord.isPresent()) {
-            return map.get(eidRecord);
+        long now = System.currentTimeMillis();
+        Optional<MappingEntry> entry;
+        IpEid ipEid = IpEid.of(address, -1);
+        if (ipEid != null) {
+            PrefixTable table = prefixTables.get(ipEid.tableKey());
+            entry = Optional.ofNullable(table == null ? null : table.getByAddress(ipEid.prefix.address(), now));
+        } else {
+            entry = otherRecords.entrySet().stream()
+                    .filter(e -> e.getKey().getPrefix().equals(address) && !e.getValue().isExpired(now))
+                    .map(Map.Entry::getValue)
+                    .findFirst();
         }
-
-        return null;
+        return entry.map(e -> e.record).orElse(null);
     }
 
     /**
@@ -123,31 +194,167 @@ public final class LispEidRlocMap {
     }
 
     /**
-     * Generates CIDR style string from EID record.
-     *
-     * @param eidRecord EID record
-     * @return CIDR style string
+     * Registered mapping record along with its expiry.
      */
-    private String cidrfy(LispEidRecord eidRecord) {
-        StringBuilder sb = new StringBuilder();
-        sb.append(eidRecord.getPrefix().toString());
-        sb.append("/");
-        sb.append(eidRecord.getMaskLength());
-        return sb.toString();
+    private static final class MappingEntry {
+
+        private final LispMapRecord record;
+        private final long expiresAt;
+        private volatile Timeout expiry;
+
+        private MappingEntry(LispMapRecord record) {
+            this.record = record;
+            this.expiresAt = record.getRecordTtl() > 0 ?
+                    System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(record.getRecordTtl()) : NO_EXPIRY;
+        }
+
+        // the expiry timer may lag behind, lookups check the deadline too
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+
+        private void cancelExpiry() {
+            Timeout timeout = expiry;
+            if (timeout != null) {
+                timeout.cancel();
+            }
+        }
     }
 
     /**
-     * Checks whether the EID record is included in the given EID record.
-     *
-     * @param origin  the EID record to be compared
-     * @param compare the EID record to compare
-     * @return boolean result
+     * EID prefixes of an instance ID and address family, grouped by mask
+     * length for longest prefix match.
+     */
+    private static final class PrefixTable {
+
+        // longest mask lengths first; emptied groups are kept, there are at most 129
+        private final ConcurrentNavigableMap<Integer, ConcurrentMap<IpPrefix, MappingEntry>> prefixes =
+                new ConcurrentSkipListMap<>(Comparator.reverseOrder());
+
+        private MappingEntry put(IpPrefix prefix, MappingEntry entry) {
+            return prefixes.computeIfAbsent(prefix.prefixLength(), length -> Maps.newConcurrentMap())
+                    .put(prefix, entry);
+        }
+
+        private MappingEntry remove(IpPrefix prefix, MappingEntry entry) {
+            ConcurrentMap<IpPrefix, MappingEntry> group = prefixes.get(prefix.prefixLength());
+            if (group == null) {
+                return null;
+            }
+            if (entry == null) {
+                return group.remove(prefix);
+            }
+            return group.remove(prefix, entry) ? entry : null;
+        }
+
+        private MappingEntry longestMatch(IpPrefix prefix, long now) {
+            // groups of mask lengths not longer than the one of the prefix
+            for (Map.Entry<Integer, ConcurrentMap<IpPrefix, MappingEntry>> group :
+                    prefixes.tailMap(prefix.prefixLength(), true).entrySet()) {
+                if (group.getValue().isEmpty()) {
+                    continue;
+                }
+                MappingEntry entry = group.getValue().get(IpPrefix.valueOf(prefix.address(), group.getKey()));
+                if (entry != null && !entry.isExpired(now)) {
+                    return entry;
+                }
+            }
+            return null;
+        }
+
+        private MappingEntry getByAddress(IpAddress address, long now) {
+            for (Map.Entry<Integer, ConcurrentMap<IpPrefix, MappingEntry>> group : prefixes.entrySet()) {
+                IpPrefix prefix = IpPrefix.valueOf(address, group.getKey());
+                if (!prefix.address().equals(address)) {
+                    continue;
+                }
+                MappingEntry entry = group.getValue().get(prefix);
+                if (entry != null && !entry.isExpired(now)) {
+                    return entry;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Identifies a prefix table.
+     */
+    private static final class TableKey {
+
+        private final int instanceId;
+        private final IpAddress.Version version;
+
+        private TableKey(int instanceId, IpAddress.Version version) {
+            this.instanceId = instanceId;
+            this.version = version;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(instanceId, version);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj instanceof TableKey) {
+                TableKey that = (TableKey) obj;
+                return instanceId == that.instanceId && version == that.version;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * IP EID prefix along with its instance ID.
      */
-    private boolean isInRange(LispEidRecord origin, LispEidRecord compare) {
+    private static final class IpEid {
+
+        private final int instanceId;
+        private final IpPrefix prefix;
 
-        IpPrefix originIpPrefix = IpPrefix.valueOf(cidrfy(origin));
-        IpPrefix compareIpPrefix = IpPrefix.valueOf(cidrfy(compare));
+        private IpEid(int instanceId, IpPrefix prefix) {
+            this.instanceId = instanceId;
+            this.prefix = prefix;
+        }
+
+        private TableKey tableKey() {
+            return new TableKey(instanceId, prefix.address().version());
+        }
+
+        /**
+         * Returns the IP prefix of an EID record.
+         *
+         * @param eid EID record
+         * @return IP prefix, or null if the EID is not an IP prefix
+         */
+        private static IpEid of(LispEidRecord eid) {
+            return of(eid.getPrefix(), eid.getMaskLength() & 0xff);
+        }
 
-        return originIpPrefix.contains(compareIpPrefix);
+        /**
+         * Returns the IP prefix of an EID address.
+         *
+         * @param address    EID address
+         * @param maskLength mask length, or a negative value for a host prefix
+         * @return IP prefix, or null if the EID is not an IP address
+         */
+        private static IpEid of(LispAfiAddress address, int maskLength) {
+            int instanceId = DEFAULT_INSTANCE_ID;
+            if (address instanceof LispSegmentLcafAddress) {
+                instanceId = ((LispSegmentLcafAddress) address).getInstanceId();
+                address = ((LispSegmentLcafAddress) address).getAddress();
+            }
+            if (!(address instanceof LispIpAddress)) {
+                return null;
+            }
+            IpAddress ip = ((LispIpAddress) address).getAddress();
+            int length = maskLength < 0 ?
+                    (ip.isIp4() ? IpAddress.INET_BIT_LENGTH : IpAddress.INET6_BIT_LENGTH) : maskLength;
+            return new IpEid(instanceId, IpPrefix.valueOf(ip, length));
+        }
     }
 }
@@ -16,6 +16,7 @@
 package org.onosproject.lisp.ctl;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 import org.junit.Before;
 import org.junit.Test;
 import org.onlab.packet.IpAddress;
@@ -25,12 +26,15 @@ import org.onosproject.lisp.msg.protocols.LispEidRecord;
 import org.onosproject.lisp.msg.protocols.LispLocatorRecord;
 import org.onosproject.lisp.msg.protocols.LispMapRecord;
 import org.onosproject.lisp.msg.protocols.LispMapRecord.MapRecordBuilder;
+import org.onosproject.lisp.msg.types.LispAfiAddress;
 import org.onosproject.lisp.msg.types.LispIpv4Address;
+import org.onosproject.lisp.msg.types.LispSegmentLcafAddress.SegmentAddressBuilder;
 
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 
 /**
  * Tests for LISP EID RLOC Map class.
@@ -161,4 +165,88 @@ public class LispEidRlocMapTest {
         assertThat("Failed to fetch the RLOCs with /16 EID record",
                     mapRecord16.getLocatorCount(), is(1));
     }
+
+    private static LispEidRecord eidRecord(String address, int maskLength) {
+        return new LispEidRecord((byte) maskLength, new LispIpv4Address(IpAddress.valueOf(address)));
+    }
+
+    private static LispMapRecord mapRecord(LispAfiAddress eid, int maskLength, int locators) {
+        List<LispLocatorRecord> locatorRecords = Lists.newArrayList();
+        for (int i = 1; i <= locators; i++) {
+            LispIpv4Address locator = new LispIpv4Address(IpAddress.valueOf("123.4.1." + i));
+            locatorRecords.add(new DefaultLocatorRecordBuilder().withLocatorAfi(locator).build());
+        }
+        return new DefaultMapRecordBuilder()
+                .withMaskLength((byte) maskLength)
+                .withEidPrefixAfi(eid)
+                .withLocators(locatorRecords)
+                .build();
+    }
+
+    private void insert(String address, int maskLength, int locators) {
+        LispEidRecord eidRecord = eidRecord(address, maskLength);
+        eidRlocMap.insertMapRecord(eidRecord, mapRecord(eidRecord.getPrefix(), maskLength, locators));
+    }
+
+    @Test
+    public void testLongestPrefixMatch() {
+        insert("10.4.0.0", 16, 1);
+        insert("10.4.1.0", 24, 2);
+        insert("10.4.1.128", 25, 3);
+
+        assertThat("Failed to fetch the RLOCs of the /25 EID prefix",
+                   eidRlocMap.getMapRecordByEidRecord(eidRecord("10.4.1.200", 32)).getLocatorCount(), is(3));
+        assertThat("Failed to fetch the RLOCs of the /24 EID prefix",
+                   eidRlocMap.getMapRecordByEidRecord(eidRecord("10.4.1.5", 32)).getLocatorCount(), is(2));
+        assertThat("Failed to fetch the RLOCs of the /16 EID prefix",
+                   eidRlocMap.getMapRecordByEidRecord(eidRecord("10.4.0.0", 20)).getLocatorCount(), is(1));
+        assertThat("Fetched RLOCs of a longer EID prefix",
+                   eidRlocMap.getMapRecordByEidRecord(eidRecord("10.0.0.0", 8)), is(nullValue()));
+    }
+
+    @Test
+    public void testReplaceAndRemove() {
+        insert("10.5.1.0", 24, 1);
+        insert("10.5.1.0", 24, 2);
+        assertThat("Failed to replace the RLOCs of the EID prefix",
+                   eidRlocMap.getMapRecordByEidRecord(eidRecord("10.5.1.1", 32)).getLocatorCount(), is(2));
+
+        eidRlocMap.removeMapRecordByEid(eidRecord("10.5.1.0", 24));
+        assertThat("Failed to remove the EID prefix",
+                   eidRlocMap.getMapRecordByEidRecord(eidRecord("10.5.1.1", 32)), is(nullValue()));
+    }
+
+    @Test
+    public void testInstanceIds() {
+        LispAfiAddress eid = new SegmentAddressBuilder()
+                .withInstanceId(100)
+                .withAddress(new LispIpv4Address(IpAddress.valueOf("10.6.0.0")))
+                .build();
+        eidRlocMap.insertMapRecord(new LispEidRecord((byte) 16, eid), mapRecord(eid, 16, 2));
+
+        LispAfiAddress query = new SegmentAddressBuilder()
+                .withInstanceId(100)
+                .withAddress(new LispIpv4Address(IpAddress.valueOf("10.6.1.1")))
+                .build();
+        assertThat("Failed to fetch the RLOCs of the EID prefix in instance 100",
+                   eidRlocMap.getMapRecordByEidRecord(new LispEidRecord((byte) 32, query)).getLocatorCount(),
+                   is(2));
+        assertThat("Fetched RLOCs of an EID prefix of another instance",
+                   eidRlocMap.getMapRecordByEidRecord(eidRecord("10.6.1.1", 32)), is(nullValue()));
+    }
+
+    @Test
+    public void testManyRecords() {
+        int prefixes = 50000;
+        for (int i = 0; i < prefixes; i++) {
+            insert("11." + (i >> 8 & 0xff) + "." + (i & 0xff) + ".0", 24, 1);
+        }
+        insert("11.0.0.0", 8, 2);
+
+        for (int i = 0; i < prefixes; i++) {
+            LispEidRecord eid = eidRecord("11." + (i >> 8 & 0xff) + "." + (i & 0xff) + ".1", 32);
+            assertThat(eidRlocMap.getMapRecordByEidRecord(eid).getLocatorCount(), is(1));
+        }
+        assertThat(eidRlocMap.getMapRecordByEidRecord(eidRecord("11.255.255.1", 32)).getLocatorCount(), is(2));
+    }
 }
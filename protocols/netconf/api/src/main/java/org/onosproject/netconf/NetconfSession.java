@@ -80,6 +80,27 @@ public interface NetconfSession {
      */
     String requestSync(String request) throws NetconfException;
 
+    /**
+     * Executes an asynchronous RPC to the server, the message-id of the
+     * request being assigned by the session. Several requests may be
+     * outstanding on the session at a time, which allows to pipeline them
+     * instead of waiting for each reply in turn.
+     *
+     * @param request the XML containing the RPC for the server.
+     * @return future completed with the server response, or exceptionally
+     * when there is a problem in the communication process on the underlying
+     * connection
+     */
+    default CompletableFuture<String> requestAsync(String request) {
+        CompletableFuture<String> reply = new CompletableFuture<>();
+        try {
+            reply.complete(requestSync(request));
+        } catch (NetconfException e) {
+            reply.completeExceptionally(e);
+        }
+        return reply;
+    }
+
     /**
      * Retrives the specified configuration.
      *
@@ -127,6 +148,28 @@ public interface NetconfSession {
     boolean editConfig(String targetConfiguration, String mode, String newConfiguration)
             throws NetconfException;
 
+    /**
+     * Edits the specified configuration without waiting for the reply of
+     * the server, so that several edits can be pipelined on the session.
+     *
+     * @param targetConfiguration the targetConfiguration to change
+     * @param mode                selected mode to change the configuration
+     * @param newConfiguration    configuration to set
+     * @return future completed with true if the configuration was edited
+     * correctly, or exceptionally when there is a problem in the communication
+     * process on the underlying connection
+     */
+    default CompletableFuture<Boolean> editConfigAsync(String targetConfiguration, String mode,
+                                                       String newConfiguration) {
+        CompletableFuture<Boolean> reply = new CompletableFuture<>();
+        try {
+            reply.complete(editConfig(targetConfiguration, mode, newConfiguration));
+        } catch (NetconfException e) {
+            reply.completeExceptionally(e);
+        }
+        return reply;
+    }
+
     /**
      * Copies the new configuration, an Url or a complete configuration xml tree
      * to the target configuration.
@@ -36,7 +36,7 @@ public class DefaultNetconfDevice implements NetconfDevice {
 
     private NetconfDeviceInfo netconfDeviceInfo;
     private boolean deviceState = true;
-    protected NetconfSessionFactory sessionFactory = new SshNetconfSessionFactory();
+    protected NetconfSessionFactory sessionFactory;
     private NetconfSession netconfSession;
 
     /**
@@ -44,12 +44,14 @@ public class DefaultNetconfDevice implements NetconfDevice {
      * The device gets created only if no exception is thrwn while connecting to
      * it and establishing the NETCONF session.
      * @param deviceInfo information about the device to be created.
+     * @param sessionFactory factory of the NETCONF session to the device.
      * @throws NetconfException if there are problems in creating or establishing
      * the underlying NETCONF connection and session.
      */
-    public DefaultNetconfDevice(NetconfDeviceInfo deviceInfo)
+    public DefaultNetconfDevice(NetconfDeviceInfo deviceInfo, NetconfSessionFactory sessionFactory)
             throws NetconfException {
         netconfDeviceInfo = deviceInfo;
+        this.sessionFactory = sessionFactory;
         try {
             netconfSession = sessionFactory.createNetconfSession(deviceInfo);
         } catch (IOException e) {
@@ -83,13 +85,4 @@ public class DefaultNetconfDevice implements NetconfDevice {
     public NetconfDeviceInfo getDeviceInfo() {
         return netconfDeviceInfo;
     }
-
-    public class SshNetconfSessionFactory implements NetconfSessionFactory {
-
-        @Override
-        public NetconfSession createNetconfSession(NetconfDeviceInfo netconfDeviceInfo) throws NetconfException {
-            return new NetconfSessionImpl(netconfDeviceInfo);
-        }
-    }
-
 }
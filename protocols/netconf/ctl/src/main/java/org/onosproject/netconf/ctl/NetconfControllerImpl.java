@@ -50,9 +50,14 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
 import static org.onlab.util.Tools.get;
+import static org.onlab.util.Tools.groupedThreads;
 
 /**
  * The implementation of NetconfController.
@@ -66,6 +71,12 @@ public class NetconfControllerImpl implements NetconfController {
             label = "Time (in seconds) waiting for a NetConf reply")
     protected static int netconfReplyTimeout = DEFAULT_REPLY_TIMEOUT_SECONDS;
 
+    private static final String PROP_NETCONF_REQUEST_WINDOW = "netconfRequestWindow";
+    private static final int DEFAULT_REQUEST_WINDOW = 16;
+    @Property(name = PROP_NETCONF_REQUEST_WINDOW, intValue = DEFAULT_REQUEST_WINDOW,
+            label = "Maximum number of outstanding NetConf requests per session")
+    protected static int netconfRequestWindow = DEFAULT_REQUEST_WINDOW;
+
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected ComponentConfigService cfgService;
 
@@ -85,6 +96,15 @@ public class NetconfControllerImpl implements NetconfController {
     protected Set<NetconfDeviceListener> netconfDeviceListeners = new CopyOnWriteArraySet<>();
     protected NetconfDeviceFactory deviceFactory = new DefaultNetconfDeviceFactory();
 
+    // blocking readers of the sessions, one task per session
+    private final ExecutorService ioExecutor =
+            newCachedThreadPool(groupedThreads("onos/netconf", "io-%d", log));
+    // completes the replies of the sessions, apart from their readers
+    private final ExecutorService replyExecutor =
+            newCachedThreadPool(groupedThreads("onos/netconf", "reply-%d", log));
+    private final ScheduledExecutorService timeoutExecutor =
+            newSingleThreadScheduledExecutor(groupedThreads("onos/netconf", "reply-timeout", log));
+
     @Activate
     public void activate(ComponentContext context) {
         cfgService.registerProperties(getClass());
@@ -96,6 +116,9 @@ public class NetconfControllerImpl implements NetconfController {
     public void deactivate() {
         cfgService.unregisterProperties(getClass(), false);
         netconfDeviceMap.clear();
+        ioExecutor.shutdownNow();
+        replyExecutor.shutdownNow();
+        timeoutExecutor.shutdownNow();
         log.info("Stopped");
     }
 
@@ -103,6 +126,7 @@ public class NetconfControllerImpl implements NetconfController {
     public void modified(ComponentContext context) {
         if (context == null) {
             netconfReplyTimeout = DEFAULT_REPLY_TIMEOUT_SECONDS;
+            netconfRequestWindow = DEFAULT_REQUEST_WINDOW;
             log.info("No component configuration");
             return;
         }
@@ -110,17 +134,29 @@ public class NetconfControllerImpl implements NetconfController {
         Dictionary<?, ?> properties = context.getProperties();
 
         int newNetconfReplyTimeout;
+        int newNetconfRequestWindow;
         try {
             String s = get(properties, PROP_NETCONF_REPLY_TIMEOUT);
             newNetconfReplyTimeout = isNullOrEmpty(s) ?
                     netconfReplyTimeout : Integer.parseInt(s.trim());
+
+            s = get(properties, PROP_NETCONF_REQUEST_WINDOW);
+            newNetconfRequestWindow = isNullOrEmpty(s) ?
+                    netconfRequestWindow : Integer.parseInt(s.trim());
         } catch (NumberFormatException e) {
             log.warn("Component configuration had invalid value", e);
             return;
         }
 
+        if (newNetconfRequestWindow < 1) {
+            log.warn("{} must be positive, keeping {}", PROP_NETCONF_REQUEST_WINDOW, netconfRequestWindow);
+            newNetconfRequestWindow = netconfRequestWindow;
+        }
+
         netconfReplyTimeout = newNetconfReplyTimeout;
-        log.info("Settings: {} = {}", PROP_NETCONF_REPLY_TIMEOUT, netconfReplyTimeout);
+        netconfRequestWindow = newNetconfRequestWindow;
+        log.info("Settings: {} = {}, {} = {}", PROP_NETCONF_REPLY_TIMEOUT, netconfReplyTimeout,
+                 PROP_NETCONF_REQUEST_WINDOW, netconfRequestWindow);
     }
 
     @Override
@@ -256,7 +292,8 @@ public class NetconfControllerImpl implements NetconfController {
 
         @Override
         public NetconfDevice createNetconfDevice(NetconfDeviceInfo netconfDeviceInfo) throws NetconfException {
-            return new DefaultNetconfDevice(netconfDeviceInfo);
+            return new DefaultNetconfDevice(netconfDeviceInfo,
+                    deviceInfo -> new NetconfSessionImpl(deviceInfo, ioExecutor, replyExecutor, timeoutExecutor));
         }
     }
 
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.netconf.ctl;
+
+import org.onosproject.netconf.NetconfException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Splits the bytes received on a NETCONF session into messages.
+ * <p>
+ * Supports both the end-of-message framing of NETCONF 1.0, where messages
+ * are delimited by {@code ]]>]]>}, and the chunked framing of NETCONF 1.1
+ * (RFC 6242). Input may be split at arbitrary positions; each message is
+ * decoded to a string once, when complete.
+ * </p>
+ * <p>
+ * A decoder is not thread-safe; it is meant to be fed by a single reader at
+ * a time.
+ * </p>
+ */
+final class NetconfFramingDecoder {
+
+    static final String END_OF_MESSAGE = "]]>]]>";
+
+    private static final byte[] END_OF_MESSAGE_BYTES = END_OF_MESSAGE.getBytes(StandardCharsets.UTF_8);
+    private static final int[] END_OF_MESSAGE_FALLBACK = fallback(END_OF_MESSAGE_BYTES);
+    private static final long MAX_CHUNK_SIZE = 4294967295L;
+
+    private enum ChunkState {
+        LF, HASH, SIZE_START, SIZE, DATA, END_LF
+    }
+
+    private final Consumer<String> messageConsumer;
+    private final MessageBuffer message = new MessageBuffer();
+
+    private boolean chunked;
+
+    // end-of-message framing: number of delimiter bytes matched so far
+    private int matched;
+
+    // chunked framing
+    private ChunkState chunkState = ChunkState.LF;
+    private long chunkSize;
+
+    /**
+     * Creates a decoder using the end-of-message framing.
+     *
+     * @param messageConsumer consumer of the decoded messages
+     */
+    NetconfFramingDecoder(Consumer<String> messageConsumer) {
+        this.messageConsumer = messageConsumer;
+    }
+
+    /**
+     * Switches the decoder to the chunked framing. To be called between
+     * messages, e.g. from the message consumer once the hello messages have
+     * been exchanged.
+     */
+    void useChunkedFraming() {
+        chunked = true;
+    }
+
+    /**
+     * Returns whether the decoder uses the chunked framing.
+     *
+     * @return true if chunked framing is used
+     */
+    boolean isChunked() {
+        return chunked;
+    }
+
+    /**
+     * Decodes the given bytes, handing every completed message to the
+     * message consumer.
+     *
+     * @param data   buffer holding the received bytes
+     * @param offset offset of the first byte to decode
+     * @param length number of bytes to decode
+     * @throws NetconfException if the bytes do not follow the chunked framing
+     */
+    void decode(byte[] data, int offset, int length) throws NetconfException {
+        int i = offset;
+        int end = offset + length;
+        while (i < end) {
+            // the framing may change after each message
+            i = chunked ? decodeChunked(data, i, end) : decodeDelimited(data, i, end);
+        }
+    }
+
+    private int decodeDelimited(byte[] data, int start, int end) {
+        for (int i = start; i < end; i++) {
+            byte b = data[i];
+            while (matched > 0 && b != END_OF_MESSAGE_BYTES[matched]) {
+                matched = END_OF_MESSAGE_FALLBACK[matched - 1];
+            }
+            if (b == END_OF_MESSAGE_BYTES[matched]) {
+                matched++;
+            }
+            if (matched == END_OF_MESSAGE_BYTES.length) {
+                matched = 0;
+                message.write(data, start, i + 1 - start);
+                emit(message.size() - END_OF_MESSAGE_BYTES.length);
+                return i + 1;
+            }
+        }
+        message.write(data, start, end - start);
+        return end;
+    }
+
+    private int decodeChunked(byte[] data, int i, int end) throws NetconfException {
+        if (chunkState == ChunkState.DATA) {
+            int length = (int) Math.min(chunkSize, end - i);
+            message.write(data, i, length);
+            chunkSize -= length;
+            if (chunkSize == 0) {
+                chunkState = ChunkState.LF;
+            }
+            return i + length;
+        }
+
+        byte b = data[i];
+        switch (chunkState) {
+            case LF:
+                expect(b == '\n', b);
+                chunkState = ChunkState.HASH;
+                break;
+            case HASH:
+                expect(b == '#', b);
+                chunkState = ChunkState.SIZE_START;
+                break;
+            case SIZE_START:
+                if (b == '#') {
+                    chunkState = ChunkState.END_LF;
+                } else {
+                    expect(b >= '1' && b <= '9', b);
+                    chunkSize = b - '0';
+                    chunkState = ChunkState.SIZE;
+                }
+                break;
+            case SIZE:
+                if (b == '\n') {
+                    chunkState = ChunkState.DATA;
+                } else {
+                    expect(b >= '0' && b <= '9', b);
+                    chunkSize = chunkSize * 10 + (b - '0');
+                    if (chunkSize > MAX_CHUNK_SIZE) {
+                        throw new NetconfException("Chunk size exceeds " + MAX_CHUNK_SIZE);
+                    }
+                }
+                break;
+            case END_LF:
+                expect(b == '\n', b);
+                chunkState = ChunkState.LF;
+                emit(message.size());
+                break;
+            default:
+                break;
+        }
+        return i + 1;
+    }
+
+    private void expect(boolean condition, byte b) throws NetconfException {
+        if (!condition) {
+            throw new NetconfException("Unexpected character 0x" + Integer.toHexString(b & 0xff) +
+                                               " in chunk framing, state " + chunkState);
+        }
+    }
+
+    private void emit(int length) {
+        String decoded = message.decode(length);
+        message.reset();
+        messageConsumer.accept(decoded);
+    }
+
+    // Knuth-Morris-Pratt fallback table of the delimiter
+    private static int[] fallback(byte[] pattern) {
+        int[] table = new int[pattern.length];
+        int k = 0;
+        for (int i = 1; i < pattern.length; i++) {
+            while (k > 0 && pattern[i] != pattern[k]) {
+                k = table[k - 1];
+            }
+            if (pattern[i] == pattern[k]) {
+                k++;
+            }
+            table[i] = k;
+        }
+        return table;
+    }
+
+    /**
+     * Buffer of the message being received, decoded in place and shrunk
+     * after unusually large messages.
+     */
+    private static final class MessageBuffer extends ByteArrayOutputStream {
+
+        private static final int INITIAL_SIZE = 4096;
+        private static final int MAX_RETAINED_SIZE = 1024 * 1024;
+
+        MessageBuffer() {
+            super(INITIAL_SIZE);
+        }
+
+        String decode(int length) {
+            return new String(buf, 0, length, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public synchronized void reset() {
+            super.reset();
+            if (buf.length > MAX_RETAINED_SIZE) {
+                buf = new byte[INITIAL_SIZE];
+            }
+        }
+    }
+}
@@ -20,6 +20,7 @@ import com.google.common.annotations.Beta;
 import ch.ethz.ssh2.Connection;
 import ch.ethz.ssh2.Session;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 import org.onosproject.netconf.NetconfDeviceInfo;
 import org.onosproject.netconf.NetconfDeviceOutputEvent;
 import org.onosproject.netconf.NetconfDeviceOutputEventListener;
@@ -29,21 +30,33 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
  * Implementation of a NETCONF session to talk to a device.
+ * <p>
+ * Requests are pipelined on the session: up to
+ * {@code NetconfControllerImpl.netconfRequestWindow} requests may wait for
+ * their reply at a time, further requests are queued until a reply arrives.
+ * Replies are matched to their request by message-id and completed on the
+ * reply executor of the controller, never on the thread reading the session.
+ * When the session is closed, queued and outstanding requests are completed
+ * exceptionally.
+ * </p>
  */
 public class NetconfSessionImpl implements NetconfSession {
 
@@ -52,9 +65,9 @@ public class NetconfSessionImpl implements NetconfSession {
 
 
     private static final int CONNECTION_TIMEOUT = 0;
+    private static final int SSH_SESSION_OPEN = 2;
     private static final String ENDPATTERN = "]]>]]>";
     private static final String MESSAGE_ID_STRING = "message-id";
-    private static final String HELLO = "<hello";
     private static final String NEW_LINE = "\n";
     private static final String END_OF_RPC_OPEN_TAG = "\">";
     private static final String EQUAL = "=";
@@ -83,14 +96,22 @@ public class NetconfSessionImpl implements NetconfSession {
             "xmlns=\"urn:ietf:params:xml:ns:yang:ietf-netconf-with-defaults\"";
     private static final String SUBSCRIPTION_SUBTREE_FILTER_OPEN =
             "<filter xmlns:base10=\"urn:ietf:params:xml:ns:netconf:base:1.0\" base10:type=\"subtree\">";
-
-    private final AtomicInteger messageIdInteger = new AtomicInteger(0);
+    // the stream handler reports the hello of the device under this message-id
+    private static final int HELLO_MESSAGE_ID = NetconfStreamHandlerImpl.HELLO_MESSAGE_ID;
+
+    private final Executor ioExecutor;
+    private final Executor replyExecutor;
+    private final ScheduledExecutorService timeoutExecutor;
+    private final AtomicInteger messageIdInteger = new AtomicInteger(HELLO_MESSAGE_ID + 1);
+    // requests waiting for a slot in the request window, guarded by itself
+    private final Queue<QueuedRequest> queuedRequests = new ArrayDeque<>();
+    private int outstandingRequests;
     private Connection netconfConnection;
     private NetconfDeviceInfo deviceInfo;
     private Session sshSession;
     private boolean connectionActive;
     private List<String> deviceCapabilities =
-            Collections.singletonList("urn:ietf:params:netconf:base:1.0");
+            ImmutableList.of("urn:ietf:params:netconf:base:1.0", NetconfStreamHandlerImpl.NETCONF_BASE_1_1);
     private String serverCapabilities;
     private NetconfStreamHandler streamHandler;
     private Map<Integer, CompletableFuture<String>> replies;
@@ -98,16 +119,43 @@ public class NetconfSessionImpl implements NetconfSession {
     private boolean subscriptionConnected = false;
 
 
-    public NetconfSessionImpl(NetconfDeviceInfo deviceInfo) throws NetconfException {
+    /**
+     * Creates a NETCONF session and connects it to the device.
+     *
+     * @param deviceInfo      information of the device
+     * @param ioExecutor      executor running the blocking reader of the session
+     * @param replyExecutor   executor completing the replies to requests
+     * @param timeoutExecutor executor timing out the requests without reply
+     * @throws NetconfException if the session cannot be established
+     */
+    public NetconfSessionImpl(NetconfDeviceInfo deviceInfo, Executor ioExecutor, Executor replyExecutor,
+                              ScheduledExecutorService timeoutExecutor) throws NetconfException {
         this.deviceInfo = deviceInfo;
+        this.ioExecutor = ioExecutor;
+        this.replyExecutor = replyExecutor;
+        this.timeoutExecutor = timeoutExecutor;
         this.netconfConnection = null;
         this.sshSession = null;
         connectionActive = false;
-        replies = new HashMap<>();
+        replies = new ConcurrentHashMap<>();
         errorReplies = new ArrayList<>();
         startConnection();
     }
 
+    // for testing, uses the given stream handler instead of an SSH session
+    NetconfSessionImpl(NetconfDeviceInfo deviceInfo, NetconfStreamHandler streamHandler,
+                       Executor replyExecutor, ScheduledExecutorService timeoutExecutor) {
+        this.deviceInfo = deviceInfo;
+        this.streamHandler = streamHandler;
+        this.ioExecutor = null;
+        this.replyExecutor = replyExecutor;
+        this.timeoutExecutor = timeoutExecutor;
+        connectionActive = true;
+        replies = new ConcurrentHashMap<>();
+        errorReplies = new ArrayList<>();
+        streamHandler.addDeviceEventListener(new SessionClosedListener());
+    }
+
     private void startConnection() throws NetconfException {
         if (!connectionActive) {
             netconfConnection = new Connection(deviceInfo.ip().toString(), deviceInfo.port());
@@ -148,10 +196,14 @@ public class NetconfSessionImpl implements NetconfSession {
         try {
             sshSession = netconfConnection.openSession();
             sshSession.startSubSystem("netconf");
-            streamHandler = new NetconfStreamThread(sshSession.getStdout(), sshSession.getStdin(),
-                                                    sshSession.getStderr(), deviceInfo,
-                                                    new NetconfSessionDelegateImpl());
+            final Session session = sshSession;
+            streamHandler = new NetconfStreamHandlerImpl(session.getStdout(), session.getStdin(),
+                                                         deviceInfo, new NetconfSessionDelegateImpl(),
+                                                         deviceCapabilities.contains(
+                                                                 NetconfStreamHandlerImpl.NETCONF_BASE_1_1),
+                                                         ioExecutor);
             this.addDeviceOutputListener(new NetconfDeviceOutputEventListenerImpl(deviceInfo));
+            this.addDeviceOutputListener(new SessionClosedListener());
             sendHello();
         } catch (IOException e) {
             log.error("Failed to create ch.ethz.ssh2.Session session." + e.getMessage());
@@ -242,7 +294,7 @@ public class NetconfSessionImpl implements NetconfSession {
     }
 
     private void checkAndRestablishSession() throws NetconfException {
-        if (sshSession.getState() != 2) {
+        if (sshSession != null && sshSession.getState() != SSH_SESSION_OPEN) {
             try {
                 startSshSession();
             } catch (IOException e) {
@@ -267,39 +319,145 @@ public class NetconfSessionImpl implements NetconfSession {
         return reply;
     }
 
+    @Override
+    public CompletableFuture<String> requestAsync(String request) {
+        if (!request.contains(ENDPATTERN)) {
+            request = request + NEW_LINE + ENDPATTERN;
+        }
+        try {
+            return sendRequestAsync(request).thenApply(reply -> {
+                checkReply(reply);
+                return reply;
+            });
+        } catch (NetconfException e) {
+            CompletableFuture<String> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> editConfigAsync(String targetConfiguration, String mode,
+                                                      String newConfiguration) {
+        try {
+            return sendRequestAsync(editConfigString(targetConfiguration, mode, newConfiguration))
+                    .thenApply(this::checkReply);
+        } catch (NetconfException e) {
+            CompletableFuture<Boolean> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
     @Override
     public CompletableFuture<String> request(String request) {
-        CompletableFuture<String> ftrep = streamHandler.sendMessage(request);
-        replies.put(messageIdInteger.get(), ftrep);
-        return ftrep;
+        if (!request.contains(ENDPATTERN)) {
+            request = request + NEW_LINE + ENDPATTERN;
+        }
+        try {
+            return sendRequestAsync(request);
+        } catch (NetconfException e) {
+            CompletableFuture<String> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
     }
 
     private String sendRequest(String request) throws NetconfException {
-        checkAndRestablishSession();
-        request = formatRequestMessageId(request);
-        request = formatXmlHeader(request);
-        CompletableFuture<String> futureReply = request(request);
-        messageIdInteger.incrementAndGet();
-        int replyTimeout = NetconfControllerImpl.netconfReplyTimeout;
+        CompletableFuture<String> futureReply = sendRequestAsync(request);
         String rp;
         try {
-            rp = futureReply.get(replyTimeout, TimeUnit.SECONDS);
-        } catch (InterruptedException | ExecutionException | TimeoutException e) {
-            throw new NetconfException("No matching reply for request " + request, e);
+            // bounded by the reply timeout once the request is sent
+            rp = futureReply.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futureReply.cancel(false);
+            throw new NetconfException("Interrupted waiting for reply to request " + request, e);
+        } catch (ExecutionException e) {
+            throw new NetconfException("No matching reply for request " + request, e.getCause());
         }
         log.debug("Result {} from request {} to device {}", rp, request, deviceInfo);
         return rp.trim();
     }
 
-    private String formatRequestMessageId(String request) {
+    private CompletableFuture<String> sendRequestAsync(String request) throws NetconfException {
+        checkAndRestablishSession();
+        int messageId = NetconfStreamHandlerImpl.isHello(request) ?
+                HELLO_MESSAGE_ID : messageIdInteger.getAndIncrement();
+        String message = formatXmlHeader(formatRequestMessageId(request, messageId));
+        CompletableFuture<String> reply = new CompletableFuture<>();
+        synchronized (queuedRequests) {
+            if (outstandingRequests >= NetconfControllerImpl.netconfRequestWindow) {
+                queuedRequests.add(new QueuedRequest(messageId, message, reply));
+                return reply;
+            }
+            outstandingRequests++;
+        }
+        send(messageId, message, reply);
+        return reply;
+    }
+
+    private void send(int messageId, String request, CompletableFuture<String> reply) {
+        replies.put(messageId, reply);
+        reply.whenComplete((r, e) -> {
+            replies.remove(messageId, reply);
+            requestCompleted();
+        });
+        if (reply.isDone()) {
+            // cancelled while queued
+            return;
+        }
+        int replyTimeout = NetconfControllerImpl.netconfReplyTimeout;
+        ScheduledFuture<?> timeout = timeoutExecutor.schedule(
+                () -> reply.completeExceptionally(new NetconfException(
+                        "No reply to message " + messageId + " from device " + deviceInfo +
+                                " within " + replyTimeout + " seconds")),
+                replyTimeout, TimeUnit.SECONDS);
+        reply.whenComplete((r, e) -> timeout.cancel(false));
+        streamHandler.sendMessage(request).whenComplete((r, e) -> {
+            if (e != null) {
+                reply.completeExceptionally(e);
+            }
+        });
+    }
+
+    private void requestCompleted() {
+        QueuedRequest next;
+        synchronized (queuedRequests) {
+            next = queuedRequests.poll();
+            if (next == null) {
+                outstandingRequests--;
+                return;
+            }
+        }
+        // the slot of the completed request is handed over to the next one
+        send(next.messageId, next.request, next.reply);
+    }
+
+    private void failQueuedRequests(String reason) {
+        List<QueuedRequest> failed;
+        synchronized (queuedRequests) {
+            failed = new ArrayList<>(queuedRequests);
+            queuedRequests.clear();
+        }
+        failed.forEach(request -> request.reply.completeExceptionally(new NetconfException(reason)));
+    }
+
+    private void failPendingRequests(String reason) {
+        // queued requests first, so that no freed slot hands them over
+        failQueuedRequests(reason);
+        replies.values().forEach(reply -> reply.completeExceptionally(new NetconfException(reason)));
+    }
+
+    private String formatRequestMessageId(String request, int messageId) {
         if (request.contains(MESSAGE_ID_STRING)) {
             //FIXME if application provieds his own counting of messages this fails that count
             request = request.replaceFirst(MESSAGE_ID_STRING + EQUAL + NUMBER_BETWEEN_QUOTES_MATCHER,
-                                           MESSAGE_ID_STRING + EQUAL + "\"" + messageIdInteger.get() + "\"");
-        } else if (!request.contains(MESSAGE_ID_STRING) && !request.contains(HELLO)) {
+                                           MESSAGE_ID_STRING + EQUAL + "\"" + messageId + "\"");
+        } else if (!request.contains(MESSAGE_ID_STRING) && !NetconfStreamHandlerImpl.isHello(request)) {
             //FIXME find out a better way to enforce the presence of message-id
             request = request.replaceFirst(END_OF_RPC_OPEN_TAG, "\" " + MESSAGE_ID_STRING + EQUAL + "\""
-                    + messageIdInteger.get() + "\"" + ">");
+                    + messageId + "\"" + ">");
         }
         return request;
     }
@@ -403,6 +561,10 @@ public class NetconfSessionImpl implements NetconfSession {
     @Override
     public boolean editConfig(String targetConfiguration, String mode, String newConfiguration)
             throws NetconfException {
+        return checkReply(sendRequest(editConfigString(targetConfiguration, mode, newConfiguration)));
+    }
+
+    private String editConfigString(String targetConfiguration, String mode, String newConfiguration) {
         newConfiguration = newConfiguration.trim();
         StringBuilder rpc = new StringBuilder(XML_HEADER);
         rpc.append(RPC_OPEN);
@@ -428,8 +590,7 @@ public class NetconfSessionImpl implements NetconfSession {
         rpc.append(RPC_CLOSE);
         rpc.append(ENDPATTERN);
         log.debug(rpc.toString());
-        String reply = sendRequest(rpc.toString());
-        return checkReply(reply);
+        return rpc.toString();
     }
 
     @Override
@@ -521,7 +682,13 @@ public class NetconfSessionImpl implements NetconfSession {
 
     @Override
     public boolean close() throws NetconfException {
-        return close(false);
+        // requests that are not sent yet are not sent anymore
+        failQueuedRequests("Session to device " + deviceInfo + " closed");
+        try {
+            return close(false);
+        } finally {
+            failPendingRequests("Session to device " + deviceInfo + " closed");
+        }
     }
 
     private boolean close(boolean force) throws NetconfException {
@@ -572,7 +739,7 @@ public class NetconfSessionImpl implements NetconfSession {
         streamHandler.removeDeviceEventListener(listener);
     }
 
-    private boolean checkReply(String reply) throws NetconfException {
+    private boolean checkReply(String reply) {
         if (reply != null) {
             if (!reply.contains("<rpc-error>")) {
                 log.debug("Device {} sent reply {}", deviceInfo, reply);
@@ -588,6 +755,33 @@ public class NetconfSessionImpl implements NetconfSession {
         return false;
     }
 
+    private static final class QueuedRequest {
+        private final int messageId;
+        private final String request;
+        private final CompletableFuture<String> reply;
+
+        private QueuedRequest(int messageId, String request, CompletableFuture<String> reply) {
+            this.messageId = messageId;
+            this.request = request;
+            this.reply = reply;
+        }
+    }
+
+    private class SessionClosedListener implements NetconfDeviceOutputEventListener {
+
+        @Override
+        public void event(NetconfDeviceOutputEvent event) {
+            if (event.type() == NetconfDeviceOutputEvent.Type.DEVICE_UNREGISTERED) {
+                failPendingRequests("Session to device " + deviceInfo + " closed by the device");
+            }
+        }
+
+        @Override
+        public boolean isRelevant(NetconfDeviceOutputEvent event) {
+            return deviceInfo.equals(event.getDeviceInfo());
+        }
+    }
+
     public class NetconfSessionDelegateImpl implements NetconfSessionDelegate {
 
         @Override
@@ -601,9 +795,10 @@ public class NetconfSessionImpl implements NetconfSession {
                 return;
             }
             CompletableFuture<String> completedReply =
-                    replies.get(messageId.get());
+                    replies.remove(messageId.get());
             if (completedReply != null) {
-                completedReply.complete(event.getMessagePayload());
+                // callbacks of the reply must not hold up the reading of the session
+                replyExecutor.execute(() -> completedReply.complete(event.getMessagePayload()));
             }
         }
     }
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.netconf.ctl;
+
+import com.google.common.collect.Lists;
+import org.onosproject.netconf.NetconfDeviceInfo;
+import org.onosproject.netconf.NetconfDeviceOutputEvent;
+import org.onosproject.netconf.NetconfDeviceOutputEventListener;
+import org.onosproject.netconf.NetconfException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Handles the input and output of a NETCONF session.
+ * <p>
+ * The session input is read in bulk by a blocking reader task, run on the
+ * I/O executor of the controller, and handed to a {@link NetconfFramingDecoder}.
+ * Hello messages are always end-of-message framed; chunked framing is used
+ * in both directions once both peers exchanged hellos announcing NETCONF 1.1.
+ * </p>
+ */
+public class NetconfStreamHandlerImpl implements NetconfStreamHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(NetconfStreamHandlerImpl.class);
+
+    static final String NETCONF_BASE_1_1 = "urn:ietf:params:netconf:base:1.1";
+    // message-id under which the hello of the device is reported
+    static final int HELLO_MESSAGE_ID = 0;
+    private static final String NETCONF_BASE_NAMESPACE = "urn:ietf:params:xml:ns:netconf:base:1.0";
+
+    private static final String RPC_REPLY = "rpc-reply";
+    private static final String RPC_ERROR = "rpc-error";
+    private static final String NOTIFICATION_LABEL = "<notification";
+    private static final String MESSAGE_ID = "message-id=";
+    private static final Pattern MSGID_PATTERN = Pattern.compile(MESSAGE_ID + "\"(\\d+)\"");
+    // root element of a message, after the optional XML declaration and comments
+    private static final Pattern ROOT_ELEMENT_PATTERN = Pattern.compile(
+            "\\A\\s*(?:<\\?xml.*?\\?>\\s*)?(?:<!--.*?-->\\s*)*<(?:([\\w.-]+):)?([\\w.-]+)([^>]*)>",
+            Pattern.DOTALL);
+    private static final String HELLO = "hello";
+
+    private static final int READ_BUFFER_SIZE = 16 * 1024;
+
+    private final InputStream in;
+    private final OutputStream out;
+    private final NetconfDeviceInfo netconfDeviceInfo;
+    private final NetconfSessionDelegate sessionDelegate;
+    private final boolean chunkedFramingSupported;
+    private final NetconfFramingDecoder decoder = new NetconfFramingDecoder(this::handleMessage);
+    private final List<NetconfDeviceOutputEventListener> netconfDeviceEventListeners =
+            Lists.newCopyOnWriteArrayList();
+    private volatile boolean enableNotifications = true;
+    private volatile boolean chunkedFraming;
+    private volatile boolean closed;
+
+    // hello exchange, guarded by out
+    private boolean localHelloSent;
+    private boolean peerHelloChunked;
+
+    /**
+     * Creates a stream handler and starts reading the session input.
+     *
+     * @param in                      input stream of the session
+     * @param out                     output stream of the session
+     * @param deviceInfo              information of the device
+     * @param delegate                session delegate notified of replies
+     * @param chunkedFramingSupported whether NETCONF 1.1 was announced locally
+     * @param ioExecutor              executor running the blocking reader of the session
+     */
+    public NetconfStreamHandlerImpl(InputStream in, OutputStream out,
+                                    NetconfDeviceInfo deviceInfo, NetconfSessionDelegate delegate,
+                                    boolean chunkedFramingSupported, Executor ioExecutor) {
+        this.in = in;
+        this.out = out;
+        this.netconfDeviceInfo = deviceInfo;
+        this.sessionDelegate = delegate;
+        this.chunkedFramingSupported = chunkedFramingSupported;
+        log.debug("Stream handler for device {} session started", deviceInfo);
+        ioExecutor.execute(this::read);
+    }
+
+    /**
+     * Returns whether the given message is a hello, that is whether its root
+     * element is the hello element of the NETCONF base namespace.
+     *
+     * @param message NETCONF message
+     * @return true if the message is a hello
+     */
+    static boolean isHello(String message) {
+        Matcher matcher = ROOT_ELEMENT_PATTERN.matcher(message);
+        if (!matcher.find() || !HELLO.equals(matcher.group(2))) {
+            return false;
+        }
+        String prefix = matcher.group(1);
+        String namespace = (prefix == null ? "xmlns" : "xmlns:" + prefix) +
+                "\\s*=\\s*[\"']" + Pattern.quote(NETCONF_BASE_NAMESPACE) + "[\"']";
+        return Pattern.compile(namespace).matcher(matcher.group(3)).find();
+    }
+
+    @Override
+    public CompletableFuture<String> sendMessage(String request) {
+        log.debug("Sending message {} to device {}", request, netconfDeviceInfo);
+        CompletableFuture<String> future = new CompletableFuture<>();
+        try {
+            synchronized (out) {
+                boolean hello = isHello(request);
+                // the hello itself is always end-of-message framed
+                out.write(hello ? request.getBytes(StandardCharsets.UTF_8) : frame(request));
+                out.flush();
+                if (hello) {
+                    localHelloSent = true;
+                    updateFraming();
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Error in writing to the session for device {}", netconfDeviceInfo, e);
+            future.completeExceptionally(
+                    new NetconfException("Error in writing to the session for device " + netconfDeviceInfo, e));
+        }
+        return future;
+    }
+
+    private byte[] frame(String request) {
+        if (!chunkedFraming) {
+            return request.getBytes(StandardCharsets.UTF_8);
+        }
+        String message = request.trim();
+        if (message.endsWith(NetconfFramingDecoder.END_OF_MESSAGE)) {
+            message = message.substring(0, message.length() - NetconfFramingDecoder.END_OF_MESSAGE.length())
+                    .trim();
+        }
+        byte[] data = message.getBytes(StandardCharsets.UTF_8);
+        byte[] header = ("\n#" + data.length + "\n").getBytes(StandardCharsets.UTF_8);
+        byte[] trailer = "\n##\n".getBytes(StandardCharsets.UTF_8);
+        byte[] frame = new byte[header.length + data.length + trailer.length];
+        System.arraycopy(header, 0, frame, 0, header.length);
+        System.arraycopy(data, 0, frame, header.length, data.length);
+        System.arraycopy(trailer, 0, frame, header.length + data.length, trailer.length);
+        return frame;
+    }
+
+    private void updateFraming() {
+        if (!chunkedFraming && localHelloSent && peerHelloChunked) {
+            // both hellos are exchanged, next messages are chunked
+            log.debug("Netconf session to device {} switches to chunked framing", netconfDeviceInfo);
+            chunkedFraming = true;
+        }
+    }
+
+    private void read() {
+        byte[] buffer = new byte[READ_BUFFER_SIZE];
+        try {
+            int length;
+            while ((length = in.read(buffer)) >= 0) {
+                try {
+                    decoder.decode(buffer, 0, length);
+                } catch (RuntimeException e) {
+                    // keep the session alive if a listener misbehaves
+                    log.warn("Error in handling message from device {}", netconfDeviceInfo, e);
+                }
+            }
+            log.debug("Netconf device {} closed the session", netconfDeviceInfo);
+        } catch (IOException e) {
+            if (!closed) {
+                log.warn("Error in reading from the session for device {}", netconfDeviceInfo, e);
+            }
+        }
+        sessionClosed();
+    }
+
+    private synchronized void sessionClosed() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        NetconfDeviceOutputEvent event = new NetconfDeviceOutputEvent(
+                NetconfDeviceOutputEvent.Type.DEVICE_UNREGISTERED,
+                null, null, Optional.of(-1), netconfDeviceInfo);
+        netconfDeviceEventListeners.forEach(listener -> listener.event(event));
+    }
+
+    private void handleMessage(String deviceReply) {
+        if (deviceReply.isEmpty()) {
+            log.debug("Netconf device {} sent an empty message, DEVICE_UNREGISTERED", netconfDeviceInfo);
+            sessionClosed();
+            return;
+        }
+        boolean hello = isHello(deviceReply);
+        if (hello ||
+                deviceReply.contains(RPC_REPLY) ||
+                deviceReply.contains(RPC_ERROR)) {
+            if (chunkedFramingSupported && hello && deviceReply.contains(NETCONF_BASE_1_1)) {
+                // the device only sends chunked messages after its hello
+                decoder.useChunkedFraming();
+                synchronized (out) {
+                    peerHelloChunked = true;
+                    updateFraming();
+                }
+            }
+            Optional<Integer> messageId = hello ? Optional.of(HELLO_MESSAGE_ID) : getMsgId(deviceReply);
+            log.debug("Netconf device {} sessionDelegate.notify() DEVICE_REPLY {} {}",
+                      netconfDeviceInfo, messageId, deviceReply);
+            NetconfDeviceOutputEvent event = new NetconfDeviceOutputEvent(
+                    NetconfDeviceOutputEvent.Type.DEVICE_REPLY,
+                    null, deviceReply, messageId, netconfDeviceInfo);
+            sessionDelegate.notify(event);
+            netconfDeviceEventListeners.forEach(listener -> listener.event(event));
+        } else if (deviceReply.contains(NOTIFICATION_LABEL)) {
+            log.debug("Netconf device {} DEVICE_NOTIFICATION {} {} {}",
+                      netconfDeviceInfo, enableNotifications,
+                      getMsgId(deviceReply), deviceReply);
+            if (enableNotifications) {
+                NetconfDeviceOutputEvent event = new NetconfDeviceOutputEvent(
+                        NetconfDeviceOutputEvent.Type.DEVICE_NOTIFICATION,
+                        null, deviceReply, getMsgId(deviceReply), netconfDeviceInfo);
+                netconfDeviceEventListeners.forEach(listener -> listener.event(event));
+            }
+        } else {
+            log.debug("Error on reply from device {} {}", netconfDeviceInfo, deviceReply);
+        }
+    }
+
+    private static Optional<Integer> getMsgId(String reply) {
+        Matcher matcher = MSGID_PATTERN.matcher(reply);
+        if (matcher.find()) {
+            return Optional.of(Integer.parseInt(matcher.group(1)));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns whether messages are exchanged using the chunked framing.
+     *
+     * @return true if chunked framing is used
+     */
+    boolean isChunkedFraming() {
+        return chunkedFraming;
+    }
+
+    @Override
+    public void addDeviceEventListener(NetconfDeviceOutputEventListener listener) {
+        if (!netconfDeviceEventListeners.contains(listener)) {
+            netconfDeviceEventListeners.add(listener);
+        }
+    }
+
+    @Override
+    public void removeDeviceEventListener(NetconfDeviceOutputEventListener listener) {
+        netconfDeviceEventListeners.remove(listener);
+    }
+
+    @Override
+    public void setEnableNotifications(boolean enableNotifications) {
+        this.enableNotifications = enableNotifications;
+    }
+}
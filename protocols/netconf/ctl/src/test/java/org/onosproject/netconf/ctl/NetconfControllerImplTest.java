@@ -152,9 +152,13 @@ public class NetconfControllerImplTest {
     public void testModified() {
         assertEquals("Incorrect NetConf session timeout, should be default",
                      5, ctrl.netconfReplyTimeout);
+        assertEquals("Incorrect NetConf request window, should be default",
+                     16, ctrl.netconfRequestWindow);
         ctrl.modified(context);
         assertEquals("Incorrect NetConf session timeout",
                      1, ctrl.netconfReplyTimeout);
+        assertEquals("Incorrect NetConf request window",
+                     4, ctrl.netconfRequestWindow);
     }
 
     /**
@@ -390,6 +394,8 @@ public class NetconfControllerImplTest {
         public Object get(Object key) {
             if (key.equals("netconfReplyTimeout")) {
                 return "1";
+            } else if (key.equals("netconfRequestWindow")) {
+                return "4";
             }
             return null;
         }
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.netconf.ctl;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.netconf.NetconfException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Unit tests for the NETCONF message framing decoder.
+ */
+public class NetconfFramingDecoderTest {
+
+    private List<String> messages;
+    private NetconfFramingDecoder decoder;
+
+    @Before
+    public void setUp() {
+        messages = new ArrayList<>();
+        decoder = new NetconfFramingDecoder(messages::add);
+    }
+
+    private void decode(String data) throws NetconfException {
+        byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
+        decoder.decode(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Tests the end-of-message framing with input split at every position.
+     */
+    @Test
+    public void testEndOfMessageFraming() throws NetconfException {
+        String stream = "<rpc-reply>]]</rpc-reply>]]>]]><rpc-reply message-id=\"1\"/>]]>]]>";
+        for (int split = 0; split <= stream.length(); split++) {
+            setUp();
+            decode(stream.substring(0, split));
+            decode(stream.substring(split));
+            assertThat(messages, contains("<rpc-reply>]]</rpc-reply>", "<rpc-reply message-id=\"1\"/>"));
+        }
+    }
+
+    /**
+     * Tests the chunked framing with input split at every position.
+     */
+    @Test
+    public void testChunkedFraming() throws NetconfException {
+        String stream = "\n#4\n<rpc\n#17\n message-id=\"102\"\n#9\n>ok</rpc>\n##\n\n#3\n<a>\n##\n";
+        for (int split = 0; split <= stream.length(); split++) {
+            setUp();
+            decoder.useChunkedFraming();
+            decode(stream.substring(0, split));
+            decode(stream.substring(split));
+            assertThat(messages, contains("<rpc message-id=\"102\">ok</rpc>", "<a>"));
+        }
+    }
+
+    /**
+     * Tests the switch to chunked framing right after a hello message.
+     */
+    @Test
+    public void testSwitchAfterHello() throws NetconfException {
+        decoder = new NetconfFramingDecoder(message -> {
+            messages.add(message);
+            decoder.useChunkedFraming();
+        });
+        decode("<hello/>]]>]]>\n#5\n<ok/>\n##\n");
+        assertThat(messages, contains("<hello/>", "<ok/>"));
+        assertThat(decoder.isChunked(), is(true));
+    }
+
+    /**
+     * Tests that multi-byte characters split across reads are decoded.
+     */
+    @Test
+    public void testMultiByteCharacters() throws NetconfException {
+        byte[] bytes = "<name>café</name>]]>]]>".getBytes(StandardCharsets.UTF_8);
+        decoder.decode(bytes, 0, 10);
+        decoder.decode(bytes, 10, bytes.length - 10);
+        assertThat(messages, contains("<name>café</name>"));
+    }
+
+    /**
+     * Tests that a malformed chunk header is rejected.
+     */
+    @Test(expected = NetconfException.class)
+    public void testInvalidChunkHeader() throws NetconfException {
+        decoder.useChunkedFraming();
+        try {
+            decode("\n#0\n");
+        } finally {
+            assertThat(messages, is(empty()));
+        }
+    }
+}
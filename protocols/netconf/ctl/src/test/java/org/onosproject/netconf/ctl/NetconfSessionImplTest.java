@@ -0,0 +1,271 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.netconf.ctl;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.packet.IpAddress;
+import org.onosproject.netconf.NetconfDeviceInfo;
+import org.onosproject.netconf.NetconfDeviceOutputEvent;
+import org.onosproject.netconf.NetconfDeviceOutputEventListener;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for the request window of the NETCONF session.
+ */
+public class NetconfSessionImplTest {
+
+    private static final NetconfDeviceInfo DEVICE_INFO =
+            new NetconfDeviceInfo("netconf", "netconf", IpAddress.valueOf("127.0.0.1"), 830);
+    private static final Pattern MESSAGE_ID = Pattern.compile("message-id=\"(\\d+)\"");
+    private static final int WINDOW = 2;
+
+    private int savedWindow;
+    private int savedTimeout;
+    private ScheduledExecutorService timeoutExecutor;
+    private TestStreamHandler streamHandler;
+    private NetconfSessionImpl session;
+
+    @Before
+    public void setUp() {
+        savedWindow = NetconfControllerImpl.netconfRequestWindow;
+        savedTimeout = NetconfControllerImpl.netconfReplyTimeout;
+        NetconfControllerImpl.netconfRequestWindow = WINDOW;
+        timeoutExecutor = Executors.newSingleThreadScheduledExecutor();
+        streamHandler = new TestStreamHandler();
+        session = new NetconfSessionImpl(DEVICE_INFO, streamHandler,
+                                         MoreExecutors.directExecutor(), timeoutExecutor);
+    }
+
+    @After
+    public void tearDown() {
+        timeoutExecutor.shutdownNow();
+        NetconfControllerImpl.netconfRequestWindow = savedWindow;
+        NetconfControllerImpl.netconfReplyTimeout = savedTimeout;
+    }
+
+    private static String rpc(String operation) {
+        return "<rpc xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\"><" + operation + "/></rpc>";
+    }
+
+    private static int messageId(String message) {
+        Matcher matcher = MESSAGE_ID.matcher(message);
+        assertTrue("No message-id in " + message, matcher.find());
+        return Integer.parseInt(matcher.group(1));
+    }
+
+    private void reply(String message) {
+        int messageId = messageId(message);
+        session.new NetconfSessionDelegateImpl().notify(new NetconfDeviceOutputEvent(
+                NetconfDeviceOutputEvent.Type.DEVICE_REPLY, null,
+                "<rpc-reply message-id=\"" + messageId + "\"><ok/></rpc-reply>",
+                Optional.of(messageId), DEVICE_INFO));
+    }
+
+    private static void assertFailed(CompletableFuture<String> future) throws InterruptedException {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("Request did not fail");
+        } catch (ExecutionException e) {
+            // expected
+        } catch (TimeoutException e) {
+            fail("Request not completed");
+        }
+    }
+
+    /**
+     * Tests that no more than the window of requests is in flight and that
+     * queued requests are sent in order as replies arrive.
+     */
+    @Test
+    public void testWindow() throws Exception {
+        List<CompletableFuture<String>> futures = Lists.newArrayList();
+        for (int i = 0; i < 5; i++) {
+            futures.add(session.requestAsync(rpc("op" + i)));
+        }
+        assertThat(streamHandler.sent, hasSize(WINDOW));
+
+        for (int i = 0; i < 5; i++) {
+            reply(streamHandler.sent.get(i));
+            assertThat(futures.get(i).isDone(), is(true));
+            assertThat(streamHandler.sent, hasSize(Math.min(5, i + 1 + WINDOW)));
+        }
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(streamHandler.sent.get(i).contains("<op" + i + "/>"));
+        }
+    }
+
+    /**
+     * Tests that raw requests take their own message-id and slot of the window.
+     */
+    @Test
+    public void testRequest() throws Exception {
+        CompletableFuture<String> first = session.request(rpc("first"));
+        CompletableFuture<String> second = session.requestAsync(rpc("second"));
+        CompletableFuture<String> queued = session.request(rpc("queued"));
+        assertThat(streamHandler.sent, hasSize(WINDOW));
+        assertThat(messageId(streamHandler.sent.get(0)), not(messageId(streamHandler.sent.get(1))));
+
+        reply(streamHandler.sent.get(0));
+        assertThat(first.isDone(), is(true));
+        assertThat(second.isDone(), is(false));
+        assertThat(streamHandler.sent, hasSize(3));
+        reply(streamHandler.sent.get(2));
+        assertThat(queued.isDone(), is(true));
+    }
+
+    /**
+     * Tests that a request carrying hello elements is not correlated as a hello.
+     */
+    @Test
+    public void testHelloElementInRequest() throws Exception {
+        CompletableFuture<String> future = session.requestAsync(
+                "<rpc xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\"><edit-config>" +
+                        "<hello-interval>10</hello-interval></edit-config></rpc>");
+        int messageId = messageId(streamHandler.sent.get(0));
+        assertThat(messageId, not(NetconfStreamHandlerImpl.HELLO_MESSAGE_ID));
+        reply(streamHandler.sent.get(0));
+        assertThat(future.isDone(), is(true));
+    }
+
+    /**
+     * Tests that a request without reply frees its slot on timeout.
+     */
+    @Test
+    public void testTimeoutFreesSlot() throws Exception {
+        NetconfControllerImpl.netconfReplyTimeout = 1;
+        CompletableFuture<String> first = session.requestAsync(rpc("first"));
+        CompletableFuture<String> second = session.requestAsync(rpc("second"));
+        CompletableFuture<String> third = session.requestAsync(rpc("third"));
+        assertThat(streamHandler.sent, hasSize(WINDOW));
+
+        reply(streamHandler.sent.get(1));
+        assertThat(second.isDone(), is(true));
+        assertThat(streamHandler.sent, hasSize(3));
+
+        // the first request never gets a reply
+        assertFailed(first);
+        reply(streamHandler.sent.get(2));
+        assertThat(third.get(5, TimeUnit.SECONDS), is("<rpc-reply message-id=\"" +
+                messageId(streamHandler.sent.get(2)) + "\"><ok/></rpc-reply>"));
+
+        // both slots are free again
+        session.requestAsync(rpc("fourth"));
+        session.requestAsync(rpc("fifth"));
+        assertThat(streamHandler.sent, hasSize(5));
+    }
+
+    /**
+     * Tests that the closure of the session by the device fails the queued
+     * and outstanding requests.
+     */
+    @Test
+    public void testSessionClosedByDevice() throws Exception {
+        List<CompletableFuture<String>> futures = Lists.newArrayList();
+        for (int i = 0; i < 4; i++) {
+            futures.add(session.requestAsync(rpc("op" + i)));
+        }
+        streamHandler.close();
+        for (CompletableFuture<String> future : futures) {
+            assertFailed(future);
+        }
+        assertThat(streamHandler.sent, hasSize(WINDOW));
+    }
+
+    /**
+     * Tests that closing the session fails the queued requests without
+     * sending them.
+     */
+    @Test
+    public void testClose() throws Exception {
+        CompletableFuture<String> first = session.requestAsync(rpc("first"));
+        session.requestAsync(rpc("second"));
+        CompletableFuture<String> queued = session.requestAsync(rpc("queued"));
+
+        Future<Boolean> closed = Executors.newSingleThreadExecutor().submit(() -> session.close());
+        assertFailed(queued);
+
+        // the close-session request waits for a free slot
+        reply(streamHandler.sent.get(0));
+        assertThat(first.isDone(), is(true));
+        assertThat(closed.get(5, TimeUnit.SECONDS), is(true));
+        assertThat(streamHandler.sent, hasSize(3));
+        assertTrue(streamHandler.sent.get(2).contains("<close-session/>"));
+    }
+
+    /**
+     * Stream handler recording the sent messages, which answers the
+     * close-session request right away.
+     */
+    private class TestStreamHandler implements NetconfStreamHandler {
+
+        private final List<String> sent = Lists.newCopyOnWriteArrayList();
+        private final List<NetconfDeviceOutputEventListener> listeners = Lists.newCopyOnWriteArrayList();
+
+        @Override
+        public CompletableFuture<String> sendMessage(String request) {
+            sent.add(request);
+            if (request.contains("<close-session/>")) {
+                reply(request);
+            }
+            return new CompletableFuture<>();
+        }
+
+        void close() {
+            NetconfDeviceOutputEvent event = new NetconfDeviceOutputEvent(
+                    NetconfDeviceOutputEvent.Type.DEVICE_UNREGISTERED,
+                    null, null, Optional.of(-1), DEVICE_INFO);
+            listeners.forEach(listener -> listener.event(event));
+        }
+
+        @Override
+        public void addDeviceEventListener(NetconfDeviceOutputEventListener listener) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public void removeDeviceEventListener(NetconfDeviceOutputEventListener listener) {
+            listeners.remove(listener);
+        }
+
+        @Override
+        public void setEnableNotifications(boolean enableNotifications) {
+        }
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.netconf.ctl;
+
+import org.junit.After;
+import org.junit.Test;
+import org.onlab.packet.IpAddress;
+import org.onosproject.netconf.NetconfDeviceInfo;
+import org.onosproject.netconf.NetconfDeviceOutputEvent;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the NETCONF stream handler, using in-memory pipes as
+ * stand-ins for device sessions.
+ */
+public class NetconfStreamHandlerImplTest {
+
+    private static final NetconfDeviceInfo DEVICE_INFO =
+            new NetconfDeviceInfo("netconf", "netconf", IpAddress.valueOf("127.0.0.1"), 830);
+    private static final String HELLO_1_1 =
+            "<hello xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\"><capabilities>" +
+                    "<capability>urn:ietf:params:netconf:base:1.1</capability>" +
+                    "</capabilities><session-id>1</session-id></hello>]]>]]>";
+    private static final String CLIENT_HELLO =
+            "<hello xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\"><capabilities>" +
+                    "<capability>urn:ietf:params:netconf:base:1.1</capability>" +
+                    "</capabilities></hello>\n]]>]]>";
+
+    private final ExecutorService ioExecutor = Executors.newCachedThreadPool();
+
+    @After
+    public void tearDown() {
+        ioExecutor.shutdownNow();
+    }
+
+    private static void write(PipedOutputStream device, String data) throws IOException {
+        device.write(data.getBytes(StandardCharsets.UTF_8));
+        device.flush();
+    }
+
+    /**
+     * Tests that many sessions are served by the I/O executor.
+     */
+    @Test
+    public void testManySessions() throws Exception {
+        int sessions = 500;
+        CountDownLatch replies = new CountDownLatch(sessions);
+        PipedOutputStream[] devices = new PipedOutputStream[sessions];
+        for (int i = 0; i < sessions; i++) {
+            final int messageId = i;
+            PipedInputStream in = new PipedInputStream();
+            devices[i] = new PipedOutputStream(in);
+            new NetconfStreamHandlerImpl(in, new ByteArrayOutputStream(), DEVICE_INFO,
+                                         event -> {
+                                             if (event.getMessageID().equals(Optional.of(messageId))) {
+                                                 replies.countDown();
+                                             }
+                                         }, false, ioExecutor);
+        }
+        for (int i = 0; i < sessions; i++) {
+            write(devices[i], "<rpc-reply message-id=\"" + i + "\"><ok/></rpc-reply>]]>]]>");
+        }
+        assertTrue("Replies not received", replies.await(10, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Tests that the client hello is end-of-message framed and that chunked
+     * framing is only used once both hellos are exchanged.
+     */
+    @Test
+    public void testFramingSwitch() throws Exception {
+        PipedInputStream in = new PipedInputStream();
+        PipedOutputStream device = new PipedOutputStream(in);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CountDownLatch hello = new CountDownLatch(1);
+        NetconfStreamHandlerImpl handler = new NetconfStreamHandlerImpl(
+                in, out, DEVICE_INFO,
+                event -> {
+                    if (event.getMessagePayload().contains("<hello")) {
+                        hello.countDown();
+                    }
+                }, true, ioExecutor);
+
+        // device hello first, client hello not sent yet
+        write(device, HELLO_1_1);
+        assertTrue("Hello not received", hello.await(5, TimeUnit.SECONDS));
+        assertThat(handler.isChunkedFraming(), is(false));
+
+        handler.sendMessage(CLIENT_HELLO);
+        assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8), is(CLIENT_HELLO));
+        assertThat(handler.isChunkedFraming(), is(true));
+    }
+
+    /**
+     * Tests that a client hello sent before the device hello is end-of-message
+     * framed and that no chunked framing is used before the device hello.
+     */
+    @Test
+    public void testClientHelloFirst() throws Exception {
+        PipedInputStream in = new PipedInputStream();
+        PipedOutputStream device = new PipedOutputStream(in);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CountDownLatch hello = new CountDownLatch(1);
+        NetconfStreamHandlerImpl handler = new NetconfStreamHandlerImpl(
+                in, out, DEVICE_INFO,
+                event -> {
+                    if (event.getMessagePayload().contains("<hello")) {
+                        hello.countDown();
+                    }
+                }, true, ioExecutor);
+
+        handler.sendMessage(CLIENT_HELLO);
+        assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8), is(CLIENT_HELLO));
+        assertThat(handler.isChunkedFraming(), is(false));
+
+        write(device, HELLO_1_1);
+        assertTrue("Hello not received", hello.await(5, TimeUnit.SECONDS));
+        assertThat(handler.isChunkedFraming(), is(true));
+    }
+
+    /**
+     * Tests the switch to chunked framing after a NETCONF 1.1 hello exchange.
+     */
+    @Test
+    public void testChunkedSession() throws Exception {
+        PipedInputStream in = new PipedInputStream();
+        PipedOutputStream device = new PipedOutputStream(in);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CountDownLatch hello = new CountDownLatch(1);
+        CountDownLatch reply = new CountDownLatch(1);
+        NetconfStreamHandlerImpl handler = new NetconfStreamHandlerImpl(
+                in, out, DEVICE_INFO,
+                event -> {
+                    if (event.getMessagePayload().contains("<hello")) {
+                        hello.countDown();
+                    } else if (event.getMessageID().equals(Optional.of(7))) {
+                        reply.countDown();
+                    }
+                }, true, ioExecutor);
+
+        handler.sendMessage(CLIENT_HELLO);
+        write(device, HELLO_1_1);
+        assertTrue("Hello not received", hello.await(5, TimeUnit.SECONDS));
+        assertThat(handler.isChunkedFraming(), is(true));
+
+        out.reset();
+        handler.sendMessage("<rpc message-id=\"7\"><get/></rpc>\n]]>]]>");
+        assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8),
+                   is("\n#32\n<rpc message-id=\"7\"><get/></rpc>\n##\n"));
+
+        write(device, "\n#19\n<rpc-reply message-\n#24\nid=\"7\"><ok/></rpc-reply>\n##\n");
+        assertTrue("Chunked reply not received", reply.await(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Tests that listeners are told when the session closes.
+     */
+    @Test
+    public void testSessionClosed() throws Exception {
+        PipedInputStream in = new PipedInputStream();
+        PipedOutputStream device = new PipedOutputStream(in);
+        CountDownLatch closed = new CountDownLatch(1);
+        NetconfStreamHandlerImpl handler = new NetconfStreamHandlerImpl(
+                in, new ByteArrayOutputStream(), DEVICE_INFO, event -> { }, false, ioExecutor);
+        handler.addDeviceEventListener(event -> {
+            if (event.type() == NetconfDeviceOutputEvent.Type.DEVICE_UNREGISTERED) {
+                closed.countDown();
+            }
+        });
+
+        device.close();
+        assertTrue("Closure not detected", closed.await(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Tests that hellos are recognized by their root element only.
+     */
+    @Test
+    public void testIsHello() {
+        assertTrue(NetconfStreamHandlerImpl.isHello(HELLO_1_1));
+        assertTrue(NetconfStreamHandlerImpl.isHello("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" + CLIENT_HELLO));
+        assertTrue(NetconfStreamHandlerImpl.isHello(
+                "<nc:hello xmlns:nc='urn:ietf:params:xml:ns:netconf:base:1.0'><nc:capabilities/></nc:hello>"));
+        assertFalse(NetconfStreamHandlerImpl.isHello(
+                "<rpc message-id=\"3\" xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\"><edit-config>" +
+                        "<hello-interval>10</hello-interval><hello>1</hello></edit-config></rpc>"));
+        assertFalse(NetconfStreamHandlerImpl.isHello("<hello xmlns=\"urn:example:ospf\"/>"));
+        assertFalse(NetconfStreamHandlerImpl.isHello("<hello-interval>10</hello-interval>"));
+    }
+
+    /**
+     * Tests that a request carrying hello elements in its payload is chunked
+     * on a NETCONF 1.1 session.
+     */
+    @Test
+    public void testHelloElementInRequest() throws Exception {
+        PipedInputStream in = new PipedInputStream();
+        PipedOutputStream device = new PipedOutputStream(in);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CountDownLatch hello = new CountDownLatch(1);
+        NetconfStreamHandlerImpl handler = new NetconfStreamHandlerImpl(
+                in, out, DEVICE_INFO,
+                event -> {
+                    if (event.getMessageID().equals(Optional.of(NetconfStreamHandlerImpl.HELLO_MESSAGE_ID))) {
+                        hello.countDown();
+                    }
+                }, true, ioExecutor);
+
+        handler.sendMessage(CLIENT_HELLO);
+        write(device, HELLO_1_1);
+        assertTrue("Hello not received", hello.await(5, TimeUnit.SECONDS));
+
+        out.reset();
+        String request = "<rpc message-id=\"8\"><hello-interval>10</hello-interval></rpc>";
+        handler.sendMessage(request + "\n]]>]]>");
+        assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8),
+                   is("\n#" + request.length() + "\n" + request + "\n##\n"));
+    }
+}
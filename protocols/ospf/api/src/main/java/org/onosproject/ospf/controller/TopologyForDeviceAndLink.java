@@ -19,6 +19,7 @@ import org.onlab.packet.Ip4Address;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Represents IP topology for OSPF device and link details.
@@ -161,4 +162,18 @@ public interface TopologyForDeviceAndLink {
      * @param linkInformationMap link information instance
      */
     void setLinkInformationMapForPointToPoint(String key, LinkInformation linkInformationMap);
+
+    /**
+     * Gets the keys of the devices added or updated since the last call.
+     *
+     * @return keys of changed devices
+     */
+    Set<String> pollChangedDevices();
+
+    /**
+     * Gets the keys of the links added or updated since the last call.
+     *
+     * @return keys of changed links
+     */
+    Set<String> pollChangedLinks();
 }
\ No newline at end of file
@@ -1133,11 +1133,7 @@ public class OspfInterfaceImpl implements OspfInterface {
             } else if (nbr.getState() == OspfNeighborState.FULL) {
                 if (lsUpdate.noLsa() != 0) {
                     List<OspfLsa> list = lsUpdate.getLsaList();
-                    Iterator itr = list.iterator();
-                    while (itr.hasNext()) {
-                        LsaHeader lsa = (LsaHeader) itr.next();
-                        nbr.processReceivedLsa(lsa, true, ctx.getChannel(), lsUpdate.sourceIp());
-                    }
+                    nbr.processReceivedLsas(list, ctx.getChannel(), lsUpdate.sourceIp());
                 } else {
                     return;
                 }
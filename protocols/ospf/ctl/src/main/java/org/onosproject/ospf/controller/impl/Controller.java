@@ -22,6 +22,7 @@ import org.jboss.netty.channel.ChannelFutureListener;
 import org.jboss.netty.channel.ChannelPipelineFactory;
 import org.jboss.netty.channel.FixedReceiveBufferSizePredictorFactory;
 import org.jboss.netty.channel.socket.nio.NioClientSocketChannelFactory;
+import org.onlab.util.SharedNettyWorkers;
 import org.onlab.packet.Ip4Address;
 import org.onlab.packet.TpPort;
 import org.onosproject.net.driver.DriverService;
@@ -44,8 +45,6 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
-import static org.onlab.util.Tools.groupedThreads;
-
 /**
  * Representation of an OSPF controller.
  */
@@ -53,7 +52,6 @@ public class Controller {
     protected static final int BUFFER_SIZE = 4 * 1024 * 1024;
     private static final Logger log = LoggerFactory.getLogger(Controller.class);
     private static final int RETRY_INTERVAL = 4;
-    private final int peerWorkerThreads = 16;
     protected long systemStartTime;
     byte[] configPacket = null;
     private List<OspfProcess> processes = null;
@@ -148,19 +146,8 @@ public class Controller {
      * @return client bootstrap instance
      */
     private ClientBootstrap createPeerBootStrap() {
-
-        if (peerWorkerThreads == 0) {
-            peerExecFactory = new NioClientSocketChannelFactory(
-                    Executors.newCachedThreadPool(groupedThreads("onos/isis", "boss-%d")),
-                    Executors.newCachedThreadPool(groupedThreads("onos/isis", "worker-%d")));
-            return new ClientBootstrap(peerExecFactory);
-        } else {
-            peerExecFactory = new NioClientSocketChannelFactory(
-                    Executors.newCachedThreadPool(groupedThreads("onos/isis", "boss-%d")),
-                    Executors.newCachedThreadPool(groupedThreads("onos/isis", "worker-%d")),
-                    peerWorkerThreads);
-            return new ClientBootstrap(peerExecFactory);
-        }
+        peerExecFactory = SharedNettyWorkers.newClientChannelFactory("onos/ospf");
+        return new ClientBootstrap(peerExecFactory);
     }
 
     /**
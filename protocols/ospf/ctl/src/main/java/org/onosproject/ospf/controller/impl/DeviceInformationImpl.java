@@ -15,6 +15,7 @@
  */
 package org.onosproject.ospf.controller.impl;
 
+import com.google.common.base.Objects;
 import org.onlab.packet.Ip4Address;
 import org.onosproject.ospf.controller.DeviceInformation;
 
@@ -160,4 +161,27 @@ public class DeviceInformationImpl implements DeviceInformation {
     public void setNeighborId(Ip4Address neighborId) {
         this.neighborId = neighborId;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        DeviceInformationImpl that = (DeviceInformationImpl) o;
+        return Objects.equal(deviceId, that.deviceId) &&
+                Objects.equal(routerId, that.routerId) &&
+                Objects.equal(interfaceId, that.interfaceId) &&
+                Objects.equal(areaId, that.areaId) &&
+                Objects.equal(alreadyCreated, that.alreadyCreated) &&
+                Objects.equal(isDr, that.isDr) &&
+                Objects.equal(neighborId, that.neighborId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(deviceId, routerId, interfaceId, areaId, alreadyCreated, isDr, neighborId);
+    }
 }
@@ -15,6 +15,7 @@
  */
 package org.onosproject.ospf.controller.impl;
 
+import com.google.common.base.Objects;
 import org.onlab.packet.Ip4Address;
 import org.onosproject.ospf.controller.LinkInformation;
 
@@ -175,4 +176,29 @@ public class LinkInformationImpl implements LinkInformation {
     public void setLinkDestinationIpAddress(Ip4Address linkDestinationIpAddress) {
         this.linkDestinationIpAddress = linkDestinationIpAddress;
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        LinkInformationImpl that = (LinkInformationImpl) o;
+        return Objects.equal(linkId, that.linkId) &&
+                Objects.equal(linkSourceId, that.linkSourceId) &&
+                Objects.equal(linkDestinationId, that.linkDestinationId) &&
+                Objects.equal(interfaceIp, that.interfaceIp) &&
+                Objects.equal(linkSrcIdNotRouterId, that.linkSrcIdNotRouterId) &&
+                Objects.equal(alreadyCreated, that.alreadyCreated) &&
+                Objects.equal(linkSourceIpAddress, that.linkSourceIpAddress) &&
+                Objects.equal(linkDestinationIpAddress, that.linkDestinationIpAddress);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(linkId, linkSourceId, linkDestinationId, interfaceIp, linkSrcIdNotRouterId,
+                                alreadyCreated, linkSourceIpAddress, linkDestinationIpAddress);
+    }
+}
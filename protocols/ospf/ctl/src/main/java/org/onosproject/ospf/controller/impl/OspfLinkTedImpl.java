@@ -15,6 +15,7 @@
  */
 package org.onosproject.ospf.controller.impl;
 
+import com.google.common.base.Objects;
 import org.onlab.packet.Ip4Address;
 import org.onlab.packet.Ip6Address;
 import org.onlab.util.Bandwidth;
@@ -183,4 +184,29 @@ public class OspfLinkTedImpl implements OspfLinkTed {
     public void setMaxUnResBandwidth(Bandwidth bandwidth) {
         this.maxUnResBandwidth.add(bandwidth);
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        OspfLinkTedImpl that = (OspfLinkTedImpl) o;
+        return Objects.equal(maximumLink, that.maximumLink) &&
+                Objects.equal(maxUnResBandwidth, that.maxUnResBandwidth) &&
+                Objects.equal(maxReserved, that.maxReserved) &&
+                Objects.equal(teMetric, that.teMetric) &&
+                Objects.equal(ipv4LocRouterId, that.ipv4LocRouterId) &&
+                Objects.equal(ipv6LocRouterId, that.ipv6LocRouterId) &&
+                Objects.equal(ipv4RemRouterId, that.ipv4RemRouterId) &&
+                Objects.equal(ipv6RemRouterId, that.ipv6RemRouterId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(maximumLink, maxUnResBandwidth, maxReserved, teMetric,
+                                ipv4LocRouterId, ipv6LocRouterId, ipv4RemRouterId, ipv6RemRouterId);
+    }
+}
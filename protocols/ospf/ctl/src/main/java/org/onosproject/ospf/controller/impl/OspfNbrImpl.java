@@ -912,17 +912,18 @@ public class OspfNbrImpl implements OspfNbr {
 
                 if (lsReqList.containsKey(key)) {
                     boolean removeIt;
-                    removeIt = processReceivedLsa(lsaHeader, false, ch,
-                                                  lsUpdPkt.sourceIp());
+                    removeIt = processLsa(lsaHeader, false, ch,
+                                          lsUpdPkt.sourceIp());
                     if (removeIt) {
                         lsReqList.remove(key);
                     }
                 } else {
                     // LSA was received via Flooding
-                    processReceivedLsa(lsaHeader, true, ch,
-                                       lsUpdPkt.sourceIp());
+                    processLsa(lsaHeader, true, ch,
+                               lsUpdPkt.sourceIp());
                 }
             }
+            updateTopology();
 
             if (lsReqList.isEmpty() && (state == OspfNeighborState.LOADING)) {
                 // loading complete
@@ -952,11 +953,13 @@ public class OspfNbrImpl implements OspfNbr {
     }
 
     /**
-     * Adds device and link.
+     * Adds the devices and links changed since they were last added.
      *
      * @param topologyForDeviceAndLink topology for device and link instance
      */
     private void callDeviceAndLinkAdding(TopologyForDeviceAndLink topologyForDeviceAndLink) {
+        Set<String> changedDevices = topologyForDeviceAndLink.pollChangedDevices();
+        Set<String> changedLinks = topologyForDeviceAndLink.pollChangedLinks();
         Map<String, DeviceInformation> deviceInformationMap = topologyForDeviceAndLink.deviceInformationMap();
         Map<String, DeviceInformation> deviceInformationMapForPointToPoint =
                 topologyForDeviceAndLink.deviceInformationMapForPointToPoint();
@@ -967,9 +970,12 @@ public class OspfNbrImpl implements OspfNbr {
                 topologyForDeviceAndLink.linkInformationMapForPointToPoint();
         OspfRouter ospfRouter = new OspfRouterImpl();
 
-        if (deviceInformationMap.size() != 0) {
-            for (String key : deviceInformationMap.keySet()) {
+        if (!changedDevices.isEmpty()) {
+            for (String key : changedDevices) {
                 DeviceInformation value = deviceInformationMap.get(key);
+                if (value == null) {
+                    continue;
+                }
                 ospfRouter.setRouterIp(value.routerId());
                 ospfRouter.setAreaIdOfInterface(ospfArea.areaId());
                 ospfRouter.setNeighborRouterId(value.deviceId());
@@ -990,9 +996,12 @@ public class OspfNbrImpl implements OspfNbr {
                 ((OspfInterfaceImpl) ospfInterface).addDeviceInformation(ospfRouter);
             }
         }
-        if (deviceInformationMapForPointToPoint.size() != 0) {
-            for (String key : deviceInformationMapForPointToPoint.keySet()) {
+        if (!changedDevices.isEmpty()) {
+            for (String key : changedDevices) {
                 DeviceInformation value = deviceInformationMapForPointToPoint.get(key);
+                if (value == null) {
+                    continue;
+                }
                 ospfRouter.setRouterIp(value.routerId());
                 ospfRouter.setAreaIdOfInterface(ospfArea.areaId());
                 ospfRouter.setNeighborRouterId(value.deviceId());
@@ -1008,9 +1017,11 @@ public class OspfNbrImpl implements OspfNbr {
                 ((OspfInterfaceImpl) ospfInterface).addDeviceInformation(ospfRouter);
             }
         }
-        for (Map.Entry<String, LinkInformation> entry : linkInformationMap.entrySet()) {
-            String key = entry.getKey();
-            LinkInformation value = entry.getValue();
+        for (String key : changedLinks) {
+            LinkInformation value = linkInformationMap.get(key);
+            if (value == null) {
+                continue;
+            }
             OspfRouter ospfRouterForLink = new OspfRouterImpl();
             ospfRouterForLink.setInterfaceId(value.interfaceIp());
             ospfRouterForLink.setAreaIdOfInterface(ospfArea.areaId());
@@ -1036,8 +1047,6 @@ public class OspfNbrImpl implements OspfNbr {
         }
     }
 
-    // RFC 2328 Section 13 - partly as flooding procedure
-
     /**
      * Processes the received Lsa.
      *
@@ -1051,6 +1060,39 @@ public class OspfNbrImpl implements OspfNbr {
     public boolean processReceivedLsa(LsaHeader recLsa,
                                       boolean receivedViaFlooding, Channel ch, Ip4Address sourceIp)
             throws Exception {
+        boolean removeIt = processLsa(recLsa, receivedViaFlooding, ch, sourceIp);
+        updateTopology();
+        return removeIt;
+    }
+
+    /**
+     * Processes the LSAs of an LS Update received via flooding; the devices
+     * and links changed by the LSAs are added once all of them are processed.
+     *
+     * @param lsaList  received LSAs
+     * @param ch       channel instance
+     * @param sourceIp source of the LSAs
+     * @throws Exception might throws exception
+     */
+    public void processReceivedLsas(List<OspfLsa> lsaList, Channel ch, Ip4Address sourceIp) throws Exception {
+        for (OspfLsa lsa : lsaList) {
+            processLsa((LsaHeader) lsa, true, ch, sourceIp);
+        }
+        updateTopology();
+    }
+
+    /**
+     * Derives the devices and links of the LSAs of the link state database
+     * and adds the changed ones.
+     */
+    private void updateTopology() {
+        constructDeviceInformationFromDb();
+        callDeviceAndLinkAdding(topologyForDeviceAndLink);
+    }
+
+    // RFC 2328 Section 13 - partly as flooding procedure
+    private boolean processLsa(LsaHeader recLsa, boolean receivedViaFlooding, Channel ch, Ip4Address sourceIp)
+            throws Exception {
         log.debug("OSPFNbr::processReceivedLsa(recLsa, recievedViaFlooding, ch)...!!!");
 
         //Validate the lsa checksum RFC 2328 13 (1)
@@ -1153,7 +1195,6 @@ public class OspfNbrImpl implements OspfNbr {
                     ospfArea.addLsa(recLsa, ospfInterface);
                     log.debug("Inside addLsaMethod");
                     topologyForDeviceAndLink.addLocalDevice(recLsa, ospfInterface, ospfArea);
-                    callDeviceAndLinkAdding(topologyForDeviceAndLink);
                     log.debug("Adding to lsdb interface State {}", ((OspfInterfaceImpl) ospfInterface).state().value());
                     // should not send any acknowledge if flooded out on receiving interface
                     if (((OspfInterfaceImpl) ospfInterface).state().value() == OspfInterfaceState.BDR.value()) {
@@ -1207,9 +1248,6 @@ public class OspfNbrImpl implements OspfNbr {
             }
         }
 
-        constructDeviceInformationFromDb();
-        callDeviceAndLinkAdding(topologyForDeviceAndLink);
-
         return true;
     }
 
@@ -25,6 +25,7 @@ import org.onosproject.ospf.controller.OspfLinkTed;
 import org.onosproject.ospf.controller.OspfLsa;
 import org.onosproject.ospf.controller.OspfLsaType;
 import org.onosproject.ospf.controller.TopologyForDeviceAndLink;
+import org.onosproject.ospf.protocol.lsa.LsaHeader;
 import org.onosproject.ospf.protocol.lsa.linksubtype.LinkSubType;
 import org.onosproject.ospf.protocol.lsa.linksubtype.LocalInterfaceIpAddress;
 import org.onosproject.ospf.protocol.lsa.linksubtype.MaximumBandwidth;
@@ -47,13 +48,22 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
 
 /**
  * Represents device and link topology information.
+ * <p>
+ * Each LSA instance is derived once: LSAs are indexed along with the devices
+ * and links derived from them, and an LSA is derived again only when a newer
+ * instance is received or when one of its devices or links has been removed.
+ * Devices and links added or updated are tracked until polled, so that only
+ * those are pushed to the listeners.
+ * </p>
  */
 public class TopologyForDeviceAndLinkImpl implements TopologyForDeviceAndLink {
 
@@ -72,6 +82,12 @@ public class TopologyForDeviceAndLinkImpl implements TopologyForDeviceAndLink {
     private Map<String, LinkInformation> linkInformationMap = new LinkedHashMap();
     private Map<String, LinkInformation> linkInformationMapForPointToPoint = new LinkedHashMap();
     private List<String> toRemove = new ArrayList<>();
+    private Map<LsaKey, DerivedLsa> derivedLsas = new HashMap<>();
+    private Set<String> changedDevices = new LinkedHashSet<>();
+    private Set<String> changedLinks = new LinkedHashSet<>();
+    private DerivedLsa derivation;
+    private Map<String, DeviceInformation> devicesBeforeDerivation = new HashMap<>();
+    private Map<String, DeviceInformation> pointToPointDevicesBeforeDerivation = new HashMap<>();
 
     /**
      * Gets device information.
@@ -90,7 +106,8 @@ public class TopologyForDeviceAndLinkImpl implements TopologyForDeviceAndLink {
      */
     public void setDeviceInformationMap(String key, DeviceInformation deviceInformationMap) {
         if (deviceInformationMap != null) {
-            this.deviceInformationMap.put(key, deviceInformationMap);
+            DeviceInformation previous = this.deviceInformationMap.put(key, deviceInformationMap);
+            deviceDerived(key, deviceInformationMap, previous, devicesBeforeDerivation);
         }
 
     }
@@ -112,7 +129,8 @@ public class TopologyForDeviceAndLinkImpl implements TopologyForDeviceAndLink {
      */
     public void setDeviceInformationMapForPointToPoint(String key, DeviceInformation deviceInformationMap) {
         if (deviceInformationMap != null) {
-            this.deviceInformationMapForPointToPoint.put(key, deviceInformationMap);
+            DeviceInformation previous = this.deviceInformationMapForPointToPoint.put(key, deviceInformationMap);
+            deviceDerived(key, deviceInformationMap, previous, pointToPointDevicesBeforeDerivation);
         }
 
     }
@@ -170,6 +188,9 @@ public class TopologyForDeviceAndLinkImpl implements TopologyForDeviceAndLink {
         if (this.deviceInformationMap.containsKey(key)) {
             this.deviceInformationMap.remove(key);
         }
+        // the device is announced again when derived again
+        this.deviceInformationMapForPointToPoint.remove(key);
+        derivedLsas.values().removeIf(derived -> derived.deviceKeys.contains(key));
     }
 
     /**
@@ -195,6 +216,10 @@ public class TopologyForDeviceAndLinkImpl implements TopologyForDeviceAndLink {
     public void setLinkInformationMap(String key, LinkInformation linkInformationMap) {
         if (!this.linkInformationMap.containsKey(key)) {
             this.linkInformationMap.put(key, linkInformationMap);
+            changedLinks.add(key);
+        }
+        if (derivation != null) {
+            derivation.linkKeys.add(key);
         }
     }
 
@@ -214,9 +239,7 @@ public class TopologyForDeviceAndLinkImpl implements TopologyForDeviceAndLink {
      * @param linkInformationMap link information instance
      */
     public void setLinkInformationMapForPointToPoint(String key, LinkInformation linkInformationMap) {
-        if (!this.linkInformationMap.containsKey(key)) {
-            this.linkInformationMap.put(key, linkInformationMap);
-        }
+        setLinkInformationMap(key, linkInformationMap);
     }
 
     /**
@@ -228,6 +251,69 @@ public class TopologyForDeviceAndLinkImpl implements TopologyForDeviceAndLink {
         if (this.linkInformationMap.containsKey(key)) {
             this.linkInformationMap.remove(key);
         }
+        derivedLsas.values().removeIf(derived -> derived.linkKeys.contains(key));
+    }
+
+    /**
+     * Gets the keys of the devices added or updated since the last call.
+     *
+     * @return keys of changed devices
+     */
+    public Set<String> pollChangedDevices() {
+        Set<String> changed = changedDevices;
+        changedDevices = new LinkedHashSet<>();
+        return changed;
+    }
+
+    /**
+     * Gets the keys of the links added or updated since the last call.
+     *
+     * @return keys of changed links
+     */
+    public Set<String> pollChangedLinks() {
+        Set<String> changed = changedLinks;
+        changedLinks = new LinkedHashSet<>();
+        return changed;
+    }
+
+    /**
+     * Records a device stored in one of the device maps. During the
+     * derivation of an LSA, the device is compared once the derivation is
+     * complete, since an LSA may store several devices under the same key.
+     *
+     * @param key      key of the device
+     * @param device   device information stored
+     * @param previous device information replaced, if any
+     * @param before   devices replaced during the current derivation
+     */
+    private void deviceDerived(String key, DeviceInformation device, DeviceInformation previous,
+                               Map<String, DeviceInformation> before) {
+        if (derivation == null) {
+            if (!device.equals(previous)) {
+                changedDevices.add(key);
+            }
+            return;
+        }
+        derivation.deviceKeys.add(key);
+        if (!before.containsKey(key)) {
+            before.put(key, previous);
+        }
+    }
+
+    /**
+     * Marks the devices whose information differs from the one stored before
+     * the current derivation as changed.
+     *
+     * @param devices device map
+     * @param before  devices replaced during the current derivation
+     */
+    private void devicesDerived(Map<String, DeviceInformation> devices, Map<String, DeviceInformation> before) {
+        for (Map.Entry<String, DeviceInformation> entry : before.entrySet()) {
+            DeviceInformation device = devices.get(entry.getKey());
+            if (device != null && !device.equals(entry.getValue())) {
+                changedDevices.add(entry.getKey());
+            }
+        }
     }
 
 
@@ -250,12 +336,33 @@ public class TopologyForDeviceAndLinkImpl implements TopologyForDeviceAndLink {
      * @param ospfArea      OSPF area instance
      */
     public void addLocalDevice(OspfLsa ospfLsa, OspfInterface ospfInterface, OspfArea ospfArea) {
-        if (ospfLsa.getOspfLsaType().equals(OspfLsaType.ROUTER)) {
-            createDeviceAndLinkFromRouterLsa(ospfLsa, ospfArea);
-        } else if (ospfLsa.getOspfLsaType().equals(OspfLsaType.NETWORK)) {
-            createDeviceAndLinkFromNetworkLsa(ospfLsa, ospfArea);
-        } else if (ospfLsa.getOspfLsaType().equals(OspfLsaType.AREA_LOCAL_OPAQUE_LSA)) {
-            createDeviceAndLinkFromOpaqueLsa(ospfLsa, ospfArea);
+        LsaKey lsaKey = null;
+        if (ospfLsa instanceof LsaHeader) {
+            LsaHeader lsaHeader = (LsaHeader) ospfLsa;
+            lsaKey = new LsaKey(lsaHeader);
+            DerivedLsa derived = derivedLsas.get(lsaKey);
+            if (derived != null && derived.isInstance(lsaHeader)) {
+                return;
+            }
+            derivation = new DerivedLsa(lsaHeader);
+        }
+        try {
+            if (ospfLsa.getOspfLsaType().equals(OspfLsaType.ROUTER)) {
+                createDeviceAndLinkFromRouterLsa(ospfLsa, ospfArea);
+            } else if (ospfLsa.getOspfLsaType().equals(OspfLsaType.NETWORK)) {
+                createDeviceAndLinkFromNetworkLsa(ospfLsa, ospfArea);
+            } else if (ospfLsa.getOspfLsaType().equals(OspfLsaType.AREA_LOCAL_OPAQUE_LSA)) {
+                createDeviceAndLinkFromOpaqueLsa(ospfLsa, ospfArea);
+            }
+            if (lsaKey != null) {
+                derivedLsas.put(lsaKey, derivation);
+            }
+            devicesDerived(deviceInformationMap, devicesBeforeDerivation);
+            devicesDerived(deviceInformationMapForPointToPoint, pointToPointDevicesBeforeDerivation);
+        } finally {
+            derivation = null;
+            devicesBeforeDerivation.clear();
+            pointToPointDevicesBeforeDerivation.clear();
         }
     }
 
@@ -355,35 +462,36 @@ public class TopologyForDeviceAndLinkImpl implements TopologyForDeviceAndLink {
         } catch (Exception e) {
             log.debug("Error::TopologyForDeviceAndLinkImpl:: {}", e.getMessage());
         }
-        constructDeviceForBroadCastTopology(ospfArea);
-        disp();
-
-    }
-
-    private void constructDeviceForBroadCastTopology(OspfArea ospfArea) {
-
-        for (Map.Entry<Ip4Address, List<Ip4Address>> entry : networkLsaMap.entrySet()) {
-            Ip4Address key = entry.getKey();
-            DeviceInformation deviceInformationForDr = createDeviceInformation(false, key, key, key,
-                                                                               key, ospfArea.areaId(), true);
-            String dr = "device:" + key;
-            setDeviceInformationMap(dr, deviceInformationForDr);
-            List<Ip4Address> value = entry.getValue();
-            for (Ip4Address connectedRouter : value) {
-                if (!connectedRouter.equals(ospfArea.routerId())) {
-                    DeviceInformation deviceInformationAttachedRouters =
-                            createDeviceInformation(false, connectedRouter, key, connectedRouter,
-                                                    key, ospfArea.areaId(), false);
-                    String attachedRouters = "device:" + connectedRouter;
-                    setDeviceInformationMap(attachedRouters, deviceInformationAttachedRouters);
-                    String linkIdKey = "linkId:" + key + "-" + connectedRouter;
-                    addLocalLink(linkIdKey, key, key, connectedRouter, true, false);
-                }
-            }
+        // the other networks are unchanged, only the one of this LSA is constructed
+        List<Ip4Address> attachedRouters = networkLsaMap.get(linkStateId);
+        if (attachedRouters != null) {
+            constructDeviceForBroadCastTopology(linkStateId, attachedRouters, ospfArea);
+        }
+        if (log.isDebugEnabled()) {
+            disp();
         }
 
     }
 
+    private void constructDeviceForBroadCastTopology(Ip4Address key, List<Ip4Address> attachedRouters,
+                                                     OspfArea ospfArea) {
+        DeviceInformation deviceInformationForDr = createDeviceInformation(false, key, key, key,
+                                                                           key, ospfArea.areaId(), true);
+        String dr = "device:" + key;
+        setDeviceInformationMap(dr, deviceInformationForDr);
+        for (Ip4Address connectedRouter : attachedRouters) {
+            if (!connectedRouter.equals(ospfArea.routerId())) {
+                DeviceInformation deviceInformationAttachedRouters =
+                        createDeviceInformation(false, connectedRouter, key, connectedRouter,
+                                                key, ospfArea.areaId(), false);
+                String attachedRouter = "device:" + connectedRouter;
+                setDeviceInformationMap(attachedRouter, deviceInformationAttachedRouters);
+                String linkIdKey = "linkId:" + key + "-" + connectedRouter;
+                addLocalLink(linkIdKey, key, key, connectedRouter, true, false);
+            }
+        }
+    }
+
     private void disp() {
         for (String key : deviceInformationMap.keySet()) {
             DeviceInformation deviceInformation = deviceInformationMap.get(key);
@@ -494,7 +602,16 @@ public class TopologyForDeviceAndLinkImpl implements TopologyForDeviceAndLink {
             }
 
         }
-        ospfLinkTedHashMap.put(adRouterId.toString(), ospfLinkTed);
+        OspfLinkTed previousTed = ospfLinkTedHashMap.put(adRouterId.toString(), ospfLinkTed);
+        if (ospfLinkTed.equals(previousTed)) {
+            return;
+        }
+        // links towards the router carry its TED
+        for (Map.Entry<String, LinkInformation> entry : linkInformationMap.entrySet()) {
+            if (adRouterId.equals(entry.getValue().linkDestinationId())) {
+                changedLinks.add(entry.getKey());
+            }
+        }
     }
 
 
@@ -581,6 +698,7 @@ public class TopologyForDeviceAndLinkImpl implements TopologyForDeviceAndLink {
     public void removeDevice(Ip4Address routerId) {
         String key = "device:" + routerId;
         this.deviceInformationMap.remove(key);
+        derivedLsas.values().removeIf(derived -> derived.deviceKeys.contains(key));
     }
 
     /**
@@ -666,4 +784,59 @@ public class TopologyForDeviceAndLinkImpl implements TopologyForDeviceAndLink {
         }
         return removedLinkList;
     }
-}
\ No newline at end of file
+
+    /**
+     * Identifies an LSA in the area.
+     */
+    private static final class LsaKey {
+
+        private final int lsType;
+        private final String linkStateId;
+        private final Ip4Address advertisingRouter;
+
+        private LsaKey(LsaHeader lsaHeader) {
+            this.lsType = lsaHeader.lsType();
+            this.linkStateId = lsaHeader.linkStateId();
+            this.advertisingRouter = lsaHeader.advertisingRouter();
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(lsType, linkStateId, advertisingRouter);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj instanceof LsaKey) {
+                LsaKey that = (LsaKey) obj;
+                return lsType == that.lsType && Objects.equals(linkStateId, that.linkStateId)
+                        && Objects.equals(advertisingRouter, that.advertisingRouter);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Instance of an LSA which has been derived, along with the keys of the
+     * devices and links derived from it.
+     */
+    private static final class DerivedLsa {
+
+        private final long lsSequenceNo;
+        private final int lsCheckSum;
+        private final Set<String> deviceKeys = new HashSet<>();
+        private final Set<String> linkKeys = new HashSet<>();
+
+        private DerivedLsa(LsaHeader lsaHeader) {
+            this.lsSequenceNo = lsaHeader.lsSequenceNo();
+            this.lsCheckSum = lsaHeader.lsCheckSum();
+        }
+
+        private boolean isInstance(LsaHeader lsaHeader) {
+            return lsSequenceNo == lsaHeader.lsSequenceNo() && lsCheckSum == lsaHeader.lsCheckSum();
+        }
+    }
+}
@@ -21,6 +21,7 @@ import org.junit.Test;
 import org.onlab.packet.Ip4Address;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
 import static org.junit.Assert.assertThat;
 
 /**
@@ -165,4 +166,20 @@ public class DeviceInformationImplTest {
         deviceInformation.setNeighborId(Ip4Address.valueOf("1.1.1.1"));
         assertThat(deviceInformation.neighborId(), is(Ip4Address.valueOf("1.1.1.1")));
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests equals() method.
+     */
+    @Test
+    public void testEquals() throws Exception {
+        DeviceInformationImpl other = new DeviceInformationImpl();
+        deviceInformation.setDeviceId(Ip4Address.valueOf("1.1.1.1"));
+        deviceInformation.addInterfaceId(Ip4Address.valueOf("2.2.2.2"));
+        other.setDeviceId(Ip4Address.valueOf("1.1.1.1"));
+        other.addInterfaceId(Ip4Address.valueOf("2.2.2.2"));
+        assertThat(deviceInformation, is(other));
+        assertThat(deviceInformation.hashCode(), is(other.hashCode()));
+        other.setDr(true);
+        assertThat(deviceInformation, is(not(other)));
+    }
+}
@@ -21,6 +21,7 @@ import org.junit.Test;
 import org.onlab.packet.Ip4Address;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
 import static org.junit.Assert.assertThat;
 
 /**
@@ -183,4 +184,20 @@ public class LinkInformationImplTest {
         linkInformation.setLinkDestinationIpAddress(Ip4Address.valueOf("1.1.1.1"));
         assertThat(linkInformation.linkDestinationIpAddress(), is(Ip4Address.valueOf("1.1.1.1")));
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests equals() method.
+     */
+    @Test
+    public void testEquals() throws Exception {
+        LinkInformationImpl other = new LinkInformationImpl();
+        linkInformation.setLinkId("1.1.1.1");
+        linkInformation.setLinkSourceId(Ip4Address.valueOf("2.2.2.2"));
+        other.setLinkId("1.1.1.1");
+        other.setLinkSourceId(Ip4Address.valueOf("2.2.2.2"));
+        assertThat(linkInformation, is(other));
+        assertThat(linkInformation.hashCode(), is(other.hashCode()));
+        other.setLinkDestinationId(Ip4Address.valueOf("3.3.3.3"));
+        assertThat(linkInformation, is(not(other)));
+    }
+}
@@ -163,6 +163,67 @@ public class TopologyForDeviceAndLinkImplTest {
         assertThat(topologyForDeviceAndLink, is(notNullValue()));
     }
 
+    /**
+     * Tests addLocalDevice() method derives an LSA instance only once.
+     */
+    @Test
+    public void testAddLocalDeviceSameInstance() throws Exception {
+        OspfAreaImpl ospfArea = new OspfAreaImpl();
+        ospfArea.setRouterId(Ip4Address.valueOf("5.5.5.5"));
+        RouterLsa routerLsa = (RouterLsa) createOspfLsa();
+        topologyForDeviceAndLink.addLocalDevice(routerLsa, new OspfInterfaceImpl(), ospfArea);
+        assertThat(topologyForDeviceAndLink.pollChangedDevices().size(), is(1));
+        assertThat(topologyForDeviceAndLink.pollChangedLinks().size(), is(2));
+        topologyForDeviceAndLink.addLocalDevice(routerLsa, new OspfInterfaceImpl(), ospfArea);
+        assertThat(topologyForDeviceAndLink.pollChangedDevices().size(), is(0));
+        assertThat(topologyForDeviceAndLink.pollChangedLinks().size(), is(0));
+        // a refreshed instance with the same content changes nothing
+        routerLsa.setLsSequenceNo(routerLsa.lsSequenceNo() + 1);
+        topologyForDeviceAndLink.addLocalDevice(routerLsa, new OspfInterfaceImpl(), ospfArea);
+        assertThat(topologyForDeviceAndLink.pollChangedDevices().size(), is(0));
+        assertThat(topologyForDeviceAndLink.pollChangedLinks().size(), is(0));
+    }
+
+    /**
+     * Tests addLocalDevice() method marks the devices and links of a newer LSA
+     * instance changed only when their information differs.
+     */
+    @Test
+    public void testAddLocalDeviceChangedInstance() throws Exception {
+        OspfAreaImpl ospfArea = new OspfAreaImpl();
+        ospfArea.setRouterId(Ip4Address.valueOf("5.5.5.5"));
+        RouterLsa routerLsa = (RouterLsa) createOspfLsa();
+        topologyForDeviceAndLink.addLocalDevice(routerLsa, new OspfInterfaceImpl(), ospfArea);
+        topologyForDeviceAndLink.pollChangedDevices();
+        topologyForDeviceAndLink.pollChangedLinks();
+        OspfLsaLink ospfLsaLink = new OspfLsaLink();
+        ospfLsaLink.setLinkData("192.168.7.78");
+        ospfLsaLink.setLinkId("3.3.3.3");
+        ospfLsaLink.setLinkType(1);
+        routerLsa.addRouterLink(ospfLsaLink);
+        routerLsa.setLsSequenceNo(routerLsa.lsSequenceNo() + 1);
+        topologyForDeviceAndLink.addLocalDevice(routerLsa, new OspfInterfaceImpl(), ospfArea);
+        assertThat(topologyForDeviceAndLink.pollChangedDevices().size(), is(1));
+        assertThat(topologyForDeviceAndLink.pollChangedLinks().size(), is(1));
+        assertThat(topologyForDeviceAndLink.deviceInformationMapForPointToPoint().get("device:6.6.6.6").deviceId(),
+                   is(Ip4Address.valueOf("3.3.3.3")));
+    }
+
+    /**
+     * Tests addLocalDevice() method derives an LSA again once its device is removed.
+     */
+    @Test
+    public void testAddLocalDeviceAfterRemoval() throws Exception {
+        OspfAreaImpl ospfArea = new OspfAreaImpl();
+        ospfArea.setRouterId(Ip4Address.valueOf("5.5.5.5"));
+        OspfLsa routerLsa = createOspfLsa();
+        topologyForDeviceAndLink.addLocalDevice(routerLsa, new OspfInterfaceImpl(), ospfArea);
+        topologyForDeviceAndLink.pollChangedDevices();
+        topologyForDeviceAndLink.removeDeviceInformationMap("device:6.6.6.6");
+        topologyForDeviceAndLink.addLocalDevice(routerLsa, new OspfInterfaceImpl(), ospfArea);
+        assertThat(topologyForDeviceAndLink.pollChangedDevices().size(), is(1));
+    }
+
     /**
      * Tests addLocalLink() method.
      */
@@ -234,14 +234,14 @@ public class DefaultOvsdbClient implements OvsdbProviderService, OvsdbClientServ
         OvsdbTableStore tableStore = ovsdbStore.getOvsdbTableStore(dbName);
         if (tableStore == null) {
             tableStore = new OvsdbTableStore();
+            ovsdbStore.createOrUpdateOvsdbStore(dbName, tableStore);
         }
         OvsdbRowStore rowStore = tableStore.getRows(tableName);
         if (rowStore == null) {
             rowStore = new OvsdbRowStore();
+            tableStore.createOrUpdateTable(tableName, rowStore);
         }
         rowStore.insertRow(uuid, row);
-        tableStore.createOrUpdateTable(tableName, rowStore);
-        ovsdbStore.createOrUpdateOvsdbStore(dbName, tableStore);
     }
 
     /**
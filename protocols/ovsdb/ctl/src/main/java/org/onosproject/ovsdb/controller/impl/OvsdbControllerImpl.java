@@ -393,8 +393,10 @@ public class OvsdbControllerImpl implements OvsdbController {
             String dbName = requestDbName.get(key);
             JsonNode updatesJson = updateNotification.tbUpdatesJsonNode();
             DatabaseSchema dbSchema = ovsdbClient.getDatabaseSchema(dbName);
+            // modified rows only convert their changed columns
             TableUpdates updates = FromJsonUtil
-                    .jsonNodeToTableUpdates(updatesJson, dbSchema);
+                    .jsonNodeToTableUpdates(updatesJson, dbSchema, (tableName, uuid) ->
+                            ovsdbClient.getRow(dbName, tableName, uuid.value()));
             try {
                 processTableUpdates(ovsdbClient, updates, dbName);
             } catch (InterruptedException e) {
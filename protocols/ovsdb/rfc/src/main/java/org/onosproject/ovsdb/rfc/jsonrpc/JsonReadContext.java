@@ -15,13 +15,17 @@
  */
 package org.onosproject.ovsdb.rfc.jsonrpc;
 
-import java.util.Stack;
-
 /**
  * Context for decode parameters.
+ * <p>
+ * Keeps the state of the scan of an incomplete JSON text across decoding
+ * calls, so that the bytes already scanned are not scanned again.
+ * </p>
  */
 public class JsonReadContext {
-    private Stack<Byte> bufStack;
+    private int depth;
+    private boolean inString;
+    private boolean escaped;
     private boolean isStartMatch;
     private int lastReadBytes;
 
@@ -31,25 +35,66 @@ public class JsonReadContext {
      * entity.
      */
     public JsonReadContext() {
-        bufStack = new Stack<Byte>();
+        reset();
+    }
+
+    /**
+     * Resets the context once a complete JSON text has been read.
+     */
+    public void reset() {
+        depth = 0;
+        inString = false;
+        escaped = false;
         isStartMatch = false;
         lastReadBytes = 0;
     }
 
     /**
-     * Return bufStack.
-     * @return bufStack
+     * Return the nesting depth of objects and arrays at the scan position.
+     * @return depth
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Set the nesting depth of objects and arrays at the scan position.
+     * @param depth nesting depth
+     */
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    /**
+     * Return whether the scan position is inside a string.
+     * @return inString
+     */
+    public boolean isInString() {
+        return inString;
+    }
+
+    /**
+     * Set whether the scan position is inside a string.
+     * @param inString mark whether the scan is inside a string
+     */
+    public void setInString(boolean inString) {
+        this.inString = inString;
+    }
+
+    /**
+     * Return whether the last scanned byte is an escaping backslash.
+     * @return escaped
      */
-    public Stack<Byte> getBufStack() {
-        return bufStack;
+    public boolean isEscaped() {
+        return escaped;
     }
 
     /**
-     * Set bufStack, used for match the braces and double quotes.
-     * @param bufStack Stack of Byte
+     * Set whether the last scanned byte is an escaping backslash.
+     * @param escaped mark whether the next byte is escaped
      */
-    public void setBufStack(Stack<Byte> bufStack) {
-        this.bufStack = bufStack;
+    public void setEscaped(boolean escaped) {
+        this.escaped = escaped;
     }
 
     /**
@@ -45,6 +45,8 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * JsonNode utility class. convert JsonNode into Object.
@@ -258,13 +260,33 @@ public final class FromJsonUtil {
      * @return TableUpdates
      */
     public static TableUpdates jsonNodeToTableUpdates(JsonNode updatesJson, DatabaseSchema dbSchema) {
+        return jsonNodeToTableUpdates(updatesJson, dbSchema, (tableName, uuid) -> null);
+    }
+
+    /**
+     * convert the params of Update Notification into TableUpdates, building
+     * the new rows of modified rows from their current rows.
+     * <p>
+     * The "old" member of a modified row lists the columns that changed, so
+     * only those are converted from the "new" member; the other columns of
+     * the new row are those of the current row.
+     * </p>
+     * @param updatesJson the params of Update Notification
+     * @param dbSchema DatabaseSchema entity
+     * @param currentRows gives the current row of a table name and UUID, or null if unknown
+     * @return TableUpdates
+     */
+    public static TableUpdates jsonNodeToTableUpdates(JsonNode updatesJson, DatabaseSchema dbSchema,
+                                                      BiFunction<String, Uuid, Row> currentRows) {
         Map<String, TableUpdate> tableUpdateMap = Maps.newHashMap();
         Iterator<Map.Entry<String, JsonNode>> tableUpdatesItr = updatesJson.fields();
         while (tableUpdatesItr.hasNext()) {
             Map.Entry<String, JsonNode> entry = tableUpdatesItr.next();
-            TableSchema tableSchema = dbSchema.getTableSchema(entry.getKey());
-            TableUpdate tableUpdate = jsonNodeToTableUpdate(tableSchema, entry.getValue());
-            tableUpdateMap.put(entry.getKey(), tableUpdate);
+            String tableName = entry.getKey();
+            TableSchema tableSchema = dbSchema.getTableSchema(tableName);
+            TableUpdate tableUpdate = jsonNodeToTableUpdate(tableSchema, entry.getValue(),
+                                                            uuid -> currentRows.apply(tableName, uuid));
+            tableUpdateMap.put(tableName, tableUpdate);
         }
         return TableUpdates.tableUpdates(tableUpdateMap);
     }
@@ -276,6 +298,19 @@ public final class FromJsonUtil {
      * @return TableUpdate
      */
     public static TableUpdate jsonNodeToTableUpdate(TableSchema tableSchema, JsonNode updateJson) {
+        return jsonNodeToTableUpdate(tableSchema, updateJson, uuid -> null);
+    }
+
+    /**
+     * convert the params of Update Notification into TableUpdate, building
+     * the new rows of modified rows from their current rows.
+     * @param tableSchema TableSchema entity
+     * @param updateJson the table-update in params of Update Notification
+     * @param currentRows gives the current row of a UUID, or null if unknown
+     * @return TableUpdate
+     */
+    private static TableUpdate jsonNodeToTableUpdate(TableSchema tableSchema, JsonNode updateJson,
+                                                     Function<Uuid, Row> currentRows) {
         Map<Uuid, RowUpdate> rows = Maps.newHashMap();
         Iterator<Map.Entry<String, JsonNode>> tableUpdateItr = updateJson.fields();
         while (tableUpdateItr.hasNext()) {
@@ -284,7 +319,13 @@ public final class FromJsonUtil {
             Uuid uuid = Uuid.uuid(uuidStr);
             JsonNode newR = oldNewRow.getValue().get("new");
             JsonNode oldR = oldNewRow.getValue().get("old");
-            Row newRow = newR != null ? createRow(tableSchema, uuid, newR) : null;
+            Row currentRow = newR != null && oldR != null ? currentRows.apply(uuid) : null;
+            Row newRow;
+            if (currentRow != null) {
+                newRow = updateRow(tableSchema, uuid, currentRow, newR, oldR);
+            } else {
+                newRow = newR != null ? createRow(tableSchema, uuid, newR) : null;
+            }
             Row oldRow = oldR != null ? createRow(tableSchema, uuid, oldR) : null;
             RowUpdate rowUpdate = new RowUpdate(uuid, oldRow, newRow);
             rows.put(uuid, rowUpdate);
@@ -316,4 +357,40 @@ public final class FromJsonUtil {
         return new Row(tableSchema.name(), uuid, columns);
     }
 
+    /**
+     * Builds the new row of a modified row, converting only the changed columns.
+     * @param tableSchema TableSchema entity
+     * @param uuid UUID of the row
+     * @param currentRow the current row
+     * @param newRowNode JsonNode of the new row
+     * @param oldRowNode JsonNode of the old values of the changed columns
+     * @return Row
+     */
+    private static Row updateRow(TableSchema tableSchema, Uuid uuid, Row currentRow,
+                                 JsonNode newRowNode, JsonNode oldRowNode) {
+        if (tableSchema == null) {
+            return null;
+        }
+        Map<String, Column> columns = Maps.newHashMap();
+        for (Column column : currentRow.getColumns()) {
+            columns.put(column.columnName(), column);
+        }
+        Iterator<String> changed = oldRowNode.fieldNames();
+        while (changed.hasNext()) {
+            ColumnSchema columnSchema = tableSchema.getColumnSchema(changed.next());
+            if (columnSchema == null) {
+                continue;
+            }
+            String columnName = columnSchema.name();
+            JsonNode value = newRowNode.get(columnName);
+            if (value != null) {
+                Object obj = TransValueUtil.getValueFromJson(value, columnSchema.type());
+                columns.put(columnName, new Column(columnName, obj));
+            } else {
+                columns.remove(columnName);
+            }
+        }
+        return new Row(tableSchema.name(), uuid, columns);
+    }
+
 }
@@ -20,7 +20,6 @@ import io.netty.buffer.ByteBufInputStream;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.Stack;
 
 import org.onosproject.ovsdb.rfc.exception.UnsupportedException;
 import org.onosproject.ovsdb.rfc.jsonrpc.JsonReadContext;
@@ -39,6 +38,8 @@ import com.fasterxml.jackson.databind.MappingJsonFactory;
  */
 public final class JsonRpcReaderUtil {
 
+    private static final MappingJsonFactory JSON_FACTORY = new MappingJsonFactory();
+
     /**
      * Constructs a JsonRpcReaderUtil object. Utility classes should not have a
      * public or default constructor, otherwise IDE will compile unsuccessfully.
@@ -49,6 +50,10 @@ public final class JsonRpcReaderUtil {
 
     /**
      * Decode the bytes to Json object.
+     * <p>
+     * The bytes are scanned once: the scan state of an incomplete JSON text
+     * is kept in the context and resumed when more bytes are received.
+     * </p>
      * @param in input of bytes
      * @param out ouput of Json object list
      * @param jrContext context for the last decoding process
@@ -57,57 +62,79 @@ public final class JsonRpcReaderUtil {
      */
     public static void readToJsonNode(ByteBuf in, List<Object> out, JsonReadContext jrContext)
             throws JsonParseException, IOException {
-        int lastReadBytes = jrContext.getLastReadBytes();
-        if (lastReadBytes == 0) {
+        if (jrContext.getLastReadBytes() == 0) {
             if (in.readableBytes() < 4) {
                 return;
             }
             checkEncoding(in);
         }
 
-        int i = lastReadBytes + in.readerIndex();
-        Stack<Byte> bufStack = jrContext.getBufStack();
+        int depth = jrContext.getDepth();
+        boolean inString = jrContext.isInString();
+        boolean escaped = jrContext.isEscaped();
+        boolean startMatch = jrContext.isStartMatch();
+        int i = in.readerIndex() + jrContext.getLastReadBytes();
         for (; i < in.writerIndex(); i++) {
             byte b = in.getByte(i);
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (b == '\\') {
+                    escaped = true;
+                } else if (b == '"') {
+                    inString = false;
+                }
+                continue;
+            }
             switch (b) {
+            case '"':
+                inString = true;
+                break;
             case '{':
-                if (!isDoubleQuote(bufStack)) {
-                    bufStack.push(b);
-                    jrContext.setStartMatch(true);
-                }
+            case '[':
+                depth++;
+                startMatch = true;
                 break;
             case '}':
-                if (!isDoubleQuote(bufStack)) {
-                    bufStack.pop();
-                }
-                break;
-            case '"':
-                if (in.getByte(i - 1) != '\\') {
-                    if (!bufStack.isEmpty() && bufStack.peek() != '"') {
-                        bufStack.push(b);
-                    } else {
-                        bufStack.pop();
-                    }
-                }
+            case ']':
+                depth--;
                 break;
             default:
                 break;
             }
 
-            if (jrContext.isStartMatch() && bufStack.isEmpty()) {
-                ByteBuf buf = in.readSlice(i - in.readerIndex() + 1);
-                JsonParser jf = new MappingJsonFactory().createParser(new ByteBufInputStream(buf));
-                JsonNode jsonNode = jf.readValueAsTree();
-                out.add(jsonNode);
-                lastReadBytes = 0;
-                jrContext.setLastReadBytes(lastReadBytes);
-                break;
+            if (startMatch && depth == 0) {
+                out.add(parse(in.readSlice(i - in.readerIndex() + 1)));
+                jrContext.reset();
+                return;
             }
         }
 
-        if (i >= in.writerIndex()) {
-            lastReadBytes = in.readableBytes();
-            jrContext.setLastReadBytes(lastReadBytes);
+        jrContext.setDepth(depth);
+        jrContext.setInString(inString);
+        jrContext.setEscaped(escaped);
+        jrContext.setStartMatch(startMatch);
+        jrContext.setLastReadBytes(in.readableBytes());
+    }
+
+    /**
+     * Parses a complete JSON text into a tree.
+     * @param buf bytes of the JSON text
+     * @return Json object
+     * @throws IOException IOException
+     */
+    private static JsonNode parse(ByteBuf buf) throws IOException {
+        JsonParser parser;
+        if (buf.hasArray()) {
+            parser = JSON_FACTORY.createParser(buf.array(), buf.arrayOffset() + buf.readerIndex(),
+                                               buf.readableBytes());
+        } else {
+            parser = JSON_FACTORY.createParser(new ByteBufInputStream(buf));
+        }
+        try {
+            return parser.readValueAsTree();
+        } finally {
+            parser.close();
         }
     }
 
@@ -127,18 +154,6 @@ public final class JsonRpcReaderUtil {
         }
     }
 
-    /**
-     * Check whether the peek of the stack element is double quote.
-     * @param jrContext context for the last decoding process
-     * @return boolean
-     */
-    private static boolean isDoubleQuote(Stack<Byte> bufStack) {
-        if (!bufStack.isEmpty() && bufStack.peek() == '"') {
-            return true;
-        }
-        return false;
-    }
-
     /**
      * Check whether the encoding is valid.
      * @param in input of bytes
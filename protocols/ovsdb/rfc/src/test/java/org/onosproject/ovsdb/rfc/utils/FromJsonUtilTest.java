@@ -0,0 +1,143 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.ovsdb.rfc.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Maps;
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.ovsdb.rfc.message.TableUpdate;
+import org.onosproject.ovsdb.rfc.notation.Column;
+import org.onosproject.ovsdb.rfc.notation.Row;
+import org.onosproject.ovsdb.rfc.notation.Uuid;
+import org.onosproject.ovsdb.rfc.schema.DatabaseSchema;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Unit tests for the conversion of update notifications by {@link FromJsonUtil}.
+ */
+public class FromJsonUtilTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String BRIDGE = "Bridge";
+    private static final String UUID = "7a1e4f2c-1c0a-4a44-a7b3-2f5f0d7a9e01";
+    private static final String SCHEMA =
+            "{\"version\":\"7.12.1\",\"tables\":{\"Bridge\":{\"columns\":{"
+                    + "\"name\":{\"type\":\"string\"},"
+                    + "\"datapath_type\":{\"type\":\"string\"},"
+                    + "\"fail_mode\":{\"type\":{\"key\":\"string\",\"min\":0,\"max\":1}}}}}}";
+
+    private DatabaseSchema dbSchema;
+
+    @Before
+    public void setUp() throws IOException {
+        dbSchema = FromJsonUtil.jsonNodeToDbSchema("Open_vSwitch", json(SCHEMA));
+    }
+
+    private static JsonNode json(String text) throws IOException {
+        return MAPPER.readTree(text.replace('\'', '"'));
+    }
+
+    private TableUpdate update(String rowUpdate, Row currentRow) throws IOException {
+        JsonNode updates = json("{'Bridge':{'" + UUID + "':" + rowUpdate + "}}");
+        return FromJsonUtil.jsonNodeToTableUpdates(updates, dbSchema,
+                                                   (table, uuid) -> BRIDGE.equals(table) &&
+                                                           Uuid.uuid(UUID).equals(uuid) ? currentRow : null)
+                .result().get(BRIDGE);
+    }
+
+    // the row as stored by the client, converted from a complete row
+    private Row currentRow() throws IOException {
+        return update("{'new':{'name':'br0','datapath_type':'system','fail_mode':'secure'}}", null)
+                .getNew(Uuid.uuid(UUID));
+    }
+
+    /**
+     * Tests that a modified row takes the changed columns from "new", keeps
+     * the unchanged columns of the current row and drops the removed columns.
+     */
+    @Test
+    public void testModifySubsetOfColumns() throws IOException {
+        Row current = currentRow();
+        // datapath_type changed, fail_mode was cleared so it is no longer in "new"
+        TableUpdate update = update("{'old':{'datapath_type':'system','fail_mode':'secure'},"
+                                            + "'new':{'name':'br0','datapath_type':'netdev'}}", current);
+        Row newRow = update.getNew(Uuid.uuid(UUID));
+
+        assertThat(newRow.getColumn("name"), sameInstance(current.getColumn("name")));
+        assertThat(newRow.getColumn("datapath_type").data(), is("netdev"));
+        assertThat(newRow.getColumn("fail_mode"), nullValue());
+        assertThat(newRow.getColumns().size(), is(2));
+
+        // the same row as converted from the complete "new" member
+        Row fullRow = update("{'new':{'name':'br0','datapath_type':'netdev'}}", null).getNew(Uuid.uuid(UUID));
+        assertThat(newRow, is(fullRow));
+
+        // the old row holds the old values of the changed columns only
+        Row oldRow = update.getOld(Uuid.uuid(UUID));
+        assertThat(oldRow.getColumn("datapath_type").data(), is("system"));
+        assertThat(oldRow.getColumn("name"), nullValue());
+        assertThat(oldRow.getColumns().size(), is(2));
+    }
+
+    /**
+     * Tests that the columns of the current row are not modified when the
+     * new row is built from them.
+     */
+    @Test
+    public void testCurrentRowUnchanged() throws IOException {
+        Row current = currentRow();
+        Map<String, Column> before = Maps.newHashMap();
+        current.getColumns().forEach(column -> before.put(column.columnName(), column));
+
+        update("{'old':{'fail_mode':'secure'},'new':{'name':'br0','datapath_type':'system'}}", current);
+
+        assertThat(current.getColumns().size(), is(before.size()));
+        before.forEach((name, column) -> assertThat(current.getColumn(name), sameInstance(column)));
+    }
+
+    /**
+     * Tests that columns of "old" unknown to the schema are ignored.
+     */
+    @Test
+    public void testUnknownChangedColumn() throws IOException {
+        Row current = currentRow();
+        Row newRow = update("{'old':{'unknown':1},'new':{'name':'br0','datapath_type':'system',"
+                                    + "'fail_mode':'secure'}}", current).getNew(Uuid.uuid(UUID));
+        assertThat(newRow, is(current));
+    }
+
+    /**
+     * Tests that the new row of a modified row that is not stored yet is
+     * converted from the complete "new" member.
+     */
+    @Test
+    public void testModifyUnknownRow() throws IOException {
+        Row newRow = update("{'old':{'datapath_type':'system'},'new':{'name':'br0','datapath_type':'netdev',"
+                                    + "'fail_mode':'secure'}}", null).getNew(Uuid.uuid(UUID));
+        assertThat(newRow.getColumn("name").data(), is("br0"));
+        assertThat(newRow.getColumn("datapath_type").data(), is("netdev"));
+        assertThat(newRow.getColumns().size(), is(3));
+    }
+}
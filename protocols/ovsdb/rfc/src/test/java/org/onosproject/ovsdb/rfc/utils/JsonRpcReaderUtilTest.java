@@ -0,0 +1,123 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.ovsdb.rfc.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.Test;
+import org.onosproject.ovsdb.rfc.jsonrpc.JsonReadContext;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Unit tests for {@link JsonRpcReaderUtil}.
+ */
+public class JsonRpcReaderUtilTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // braces, brackets and escaped quotes inside strings, and a string ending with an escaped backslash
+    private static final String MESSAGE =
+            "{\"id\":\"a{b}[c]\",\"method\":\"echo\\\"}\",\"params\":[\"c:\\\\\",\"]\",{\"x\":[1,{}]}]}";
+
+    /**
+     * Decodes the chunks as the message decoder does, calling the reader
+     * while it makes progress on the bytes received so far.
+     */
+    private static List<Object> decode(String... chunks) throws IOException {
+        ByteBuf buf = Unpooled.buffer();
+        JsonReadContext context = new JsonReadContext();
+        List<Object> out = new ArrayList<>();
+        for (String chunk : chunks) {
+            buf.writeBytes(chunk.getBytes(StandardCharsets.UTF_8));
+            while (buf.isReadable()) {
+                int size = out.size();
+                int readerIndex = buf.readerIndex();
+                JsonRpcReaderUtil.readToJsonNode(buf, out, context);
+                if (out.size() == size && buf.readerIndex() == readerIndex) {
+                    break;
+                }
+            }
+            buf.discardReadBytes();
+        }
+        return out;
+    }
+
+    private static JsonNode json(String text) throws IOException {
+        return MAPPER.readTree(text);
+    }
+
+    /**
+     * Tests that escaped backslashes before quotes end their strings.
+     */
+    @Test
+    public void testEscapedBackslashBeforeQuote() throws IOException {
+        List<Object> out = decode(MESSAGE);
+        assertThat(out, is(Arrays.asList(json(MESSAGE))));
+        assertThat(((JsonNode) out.get(0)).get("params").get(0).asText(), is("c:\\"));
+        assertThat(((JsonNode) out.get(0)).get("method").asText(), is("echo\"}"));
+    }
+
+    /**
+     * Tests that a message split anywhere, including in the middle of a
+     * string or of an escape sequence, is decoded once complete.
+     */
+    @Test
+    public void testSplitMessage() throws IOException {
+        JsonNode expected = json(MESSAGE);
+        for (int i = 1; i < MESSAGE.length(); i++) {
+            List<Object> out = decode(MESSAGE.substring(0, i), MESSAGE.substring(i));
+            assertThat("split at " + i, out, is(Arrays.asList(expected)));
+        }
+    }
+
+    /**
+     * Tests that a message received one byte at a time is decoded once.
+     */
+    @Test
+    public void testByteByByte() throws IOException {
+        String[] chunks = MESSAGE.split("");
+        assertThat(decode(chunks), is(Arrays.asList(json(MESSAGE))));
+    }
+
+    /**
+     * Tests that messages received back to back, in one buffer or across
+     * buffers, are decoded in order.
+     */
+    @Test
+    public void testBackToBackMessages() throws IOException {
+        String second = "{\"id\":2,\"result\":[]}";
+        String third = "{\"id\":null,\"method\":\"update\",\"params\":[\"\\\\\"]}";
+        List<Object> expected = Arrays.asList(json(MESSAGE), json(second), json(third));
+
+        assertThat(decode(MESSAGE + second + third), is(expected));
+        assertThat(decode(MESSAGE + "\n" + second + " \r\n" + third), is(expected));
+
+        String stream = MESSAGE + second + third;
+        for (int i = 1; i < stream.length(); i++) {
+            assertThat("split at " + i, decode(stream.substring(0, i), stream.substring(i)), is(expected));
+        }
+    }
+}
@@ -15,20 +15,18 @@
  */
 package org.onosproject.pcep.controller.impl;
 
-import static org.onlab.util.Tools.groupedThreads;
-
 import java.lang.management.ManagementFactory;
 import java.lang.management.RuntimeMXBean;
 import java.net.InetSocketAddress;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.Executors;
 
 import org.jboss.netty.bootstrap.ServerBootstrap;
 import org.jboss.netty.channel.ChannelPipelineFactory;
 import org.jboss.netty.channel.group.ChannelGroup;
 import org.jboss.netty.channel.group.DefaultChannelGroup;
 import org.jboss.netty.channel.socket.nio.NioServerSocketChannelFactory;
+import org.onlab.util.SharedNettyWorkers;
 import org.onosproject.pcep.controller.PccId;
 import org.onosproject.pcep.controller.PcepPacketStats;
 import org.onosproject.pcep.controller.driver.PcepAgent;
@@ -53,7 +51,6 @@ public class Controller {
 
     // Configuration options
     private int pcepPort = 4189;
-    private int workerThreads = 10;
 
     // Start time of the controller
     private long systemStartTime;
@@ -113,17 +110,8 @@ public class Controller {
      * @return ServerBootStrap
      */
     private ServerBootstrap createServerBootStrap() {
-        if (workerThreads == 0) {
-            execFactory = new NioServerSocketChannelFactory(
-                    Executors.newCachedThreadPool(groupedThreads("onos/pcep", "boss-%d")),
-                    Executors.newCachedThreadPool(groupedThreads("onos/pcep", "worker-%d")));
-            return new ServerBootstrap(execFactory);
-        } else {
-            execFactory = new NioServerSocketChannelFactory(
-                    Executors.newCachedThreadPool(groupedThreads("onos/pcep", "boss-%d")),
-                    Executors.newCachedThreadPool(groupedThreads("onos/pcep", "worker-%d")), workerThreads);
-            return new ServerBootstrap(execFactory);
-        }
+        execFactory = SharedNettyWorkers.newServerChannelFactory("onos/pcep");
+        return new ServerBootstrap(execFactory);
     }
 
     /**
@@ -182,7 +170,7 @@ public class Controller {
      */
     public void stop() {
         log.info("Stopped");
-        execFactory.shutdown();
+        execFactory.releaseExternalResources();
         cg.close();
     }
 }
@@ -19,7 +19,6 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -37,6 +36,7 @@ import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.apache.felix.scr.annotations.Service;
 import org.onlab.packet.Ip4Address;
 import org.onlab.packet.IpAddress;
+import org.onlab.util.PredictableExecutor;
 import org.onosproject.incubator.net.resource.label.LabelResourceAdminService;
 import org.onosproject.incubator.net.resource.label.LabelResourceId;
 import org.onosproject.incubator.net.resource.label.LabelResourceService;
@@ -45,6 +45,8 @@ import org.onosproject.incubator.net.tunnel.DefaultTunnel;
 import org.onosproject.incubator.net.tunnel.IpTunnelEndPoint;
 import org.onosproject.incubator.net.tunnel.LabelStack;
 import org.onosproject.incubator.net.tunnel.Tunnel;
+import org.onosproject.incubator.net.tunnel.TunnelEvent;
+import org.onosproject.incubator.net.tunnel.TunnelListener;
 import org.onosproject.incubator.net.tunnel.TunnelService;
 import org.onosproject.incubator.net.tunnel.Tunnel.State;
 import org.onosproject.mastership.MastershipService;
@@ -104,6 +106,7 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.Sets;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static org.onlab.util.Tools.groupedThreads;
 
 import static org.onosproject.pcep.controller.PcepSyncStatus.IN_SYNC;
 import static org.onosproject.pcep.controller.LspType.WITHOUT_SIGNALLING_AND_WITHOUT_SR;
@@ -163,14 +166,20 @@ public class PcepClientControllerImpl implements PcepClientController {
             new ConcurrentHashMap<>();
 
     protected PcepClientAgent agent = new PcepClientAgent();
-    protected Set<PcepClientListener> pcepClientListener = new HashSet<>();
+    protected Set<PcepClientListener> pcepClientListener = Sets.newConcurrentHashSet();
 
-    protected Set<PcepEventListener> pcepEventListener = Sets.newHashSet();
-    protected Set<PcepNodeListener> pcepNodeListener = Sets.newHashSet();
+    protected Set<PcepEventListener> pcepEventListener = Sets.newConcurrentHashSet();
+    protected Set<PcepNodeListener> pcepNodeListener = Sets.newConcurrentHashSet();
 
     // LSR-id and device-id mapping for checking capability if L3 device is not
     // having its capability
-    private Map<String, DeviceId> lsrIdDeviceIdMap = new HashMap<>();
+    private Map<String, DeviceId> lsrIdDeviceIdMap = new ConcurrentHashMap<>();
+
+    // Tunnels of the PCCs, kept up to date from tunnel events
+    private final PcepLspIndex lspIndex = new PcepLspIndex();
+
+    // Messages of a PCC are processed in order, off the channel I/O threads
+    protected PredictableExecutor messageExecutor;
 
     private final Controller ctrl = new Controller();
     public static final long GLOBAL_LABEL_SPACE_MIN = 4097;
@@ -185,9 +194,13 @@ public class PcepClientControllerImpl implements PcepClientController {
     private DeviceListener deviceListener = new InternalDeviceListener();
     private LinkListener linkListener = new InternalLinkListener();
     private InternalConfigListener cfgListener = new InternalConfigListener();
+    private TunnelListener tunnelListener = new InternalTunnelListener();
 
     @Activate
     public void activate() {
+        messageExecutor = new PredictableExecutor(groupedThreads("onos/pcep", "message-processor-%d", log));
+        tunnelService.addListener(tunnelListener);
+        tunnelService.queryTunnel(Tunnel.Type.MPLS).forEach(lspIndex::update);
         ctrl.start(agent);
         crHandler = BasicPceccHandler.getInstance();
         crHandler.initialize(labelRsrcService, deviceService, pceStore, this);
@@ -215,7 +228,9 @@ public class PcepClientControllerImpl implements PcepClientController {
         deviceService.removeListener(deviceListener);
         linkService.removeListener(linkListener);
         netCfgService.removeListener(cfgListener);
+        tunnelService.removeListener(tunnelListener);
         ctrl.stop();
+        messageExecutor.shutdown();
         log.info("Stopped");
     }
 
@@ -269,6 +284,11 @@ public class PcepClientControllerImpl implements PcepClientController {
     @Override
     public void processClientMessage(PccId pccId, PcepMessage msg) {
         PcepClient pc = getClient(pccId);
+        if (pc == null) {
+            // Disconnected while the message was queued.
+            log.debug("Dropping {} message of disconnected PCC {}", msg.getType(), pccId);
+            return;
+        }
 
         switch (msg.getType()) {
         case NONE:
@@ -431,7 +451,6 @@ public class PcepClientControllerImpl implements PcepClientController {
         ListIterator<PcepValueType> listTlvIterator = lspObj.getOptionalTlv().listIterator();
         StatefulIPv4LspIdentifiersTlv ipv4LspIdenTlv = null;
         SymbolicPathNameTlv pathNameTlv = null;
-        Tunnel tunnel = null;
         while (listTlvIterator.hasNext()) {
             PcepValueType tlv = listTlvIterator.next();
             switch (tlv.getType()) {
@@ -453,6 +472,24 @@ public class PcepClientControllerImpl implements PcepClientController {
             log.error("Stateful IPv4 identifier TLV is null in PCRpt msg.");
             return null;
         }
+        IpAddress ingress = IpAddress.valueOf(ipv4LspIdenTlv.getIpv4IngressAddress());
+        Tunnel tunnel = lspIndex.tunnel(ingress, new LspKey(lspObj.getPlspId(), ipv4LspIdenTlv.getLspId()));
+        if (tunnel == null && pathNameTlv != null) {
+            tunnel = lspIndex.tunnel(ingress, new String(pathNameTlv.getValue()));
+        }
+        if (tunnel == null) {
+            tunnel = queryTunnel(lspObj, ipv4LspIdenTlv, pathNameTlv);
+        }
+
+        if (tunnel == null || tunnel.annotations().value(PLSP_ID) != null) {
+            return tunnel;
+        }
+        return updateTunnelIdentifiers(tunnel, lspObj, ipv4LspIdenTlv);
+    }
+
+    // Falls back to the tunnel service for tunnels whose events have not been indexed yet.
+    private Tunnel queryTunnel(PcepLspObject lspObj, StatefulIPv4LspIdentifiersTlv ipv4LspIdenTlv,
+                               SymbolicPathNameTlv pathNameTlv) {
         IpTunnelEndPoint tunnelEndPointSrc = IpTunnelEndPoint
                 .ipTunnelPoint(IpAddress.valueOf(ipv4LspIdenTlv.getIpv4IngressAddress()));
         IpTunnelEndPoint tunnelEndPointDst = IpTunnelEndPoint
@@ -470,24 +507,22 @@ public class PcepClientControllerImpl implements PcepClientController {
                  */
                 if ((pathNameTlv != null)
                         && Arrays.equals(tunnelObj.tunnelName().value().getBytes(), pathNameTlv.getValue())) {
-                    tunnel = tunnelObj;
-                    break;
+                    return tunnelObj;
                 }
                 continue;
             }
             if ((Integer.valueOf(tunnelObj.annotations().value(PLSP_ID)) == lspObj.getPlspId())) {
                 if ((Integer
                         .valueOf(tunnelObj.annotations().value(LOCAL_LSP_ID)) == ipv4LspIdenTlv.getLspId())) {
-                    tunnel = tunnelObj;
-                    break;
+                    return tunnelObj;
                 }
             }
         }
+        return null;
+    }
 
-        if (tunnel == null || tunnel.annotations().value(PLSP_ID) != null) {
-            return tunnel;
-        }
-
+    private Tunnel updateTunnelIdentifiers(Tunnel tunnel, PcepLspObject lspObj,
+                                           StatefulIPv4LspIdentifiersTlv ipv4LspIdenTlv) {
         // The returned tunnel is used just for filling values in Label message. So manipulate locally
         // and return so that to allocate label, we don't need to wait for the tunnel in the "core"
         // to be updated, as that depends on listener mechanism and there may be timing/multi-threading issues.
@@ -886,7 +921,13 @@ public class PcepClientControllerImpl implements PcepClientController {
 
         @Override
         public void processPcepMessage(PccId pccId, PcepMessage m) {
-            processClientMessage(pccId, m);
+            messageExecutor.execute(() -> {
+                try {
+                    processClientMessage(pccId, m);
+                } catch (Exception e) {
+                    log.error("Exception occurred while processing {} message of PCC {}", m.getType(), pccId, e);
+                }
+            }, pccId.hashCode());
         }
 
         @Override
@@ -914,25 +955,13 @@ public class PcepClientControllerImpl implements PcepClientController {
              * the LSP State Report (PCRpt) message when during a given PCEP session an LSP is "first" reported to a
              * PCE. So two separate lists with separate keys are maintained.
              */
-            Map<LspKey, Tunnel> preSyncLspDbByKey = new HashMap<>();
-            Map<String, Tunnel> preSyncLspDbByName = new HashMap<>();
-
-            // Query tunnel service and fetch all the tunnels with this PCC as ingress.
-            // Organize into two maps, with LSP key if known otherwise with symbolic path name, for quick search.
-            Collection<Tunnel> queriedTunnels = tunnelService.queryTunnel(Tunnel.Type.MPLS);
-            for (Tunnel tunnel : queriedTunnels) {
-                if (((IpTunnelEndPoint) tunnel.src()).ip().equals(pccId.ipAddress())) {
-                    String pLspId = tunnel.annotations().value(PLSP_ID);
-                    if (pLspId != null) {
-                        String localLspId = tunnel.annotations().value(LOCAL_LSP_ID);
-                        checkNotNull(localLspId);
-                        LspKey lspKey = new LspKey(Integer.valueOf(pLspId), Short.valueOf(localLspId));
-                        preSyncLspDbByKey.put(lspKey, tunnel);
-                    } else {
-                        preSyncLspDbByName.put(tunnel.tunnelName().value(), tunnel);
-                    }
-                }
-            }
+            // Fetch the tunnels with this PCC as ingress from the index, with LSP key if known otherwise with
+            // symbolic path name, for quick search.
+            Map<LspKey, Tunnel> preSyncLspDbByKey = new HashMap<>(lspIndex.tunnelsByKey(pccId.ipAddress()));
+            Map<String, Tunnel> preSyncLspDbByName = new HashMap<>(lspIndex.tunnelsByName(pccId.ipAddress()));
+
+            // Reports of learned LSPs, handed over to the listeners at once.
+            LinkedList<PcepStateReport> learnedLspRptList = new LinkedList<>();
 
             List<PcepStateReport> syncStateRptList = pc.getSyncMsgList(pccId);
             if (syncStateRptList == null) {
@@ -977,10 +1006,7 @@ public class PcepClientControllerImpl implements PcepClientController {
                 if (tunnel != null) {
                     preSyncLspDbByKey.remove(lspKeyOfRpt);
                 } else if (pathNameTlv != null) {
-                    tunnel = preSyncLspDbByName.get(Arrays.toString(pathNameTlv.getValue()));
-                    if (tunnel != null) {
-                        preSyncLspDbByName.remove(tunnel.tunnelName().value());
-                    }
+                    tunnel = preSyncLspDbByName.remove(new String(pathNameTlv.getValue()));
                 }
 
                 if (tunnel == null) {
@@ -1009,14 +1035,7 @@ public class PcepClientControllerImpl implements PcepClientController {
 
                 if (!lspObj.getCFlag()) {
                     // For learned LSP process both add/update PCRpt.
-                    LinkedList<PcepStateReport> llPcRptList = new LinkedList<>();
-                    llPcRptList.add(stateRpt);
-                    PcepMessage pcReportMsg = pc.factory().buildReportMsg().setStateReportList((llPcRptList))
-                            .build();
-
-                    for (PcepEventListener l : pcepEventListener) {
-                        l.handleMessage(pccId, pcReportMsg);
-                    }
+                    learnedLspRptList.add(stateRpt);
                     continue;
                 }
 
@@ -1031,6 +1050,14 @@ public class PcepClientControllerImpl implements PcepClientController {
                 }
             }
 
+            if (!learnedLspRptList.isEmpty()) {
+                PcepMessage pcReportMsg = pc.factory().buildReportMsg().setStateReportList(learnedLspRptList)
+                        .build();
+                for (PcepEventListener l : pcepEventListener) {
+                    l.handleMessage(pccId, pcReportMsg);
+                }
+            }
+
             // Check which tunnels are extra at PCE that were not reported by PCC.
             Map<Object, Tunnel> preSyncLspDb = (Map) preSyncLspDbByKey;
             handleResidualTunnels(preSyncLspDb);
@@ -1192,4 +1219,26 @@ public class PcepClientControllerImpl implements PcepClientController {
             }
         }
     }
+
+    /*
+     * Keep the LSP index up to date with tunnel events.
+     */
+    private class InternalTunnelListener implements TunnelListener {
+        @Override
+        public void event(TunnelEvent event) {
+            switch (event.type()) {
+            case TUNNEL_ADDED:
+            case TUNNEL_UPDATED:
+                lspIndex.update(event.subject());
+                break;
+
+            case TUNNEL_REMOVED:
+                lspIndex.remove(event.subject());
+                break;
+
+            default:
+                break;
+            }
+        }
+    }
 }
@@ -19,10 +19,10 @@ package org.onosproject.pcep.controller.impl;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.RejectedExecutionException;
 
 import org.jboss.netty.channel.Channel;
@@ -61,8 +61,9 @@ public class PcepClientImpl implements PcepClientDriver {
     private boolean connected;
     protected boolean startDriverHandshakeCalled;
     protected boolean isHandShakeComplete;
-    private PcepSyncStatus lspDbSyncStatus;
-    private PcepSyncStatus labelDbSyncStatus;
+    // Set on the channel thread, then read and updated on the message processing thread
+    private volatile PcepSyncStatus lspDbSyncStatus;
+    private volatile PcepSyncStatus labelDbSyncStatus;
     private PccId pccId;
     private PcepAgent agent;
 
@@ -72,8 +73,8 @@ public class PcepClientImpl implements PcepClientDriver {
     private byte deadTime;
     private byte sessionId;
     private PcepPacketStatsImpl pktStats;
-    private Map<LspKey, Boolean> lspDelegationInfo = new HashMap<>();
-    private Map<PccId, List<PcepStateReport>> syncRptCache = new HashMap<>();
+    private Map<LspKey, Boolean> lspDelegationInfo = new ConcurrentHashMap<>();
+    private Map<PccId, List<PcepStateReport>> syncRptCache = new ConcurrentHashMap<>();
 
     @Override
     public void init(PccId pccId, PcepVersion pcepVersion, PcepPacketStats pktStats) {
@@ -283,9 +284,7 @@ public class PcepClientImpl implements PcepClientDriver {
 
     @Override
     public void addSyncMsgToList(PccId pccId, PcepStateReport rptMsg) {
-        List<PcepStateReport> rptMsgList = syncRptCache.get(pccId);
-        rptMsgList.add(rptMsg);
-        syncRptCache.put(pccId, rptMsgList);
+        syncRptCache.get(pccId).add(rptMsg);
     }
 
     @Override
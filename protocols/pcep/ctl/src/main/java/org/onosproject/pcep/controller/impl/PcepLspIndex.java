@@ -0,0 +1,157 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.pcep.controller.impl;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import org.onlab.packet.IpAddress;
+import org.onosproject.incubator.net.tunnel.IpTunnelEndPoint;
+import org.onosproject.incubator.net.tunnel.Tunnel;
+import org.onosproject.incubator.net.tunnel.TunnelId;
+import org.onosproject.pcep.controller.LspKey;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+import static org.onosproject.pcep.controller.PcepAnnotationKeys.LOCAL_LSP_ID;
+import static org.onosproject.pcep.controller.PcepAnnotationKeys.PLSP_ID;
+
+/**
+ * Index of the MPLS tunnels known to the PCE, per ingress PCC.
+ * <p>
+ * Tunnels whose PLSP-ID has been reported by their PCC are keyed by PLSP-ID
+ * and local LSP-ID; the others, created at the PCE and not reported yet, are
+ * keyed by symbolic path name.
+ * </p>
+ */
+final class PcepLspIndex {
+
+    private final ConcurrentMap<IpAddress, IngressLsps> ingressLsps = Maps.newConcurrentMap();
+    private final ConcurrentMap<TunnelId, IpAddress> tunnelIngress = Maps.newConcurrentMap();
+
+    /**
+     * Adds a tunnel to the index, replacing its previous version.
+     *
+     * @param tunnel tunnel
+     */
+    void update(Tunnel tunnel) {
+        if (tunnel.type() != Tunnel.Type.MPLS || !(tunnel.src() instanceof IpTunnelEndPoint)) {
+            return;
+        }
+        IpAddress ingress = ((IpTunnelEndPoint) tunnel.src()).ip();
+        IpAddress previous = tunnelIngress.put(tunnel.tunnelId(), ingress);
+        if (previous != null && !previous.equals(ingress)) {
+            lsps(previous).remove(tunnel.tunnelId());
+        }
+        lsps(ingress).update(tunnel);
+    }
+
+    /**
+     * Removes a tunnel from the index.
+     *
+     * @param tunnel tunnel
+     */
+    void remove(Tunnel tunnel) {
+        IpAddress ingress = tunnelIngress.remove(tunnel.tunnelId());
+        if (ingress != null) {
+            lsps(ingress).remove(tunnel.tunnelId());
+        }
+    }
+
+    /**
+     * Returns the tunnel of a reported LSP.
+     *
+     * @param ingress ingress PCC address
+     * @param lspKey  PLSP-ID and local LSP-ID
+     * @return tunnel, or null if none is indexed
+     */
+    Tunnel tunnel(IpAddress ingress, LspKey lspKey) {
+        IngressLsps lsps = ingressLsps.get(ingress);
+        return lsps == null ? null : lsps.byKey.get(lspKey);
+    }
+
+    /**
+     * Returns the tunnel of an LSP not reported yet.
+     *
+     * @param ingress ingress PCC address
+     * @param name    symbolic path name
+     * @return tunnel, or null if none is indexed
+     */
+    Tunnel tunnel(IpAddress ingress, String name) {
+        IngressLsps lsps = ingressLsps.get(ingress);
+        return lsps == null ? null : lsps.byName.get(name);
+    }
+
+    /**
+     * Returns a snapshot of the tunnels of reported LSPs of a PCC.
+     *
+     * @param ingress ingress PCC address
+     * @return tunnels keyed by PLSP-ID and local LSP-ID
+     */
+    Map<LspKey, Tunnel> tunnelsByKey(IpAddress ingress) {
+        IngressLsps lsps = ingressLsps.get(ingress);
+        return lsps == null ? ImmutableMap.of() : ImmutableMap.copyOf(lsps.byKey);
+    }
+
+    /**
+     * Returns a snapshot of the tunnels of LSPs of a PCC not reported yet.
+     *
+     * @param ingress ingress PCC address
+     * @return tunnels keyed by symbolic path name
+     */
+    Map<String, Tunnel> tunnelsByName(IpAddress ingress) {
+        IngressLsps lsps = ingressLsps.get(ingress);
+        return lsps == null ? ImmutableMap.of() : ImmutableMap.copyOf(lsps.byName);
+    }
+
+    private IngressLsps lsps(IpAddress ingress) {
+        return ingressLsps.computeIfAbsent(ingress, k -> new IngressLsps());
+    }
+
+    /**
+     * Tunnels of an ingress PCC.
+     */
+    private static final class IngressLsps {
+
+        private final Map<TunnelId, Object> keys = Maps.newHashMap();
+        private final ConcurrentMap<LspKey, Tunnel> byKey = Maps.newConcurrentMap();
+        private final ConcurrentMap<String, Tunnel> byName = Maps.newConcurrentMap();
+
+        // writers are serialized, readers only see the concurrent maps
+        private synchronized void update(Tunnel tunnel) {
+            remove(tunnel.tunnelId());
+            String plspId = tunnel.annotations().value(PLSP_ID);
+            String localLspId = tunnel.annotations().value(LOCAL_LSP_ID);
+            if (plspId != null && localLspId != null) {
+                LspKey lspKey = new LspKey(Integer.valueOf(plspId), Short.valueOf(localLspId));
+                byKey.put(lspKey, tunnel);
+                keys.put(tunnel.tunnelId(), lspKey);
+            } else if (plspId == null && tunnel.tunnelName() != null) {
+                byName.put(tunnel.tunnelName().value(), tunnel);
+                keys.put(tunnel.tunnelId(), tunnel.tunnelName().value());
+            }
+        }
+
+        private synchronized void remove(TunnelId tunnelId) {
+            Object key = keys.remove(tunnelId);
+            if (key instanceof LspKey) {
+                byKey.computeIfPresent((LspKey) key, (k, t) -> t.tunnelId().equals(tunnelId) ? null : t);
+            } else if (key != null) {
+                byName.computeIfPresent((String) key, (k, t) -> t.tunnelId().equals(tunnelId) ? null : t);
+            }
+        }
+    }
+}
@@ -10,6 +10,11 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.jboss.netty.buffer.ChannelBuffer;
 import org.jboss.netty.buffer.ChannelBuffers;
@@ -22,6 +27,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.onlab.packet.IpAddress;
+import org.onlab.util.PredictableExecutor;
 import org.onosproject.core.ApplicationId;
 import org.onosproject.incubator.net.tunnel.DefaultTunnel;
 import org.onosproject.incubator.net.tunnel.Tunnel;
@@ -45,16 +51,23 @@ import org.onosproject.pcep.controller.PcepSyncStatus;
 import org.onosproject.pcepio.exceptions.PcepOutOfBoundMessageException;
 import org.onosproject.pcepio.exceptions.PcepParseException;
 import org.onosproject.pcepio.protocol.PcepFactories;
+import org.onosproject.pcepio.protocol.PcepFactory;
 import org.onosproject.pcepio.protocol.PcepInitiateMsg;
 import org.onosproject.pcepio.protocol.PcepMessage;
 import org.onosproject.pcepio.protocol.PcepMessageReader;
 import org.onosproject.pcepio.protocol.PcepVersion;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+import static org.onlab.util.Tools.groupedThreads;
 
 public class PcepClientControllerImplTest {
+    private static final int MESSAGES = 100;
+
     PcepClientControllerImpl controllerImpl = new PcepClientControllerImpl();
     TunnelService tunnelService = new MockTunnelService();
     private PcepEventListener listener;
@@ -166,6 +179,140 @@ public class PcepClientControllerImplTest {
         pc.setLabelDbSyncStatus(PcepSyncStatus.SYNCED);
     }
 
+    /**
+     * Tests that the messages of a PCC are processed in the order they were
+     * received, on a single thread, while other PCCs have their own order.
+     */
+    @Test
+    public void messageOrderTest() throws Exception {
+        PccId pccId1 = PccId.pccId(IpAddress.valueOf("1.1.1.1"));
+        PccId pccId2 = PccId.pccId(IpAddress.valueOf("2.2.2.2"));
+        RecordingController recorder = new RecordingController(2 * MESSAGES);
+        recorder.messageExecutor = new PredictableExecutor(4, groupedThreads("onos/test", "pcep-%d"));
+        try {
+            PcepFactory factory = PcepFactories.getFactory(PcepVersion.PCEP_1);
+            List<PcepMessage> sent = new ArrayList<>();
+            for (int i = 0; i < MESSAGES; i++) {
+                PcepMessage message = factory.buildKeepaliveMsg().build();
+                sent.add(message);
+                recorder.agent.processPcepMessage(pccId1, message);
+                recorder.agent.processPcepMessage(pccId2, message);
+            }
+            assertThat(recorder.processed.await(10, TimeUnit.SECONDS), is(true));
+
+            for (PccId pccId : ImmutableSet.of(pccId1, pccId2)) {
+                List<PcepMessage> received = recorder.messages.get(pccId);
+                assertThat(received.size(), is(MESSAGES));
+                for (int i = 0; i < MESSAGES; i++) {
+                    assertThat(received.get(i) == sent.get(i), is(true));
+                }
+                assertThat(recorder.threads.get(pccId).size(), is(1));
+            }
+        } finally {
+            recorder.messageExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Tests that the messages of a PCC still queued when it disconnects are
+     * dropped, while those of a connected PCC are processed.
+     */
+    @Test
+    public void disconnectedClientMessageTest() throws Exception {
+        PccId connectedId = PccId.pccId(IpAddress.valueOf("1.1.1.1"));
+        PccId disconnectedId = PccId.pccId(IpAddress.valueOf("2.2.2.2"));
+        PcepClientImpl connected = connectedClient(connectedId);
+        PcepClientImpl disconnected = connectedClient(disconnectedId);
+        controllerImpl.messageExecutor = new PredictableExecutor(4, groupedThreads("onos/test", "pcep-%d"));
+        try {
+            // hold the processing of both PCCs until the disconnection
+            CountDownLatch hold = new CountDownLatch(1);
+            for (PccId pccId : ImmutableSet.of(connectedId, disconnectedId)) {
+                controllerImpl.messageExecutor.execute(() -> {
+                    try {
+                        hold.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }, pccId.hashCode());
+            }
+            controllerImpl.agent.processPcepMessage(connectedId, syncReport());
+            controllerImpl.agent.processPcepMessage(disconnectedId, syncReport());
+            controllerImpl.agent.removeConnectedClient(disconnectedId);
+            hold.countDown();
+
+            // processed after the queued messages
+            for (PccId pccId : ImmutableSet.of(connectedId, disconnectedId)) {
+                CompletableFuture<Void> drained = new CompletableFuture<>();
+                controllerImpl.messageExecutor.execute(() -> drained.complete(null), pccId.hashCode());
+                drained.get(10, TimeUnit.SECONDS);
+            }
+
+            assertThat(connected.lspDbSyncStatus(), is(PcepSyncStatus.IN_SYNC));
+            assertThat(disconnected.lspDbSyncStatus(), is(not(PcepSyncStatus.IN_SYNC)));
+
+            // dropped rather than failing on the missing client
+            controllerImpl.processClientMessage(disconnectedId, syncReport());
+        } finally {
+            controllerImpl.messageExecutor.shutdown();
+        }
+    }
+
+    private PcepClientImpl connectedClient(PccId pccId) {
+        PcepClientImpl pc = new PcepClientImpl();
+        pc.init(pccId, PcepVersion.PCEP_1, new PcepPacketStatsImpl());
+        pc.setChannel(channel);
+        pc.setAgent(controllerImpl.agent);
+        pc.setConnected(true);
+        pc.setCapability(new ClientCapability(true, true, true, true, true));
+        controllerImpl.agent.addConnectedClient(pccId, pc);
+        return pc;
+    }
+
+    // report of an LSP of the LSP DB sync of a PCC
+    private static PcepMessage syncReport() throws PcepParseException, PcepOutOfBoundMessageException {
+        byte[] reportMsg = new byte[] {0x20, 0x0a, 0x00, (byte) 0x50, 0x21, 0x10, 0x00, 0x14, 0x00, 0x00, 0x00, 0x00,
+                                        0x00, 0x00, 0x00, 0x01, // SRP object
+                                        0x00, 0x1c, 0x00, 0x04, // PATH-SETUP-TYPE TLV
+                                        0x00, 0x00, 0x00, 0x00, 0x20, 0x10, 0x00, 0x24, // LSP object
+                                        0x00, 0x00, 0x10, (byte) 0xAB,
+                                        0x00, 0x11, 0x00, 0x02, 0x54, 0x31, 0x00, 0x00, // symbolic path tlv
+                                        0x00, 0x12, 0x00, 0x10, // IPv4-LSP-IDENTIFIER-TLV
+                                        0x01, 0x01, 0x01, 0x01, 0x00, 0x01, 0x00, 0x01, 0x01, 0x01, 0x01, 0x01, 0x05,
+                                        0x05, 0x05, 0x05,
+
+                                        0x07, 0x10, 0x00, 0x14, // ERO object
+                                        0x01, 0x08, (byte) 0x01, 0x01, // ERO IPv4 sub objects
+                                        0x01, 0x01, 0x04, 0x00,
+                                        0x01, 0x08, (byte) 0x05, 0x05, 0x05, 0x05, 0x04, 0x00, };
+
+        ChannelBuffer buffer = ChannelBuffers.dynamicBuffer();
+        buffer.writeBytes(reportMsg);
+        return PcepFactories.getGenericReader().readFrom(buffer);
+    }
+
+    /**
+     * Controller recording the messages it processes and the threads
+     * processing them, per PCC.
+     */
+    private static class RecordingController extends PcepClientControllerImpl {
+
+        private final Map<PccId, List<PcepMessage>> messages = Maps.newConcurrentMap();
+        private final Map<PccId, Set<String>> threads = Maps.newConcurrentMap();
+        private final CountDownLatch processed;
+
+        RecordingController(int count) {
+            processed = new CountDownLatch(count);
+        }
+
+        @Override
+        public void processClientMessage(PccId pccId, PcepMessage msg) {
+            messages.computeIfAbsent(pccId, k -> Collections.synchronizedList(new ArrayList<>())).add(msg);
+            threads.computeIfAbsent(pccId, k -> Sets.newConcurrentHashSet()).add(Thread.currentThread().getName());
+            processed.countDown();
+        }
+    }
+
     class PcepEventListenerAdapter implements PcepEventListener {
 
         public List<PcepMessage> handledMsg = new ArrayList<>();
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.pcep.controller.impl;
+
+import org.junit.Test;
+import org.onlab.packet.IpAddress;
+import org.onosproject.incubator.net.tunnel.DefaultTunnel;
+import org.onosproject.incubator.net.tunnel.IpTunnelEndPoint;
+import org.onosproject.incubator.net.tunnel.Tunnel;
+import org.onosproject.incubator.net.tunnel.TunnelId;
+import org.onosproject.incubator.net.tunnel.TunnelName;
+import org.onosproject.net.Annotations;
+import org.onosproject.net.DefaultAnnotations;
+import org.onosproject.net.Path;
+import org.onosproject.net.provider.ProviderId;
+import org.onosproject.pcep.controller.LspKey;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.onosproject.pcep.controller.PcepAnnotationKeys.LOCAL_LSP_ID;
+import static org.onosproject.pcep.controller.PcepAnnotationKeys.PLSP_ID;
+
+/**
+ * Unit tests for {@link PcepLspIndex}.
+ */
+public class PcepLspIndexTest {
+
+    private static final ProviderId PROVIDER_ID = new ProviderId("pcep", "org.onosproject.provider.tunnel.pcep");
+    private static final IpAddress INGRESS1 = IpAddress.valueOf("1.1.1.1");
+    private static final IpAddress INGRESS2 = IpAddress.valueOf("2.2.2.2");
+    private static final IpAddress EGRESS = IpAddress.valueOf("5.5.5.5");
+    private static final LspKey LSP_KEY = new LspKey(1, (short) 1);
+
+    private final PcepLspIndex index = new PcepLspIndex();
+
+    private static Tunnel tunnel(String id, IpAddress ingress, String name, Annotations annotations) {
+        return new DefaultTunnel(PROVIDER_ID, IpTunnelEndPoint.ipTunnelPoint(ingress),
+                                 IpTunnelEndPoint.ipTunnelPoint(EGRESS), Tunnel.Type.MPLS, null,
+                                 TunnelId.valueOf(id), TunnelName.tunnelName(name), (Path) null, annotations);
+    }
+
+    private static Tunnel created(String id, IpAddress ingress, String name) {
+        return tunnel(id, ingress, name, DefaultAnnotations.EMPTY);
+    }
+
+    private static Tunnel reported(String id, IpAddress ingress, String name) {
+        return tunnel(id, ingress, name, DefaultAnnotations.builder()
+                .set(PLSP_ID, String.valueOf(LSP_KEY.plspId()))
+                .set(LOCAL_LSP_ID, String.valueOf(LSP_KEY.localLspId()))
+                .build());
+    }
+
+    /**
+     * Tests that a tunnel moves from its symbolic path name to its PLSP-ID
+     * once its PCC has reported it.
+     */
+    @Test
+    public void testReported() {
+        Tunnel created = created("1", INGRESS1, "T1");
+        index.update(created);
+        assertThat(index.tunnel(INGRESS1, "T1"), is(created));
+        assertThat(index.tunnel(INGRESS1, LSP_KEY), nullValue());
+
+        Tunnel reported = reported("1", INGRESS1, "T1");
+        index.update(reported);
+        assertThat(index.tunnel(INGRESS1, LSP_KEY), is(reported));
+        assertThat(index.tunnel(INGRESS1, "T1"), nullValue());
+        assertThat(index.tunnelsByName(INGRESS1).isEmpty(), is(true));
+
+        index.remove(reported);
+        assertThat(index.tunnelsByKey(INGRESS1).isEmpty(), is(true));
+    }
+
+    /**
+     * Tests that a tunnel whose ingress changed is only indexed under its
+     * new ingress.
+     */
+    @Test
+    public void testIngressChanged() {
+        index.update(reported("1", INGRESS1, "T1"));
+        Tunnel moved = reported("1", INGRESS2, "T1");
+        index.update(moved);
+        assertThat(index.tunnel(INGRESS1, LSP_KEY), nullValue());
+        assertThat(index.tunnel(INGRESS2, LSP_KEY), is(moved));
+
+        index.remove(moved);
+        assertThat(index.tunnelsByKey(INGRESS1).isEmpty(), is(true));
+        assertThat(index.tunnelsByKey(INGRESS2).isEmpty(), is(true));
+    }
+
+    /**
+     * Tests that removing a tunnel whose key was taken over by another
+     * tunnel leaves the other tunnel indexed.
+     */
+    @Test
+    public void testStaleRemoval() {
+        Tunnel stale = reported("1", INGRESS1, "T1");
+        Tunnel current = reported("2", INGRESS1, "T1");
+        index.update(stale);
+        index.update(current);
+        index.remove(stale);
+        assertThat(index.tunnel(INGRESS1, LSP_KEY), is(current));
+
+        Tunnel staleCreated = created("3", INGRESS1, "T2");
+        Tunnel currentCreated = created("4", INGRESS1, "T2");
+        index.update(staleCreated);
+        index.update(currentCreated);
+        index.remove(staleCreated);
+        assertThat(index.tunnel(INGRESS1, "T2"), is(currentCreated));
+
+        // removing a tunnel never indexed changes nothing
+        index.remove(created("5", INGRESS1, "T2"));
+        assertThat(index.tunnel(INGRESS1, "T2"), is(currentCreated));
+    }
+}
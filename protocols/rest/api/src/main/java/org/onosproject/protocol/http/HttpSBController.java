@@ -22,6 +22,7 @@ import org.onosproject.protocol.rest.RestSBDevice;
 
 import java.io.InputStream;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Abstraction of an HTTP controller. Serves as a one stop shop for obtaining
@@ -136,4 +137,58 @@ public interface HttpSBController {
      */
     boolean delete(DeviceId device, String request, InputStream payload, String mediaType);
 
+    /**
+     * Does an asynchronous HTTP POST request with specified parameters to the device.
+     *
+     * @param device    device to make the request to
+     * @param request   url of the request
+     * @param payload   payload of the request as an InputStream
+     * @param mediaType type of content in the payload i.e. application/json
+     * @return future completed with true if operation returned 200, 201, 202, false otherwise
+     */
+    CompletableFuture<Boolean> postAsync(DeviceId device, String request, InputStream payload, String mediaType);
+
+    /**
+     * Does an asynchronous HTTP PUT request with specified parameters to the device.
+     *
+     * @param device    device to make the request to
+     * @param request   resource path of the request
+     * @param payload   payload of the request as an InputStream
+     * @param mediaType type of content in the payload i.e. application/json
+     * @return future completed with true if operation returned 200, 201, 202, false otherwise
+     */
+    CompletableFuture<Boolean> putAsync(DeviceId device, String request, InputStream payload, String mediaType);
+
+    /**
+     * Does an asynchronous HTTP GET request with specified parameters to the device.
+     *
+     * @param device    device to make the request to
+     * @param request   url of the request
+     * @param mediaType format to retrieve the content in
+     * @return future completed with an inputstream of data from the reply, or null
+     */
+    CompletableFuture<InputStream> getAsync(DeviceId device, String request, String mediaType);
+
+    /**
+     * Does an asynchronous HTTP PATCH request with specified parameters to the device.
+     *
+     * @param device    device to make the request to
+     * @param request   url of the request
+     * @param payload   payload of the request as an InputStream
+     * @param mediaType format to retrieve the content in
+     * @return future completed with true if operation returned 200, 201, 202, false otherwise
+     */
+    CompletableFuture<Boolean> patchAsync(DeviceId device, String request, InputStream payload, String mediaType);
+
+    /**
+     * Does an asynchronous HTTP DELETE request with specified parameters to the device.
+     *
+     * @param device    device to make the request to
+     * @param request   url of the request
+     * @param payload   payload of the request as an InputStream
+     * @param mediaType type of content in the payload i.e. application/json
+     * @return future completed with true if operation returned 200 false otherwise
+     */
+    CompletableFuture<Boolean> deleteAsync(DeviceId device, String request, InputStream payload, String mediaType);
+
 }
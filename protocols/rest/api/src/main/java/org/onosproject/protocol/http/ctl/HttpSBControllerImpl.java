@@ -16,15 +16,38 @@
 
 package org.onosproject.protocol.http.ctl;
 
+import com.codahale.metrics.Timer;
 import com.google.common.collect.ImmutableMap;
 import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
+import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPatch;
-import org.apache.http.conn.ssl.AllowAllHostnameVerifier;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.HttpClients;
-import org.apache.http.ssl.SSLContextBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
 import org.glassfish.jersey.client.authentication.HttpAuthenticationFeature;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
 import org.onlab.packet.IpAddress;
 import org.onosproject.net.DeviceId;
 import org.onosproject.protocol.http.HttpSBController;
@@ -37,25 +60,41 @@ import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
-import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.security.KeyManagementException;
-import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
 import java.util.Base64;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.onlab.util.Tools.groupedThreads;
 
 /**
  * The implementation of HttpSBController.
+ * <p>
+ * Requests to all devices are executed by a single HTTP client, which keeps
+ * the connections to each device alive in a shared pool, so that frequently
+ * polled devices do not pay a TCP connection and TLS handshake per request.
+ * Requests time out, so that a silent device cannot hold on to the pooled
+ * connections and request threads, and asynchronous requests fail once
+ * too many are queued.
+ * </p>
  */
 public class HttpSBControllerImpl implements HttpSBController {
 
@@ -68,12 +107,33 @@ public class HttpSBControllerImpl implements HttpSBController {
     private static final int STATUS_OK = Response.Status.OK.getStatusCode();
     private static final int STATUS_CREATED = Response.Status.CREATED.getStatusCode();
     private static final int STATUS_ACCEPTED = Response.Status.ACCEPTED.getStatusCode();
+    private static final String HTTP = "http";
     private static final String HTTPS = "https";
-    private static final String AUTHORIZATION_PROPERTY = "authorization";
     private static final String BASIC_AUTH_PREFIX = "Basic ";
 
+    private static final int MAX_CONNECTIONS = 200;
+    private static final int MAX_CONNECTIONS_PER_DEVICE = 8;
+    private static final long DEFAULT_KEEP_ALIVE_MS = 30000;
+    private static final long MAX_IDLE_TIME_MS = 60000;
+    private static final int CONNECT_TIMEOUT_MS = 5000;
+    private static final int SOCKET_TIMEOUT_MS = 30000;
+    private static final int CONNECTION_REQUEST_TIMEOUT_MS = 5000;
+    private static final int ASYNC_THREADS = 16;
+    private static final int ASYNC_QUEUE_SIZE = 1024;
+    private static final String REQUEST_LATENCY = "requestLatency";
+
     private final Map<DeviceId, RestSBDevice> deviceMap = new ConcurrentHashMap<>();
     private final Map<DeviceId, Client> clientMap = new ConcurrentHashMap<>();
+    private final Map<DeviceId, Timer> requestTimers = new ConcurrentHashMap<>();
+
+    private final CloseableHttpClient httpClient = pooledClient();
+    private final ExecutorService executor =
+            new ThreadPoolExecutor(ASYNC_THREADS, ASYNC_THREADS, 0L, TimeUnit.MILLISECONDS,
+                                   new ArrayBlockingQueue<>(ASYNC_QUEUE_SIZE),
+                                   groupedThreads("onos/http-sb", "request-%d", log));
+
+    private MetricsService metricsService;
+    private MetricsComponent metricsComponent;
 
     public Map<DeviceId, RestSBDevice> getDeviceMap() {
         return deviceMap;
@@ -83,6 +143,40 @@ public class HttpSBControllerImpl implements HttpSBController {
         return clientMap;
     }
 
+    /**
+     * Sets the metrics service the request latency of the devices is
+     * reported to; latency is only kept locally while none is set.
+     *
+     * @param metricsService metrics service, or null
+     */
+    protected void setMetricsService(MetricsService metricsService) {
+        this.metricsService = metricsService;
+        this.metricsComponent = metricsService == null ? null :
+                metricsService.registerComponent(getClass().getSimpleName());
+    }
+
+    /**
+     * Returns the latency timer of the requests to a device.
+     *
+     * @param device device identifier
+     * @return request latency timer, or null if the device is unknown
+     */
+    public Timer getRequestTimer(DeviceId device) {
+        return requestTimers.get(device);
+    }
+
+    /**
+     * Releases the pooled connections and the request threads.
+     */
+    protected void shutdown() {
+        executor.shutdownNow();
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            log.warn("Failed to close HTTP connections", e);
+        }
+    }
+
     @Override
     public Map<DeviceId, RestSBDevice> getDevices() {
         return ImmutableMap.copyOf(deviceMap);
@@ -109,6 +203,7 @@ public class HttpSBControllerImpl implements HttpSBController {
                 authenticate(client, username, password);
             }
             clientMap.put(device.deviceId(), client);
+            requestTimers.put(device.deviceId(), createRequestTimer(device.deviceId()));
             deviceMap.put(device.deviceId(), device);
         } else {
             log.warn("Trying to add a device that is already existing {}", device.deviceId());
@@ -120,128 +215,178 @@ public class HttpSBControllerImpl implements HttpSBController {
     public void removeDevice(DeviceId deviceId) {
         clientMap.remove(deviceId);
         deviceMap.remove(deviceId);
+        if (requestTimers.remove(deviceId) != null && metricsService != null) {
+            metricsService.removeMetric(metricsComponent, metricsFeature(deviceId), REQUEST_LATENCY);
+        }
     }
 
     @Override
     public boolean post(DeviceId device, String request, InputStream payload, String mediaType) {
-        Response response = getResponse(device, request, payload, mediaType);
-        return checkReply(response);
+        HttpPost httpRequest = new HttpPost(getUrlString(device, request));
+        if (!setPayload(httpRequest, payload, mediaType)) {
+            log.error("Cannot do POST {} request on device {} because can't read payload",
+                      request, device);
+            return false;
+        }
+        return execute(device, httpRequest, mediaType) != null;
     }
 
     @Override
     public <T> T post(DeviceId device, String request, InputStream payload,
                       String mediaType, Class<T> responseClass) {
-        Response response = getResponse(device, request, payload, mediaType);
-        if (response.hasEntity()) {
-            return response.readEntity(responseClass);
+        HttpPost httpRequest = new HttpPost(getUrlString(device, request));
+        if (!setPayload(httpRequest, payload, mediaType)) {
+            log.error("Cannot do POST {} request on device {} because can't read payload",
+                      request, device);
+            return null;
+        }
+        byte[] entity = execute(device, httpRequest, mediaType);
+        if (entity != null && entity.length > 0) {
+            return readEntity(entity, responseClass);
         }
         log.error("Response from device {} for request {} contains no entity", device, request);
         return null;
     }
 
-    private Response getResponse(DeviceId device, String request, InputStream payload, String mediaType) {
-        String type = typeOfMediaType(mediaType);
+    @Override
+    public boolean put(DeviceId device, String request, InputStream payload, String mediaType) {
+        HttpPut httpRequest = new HttpPut(getUrlString(device, request));
+        if (!setPayload(httpRequest, payload, mediaType)) {
+            log.error("Cannot do PUT {} request on device {} because can't read payload",
+                      request, device);
+            return false;
+        }
+        return execute(device, httpRequest, mediaType) != null;
+    }
 
-        WebTarget wt = getWebTarget(device, request);
+    @Override
+    public InputStream get(DeviceId device, String request, String mediaType) {
+        byte[] entity = execute(device, new HttpGet(getUrlString(device, request)), mediaType);
+        return entity == null ? null : new ByteArrayInputStream(entity);
+    }
 
-        Response response = null;
-        if (payload != null) {
-            try {
-                response = wt.request(type)
-                        .post(Entity.entity(IOUtils.toString(payload, StandardCharsets.UTF_8), type));
-            } catch (IOException e) {
-                log.error("Cannot do POST {} request on device {} because can't read payload",
-                          request, device);
-            }
-        } else {
-            response = wt.request(type).post(Entity.entity(null, type));
+    @Override
+    public boolean patch(DeviceId device, String request, InputStream payload, String mediaType) {
+        log.debug("Url request {} ", getUrlString(device, request));
+        HttpPatch httpRequest = new HttpPatch(getUrlString(device, request));
+        if (!setPayload(httpRequest, payload, mediaType)) {
+            log.error("Cannot do PATCH {} request on device {} because can't read payload",
+                      request, device);
+            return false;
         }
-        return response;
+        return execute(device, httpRequest, mediaType) != null;
     }
 
     @Override
-    public boolean put(DeviceId device, String request, InputStream payload, String mediaType) {
-        String type = typeOfMediaType(mediaType);
-
-        WebTarget wt = getWebTarget(device, request);
-
-        Response response = null;
-        if (payload != null) {
-            try {
-                response = wt.request(type)
-                        .put(Entity.entity(IOUtils.toString(payload, StandardCharsets.UTF_8), type));
-            } catch (IOException e) {
-                log.error("Cannot do PUT {} request on device {} because can't read payload",
-                          request, device);
-            }
-        } else {
-            response = wt.request(type).put(Entity.entity(null, type));
-        }
-        return checkReply(response);
+    public boolean delete(DeviceId device, String request, InputStream payload, String mediaType) {
+        // FIXME: do we need to delete an entry by enclosing data in DELETE request?
+        // wouldn't it be nice to use PUT to implement the similar concept?
+        return execute(device, new HttpDelete(getUrlString(device, request)), mediaType) != null;
     }
 
     @Override
-    public InputStream get(DeviceId device, String request, String mediaType) {
-        String type = typeOfMediaType(mediaType);
+    public CompletableFuture<Boolean> postAsync(DeviceId device, String request, InputStream payload,
+                                                String mediaType) {
+        return supplyAsync(() -> post(device, request, payload, mediaType));
+    }
 
-        WebTarget wt = getWebTarget(device, request);
+    @Override
+    public CompletableFuture<Boolean> putAsync(DeviceId device, String request, InputStream payload,
+                                               String mediaType) {
+        return supplyAsync(() -> put(device, request, payload, mediaType));
+    }
 
-        Response s = wt.request(type).get();
+    @Override
+    public CompletableFuture<InputStream> getAsync(DeviceId device, String request, String mediaType) {
+        return supplyAsync(() -> get(device, request, mediaType));
+    }
 
-        if (checkReply(s)) {
-            return new ByteArrayInputStream(s.readEntity((String.class))
-                    .getBytes(StandardCharsets.UTF_8));
-        }
-        return null;
+    @Override
+    public CompletableFuture<Boolean> patchAsync(DeviceId device, String request, InputStream payload,
+                                                 String mediaType) {
+        return supplyAsync(() -> patch(device, request, payload, mediaType));
     }
 
     @Override
-    public boolean patch(DeviceId device, String request, InputStream payload, String mediaType) {
-        String type = typeOfMediaType(mediaType);
+    public CompletableFuture<Boolean> deleteAsync(DeviceId device, String request, InputStream payload,
+                                                  String mediaType) {
+        return supplyAsync(() -> delete(device, request, payload, mediaType));
+    }
 
+    private <T> CompletableFuture<T> supplyAsync(Supplier<T> request) {
         try {
-            log.debug("Url request {} ", getUrlString(device, request));
-            HttpPatch httprequest = new HttpPatch(getUrlString(device, request));
-            if (deviceMap.get(device).username() != null) {
-                String pwd = deviceMap.get(device).password() == null ? "" : COLON + deviceMap.get(device).password();
-                String userPassword = deviceMap.get(device).username() + pwd;
-                String base64string = Base64.getEncoder().encodeToString(userPassword.getBytes(StandardCharsets.UTF_8));
-                httprequest.addHeader(AUTHORIZATION_PROPERTY, BASIC_AUTH_PREFIX + base64string);
-            }
-            if (payload != null) {
-                StringEntity input = new StringEntity(IOUtils.toString(payload, StandardCharsets.UTF_8));
-                input.setContentType(type);
-                httprequest.setEntity(input);
-            }
-            CloseableHttpClient httpClient;
-            if (deviceMap.containsKey(device) && deviceMap.get(device).protocol().equals(HTTPS)) {
-                httpClient = getApacheSslBypassClient();
-            } else {
-                httpClient = HttpClients.createDefault();
-            }
-            int responseStatusCode = httpClient
-                    .execute(httprequest)
-                    .getStatusLine()
-                    .getStatusCode();
-            return checkStatusCode(responseStatusCode);
-        } catch (IOException | NoSuchAlgorithmException | KeyManagementException | KeyStoreException e) {
-            log.error("Cannot do PATCH {} request on device {}",
-                      request, device, e);
+            return CompletableFuture.supplyAsync(request, executor);
+        } catch (RejectedExecutionException e) {
+            log.warn("Too many pending requests, dropping request");
+            CompletableFuture<T> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(e);
+            return rejected;
         }
-        return false;
     }
 
-    @Override
-    public boolean delete(DeviceId device, String request, InputStream payload, String mediaType) {
-        String type = typeOfMediaType(mediaType);
+    /**
+     * Executes a request on the pooled client, releasing the connection to
+     * the pool once the response entity has been read.
+     *
+     * @param device      device the request is made to
+     * @param httpRequest request
+     * @param mediaType   format to retrieve the content in
+     * @return response entity, empty if none, or null if the request failed
+     */
+    private byte[] execute(DeviceId device, HttpRequestBase httpRequest, String mediaType) {
+        httpRequest.setHeader(HttpHeaders.ACCEPT, typeOfMediaType(mediaType));
+        RestSBDevice restDevice = deviceMap.get(device);
+        if (restDevice.username() != null) {
+            String pwd = restDevice.password() == null ? "" : COLON + restDevice.password();
+            String userPassword = restDevice.username() + pwd;
+            String base64string = Base64.getEncoder().encodeToString(userPassword.getBytes(StandardCharsets.UTF_8));
+            httpRequest.setHeader(HttpHeaders.AUTHORIZATION, BASIC_AUTH_PREFIX + base64string);
+        }
 
-        WebTarget wt = getWebTarget(device, request);
+        log.debug("Sending {} request to URL {} ", httpRequest.getMethod(), httpRequest.getURI());
+        Timer timer = requestTimers.get(device);
+        Timer.Context latency = timer == null ? null : timer.time();
+        try (CloseableHttpResponse response = httpClient.execute(httpRequest)) {
+            HttpEntity entity = response.getEntity();
+            byte[] content = entity == null ? new byte[0] : EntityUtils.toByteArray(entity);
+            return checkStatusCode(response.getStatusLine().getStatusCode()) ? content : null;
+        } catch (IOException e) {
+            log.error("Cannot do {} request {} on device {}",
+                      httpRequest.getMethod(), httpRequest.getURI(), device, e);
+            return null;
+        } finally {
+            if (latency != null) {
+                latency.stop();
+            }
+        }
+    }
 
-        // FIXME: do we need to delete an entry by enclosing data in DELETE request?
-        // wouldn't it be nice to use PUT to implement the similar concept?
-        Response response = wt.request(type).delete();
+    private boolean setPayload(HttpEntityEnclosingRequestBase httpRequest, InputStream payload,
+                               String mediaType) {
+        if (payload == null) {
+            return true;
+        }
+        try {
+            ContentType type = ContentType.create(typeOfMediaType(mediaType), StandardCharsets.UTF_8);
+            httpRequest.setEntity(new StringEntity(IOUtils.toString(payload, StandardCharsets.UTF_8), type));
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
 
-        return checkReply(response);
+    @SuppressWarnings("unchecked")
+    private <T> T readEntity(byte[] entity, Class<T> responseClass) {
+        if (responseClass.isAssignableFrom(String.class)) {
+            return (T) new String(entity, StandardCharsets.UTF_8);
+        } else if (responseClass.isAssignableFrom(byte[].class)) {
+            return (T) entity;
+        } else if (responseClass.isAssignableFrom(ByteArrayInputStream.class)) {
+            return (T) new ByteArrayInputStream(entity);
+        } else if (responseClass.isAssignableFrom(InputStreamReader.class)) {
+            return (T) new InputStreamReader(new ByteArrayInputStream(entity), StandardCharsets.UTF_8);
+        }
+        throw new IllegalArgumentException("Unsupported response type " + responseClass.getName());
     }
 
     private String typeOfMediaType(String mediaType) {
@@ -269,14 +414,45 @@ public class HttpSBControllerImpl implements HttpSBController {
         return clientMap.get(device).target(getUrlString(device, request));
     }
 
-    //FIXME security issue: this trusts every SSL certificate, even if is self-signed. Also deprecated methods.
-    private CloseableHttpClient getApacheSslBypassClient() throws NoSuchAlgorithmException,
-            KeyManagementException, KeyStoreException {
-        return HttpClients.custom().
-                setHostnameVerifier(new AllowAllHostnameVerifier()).
-                setSslcontext(new SSLContextBuilder()
-                                      .loadTrustMaterial(null, (arg0, arg1) -> true)
-                                      .build()).build();
+    private Timer createRequestTimer(DeviceId device) {
+        if (metricsService == null) {
+            return new Timer();
+        }
+        return metricsService.createTimer(metricsComponent, metricsFeature(device), REQUEST_LATENCY);
+    }
+
+    private MetricsFeature metricsFeature(DeviceId device) {
+        return metricsComponent.registerFeature(device.toString());
+    }
+
+    //FIXME security issue: this trusts every SSL certificate, even if is self-signed.
+    private CloseableHttpClient pooledClient() {
+        Registry<ConnectionSocketFactory> socketFactories = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register(HTTP, PlainConnectionSocketFactory.getSocketFactory())
+                .register(HTTPS, new SSLConnectionSocketFactory(ignoreSslContext(), NoopHostnameVerifier.INSTANCE))
+                .build();
+        PoolingHttpClientConnectionManager connectionManager =
+                new PoolingHttpClientConnectionManager(socketFactories);
+        connectionManager.setMaxTotal(MAX_CONNECTIONS);
+        // a route per device
+        connectionManager.setDefaultMaxPerRoute(MAX_CONNECTIONS_PER_DEVICE);
+
+        ConnectionKeepAliveStrategy keepAlive = (response, context) -> {
+            long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return duration > 0 ? duration : DEFAULT_KEEP_ALIVE_MS;
+        };
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(CONNECT_TIMEOUT_MS)
+                .setSocketTimeout(SOCKET_TIMEOUT_MS)
+                .setConnectionRequestTimeout(CONNECTION_REQUEST_TIMEOUT_MS)
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(keepAlive)
+                .evictExpiredConnections()
+                .evictIdleConnections(MAX_IDLE_TIME_MS, TimeUnit.MILLISECONDS)
+                .build();
     }
 
     private String getUrlString(DeviceId device, String request) {
@@ -291,14 +467,6 @@ public class HttpSBControllerImpl implements HttpSBController {
         }
     }
 
-    private boolean checkReply(Response response) {
-        if (response != null) {
-            return checkStatusCode(response.getStatus());
-        }
-        log.error("Null reply from device");
-        return false;
-    }
-
     private boolean checkStatusCode(int statusCode) {
         if (statusCode == STATUS_OK ||
                 statusCode == STATUS_CREATED ||
@@ -311,7 +479,7 @@ public class HttpSBControllerImpl implements HttpSBController {
         }
     }
 
-    private Client ignoreSslClient() {
+    private SSLContext ignoreSslContext() {
         SSLContext sslcontext = null;
 
         try {
@@ -330,7 +498,10 @@ public class HttpSBControllerImpl implements HttpSBController {
         } catch (NoSuchAlgorithmException | KeyManagementException e) {
             e.printStackTrace();
         }
+        return sslcontext;
+    }
 
-        return ClientBuilder.newBuilder().sslContext(sslcontext).hostnameVerifier((s1, s2) -> true).build();
+    private Client ignoreSslClient() {
+        return ClientBuilder.newBuilder().sslContext(ignoreSslContext()).hostnameVerifier((s1, s2) -> true).build();
     }
 }
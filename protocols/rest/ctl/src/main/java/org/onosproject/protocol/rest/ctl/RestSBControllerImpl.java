@@ -19,7 +19,10 @@ package org.onosproject.protocol.rest.ctl;
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Deactivate;
+import org.apache.felix.scr.annotations.Reference;
+import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.apache.felix.scr.annotations.Service;
+import org.onlab.metrics.MetricsService;
 import org.onosproject.protocol.http.ctl.HttpSBControllerImpl;
 import org.onosproject.protocol.rest.RestSBController;
 import org.slf4j.Logger;
@@ -35,8 +38,12 @@ public class RestSBControllerImpl extends HttpSBControllerImpl implements RestSB
     private static final Logger log =
             LoggerFactory.getLogger(RestSBControllerImpl.class);
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected MetricsService metricsService;
+
     @Activate
     public void activate() {
+        setMetricsService(metricsService);
         log.info("Started");
     }
 
@@ -44,6 +51,7 @@ public class RestSBControllerImpl extends HttpSBControllerImpl implements RestSB
     public void deactivate() {
         this.getClientMap().clear();
         this.getDeviceMap().clear();
+        shutdown();
         log.info("Stopped");
     }
 
@@ -16,12 +16,32 @@
 
 package org.onosproject.protocol.rest.ctl;
 
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.onlab.packet.IpAddress;
 import org.onosproject.protocol.rest.DefaultRestSBDevice;
 import org.onosproject.protocol.rest.RestSBDevice;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.Assert.*;
 
 /**
@@ -34,6 +54,11 @@ public class RestSBControllerImplTest {
     RestSBDevice device1;
     RestSBDevice device2;
 
+    private static final int MAX_CONNECTIONS_PER_DEVICE = 8;
+    private static final String JSON = "json";
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
 
     @Before
     public void setUp() {
@@ -44,6 +69,30 @@ public class RestSBControllerImplTest {
         controller.addDevice(device1);
     }
 
+    @After
+    public void tearDown() {
+        if (server != null) {
+            server.stop(0);
+            serverExecutor.shutdownNow();
+        }
+        controller.deactivate();
+    }
+
+    // answers with the method of the request and records the connection it was received on
+    private static void answer(HttpExchange exchange, Set<InetSocketAddress> connections) throws IOException {
+        connections.add(exchange.getRemoteAddress());
+        IOUtils.toByteArray(exchange.getRequestBody());
+        byte[] body = exchange.getRequestMethod().getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static InputStream payload() {
+        return new ByteArrayInputStream("{}".getBytes(StandardCharsets.UTF_8));
+    }
+
     @Test
     public void basics() {
         assertTrue("Device1 non added", controller.getDevices().containsValue(device1));
@@ -56,4 +105,59 @@ public class RestSBControllerImplTest {
         controller.removeDevice(device2.deviceId());
         assertFalse("Device2 not removed", controller.getDevices().containsValue(device2));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void requestTimers() {
+        assertNotNull("Device1 has no request timer", controller.getRequestTimer(device1.deviceId()));
+        controller.addDevice(device2);
+        assertNotNull("Device2 has no request timer", controller.getRequestTimer(device2.deviceId()));
+        controller.removeDevice(device2.deviceId());
+        assertNull("Device2 request timer not removed", controller.getRequestTimer(device2.deviceId()));
+    }
+
+    /**
+     * Tests that requests to a device are executed on the pooled
+     * connections, synchronously and asynchronously.
+     */
+    @Test
+    public void pooledRequests() throws Exception {
+        Set<InetSocketAddress> connections = ConcurrentHashMap.newKeySet();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/test", exchange -> answer(exchange, connections));
+        server.createContext("/missing", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        serverExecutor = Executors.newFixedThreadPool(MAX_CONNECTIONS_PER_DEVICE * 2);
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        RestSBDevice device = new DefaultRestSBDevice(IpAddress.valueOf("127.0.0.1"),
+                                                      server.getAddress().getPort(),
+                                                      "foo", "bar", "http", null, true);
+        controller.addDevice(device);
+
+        assertEquals("GET", IOUtils.toString(controller.get(device.deviceId(), "/test", JSON),
+                                             StandardCharsets.UTF_8));
+        assertTrue(controller.post(device.deviceId(), "/test", payload(), JSON));
+        assertTrue(controller.put(device.deviceId(), "/test", payload(), JSON));
+        assertTrue(controller.patch(device.deviceId(), "/test", payload(), JSON));
+        assertTrue(controller.delete(device.deviceId(), "/test", null, JSON));
+        assertEquals("POST", controller.post(device.deviceId(), "/test", payload(), JSON, String.class));
+        assertNull(controller.get(device.deviceId(), "/missing", JSON));
+
+        int requests = 200;
+        List<CompletableFuture<InputStream>> replies = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            replies.add(controller.getAsync(device.deviceId(), "/test", JSON));
+        }
+        for (CompletableFuture<InputStream> reply : replies) {
+            assertEquals("GET", IOUtils.toString(reply.get(10, TimeUnit.SECONDS), StandardCharsets.UTF_8));
+        }
+        assertTrue(controller.postAsync(device.deviceId(), "/test", payload(), JSON).get(10, TimeUnit.SECONDS));
+
+        assertTrue("Connections not reused: " + connections.size(),
+                   connections.size() <= MAX_CONNECTIONS_PER_DEVICE);
+        assertEquals(requests + 8, controller.getRequestTimer(device.deviceId()).getCount());
+    }
+}
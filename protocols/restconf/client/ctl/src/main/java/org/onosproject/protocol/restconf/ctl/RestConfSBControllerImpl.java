@@ -32,6 +32,7 @@ import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.apache.felix.scr.annotations.Service;
 import org.glassfish.jersey.client.ChunkedInput;
+import org.onlab.metrics.MetricsService;
 import org.onlab.packet.IpAddress;
 import org.onosproject.net.DeviceId;
 import org.onosproject.protocol.http.ctl.HttpSBControllerImpl;
@@ -69,10 +70,14 @@ public class RestConfSBControllerImpl extends HttpSBControllerImpl
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected YmsService ymsService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected MetricsService metricsService;
+
     ExecutorService executor = Executors.newCachedThreadPool();
 
     @Activate
     public void activate() {
+        setMetricsService(metricsService);
         log.info("RESTCONF SBI Started");
         if (ymsService != null) {
             ymsService
@@ -87,6 +92,7 @@ public class RestConfSBControllerImpl extends HttpSBControllerImpl
         executor.shutdown();
         this.getClientMap().clear();
         this.getDeviceMap().clear();
+        shutdown();
     }
 
     @Override
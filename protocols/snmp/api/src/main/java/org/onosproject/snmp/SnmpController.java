@@ -19,9 +19,15 @@ package org.onosproject.snmp;
 import com.btisystems.pronx.ems.core.snmp.ISnmpSession;
 import org.onosproject.incubator.net.faultmanagement.alarm.DefaultAlarm;
 import org.onosproject.net.DeviceId;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.VariableBinding;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * Snmp Controller.
@@ -70,4 +76,46 @@ public interface SnmpController {
      * @return default alarm error
      */
     DefaultAlarm buildWalkFailedAlarm(DeviceId deviceId);
+
+    /**
+     * Gets the values of OIDs of a device asynchronously, batching them into
+     * as few GET requests as possible.
+     *
+     * @param deviceId device to query
+     * @param oids     OIDs to get
+     * @return future completed with the variable bindings of the OIDs, in order
+     */
+    CompletableFuture<List<VariableBinding>> get(DeviceId deviceId, List<OID> oids);
+
+    /**
+     * Walks subtrees of a device asynchronously with GETBULK requests.
+     *
+     * @param deviceId device to query
+     * @param roots    OIDs of the subtrees to walk
+     * @return future completed with the variable bindings of the subtrees,
+     * subtree after subtree in the order of their roots
+     */
+    CompletableFuture<List<VariableBinding>> walk(DeviceId deviceId, List<OID> roots);
+
+    /**
+     * Schedules a named poll of a device, replacing any poll of the device
+     * with the same name. A poll is skipped while the previous run of the
+     * same poll has not completed yet.
+     *
+     * @param deviceId device to poll
+     * @param name     name of the poll
+     * @param period   period of the poll
+     * @param unit     time unit of the period
+     * @param poll     starts a run of the poll
+     */
+    void schedulePoll(DeviceId deviceId, String name, long period, TimeUnit unit,
+                      Supplier<CompletableFuture<?>> poll);
+
+    /**
+     * Cancels a named poll of a device.
+     *
+     * @param deviceId device polled
+     * @param name     name of the poll
+     */
+    void cancelPoll(DeviceId deviceId, String name);
 }
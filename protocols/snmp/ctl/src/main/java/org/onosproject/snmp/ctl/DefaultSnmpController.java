@@ -35,12 +35,28 @@ import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.snmp4j.CommunityTarget;
+import org.snmp4j.mp.SnmpConstants;
+import org.snmp4j.smi.GenericAddress;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.OctetString;
+import org.snmp4j.smi.VariableBinding;
 
 import java.io.IOException;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static java.util.concurrent.Executors.newScheduledThreadPool;
+import static org.onlab.util.Tools.groupedThreads;
 
 /**
  * Default implementation of the SNMP sub-controller.
@@ -52,20 +68,42 @@ public class DefaultSnmpController implements SnmpController {
     private final Logger log = LoggerFactory
             .getLogger(getClass());
 
+    private static final String DEFAULT_COMMUNITY = "public";
+    private static final int REQUEST_RETRIES = 2;
+    private static final long REQUEST_TIMEOUT_MS = 3000;
+    private static final int POLL_THREADS = 4;
+
     protected ISnmpSessionFactory sessionFactory;
 
-    protected final Map<DeviceId, ISnmpSession> sessionMap = new HashMap<>();
+    protected final Map<DeviceId, ISnmpSession> sessionMap = new ConcurrentHashMap<>();
     protected final Map<DeviceId, SnmpDevice> snmpDeviceMap = new ConcurrentHashMap<>();
+    private final Map<DeviceId, Map<String, DevicePoll>> pollMap = new ConcurrentHashMap<>();
+
+    protected SnmpRequestEngine requestEngine;
+    private ScheduledExecutorService pollScheduler;
 
     @Activate
     public void activate(ComponentContext context) {
         sessionFactory = new SnmpSessionFactory(
                 new DefaultSnmpConfigurationFactory(new V2cSnmpConfiguration()));
+        try {
+            requestEngine = SnmpRequestEngine.udp();
+        } catch (IOException e) {
+            log.error("Cannot open the SNMP request transport", e);
+        }
+        pollScheduler = newScheduledThreadPool(POLL_THREADS, groupedThreads("onos/snmp", "poller-%d", log));
         log.info("Started");
     }
 
     @Deactivate
     public void deactivate() {
+        if (pollScheduler != null) {
+            pollScheduler.shutdownNow();
+        }
+        pollMap.clear();
+        if (requestEngine != null) {
+            requestEngine.close();
+        }
         sessionMap.clear();
         snmpDeviceMap.clear();
         log.info("Stopped");
@@ -73,31 +111,100 @@ public class DefaultSnmpController implements SnmpController {
 
     @Override
     public ISnmpSession getSession(DeviceId deviceId) throws IOException {
-        if (!sessionMap.containsKey(deviceId)) {
-            SnmpDevice device = snmpDeviceMap.get(deviceId);
-            String ipAddress = null;
-            int port = -1;
-            if (device != null) {
-                ipAddress = device.getSnmpHost();
-                port = device.getSnmpPort();
+        ISnmpSession session = sessionMap.get(deviceId);
+        if (session == null) {
+            String[] address = address(deviceId);
+            ISnmpConfiguration config = new V2cSnmpConfiguration();
+            config.setPort(Integer.parseInt(address[1]));
+            ISnmpSession created = sessionFactory.createSession(config, address[0]);
+            session = sessionMap.putIfAbsent(deviceId, created);
+            if (session == null) {
+                session = created;
             } else {
-                String[] deviceComponents = deviceId.toString().split(":");
-                if (deviceComponents.length > 1) {
-                    ipAddress = deviceComponents[1];
-                    port = Integer.parseInt(deviceComponents[2]);
-
-                } else {
-                    log.error("Cannot obtain correct information from device id", deviceId);
-                }
+                created.close();
             }
-            Preconditions.checkNotNull(ipAddress, "ip address is empty, cannot start session");
-            Preconditions.checkArgument(port != -1, "port is incorrect, cannot start session");
+        }
+        return session;
+    }
 
-            ISnmpConfiguration config = new V2cSnmpConfiguration();
-            config.setPort(port);
-            sessionMap.put(deviceId, sessionFactory.createSession(config, ipAddress));
+    /**
+     * Returns the IP address and port of a device, from its description if
+     * known, from its identifier otherwise.
+     *
+     * @param deviceId device identifier
+     * @return IP address and port
+     */
+    private String[] address(DeviceId deviceId) {
+        SnmpDevice device = snmpDeviceMap.get(deviceId);
+        String ipAddress = null;
+        int port = -1;
+        if (device != null) {
+            ipAddress = device.getSnmpHost();
+            port = device.getSnmpPort();
+        } else {
+            String[] deviceComponents = deviceId.toString().split(":");
+            if (deviceComponents.length > 1) {
+                ipAddress = deviceComponents[1];
+                port = Integer.parseInt(deviceComponents[2]);
+
+            } else {
+                log.error("Cannot obtain correct information from device id", deviceId);
+            }
+        }
+        Preconditions.checkNotNull(ipAddress, "ip address is empty, cannot start session");
+        Preconditions.checkArgument(port != -1, "port is incorrect, cannot start session");
+        return new String[]{ipAddress, String.valueOf(port)};
+    }
+
+    private CommunityTarget target(DeviceId deviceId) {
+        String[] address = address(deviceId);
+        SnmpDevice device = snmpDeviceMap.get(deviceId);
+        String community = device == null || device.getCommunity() == null ?
+                DEFAULT_COMMUNITY : device.getCommunity();
+
+        CommunityTarget target = new CommunityTarget();
+        target.setCommunity(new OctetString(community));
+        target.setAddress(GenericAddress.parse("udp:" + address[0] + "/" + address[1]));
+        target.setRetries(REQUEST_RETRIES);
+        target.setTimeout(REQUEST_TIMEOUT_MS);
+        target.setVersion(SnmpConstants.version2c);
+        return target;
+    }
+
+    @Override
+    public CompletableFuture<List<VariableBinding>> get(DeviceId deviceId, List<OID> oids) {
+        Preconditions.checkState(requestEngine != null, "SNMP request engine is not available");
+        return requestEngine.get(target(deviceId), oids);
+    }
+
+    @Override
+    public CompletableFuture<List<VariableBinding>> walk(DeviceId deviceId, List<OID> roots) {
+        Preconditions.checkState(requestEngine != null, "SNMP request engine is not available");
+        return requestEngine.walk(target(deviceId), roots);
+    }
+
+    @Override
+    public void schedulePoll(DeviceId deviceId, String name, long period, TimeUnit unit,
+                             Supplier<CompletableFuture<?>> poll) {
+        DevicePoll devicePoll = new DevicePoll(deviceId, name, poll);
+        // spreads the polls of the devices over their period
+        long initialDelay = ThreadLocalRandom.current().nextLong(Math.max(unit.toMillis(period), 1));
+        devicePoll.future = pollScheduler.scheduleAtFixedRate(devicePoll::run, initialDelay,
+                                                              unit.toMillis(period), TimeUnit.MILLISECONDS);
+        DevicePoll previous = pollMap.computeIfAbsent(deviceId, k -> new ConcurrentHashMap<>())
+                .put(name, devicePoll);
+        if (previous != null) {
+            previous.future.cancel(false);
+        }
+    }
+
+    @Override
+    public void cancelPoll(DeviceId deviceId, String name) {
+        Map<String, DevicePoll> polls = pollMap.get(deviceId);
+        DevicePoll devicePoll = polls == null ? null : polls.remove(name);
+        if (devicePoll != null) {
+            devicePoll.future.cancel(false);
         }
-        return sessionMap.get(deviceId);
     }
 
     @Override
@@ -112,6 +219,10 @@ public class DefaultSnmpController implements SnmpController {
 
     @Override
     public void removeDevice(DeviceId did) {
+        Map<String, DevicePoll> polls = pollMap.remove(did);
+        if (polls != null) {
+            polls.values().forEach(devicePoll -> devicePoll.future.cancel(false));
+        }
         snmpDeviceMap.remove(did);
     }
 
@@ -127,4 +238,40 @@ public class DefaultSnmpController implements SnmpController {
                 Alarm.SeverityLevel.CRITICAL,
                 System.currentTimeMillis()).build();
     }
+
+    /**
+     * Periodic poll of a device.
+     */
+    private final class DevicePoll {
+
+        private final DeviceId deviceId;
+        private final String name;
+        private final Supplier<CompletableFuture<?>> poll;
+        private final AtomicBoolean running = new AtomicBoolean();
+        private volatile ScheduledFuture<?> future;
+
+        private DevicePoll(DeviceId deviceId, String name, Supplier<CompletableFuture<?>> poll) {
+            this.deviceId = deviceId;
+            this.name = name;
+            this.poll = poll;
+        }
+
+        private void run() {
+            if (!running.compareAndSet(false, true)) {
+                log.debug("Skipping poll {} of {}, previous poll still running", name, deviceId);
+                return;
+            }
+            try {
+                poll.get().whenComplete((result, error) -> {
+                    running.set(false);
+                    if (error != null) {
+                        log.warn("Poll {} of {} failed: {}", name, deviceId, error.getMessage());
+                    }
+                });
+            } catch (RuntimeException e) {
+                running.set(false);
+                log.warn("Poll {} of {} failed", name, deviceId, e);
+            }
+        }
+    }
 }
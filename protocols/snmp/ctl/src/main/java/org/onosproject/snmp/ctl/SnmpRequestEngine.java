@@ -0,0 +1,197 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.snmp.ctl;
+
+import com.google.common.collect.Lists;
+import org.snmp4j.PDU;
+import org.snmp4j.Snmp;
+import org.snmp4j.Target;
+import org.snmp4j.TransportMapping;
+import org.snmp4j.event.ResponseEvent;
+import org.snmp4j.event.ResponseListener;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.VariableBinding;
+import org.snmp4j.transport.DefaultUdpTransportMapping;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Asynchronous SNMP request engine.
+ * <p>
+ * Requests to all devices share a single UDP socket; responses are matched
+ * to their requests by snmp4j and complete the returned futures on its
+ * dispatcher thread, so that no thread waits for a device to answer.
+ * </p>
+ */
+final class SnmpRequestEngine {
+
+    static final int MAX_OIDS_PER_PDU = 32;
+    static final int MAX_REPETITIONS = 50;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final Snmp snmp;
+
+    /**
+     * Creates an engine sending its requests over the given transport.
+     *
+     * @param transport transport mapping
+     * @throws IOException if the transport cannot listen
+     */
+    SnmpRequestEngine(TransportMapping<?> transport) throws IOException {
+        snmp = new Snmp(transport);
+        snmp.listen();
+    }
+
+    /**
+     * Creates an engine sending its requests over UDP.
+     *
+     * @return request engine
+     * @throws IOException if no UDP socket can be opened
+     */
+    static SnmpRequestEngine udp() throws IOException {
+        return new SnmpRequestEngine(new DefaultUdpTransportMapping());
+    }
+
+    /**
+     * Closes the transport; outstanding requests are left incomplete.
+     */
+    void close() {
+        try {
+            snmp.close();
+        } catch (IOException e) {
+            log.warn("Failed to close SNMP transport", e);
+        }
+    }
+
+    /**
+     * Gets the values of OIDs, with up to {@link #MAX_OIDS_PER_PDU} OIDs per
+     * GET request and all requests sent at once.
+     *
+     * @param target target device
+     * @param oids   OIDs to get
+     * @return future completed with the variable bindings of the OIDs, in order
+     */
+    CompletableFuture<List<VariableBinding>> get(Target target, List<OID> oids) {
+        List<CompletableFuture<List<VariableBinding>>> batches = Lists.partition(oids, MAX_OIDS_PER_PDU)
+                .stream()
+                .map(batch -> {
+                    PDU pdu = new PDU();
+                    pdu.setType(PDU.GET);
+                    batch.forEach(oid -> pdu.add(new VariableBinding(oid)));
+                    return send(target, pdu).thenApply(SnmpRequestEngine::variableBindings);
+                })
+                .collect(Collectors.toList());
+        return concat(batches);
+    }
+
+    /**
+     * Walks subtrees with GETBULK requests of up to {@link #MAX_REPETITIONS}
+     * repetitions; the subtrees are walked concurrently.
+     *
+     * @param target target device
+     * @param roots  OIDs of the subtrees
+     * @return future completed with the variable bindings of the subtrees,
+     * subtree after subtree in the order of their roots
+     */
+    CompletableFuture<List<VariableBinding>> walk(Target target, List<OID> roots) {
+        return concat(roots.stream()
+                              .map(root -> {
+                                  CompletableFuture<List<VariableBinding>> walk = new CompletableFuture<>();
+                                  walk(target, root, root, Lists.newArrayList(), walk);
+                                  return walk;
+                              })
+                              .collect(Collectors.toList()));
+    }
+
+    private void walk(Target target, OID root, OID from, List<VariableBinding> bindings,
+                      CompletableFuture<List<VariableBinding>> walk) {
+        PDU pdu = new PDU();
+        pdu.setType(PDU.GETBULK);
+        pdu.setNonRepeaters(0);
+        pdu.setMaxRepetitions(MAX_REPETITIONS);
+        pdu.add(new VariableBinding(from));
+        send(target, pdu).whenComplete((response, error) -> {
+            if (error != null) {
+                walk.completeExceptionally(error);
+                return;
+            }
+            OID last = from;
+            for (VariableBinding binding : variableBindings(response)) {
+                // end of the subtree or of the MIB view; a non increasing OID would loop forever
+                if (binding.isException() || !binding.getOid().startsWith(root)
+                        || binding.getOid().compareTo(last) <= 0) {
+                    walk.complete(bindings);
+                    return;
+                }
+                bindings.add(binding);
+                last = binding.getOid();
+            }
+            if (last == from) {
+                walk.complete(bindings);
+            } else {
+                walk(target, root, last, bindings, walk);
+            }
+        });
+    }
+
+    private CompletableFuture<PDU> send(Target target, PDU pdu) {
+        CompletableFuture<PDU> response = new CompletableFuture<>();
+        ResponseListener listener = new ResponseListener() {
+            @Override
+            public void onResponse(ResponseEvent event) {
+                // stops the retransmissions of the request
+                ((Snmp) event.getSource()).cancel(event.getRequest(), this);
+                PDU reply = event.getResponse();
+                if (event.getError() != null) {
+                    response.completeExceptionally(event.getError());
+                } else if (reply == null) {
+                    response.completeExceptionally(
+                            new IOException("SNMP request to " + target.getAddress() + " timed out"));
+                } else if (reply.getErrorStatus() != PDU.noError) {
+                    response.completeExceptionally(
+                            new IOException("SNMP request to " + target.getAddress() + " failed: "
+                                                    + reply.getErrorStatusText()));
+                } else {
+                    response.complete(reply);
+                }
+            }
+        };
+        try {
+            snmp.send(pdu, target, null, listener);
+        } catch (IOException e) {
+            response.completeExceptionally(e);
+        }
+        return response;
+    }
+
+    private static List<VariableBinding> variableBindings(PDU pdu) {
+        return Lists.newArrayList(pdu.getVariableBindings());
+    }
+
+    private static CompletableFuture<List<VariableBinding>> concat(
+            List<CompletableFuture<List<VariableBinding>>> futures) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]))
+                .thenApply(v -> futures.stream()
+                        .flatMap(future -> future.join().stream())
+                        .collect(Collectors.toList()));
+    }
+}
@@ -26,8 +26,13 @@ import org.onosproject.incubator.net.faultmanagement.alarm.Alarm;
 import org.onosproject.incubator.net.faultmanagement.alarm.DefaultAlarm;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
+import static org.onlab.junit.TestTools.assertAfter;
+import static org.onlab.junit.TestTools.delay;
 
 /**
  * DefaultSnmpController test class.
@@ -89,6 +94,31 @@ public class DefaultSnmpControllerTest {
         assertNull("Device shoudl not be present", snmpController.getDevice(device.deviceId()));
     }
 
+    /**
+     * Tests that a poll is skipped while its previous run is outstanding.
+     */
+    @Test
+    public void pollNotOverlapping() {
+        snmpController.activate(null);
+        AtomicInteger polls = new AtomicInteger();
+        CompletableFuture<Void> outstanding = new CompletableFuture<>();
+        snmpController.schedulePoll(device.deviceId(), "test", 10, TimeUnit.MILLISECONDS, () -> {
+            polls.incrementAndGet();
+            return outstanding;
+        });
+        delay(200);
+        assertEquals("Poll should not run while outstanding", 1, polls.get());
+        outstanding.complete(null);
+        assertAfter(500, () -> assertTrue("Poll should run again", polls.get() > 1));
+
+        snmpController.removeDevice(device.deviceId());
+        delay(20);
+        int count = polls.get();
+        delay(100);
+        assertEquals("Poll should be cancelled with its device", count, polls.get());
+        snmpController.deactivate();
+    }
+
     @Test
     public void walkFailedAlarm() {
         assertEquals("Alarms should be equals", alarm, snmpController.buildWalkFailedAlarm(device.deviceId()));
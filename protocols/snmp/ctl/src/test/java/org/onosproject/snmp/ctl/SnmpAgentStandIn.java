@@ -0,0 +1,149 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.snmp.ctl;
+
+import org.snmp4j.CommandResponder;
+import org.snmp4j.CommandResponderEvent;
+import org.snmp4j.MessageException;
+import org.snmp4j.PDU;
+import org.snmp4j.Snmp;
+import org.snmp4j.mp.StatusInformation;
+import org.snmp4j.smi.Null;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.UdpAddress;
+import org.snmp4j.smi.Variable;
+import org.snmp4j.smi.VariableBinding;
+import org.snmp4j.transport.DefaultUdpTransportMapping;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local SNMP agent stand-in answering GET, GETNEXT and GETBULK requests
+ * from an in-memory MIB, on a loopback UDP port.
+ */
+public class SnmpAgentStandIn implements CommandResponder {
+
+    private final NavigableMap<OID, Variable> mib = new ConcurrentSkipListMap<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final Snmp snmp;
+    private final UdpAddress address;
+
+    public SnmpAgentStandIn() throws IOException {
+        DefaultUdpTransportMapping transport =
+                new DefaultUdpTransportMapping(new UdpAddress(InetAddress.getLoopbackAddress(), 0));
+        snmp = new Snmp(transport);
+        snmp.addCommandResponder(this);
+        snmp.listen();
+        address = new UdpAddress(InetAddress.getLoopbackAddress(), transport.getListenAddress().getPort());
+    }
+
+    /**
+     * Sets the value of an object of the MIB.
+     *
+     * @param oid   object identifier
+     * @param value value
+     */
+    public void put(OID oid, Variable value) {
+        mib.put(oid, value);
+    }
+
+    /**
+     * Returns the address the agent listens to.
+     *
+     * @return UDP address
+     */
+    public UdpAddress address() {
+        return address;
+    }
+
+    /**
+     * Returns the number of requests answered.
+     *
+     * @return number of requests
+     */
+    public int requests() {
+        return requests.get();
+    }
+
+    /**
+     * Stops answering requests.
+     *
+     * @throws IOException if the transport cannot be closed
+     */
+    public void close() throws IOException {
+        if (closed.compareAndSet(false, true)) {
+            snmp.close();
+        }
+    }
+
+    @Override
+    public void processPdu(CommandResponderEvent event) {
+        PDU request = event.getPDU();
+        if (request == null) {
+            return;
+        }
+        PDU response = new PDU();
+        response.setType(PDU.RESPONSE);
+        response.setRequestID(request.getRequestID());
+        for (VariableBinding binding : request.getVariableBindings()) {
+            OID oid = binding.getOid();
+            switch (request.getType()) {
+                case PDU.GET:
+                    Variable value = mib.get(oid);
+                    response.add(new VariableBinding(oid, value != null ? value : Null.noSuchObject));
+                    break;
+                case PDU.GETNEXT:
+                    response.add(next(oid));
+                    break;
+                case PDU.GETBULK:
+                    for (int i = 0; i < request.getMaxRepetitions(); i++) {
+                        VariableBinding next = next(oid);
+                        response.add(next);
+                        if (next.isException()) {
+                            break;
+                        }
+                        oid = next.getOid();
+                    }
+                    break;
+                default:
+                    return;
+            }
+        }
+        requests.incrementAndGet();
+        try {
+            event.getMessageDispatcher().returnResponsePdu(
+                    event.getMessageProcessingModel(), event.getSecurityModel(),
+                    event.getSecurityName(), event.getSecurityLevel(), response,
+                    event.getMaxSizeResponsePDU(), event.getStateReference(), new StatusInformation());
+        } catch (MessageException e) {
+            throw new IllegalStateException(e);
+        }
+        event.setProcessed(true);
+    }
+
+    private VariableBinding next(OID oid) {
+        Map.Entry<OID, Variable> next = mib.higherEntry(oid);
+        return next == null ? new VariableBinding(oid, Null.endOfMibView) :
+                new VariableBinding(next.getKey(), next.getValue());
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.snmp.ctl;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.snmp4j.CommunityTarget;
+import org.snmp4j.mp.SnmpConstants;
+import org.snmp4j.smi.Integer32;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.OctetString;
+import org.snmp4j.smi.UdpAddress;
+import org.snmp4j.smi.VariableBinding;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of the SNMP request engine against a local agent stand-in.
+ */
+public class SnmpRequestEngineTest {
+
+    private static final OID IF_DESCR = new OID("1.3.6.1.2.1.2.2.1.2");
+    private static final OID IF_TYPE = new OID("1.3.6.1.2.1.2.2.1.3");
+    private static final OID IF_MTU = new OID("1.3.6.1.2.1.2.2.1.4");
+    private static final int INTERFACES = 120;
+
+    private SnmpAgentStandIn agent;
+    private SnmpRequestEngine engine;
+    private CommunityTarget target;
+
+    @Before
+    public void setUp() throws Exception {
+        agent = new SnmpAgentStandIn();
+        for (int i = 1; i <= INTERFACES; i++) {
+            agent.put(oid(IF_DESCR, i), new OctetString("port" + i));
+            agent.put(oid(IF_TYPE, i), new Integer32(6));
+            agent.put(oid(IF_MTU, i), new Integer32(1500 + i));
+        }
+        engine = SnmpRequestEngine.udp();
+        target = target(agent.address());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        engine.close();
+        agent.close();
+    }
+
+    /**
+     * Tests that GETs are batched and their bindings returned in order.
+     */
+    @Test
+    public void testGet() throws Exception {
+        List<OID> oids = IntStream.rangeClosed(1, INTERFACES)
+                .mapToObj(i -> oid(IF_MTU, i))
+                .collect(Collectors.toList());
+        List<VariableBinding> bindings = engine.get(target, oids).get(5, TimeUnit.SECONDS);
+
+        assertEquals("Incorrect number of bindings", INTERFACES, bindings.size());
+        for (int i = 0; i < INTERFACES; i++) {
+            assertEquals("Incorrect OID", oids.get(i), bindings.get(i).getOid());
+            assertEquals("Incorrect value", 1501 + i, bindings.get(i).getVariable().toInt());
+        }
+        int batches = (INTERFACES + SnmpRequestEngine.MAX_OIDS_PER_PDU - 1) / SnmpRequestEngine.MAX_OIDS_PER_PDU;
+        assertEquals("Incorrect number of requests", batches, agent.requests());
+    }
+
+    /**
+     * Tests that a walk stops at the end of its subtree.
+     */
+    @Test
+    public void testWalk() throws Exception {
+        List<VariableBinding> bindings = engine.walk(target, ImmutableList.of(IF_DESCR))
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals("Incorrect number of bindings", INTERFACES, bindings.size());
+        for (int i = 0; i < INTERFACES; i++) {
+            assertEquals("Incorrect OID", oid(IF_DESCR, i + 1), bindings.get(i).getOid());
+            assertEquals("Incorrect value", "port" + (i + 1), bindings.get(i).getVariable().toString());
+        }
+        int requests = INTERFACES / SnmpRequestEngine.MAX_REPETITIONS + 1;
+        assertEquals("Incorrect number of requests", requests, agent.requests());
+    }
+
+    /**
+     * Tests that subtrees walked together are returned in the order of their roots.
+     */
+    @Test
+    public void testWalkSubtrees() throws Exception {
+        List<VariableBinding> bindings = engine.walk(target, ImmutableList.of(IF_MTU, IF_TYPE))
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals("Incorrect number of bindings", 2 * INTERFACES, bindings.size());
+        assertEquals("Incorrect first OID", oid(IF_MTU, 1), bindings.get(0).getOid());
+        assertEquals("Incorrect last OID", oid(IF_TYPE, INTERFACES), bindings.get(2 * INTERFACES - 1).getOid());
+    }
+
+    /**
+     * Tests that a walk at the end of the MIB view completes.
+     */
+    @Test
+    public void testWalkEndOfMibView() throws Exception {
+        List<VariableBinding> bindings = engine.walk(target, ImmutableList.of(new OID("1.3.6.1.4")))
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals("Walk beyond the MIB view should be empty", 0, bindings.size());
+    }
+
+    /**
+     * Tests that requests to a silent device time out.
+     */
+    @Test
+    public void testTimeout() throws Exception {
+        agent.close();
+        target.setRetries(0);
+        target.setTimeout(200);
+        try {
+            engine.get(target, ImmutableList.of(oid(IF_MTU, 1))).get(5, TimeUnit.SECONDS);
+            fail("Request to a silent device should fail");
+        } catch (ExecutionException e) {
+            assertEquals("Incorrect failure", IOException.class, e.getCause().getClass());
+        }
+    }
+
+    private static OID oid(OID column, int index) {
+        OID oid = new OID(column);
+        oid.append(index);
+        return oid;
+    }
+
+    private static CommunityTarget target(UdpAddress address) {
+        CommunityTarget target = new CommunityTarget();
+        target.setCommunity(new OctetString("public"));
+        target.setAddress(new UdpAddress(InetAddress.getLoopbackAddress(), address.getPort()));
+        target.setRetries(1);
+        target.setTimeout(2000);
+        target.setVersion(SnmpConstants.version2c);
+        return target;
+    }
+}
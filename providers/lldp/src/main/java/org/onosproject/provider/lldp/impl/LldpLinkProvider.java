@@ -32,12 +32,14 @@ import org.apache.felix.scr.annotations.Modified;
 import org.apache.felix.scr.annotations.Property;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
+import org.onlab.metrics.MetricsService;
 import org.onlab.packet.Ethernet;
 import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.cluster.ClusterMetadataService;
 import org.onosproject.cluster.ClusterService;
 import org.onosproject.core.ApplicationId;
 import org.onosproject.core.CoreService;
+import org.onosproject.core.MetricsHelper;
 import org.onosproject.mastership.MastershipEvent;
 import org.onosproject.mastership.MastershipListener;
 import org.onosproject.mastership.MastershipService;
@@ -72,6 +74,7 @@ import org.onosproject.provider.lldpcommon.LinkDiscoveryContext;
 import org.osgi.service.component.ComponentContext;
 import org.slf4j.Logger;
 
+import com.codahale.metrics.Timer;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
@@ -93,7 +96,7 @@ import static org.slf4j.LoggerFactory.getLogger;
  * Provider which uses LLDP and BDDP packets to detect network infrastructure links.
  */
 @Component(immediate = true)
-public class LldpLinkProvider extends AbstractProvider implements ProbedLinkProvider {
+public class LldpLinkProvider extends AbstractProvider implements ProbedLinkProvider, MetricsHelper {
 
     private static final String PROVIDER_NAME = "org.onosproject.provider.lldp";
 
@@ -139,6 +142,9 @@ public class LldpLinkProvider extends AbstractProvider implements ProbedLinkProv
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected ClusterMetadataService clusterMetadataService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected MetricsService metricsService;
+
     private LinkProviderService providerService;
 
     private ScheduledExecutorService executor;
@@ -186,6 +192,11 @@ public class LldpLinkProvider extends AbstractProvider implements ProbedLinkProv
 
     private ApplicationId appId;
 
+    // Time taken to generate and emit a slice of probes of a device
+    private Timer probeTimer;
+    // Time between a port being added to the discovery and its first link
+    private Timer linkDetectionTimer;
+
     static final SuppressionRules DEFAULT_RULES
         = new SuppressionRules(EnumSet.of(Device.Type.ROADM, Device.Type.FIBER_SWITCH, Device.Type.OTN),
                                ImmutableMap.of(NO_LLDP, SuppressionRules.ANY_VALUE));
@@ -229,6 +240,11 @@ public class LldpLinkProvider extends AbstractProvider implements ProbedLinkProv
         super(new ProviderId("lldp", PROVIDER_NAME));
     }
 
+    @Override
+    public MetricsService metricsService() {
+        return metricsService;
+    }
+
     private String buildSrcMac() {
         String srcMac = ProbedLinkProvider.fingerprintMac(clusterMetadataService.getClusterMetadata());
         String defMac = ProbedLinkProvider.defaultMac();
@@ -246,6 +262,8 @@ public class LldpLinkProvider extends AbstractProvider implements ProbedLinkProv
         shuttingDown = false;
         cfgService.registerProperties(getClass());
         appId = coreService.registerApplication(PROVIDER_NAME);
+        probeTimer = createTimer("LldpLinkProvider", "discovery", "probes");
+        linkDetectionTimer = createTimer("LldpLinkProvider", "discovery", "linkDetection");
 
         cfgRegistry.addListener(cfgListener);
         factories.forEach(cfgRegistry::registerConfigFactory);
@@ -773,6 +791,16 @@ public class LldpLinkProvider extends AbstractProvider implements ProbedLinkProv
         public String fingerprint() {
             return buildSrcMac();
         }
+
+        @Override
+        public Timer probeTimer() {
+            return probeTimer;
+        }
+
+        @Override
+        public Timer linkDetectionTimer() {
+            return linkDetectionTimer;
+        }
     }
 
     static final EnumSet<NetworkConfigEvent.Type> CONFIG_CHANGED
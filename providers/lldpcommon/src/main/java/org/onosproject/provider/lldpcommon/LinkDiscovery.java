@@ -15,7 +15,9 @@
  */
 package org.onosproject.provider.lldpcommon;
 
-import com.google.common.collect.Sets;
+import com.codahale.metrics.Timer.Context;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
 
 import org.jboss.netty.util.Timeout;
 import org.jboss.netty.util.TimerTask;
@@ -38,39 +40,54 @@ import org.onosproject.net.link.ProbedLinkProvider;
 import org.slf4j.Logger;
 
 import java.nio.ByteBuffer;
-import java.util.Set;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.onlab.metrics.MetricsUtil.startTimer;
+import static org.onlab.metrics.MetricsUtil.stopTimer;
 import static org.onosproject.net.PortNumber.portNumber;
 import static org.onosproject.net.flow.DefaultTrafficTreatment.builder;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
- * Run discovery process from a physical switch. Ports are initially labeled as
- * slow ports. When an LLDP is successfully received, label the remote port as
- * fast. Every probeRate milliseconds, loop over all fast ports and send an
- * LLDP, send an LLDP for a single slow port. Based on FlowVisor topology
- * discovery implementation.
+ * Run discovery process from a physical switch. Every probeRate milliseconds,
+ * an LLDP, and optionally a BDDP, is sent out of every port of the switch.
+ * The ports are probed in slices spread evenly across the probe interval
+ * rather than in a single burst, and the probes are generated from templates
+ * serialized once per switch. Based on FlowVisor topology discovery
+ * implementation.
  */
 public class LinkDiscovery implements TimerTask {
 
     private final Logger log = getLogger(getClass());
 
+    // Minimum time between two slices of a probe round
+    private static final long MIN_SLICE_MS = 250;
+
     private final Device device;
     private final LinkDiscoveryContext context;
 
-    private final Ethernet ethPacket;
-    private final Ethernet bddpEth;
+    private volatile LinkProbeTemplate lldpTemplate;
+    private volatile LinkProbeTemplate bddpTemplate;
 
     private Timeout timeout;
     private volatile boolean isStopped;
-    // Set of ports to be probed
-    private final Set<Long> ports = Sets.newConcurrentHashSet();
+    // Ports to be probed, along with the time they were added in nanos
+    // until the first link is detected on them
+    private final Map<Long, Long> ports = Maps.newConcurrentMap();
+
+    // Ports probed in the current round and position within the round;
+    // accessed only from the timer thread
+    private List<Long> round = ImmutableList.of();
+    private int slice;
+    private int slices = 1;
 
     /**
-     * Instantiates discovery manager for the given physical switch. Creates a
-     * generic LLDP packet that will be customized for the port it is sent out on.
+     * Instantiates discovery manager for the given physical switch.
      * Starts the the timer for the discovery process.
      *
      * @param device  the physical switch
@@ -80,16 +97,6 @@ public class LinkDiscovery implements TimerTask {
         this.device = device;
         this.context = context;
 
-        ethPacket = new Ethernet();
-        ethPacket.setEtherType(Ethernet.TYPE_LLDP);
-        ethPacket.setDestinationMACAddress(ONOSLLDP.LLDP_ONLAB);
-        ethPacket.setPad(true);
-
-        bddpEth = new Ethernet();
-        bddpEth.setEtherType(Ethernet.TYPE_BSN);
-        bddpEth.setDestinationMACAddress(ONOSLLDP.BDDP_MULTICAST);
-        bddpEth.setPad(true);
-
         isStopped = true;
         start();
         log.debug("Started discovery manager for switch {}", device.id());
@@ -108,7 +115,9 @@ public class LinkDiscovery implements TimerTask {
     public synchronized void start() {
         if (isStopped) {
             isStopped = false;
-            timeout = Timer.getTimer().newTimeout(this, 0, MILLISECONDS);
+            // random offset so that the rounds of the switches are not aligned
+            long jitter = ThreadLocalRandom.current().nextLong(Math.max(1, context.probeRate()));
+            timeout = Timer.getTimer().newTimeout(this, jitter, MILLISECONDS);
         } else {
             log.warn("LinkDiscovery started multiple times?");
         }
@@ -125,7 +134,7 @@ public class LinkDiscovery implements TimerTask {
      * @param port the port
      */
     public void addPort(Port port) {
-        boolean newPort = ports.add(port.number().toLong());
+        boolean newPort = ports.putIfAbsent(port.number().toLong(), System.nanoTime()) == null;
         boolean isMaster = context.mastershipService().isLocalMaster(device.id());
         if (newPort && isMaster) {
             log.debug("Sending initial probe to port {}@{}", port.number().toLong(), device.id());
@@ -176,6 +185,7 @@ public class LinkDiscovery implements TimerTask {
                 ConnectPoint dst = new ConnectPoint(dstDeviceId, dstPort);
 
                 LinkDescription ld = new DefaultLinkDescription(src, dst, lt);
+                recordDetection(dstPort.toLong());
                 try {
                     context.providerService().linkDetected(ld);
                     context.touchLink(LinkKey.linkKey(src, dst));
@@ -188,6 +198,17 @@ public class LinkDiscovery implements TimerTask {
         return false;
     }
 
+    // records the time taken to detect the first link on the given port
+    private void recordDetection(long port) {
+        Long addedAt = ports.get(port);
+        if (addedAt != null && addedAt != 0 && ports.replace(port, addedAt, 0L)) {
+            com.codahale.metrics.Timer timer = context.linkDetectionTimer();
+            if (timer != null) {
+                timer.update(System.nanoTime() - addedAt, NANOSECONDS);
+            }
+        }
+    }
+
     // true if *NOT* this cluster's own probe.
     private boolean notMy(String mac) {
         // if we are using DEFAULT_MAC, clustering hadn't initialized, so conservative 'yes'
@@ -199,9 +220,9 @@ public class LinkDiscovery implements TimerTask {
     }
 
     /**
-     * Execute this method every t milliseconds. Loops over all ports
-     * labeled as fast and sends out an LLDP. Send out an LLDP on a single slow
-     * port.
+     * Execute this method every probeRate / slices milliseconds. A round
+     * probes every port once per probeRate milliseconds; each execution
+     * sends out the LLDPs of the next slice of the round.
      *
      * @param t timeout
      */
@@ -211,52 +232,62 @@ public class LinkDiscovery implements TimerTask {
             return;
         }
 
+        if (slice == 0) {
+            // start of a new round; pick up the current ports and probe rate
+            round = ImmutableList.copyOf(ports.keySet());
+            slices = (int) Math.max(1, Math.min(round.size(), context.probeRate() / MIN_SLICE_MS));
+        }
+
         if (context.mastershipService().isLocalMaster(device.id())) {
-            log.trace("Sending probes from {}", device.id());
-            ports.forEach(this::sendProbes);
+            int from = slice * round.size() / slices;
+            int to = (slice + 1) * round.size() / slices;
+            if (from < to) {
+                log.trace("Sending probes from {} to ports {}", device.id(), round.subList(from, to));
+                Context timer = startTimer(context.probeTimer());
+                round.subList(from, to).stream()
+                        .filter(ports::containsKey)
+                        .forEach(this::sendProbes);
+                stopTimer(timer);
+            }
         }
+        slice = (slice + 1) % slices;
 
         if (!isStopped()) {
-            timeout = Timer.getTimer().newTimeout(this, context.probeRate(), MILLISECONDS);
+            timeout = Timer.getTimer().newTimeout(this, context.probeRate() / slices, MILLISECONDS);
         }
     }
 
     /**
-     * Creates packet_out LLDP for specified output port.
+     * Creates packet_out for specified output port from the given template.
      *
+     * @param template the probe template
      * @param port the port
      * @return Packet_out message with LLDP data
      */
-    private OutboundPacket createOutBoundLldp(Long port) {
-        if (port == null) {
-            return null;
-        }
-        ONOSLLDP lldp = getLinkProbe(port);
-        ethPacket.setSourceMACAddress(context.fingerprint()).setPayload(lldp);
+    private OutboundPacket createOutBoundProbe(LinkProbeTemplate template, long port) {
         return new DefaultOutboundPacket(device.id(),
                                          builder().setOutput(portNumber(port)).build(),
-                                         ByteBuffer.wrap(ethPacket.serialize()));
+                                         ByteBuffer.wrap(template.probe(port)));
     }
 
-    /**
-     * Creates packet_out BDDP for specified output port.
-     *
-     * @param port the port
-     * @return Packet_out message with LLDP data
-     */
-    private OutboundPacket createOutBoundBddp(Long port) {
-        if (port == null) {
-            return null;
+    // returns the LLDP template, recreating it if the fingerprint changed
+    private LinkProbeTemplate lldpTemplate(String fingerprint) {
+        LinkProbeTemplate template = lldpTemplate;
+        if (template == null || !template.fingerprint().equals(fingerprint)) {
+            template = LinkProbeTemplate.lldp(device, fingerprint);
+            lldpTemplate = template;
         }
-        ONOSLLDP lldp = getLinkProbe(port);
-        bddpEth.setSourceMACAddress(context.fingerprint()).setPayload(lldp);
-        return new DefaultOutboundPacket(device.id(),
-                                         builder().setOutput(portNumber(port)).build(),
-                                         ByteBuffer.wrap(bddpEth.serialize()));
+        return template;
     }
 
-    private ONOSLLDP getLinkProbe(Long port) {
-        return ONOSLLDP.onosLLDP(device.id().toString(), device.chassisId(), port.intValue());
+    // returns the BDDP template, recreating it if the fingerprint changed
+    private LinkProbeTemplate bddpTemplate(String fingerprint) {
+        LinkProbeTemplate template = bddpTemplate;
+        if (template == null || !template.fingerprint().equals(fingerprint)) {
+            template = LinkProbeTemplate.bddp(device, fingerprint);
+            bddpTemplate = template;
+        }
+        return template;
     }
 
     private void sendProbes(Long portNumber) {
@@ -264,15 +295,16 @@ public class LinkDiscovery implements TimerTask {
             return;
         }
         log.trace("Sending probes out to {}@{}", portNumber, device.id());
-        OutboundPacket pkt = createOutBoundLldp(portNumber);
+        String fingerprint = context.fingerprint();
+        OutboundPacket pkt = createOutBoundProbe(lldpTemplate(fingerprint), portNumber);
         context.packetService().emit(pkt);
         if (context.useBddp()) {
-            OutboundPacket bpkt = createOutBoundBddp(portNumber);
+            OutboundPacket bpkt = createOutBoundProbe(bddpTemplate(fingerprint), portNumber);
             context.packetService().emit(bpkt);
         }
     }
 
     public boolean containsPort(long portNumber) {
-        return ports.contains(portNumber);
+        return ports.containsKey(portNumber);
     }
 }
@@ -15,6 +15,7 @@
  */
 package org.onosproject.provider.lldpcommon;
 
+import com.codahale.metrics.Timer;
 import org.onosproject.mastership.MastershipService;
 import org.onosproject.net.LinkKey;
 import org.onosproject.net.device.DeviceService;
@@ -81,4 +82,24 @@ public interface LinkDiscoveryContext {
      * @return the cluster identifier
      */
     String fingerprint();
+
+    /**
+     * Returns the timer tracking the time taken to generate and emit
+     * the probes of a device in one round.
+     *
+     * @return probe timer, or null if not tracked
+     */
+    default Timer probeTimer() {
+        return null;
+    }
+
+    /**
+     * Returns the timer tracking the time between a port being added to the
+     * discovery and the first link detected on that port.
+     *
+     * @return link detection timer, or null if not tracked
+     */
+    default Timer linkDetectionTimer() {
+        return null;
+    }
 }
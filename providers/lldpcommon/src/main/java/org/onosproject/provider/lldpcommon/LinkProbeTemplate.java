@@ -0,0 +1,121 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.provider.lldpcommon;
+
+import org.onlab.packet.Ethernet;
+import org.onlab.packet.ONOSLLDP;
+import org.onosproject.net.Device;
+
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Serialized LLDP or BDDP probe of a device, from which the probe of any
+ * port is obtained by patching the port identifier in place.
+ * <p>
+ * The probes of a device only differ in the port TLV, so the frame is
+ * serialized once and the offset of the port number located by comparing
+ * it with a frame probing another port.
+ * </p>
+ */
+final class LinkProbeTemplate {
+
+    private static final int PORT_LENGTH = Integer.BYTES;
+
+    private final String fingerprint;
+    private final byte[] frame;
+    private final int portOffset;
+
+    private LinkProbeTemplate(String fingerprint, byte[] frame, int portOffset) {
+        this.fingerprint = fingerprint;
+        this.frame = frame;
+        this.portOffset = portOffset;
+    }
+
+    /**
+     * Creates the LLDP probe template of the given device.
+     *
+     * @param device      the device
+     * @param fingerprint the cluster fingerprint used as source MAC
+     * @return LLDP probe template
+     */
+    static LinkProbeTemplate lldp(Device device, String fingerprint) {
+        Ethernet eth = new Ethernet();
+        eth.setEtherType(Ethernet.TYPE_LLDP);
+        eth.setDestinationMACAddress(ONOSLLDP.LLDP_ONLAB);
+        eth.setPad(true);
+        return create(eth, device, fingerprint);
+    }
+
+    /**
+     * Creates the BDDP probe template of the given device.
+     *
+     * @param device      the device
+     * @param fingerprint the cluster fingerprint used as source MAC
+     * @return BDDP probe template
+     */
+    static LinkProbeTemplate bddp(Device device, String fingerprint) {
+        Ethernet eth = new Ethernet();
+        eth.setEtherType(Ethernet.TYPE_BSN);
+        eth.setDestinationMACAddress(ONOSLLDP.BDDP_MULTICAST);
+        eth.setPad(true);
+        return create(eth, device, fingerprint);
+    }
+
+    private static LinkProbeTemplate create(Ethernet eth, Device device, String fingerprint) {
+        ONOSLLDP probe = ONOSLLDP.onosLLDP(device.id().toString(), device.chassisId(), 0);
+        eth.setSourceMACAddress(fingerprint).setPayload(probe);
+        byte[] frame = eth.serialize();
+
+        probe.setPortId(-1);
+        byte[] other = eth.setPayload(probe).serialize();
+
+        checkState(frame.length == other.length, "Probe length depends on the port");
+        int offset = 0;
+        while (offset < frame.length && frame[offset] == other[offset]) {
+            offset++;
+        }
+        checkState(offset + PORT_LENGTH <= frame.length, "Port identifier not found in probe");
+        for (int i = offset + PORT_LENGTH; i < frame.length; i++) {
+            checkState(frame[i] == other[i], "Probe content depends on the port");
+        }
+        return new LinkProbeTemplate(fingerprint, frame, offset);
+    }
+
+    /**
+     * Returns the cluster fingerprint the template was created with.
+     *
+     * @return cluster fingerprint
+     */
+    String fingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Returns the serialized probe for the given port.
+     *
+     * @param port the port number
+     * @return serialized frame
+     */
+    byte[] probe(long port) {
+        byte[] data = frame.clone();
+        int value = (int) port;
+        data[portOffset] = (byte) (value >>> 24);
+        data[portOffset + 1] = (byte) (value >>> 16);
+        data[portOffset + 2] = (byte) (value >>> 8);
+        data[portOffset + 3] = (byte) value;
+        return data;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.provider.lldpcommon;
+
+import org.junit.Test;
+import org.onlab.packet.ChassisId;
+import org.onlab.packet.DeserializationException;
+import org.onlab.packet.Ethernet;
+import org.onlab.packet.MacAddress;
+import org.onlab.packet.ONOSLLDP;
+import org.onosproject.net.DefaultDevice;
+import org.onosproject.net.Device;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.provider.ProviderId;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Unit tests for {@link LinkProbeTemplate}.
+ */
+public class LinkProbeTemplateTest {
+
+    private static final ProviderId PID = new ProviderId("of", "foo");
+    private static final Device DEVICE =
+            new DefaultDevice(PID, DeviceId.deviceId("of:0000000000000001"), Device.Type.SWITCH,
+                              "mfr", "hw", "sw", "serial", new ChassisId(1));
+    private static final String FINGERPRINT = "02:eb:7a:4f:3c:11";
+    private static final long[] PORTS = {0, 1, 2, 255, 256, 65535, 65536, Integer.MAX_VALUE, 0xfffffffeL};
+
+    // the probe as serialized for every port before templates were used
+    private static byte[] serialize(short etherType, byte[] destination, long port) {
+        Ethernet eth = new Ethernet();
+        eth.setEtherType(etherType);
+        eth.setDestinationMACAddress(destination);
+        eth.setPad(true);
+        eth.setSourceMACAddress(FINGERPRINT)
+                .setPayload(ONOSLLDP.onosLLDP(DEVICE.id().toString(), DEVICE.chassisId(), (int) port));
+        return eth.serialize();
+    }
+
+    /**
+     * Tests that the LLDP probes of the template equal the serialized probes.
+     */
+    @Test
+    public void testLldp() {
+        LinkProbeTemplate template = LinkProbeTemplate.lldp(DEVICE, FINGERPRINT);
+        for (long port : PORTS) {
+            assertArrayEquals("port " + port, serialize(Ethernet.TYPE_LLDP, ONOSLLDP.LLDP_ONLAB, port),
+                              template.probe(port));
+        }
+    }
+
+    /**
+     * Tests that the BDDP probes of the template equal the serialized probes.
+     */
+    @Test
+    public void testBddp() {
+        LinkProbeTemplate template = LinkProbeTemplate.bddp(DEVICE, FINGERPRINT);
+        for (long port : PORTS) {
+            assertArrayEquals("port " + port, serialize(Ethernet.TYPE_BSN, ONOSLLDP.BDDP_MULTICAST, port),
+                              template.probe(port));
+        }
+    }
+
+    /**
+     * Tests that a probe of the template is parsed back with its device and port.
+     */
+    @Test
+    public void testParse() throws DeserializationException {
+        LinkProbeTemplate template = LinkProbeTemplate.lldp(DEVICE, FINGERPRINT);
+        byte[] probe = template.probe(42);
+        Ethernet eth = Ethernet.deserializer().deserialize(probe, 0, probe.length);
+        ONOSLLDP lldp = ONOSLLDP.parseONOSLLDP(eth);
+        assertNotNull(lldp);
+        assertEquals(DEVICE.id().toString(), lldp.getDeviceString());
+        assertEquals(Integer.valueOf(42), lldp.getPort());
+        assertEquals(MacAddress.valueOf(FINGERPRINT), eth.getSourceMAC());
+    }
+}
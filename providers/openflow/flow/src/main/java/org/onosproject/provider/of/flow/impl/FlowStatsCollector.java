@@ -16,6 +16,7 @@
 package org.onosproject.provider.of.flow.impl;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import org.onosproject.openflow.controller.Dpid;
 import org.onosproject.openflow.controller.OpenFlowSwitch;
 import org.onosproject.openflow.controller.RoleState;
 import org.projectfloodlight.openflow.protocol.OFFlowStatsRequest;
@@ -23,78 +24,61 @@ import org.projectfloodlight.openflow.types.OFPort;
 import org.projectfloodlight.openflow.types.TableId;
 import org.slf4j.Logger;
 
-import java.util.Timer;
-import java.util.TimerTask;
-
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * Collects flow statistics for the specified switch.
+ * <p>
+ * Polls are issued by the shared {@link FlowStatsPollScheduler}, which
+ * spreads them across the poll interval of all switches.
+ * </p>
  */
 class FlowStatsCollector implements SwitchDataCollector {
 
     private final Logger log = getLogger(getClass());
 
-    public static final int SECONDS = 1000;
-
     private final OpenFlowSwitch sw;
-    private Timer timer;
-    private TimerTask task;
-
-    private int pollInterval;
+    private final Dpid dpid;
+    private final FlowStatsPollScheduler scheduler;
 
     /**
-     * Creates a new collector for the given switch and poll frequency.
+     * Creates a new collector for the given switch.
      *
-     * @param timer        timer to use for scheduling
-     * @param sw           switch to pull
-     * @param pollInterval poll frequency in seconds
+     * @param scheduler shared poll scheduler
+     * @param sw        switch to pull
      */
-    FlowStatsCollector(Timer timer, OpenFlowSwitch sw, int pollInterval) {
-        this.timer = timer;
+    FlowStatsCollector(FlowStatsPollScheduler scheduler, OpenFlowSwitch sw) {
+        this.scheduler = checkNotNull(scheduler, "Null scheduler");
         this.sw = checkNotNull(sw, "Null switch");
-        this.pollInterval = pollInterval;
-    }
-
-    /**
-     * Adjusts poll frequency.
-     *
-     * @param pollInterval poll frequency in seconds
-     */
-    synchronized void adjustPollInterval(int pollInterval) {
-        this.pollInterval = pollInterval;
-        task.cancel();
-        task = new InternalTimerTask();
-        timer.scheduleAtFixedRate(task, pollInterval * SECONDS, pollInterval * 1000);
+        this.dpid = new Dpid(sw.getId());
     }
 
-    private class InternalTimerTask extends TimerTask {
-        @Override
-        public void run() {
-            if (sw.getRole() == RoleState.MASTER) {
-                log.trace("Collecting stats for {}", sw.getStringId());
-                OFFlowStatsRequest request = sw.factory().buildFlowStatsRequest()
-                        .setMatch(sw.factory().matchWildcardAll())
-                        .setTableId(TableId.ALL)
-                        .setOutPort(OFPort.NO_MASK)
-                        .build();
-                sw.sendMsg(request);
-            }
+    private void poll() {
+        if (sw.getRole() == RoleState.MASTER) {
+            log.trace("Collecting stats for {}", sw.getStringId());
+            OFFlowStatsRequest request = sw.factory().buildFlowStatsRequest()
+                    .setMatch(sw.factory().matchWildcardAll())
+                    .setTableId(TableId.ALL)
+                    .setOutPort(OFPort.NO_MASK)
+                    .build();
+            sw.sendMsg(request);
+        } else {
+            // no reply will follow; let the scheduler move on
+            scheduler.pollSkipped(dpid);
         }
     }
 
-    public synchronized void start() {
-        // Initially start polling quickly. Then drop down to configured value
-        log.debug("Starting Stats collection thread for {}", sw.getStringId());
-        task = new InternalTimerTask();
-        timer.scheduleAtFixedRate(task, 1 * SECONDS,
-                                  pollInterval * SECONDS);
+    @Override
+    public void start() {
+        // Initially start polling quickly. Then take turns with other switches
+        log.debug("Starting Stats collection for {}", sw.getStringId());
+        scheduler.register(dpid, this::poll);
     }
 
-    public synchronized void stop() {
-        log.debug("Stopping Stats collection thread for {}", sw.getStringId());
-        task.cancel();
-        task = null;
+    @Override
+    public void stop() {
+        log.debug("Stopping Stats collection for {}", sw.getStringId());
+        scheduler.unregister(dpid);
     }
 
 }
@@ -0,0 +1,293 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.provider.of.flow.impl;
+
+import com.codahale.metrics.Timer;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.onosproject.openflow.controller.Dpid;
+import org.slf4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static org.onlab.util.Tools.groupedThreads;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Schedules flow statistics polls for all switches mastered by this instance.
+ * <p>
+ * Rather than every switch polling on its own timer, the registered switches
+ * are kept in a ring which is walked in small ticks so that the polls are
+ * spread evenly across the poll interval. The number of polls awaiting their
+ * final reply is capped; polls that cannot be issued because of the cap are
+ * carried over as backlog. Switches with large flow tables are polled less
+ * frequently, in proportion to the size of their last reply.
+ * </p>
+ * <p>
+ * Since only the master of a switch polls it, the per-instance cap bounds the
+ * number of outstanding requests across the cluster as well.
+ * </p>
+ */
+class FlowStatsPollScheduler {
+
+    private final Logger log = getLogger(getClass());
+
+    private static final long TICK_MS = 100;
+    private static final int LARGE_TABLE_SIZE = 10000;
+    private static final int MAX_STRIDE = 4;
+
+    private final ScheduledExecutorService executor =
+            newSingleThreadScheduledExecutor(groupedThreads("onos/of-flow", "stats-poll-scheduler", log));
+
+    private final Deque<PollTarget> ring = new ArrayDeque<>();
+    private final Map<Dpid, PollTarget> targets = Maps.newHashMap();
+    private final Timer pollLatency = new Timer();
+
+    private ScheduledFuture<?> ticker;
+    private int pollInterval;
+    private int maxOutstanding;
+    private int outstanding;
+    private double credits;
+
+    /**
+     * Creates a new poll scheduler.
+     *
+     * @param pollInterval   poll interval in seconds
+     * @param maxOutstanding maximum number of polls awaiting a reply
+     */
+    FlowStatsPollScheduler(int pollInterval, int maxOutstanding) {
+        setPollInterval(pollInterval);
+        setMaxOutstanding(maxOutstanding);
+    }
+
+    /**
+     * Starts issuing polls.
+     */
+    synchronized void start() {
+        if (ticker == null) {
+            ticker = executor.scheduleAtFixedRate(this::tick, TICK_MS, TICK_MS,
+                                                  TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops issuing polls and releases the scheduler thread.
+     */
+    synchronized void stop() {
+        if (ticker != null) {
+            ticker.cancel(false);
+            ticker = null;
+        }
+        executor.shutdownNow();
+        ring.clear();
+        targets.clear();
+        outstanding = 0;
+        credits = 0;
+    }
+
+    /**
+     * Changes the interval over which all switches are polled.
+     *
+     * @param pollInterval poll interval in seconds
+     */
+    synchronized void setPollInterval(int pollInterval) {
+        checkArgument(pollInterval > 0, "Poll interval must be positive");
+        this.pollInterval = pollInterval;
+    }
+
+    /**
+     * Changes the maximum number of polls that may await a reply.
+     *
+     * @param maxOutstanding maximum number of outstanding polls
+     */
+    synchronized void setMaxOutstanding(int maxOutstanding) {
+        checkArgument(maxOutstanding > 0, "Max outstanding polls must be positive");
+        this.maxOutstanding = maxOutstanding;
+    }
+
+    /**
+     * Registers a switch for polling. Newly registered switches are polled
+     * on the next tick; afterwards they take their turn in the ring.
+     *
+     * @param dpid   switch identifier
+     * @param poller task issuing the flow statistics request
+     */
+    synchronized void register(Dpid dpid, Runnable poller) {
+        PollTarget target = new PollTarget(dpid, poller);
+        PollTarget old = targets.put(dpid, target);
+        if (old != null) {
+            release(old);
+            ring.remove(old);
+        }
+        ring.addFirst(target);
+        credits += 1;
+    }
+
+    /**
+     * Unregisters a switch from polling.
+     *
+     * @param dpid switch identifier
+     */
+    synchronized void unregister(Dpid dpid) {
+        PollTarget target = targets.remove(dpid);
+        if (target != null) {
+            release(target);
+            ring.remove(target);
+        }
+    }
+
+    /**
+     * Records a flow statistics reply received from a switch.
+     *
+     * @param dpid    switch identifier
+     * @param entries number of flow entries in the reply
+     * @param last    true if this is the final part of a multipart reply
+     */
+    synchronized void replyReceived(Dpid dpid, int entries, boolean last) {
+        PollTarget target = targets.get(dpid);
+        if (target == null || target.sentAt == 0) {
+            // reply to a poll not issued by us; e.g. a flow missing check
+            return;
+        }
+        target.entries += entries;
+        if (last) {
+            pollLatency.update(System.nanoTime() - target.sentAt, TimeUnit.NANOSECONDS);
+            target.stride = Math.min(MAX_STRIDE, 1 + target.entries / LARGE_TABLE_SIZE);
+            release(target);
+        }
+    }
+
+    /**
+     * Records that a switch chose not to issue its poll, e.g. because this
+     * instance is no longer its master.
+     *
+     * @param dpid switch identifier
+     */
+    synchronized void pollSkipped(Dpid dpid) {
+        PollTarget target = targets.get(dpid);
+        if (target != null) {
+            release(target);
+        }
+    }
+
+    /**
+     * Returns the timer tracking the latency between a poll and its final reply.
+     *
+     * @return poll latency timer
+     */
+    Timer pollLatency() {
+        return pollLatency;
+    }
+
+    /**
+     * Returns the number of polls that are due but could not yet be issued.
+     *
+     * @return poll backlog
+     */
+    synchronized int backlog() {
+        return (int) credits;
+    }
+
+    /**
+     * Returns the number of polls awaiting their final reply.
+     *
+     * @return outstanding polls
+     */
+    synchronized int outstanding() {
+        return outstanding;
+    }
+
+    private void release(PollTarget target) {
+        if (target.sentAt != 0) {
+            target.sentAt = 0;
+            outstanding--;
+        }
+    }
+
+    private void tick() {
+        List<Runnable> polls = Lists.newArrayList();
+        synchronized (this) {
+            expireOutstanding();
+            if (ring.isEmpty()) {
+                credits = 0;
+                return;
+            }
+
+            // Accrue enough credit to walk the whole ring once per interval
+            credits = Math.min(credits + (double) ring.size() * TICK_MS / (pollInterval * 1000L),
+                               ring.size());
+
+            while (credits >= 1 && outstanding < maxOutstanding) {
+                PollTarget target = ring.pollFirst();
+                ring.addLast(target);
+                credits -= 1;
+
+                if (target.sentAt != 0 || --target.skip > 0) {
+                    // still awaiting the previous reply or deferred by stride
+                    continue;
+                }
+                target.skip = target.stride;
+                target.entries = 0;
+                target.sentAt = System.nanoTime();
+                outstanding++;
+                polls.add(target.poller);
+            }
+        }
+
+        for (Runnable poll : polls) {
+            try {
+                poll.run();
+            } catch (Exception e) {
+                log.warn("Unable to issue flow statistics poll", e);
+            }
+        }
+    }
+
+    // Gives up on polls whose reply did not arrive within two intervals
+    private void expireOutstanding() {
+        long deadline = System.nanoTime() - TimeUnit.SECONDS.toNanos(2L * pollInterval);
+        for (PollTarget target : targets.values()) {
+            if (target.sentAt != 0 && target.sentAt - deadline < 0) {
+                log.debug("Flow statistics poll of {} timed out", target.dpid);
+                release(target);
+            }
+        }
+    }
+
+    // Polling state of a single switch
+    private static final class PollTarget {
+        private final Dpid dpid;
+        private final Runnable poller;
+
+        private long sentAt;
+        private int entries;
+        private int stride = 1;
+        private int skip;
+
+        private PollTarget(Dpid dpid, Runnable poller) {
+            this.dpid = dpid;
+            this.poller = poller;
+        }
+    }
+}
@@ -37,14 +37,13 @@ import org.projectfloodlight.openflow.types.TableId;
 import org.slf4j.Logger;
 
 import java.util.Optional;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static java.lang.Thread.sleep;
-import static org.onlab.util.Tools.groupedThreads;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
@@ -70,8 +69,7 @@ public class NewAdaptiveFlowStatsCollector implements SwitchDataCollector {
     private final OpenFlowSwitch sw;
     private final DeviceId did;
 
-    private ScheduledExecutorService adaptiveFlowStatsScheduler =
-            Executors.newScheduledThreadPool(4, groupedThreads("onos/flow", "device-stats-collector-%d", log));
+    private final ScheduledExecutorService adaptiveFlowStatsScheduler;
     private ScheduledFuture<?> calAndShortFlowsThread;
     private ScheduledFuture<?> midFlowsThread;
     private ScheduledFuture<?> longFlowsThread;
@@ -117,11 +115,14 @@ public class NewAdaptiveFlowStatsCollector implements SwitchDataCollector {
      * Creates a new adaptive collector for the given switch and default cal_and_poll frequency.
      *
      * @param driverService driver service reference
+     * @param executor      executor shared by the collectors of all switches
      * @param sw            switch to pull
      * @param pollInterval  cal and immediate poll frequency in seconds
      */
-    NewAdaptiveFlowStatsCollector(DriverService driverService, OpenFlowSwitch sw, int pollInterval) {
+    NewAdaptiveFlowStatsCollector(DriverService driverService, ScheduledExecutorService executor,
+                                  OpenFlowSwitch sw, int pollInterval) {
         this.driverService = driverService;
+        this.adaptiveFlowStatsScheduler = executor;
         this.sw = sw;
         this.did = DeviceId.deviceId(Dpid.uri(sw.getId()));
 
@@ -393,27 +394,32 @@ public class NewAdaptiveFlowStatsCollector implements SwitchDataCollector {
 
         isFirstTimeStart = true;
 
-        // Initially start polling quickly. Then drop down to configured value
+        // Initially start polling quickly. Then drop down to configured value.
+        // The first poll is jittered so that switches connecting together
+        // do not keep polling in lock-step on the shared executor.
+        long initialDelay = TimeUnit.SECONDS.toMillis(1) +
+                ThreadLocalRandom.current().nextLong(TimeUnit.SECONDS.toMillis(calAndPollInterval));
+
         calAndShortFlowsTask = new CalAndShortFlowsTask();
         calAndShortFlowsThread = adaptiveFlowStatsScheduler.scheduleWithFixedDelay(
                 calAndShortFlowsTask,
-                1,
-                calAndPollInterval,
-                TimeUnit.SECONDS);
+                initialDelay,
+                TimeUnit.SECONDS.toMillis(calAndPollInterval),
+                TimeUnit.MILLISECONDS);
 
         midFlowsTask = new MidFlowsTask();
         midFlowsThread = adaptiveFlowStatsScheduler.scheduleWithFixedDelay(
                 midFlowsTask,
-                1,
-                midPollInterval,
-                TimeUnit.SECONDS);
+                initialDelay,
+                TimeUnit.SECONDS.toMillis(midPollInterval),
+                TimeUnit.MILLISECONDS);
 
         longFlowsTask = new LongFlowsTask();
         longFlowsThread = adaptiveFlowStatsScheduler.scheduleWithFixedDelay(
                 longFlowsTask,
-                1,
-                longPollInterval,
-                TimeUnit.SECONDS);
+                initialDelay,
+                TimeUnit.SECONDS.toMillis(longPollInterval),
+                TimeUnit.MILLISECONDS);
 
         log.info("Started");
     }
@@ -433,8 +439,6 @@ public class NewAdaptiveFlowStatsCollector implements SwitchDataCollector {
             longFlowsThread.cancel(true);
         }
 
-        adaptiveFlowStatsScheduler.shutdownNow();
-
         isFirstTimeStart = false;
 
         log.info("Stopped");
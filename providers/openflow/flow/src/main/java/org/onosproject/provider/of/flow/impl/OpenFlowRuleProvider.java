@@ -15,6 +15,7 @@
  */
 package org.onosproject.provider.of.flow.impl;
 
+import com.codahale.metrics.Gauge;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.RemovalCause;
@@ -33,6 +34,9 @@ import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.jboss.netty.buffer.ChannelBuffer;
 import org.jboss.netty.buffer.ChannelBuffers;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
 import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.core.ApplicationId;
 import org.onosproject.net.DeviceId;
@@ -69,6 +73,7 @@ import org.projectfloodlight.openflow.protocol.OFFlowStatsReply;
 import org.projectfloodlight.openflow.protocol.OFMessage;
 import org.projectfloodlight.openflow.protocol.OFPortStatus;
 import org.projectfloodlight.openflow.protocol.OFStatsReply;
+import org.projectfloodlight.openflow.protocol.OFStatsReplyFlags;
 import org.projectfloodlight.openflow.protocol.OFStatsType;
 import org.projectfloodlight.openflow.protocol.OFTableStatsEntry;
 import org.projectfloodlight.openflow.protocol.OFTableStatsReply;
@@ -91,12 +96,15 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.Timer;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static org.onlab.util.Tools.get;
+import static org.onlab.util.Tools.groupedThreads;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
@@ -121,10 +129,17 @@ public class OpenFlowRuleProvider extends AbstractProvider
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected DriverService driverService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected MetricsService metricsService;
+
     private static final int DEFAULT_POLL_FREQUENCY = 5;
     private static final int MIN_EXPECTED_BYTE_LEN = 56;
     private static final int SKIP_BYTES = 4;
     private static final boolean DEFAULT_ADAPTIVE_FLOW_SAMPLING = false;
+    private static final int DEFAULT_MAX_OUTSTANDING_POLLS = 64;
+
+    private static final String METRICS_COMPONENT = "OpenFlowRuleProvider";
+    private static final String METRICS_FEATURE = "FlowStatsPolling";
 
     @Property(name = "flowPollFrequency", intValue = DEFAULT_POLL_FREQUENCY,
             label = "Frequency (in seconds) for polling flow statistics")
@@ -134,6 +149,10 @@ public class OpenFlowRuleProvider extends AbstractProvider
             label = "Adaptive Flow Sampling is on or off")
     private boolean adaptiveFlowSampling = DEFAULT_ADAPTIVE_FLOW_SAMPLING;
 
+    @Property(name = "maxOutstandingFlowPolls", intValue = DEFAULT_MAX_OUTSTANDING_POLLS,
+            label = "Maximum number of flow statistics polls awaiting a reply")
+    private int maxOutstandingFlowPolls = DEFAULT_MAX_OUTSTANDING_POLLS;
+
     private FlowRuleProviderService providerService;
 
     private final InternalFlowProvider listener = new InternalFlowProvider();
@@ -142,6 +161,15 @@ public class OpenFlowRuleProvider extends AbstractProvider
 
     private final Timer timer = new Timer("onos-openflow-collector");
 
+    // Shared scheduler spreading the simple collector polls over the interval
+    private FlowStatsPollScheduler pollScheduler;
+
+    // Shared executor for the adaptive collectors
+    private ScheduledExecutorService adaptiveExecutor;
+
+    private MetricsComponent metricsComponent;
+    private MetricsFeature metricsFeature;
+
     // Old simple collector set
     private final Map<Dpid, FlowStatsCollector> simpleCollectors = Maps.newConcurrentMap();
 
@@ -159,6 +187,9 @@ public class OpenFlowRuleProvider extends AbstractProvider
     @Activate
     protected void activate(ComponentContext context) {
         cfgService.registerProperties(getClass());
+        pollScheduler = new FlowStatsPollScheduler(flowPollFrequency, maxOutstandingFlowPolls);
+        adaptiveExecutor = Executors.newScheduledThreadPool(
+                4, groupedThreads("onos/flow", "device-stats-collector-%d", log));
         providerService = providerRegistry.register(this);
         controller.addListener(listener);
         controller.addEventListener(listener);
@@ -168,6 +199,8 @@ public class OpenFlowRuleProvider extends AbstractProvider
         pendingBatches = createBatchCache();
 
         createCollectors();
+        pollScheduler.start();
+        registerMetrics();
 
         log.info("Started with flowPollFrequency = {}, adaptiveFlowSampling = {}",
                 flowPollFrequency, adaptiveFlowSampling);
@@ -177,6 +210,9 @@ public class OpenFlowRuleProvider extends AbstractProvider
     protected void deactivate(ComponentContext context) {
         cfgService.unregisterProperties(getClass(), false);
         stopCollectors();
+        pollScheduler.stop();
+        adaptiveExecutor.shutdownNow();
+        removeMetrics();
         providerRegistry.unregister(this);
         providerService = null;
 
@@ -202,6 +238,22 @@ public class OpenFlowRuleProvider extends AbstractProvider
 
         log.info("Settings: flowPollFrequency={}", flowPollFrequency);
 
+        int newMaxOutstandingFlowPolls;
+        try {
+            String s = get(properties, "maxOutstandingFlowPolls");
+            newMaxOutstandingFlowPolls = isNullOrEmpty(s) ?
+                    maxOutstandingFlowPolls : Integer.parseInt(s.trim());
+        } catch (NumberFormatException | ClassCastException e) {
+            newMaxOutstandingFlowPolls = maxOutstandingFlowPolls;
+        }
+
+        if (newMaxOutstandingFlowPolls > 0 && newMaxOutstandingFlowPolls != maxOutstandingFlowPolls) {
+            maxOutstandingFlowPolls = newMaxOutstandingFlowPolls;
+            pollScheduler.setMaxOutstanding(maxOutstandingFlowPolls);
+        }
+
+        log.info("Settings: maxOutstandingFlowPolls={}", maxOutstandingFlowPolls);
+
         boolean newAdaptiveFlowSampling;
         String s = get(properties, "adaptiveFlowSampling");
         newAdaptiveFlowSampling = isNullOrEmpty(s) ? adaptiveFlowSampling : Boolean.parseBoolean(s.trim());
@@ -217,6 +269,23 @@ public class OpenFlowRuleProvider extends AbstractProvider
         log.info("Settings: adaptiveFlowSampling={}", adaptiveFlowSampling);
     }
 
+    private void registerMetrics() {
+        metricsComponent = metricsService.registerComponent(METRICS_COMPONENT);
+        metricsFeature = metricsComponent.registerFeature(METRICS_FEATURE);
+        metricsService.registerMetric(metricsComponent, metricsFeature, "latency",
+                                      pollScheduler.pollLatency());
+        metricsService.registerMetric(metricsComponent, metricsFeature, "backlog",
+                                      (Gauge<Integer>) pollScheduler::backlog);
+        metricsService.registerMetric(metricsComponent, metricsFeature, "outstanding",
+                                      (Gauge<Integer>) pollScheduler::outstanding);
+    }
+
+    private void removeMetrics() {
+        metricsService.removeMetric(metricsComponent, metricsFeature, "latency");
+        metricsService.removeMetric(metricsComponent, metricsFeature, "backlog");
+        metricsService.removeMetric(metricsComponent, metricsFeature, "outstanding");
+    }
+
     private Cache<Long, InternalCacheEntry> createBatchCache() {
         return CacheBuilder.newBuilder()
                 .expireAfterWrite(10, TimeUnit.SECONDS)
@@ -239,11 +308,11 @@ public class OpenFlowRuleProvider extends AbstractProvider
         if (adaptiveFlowSampling) {
             // NewAdaptiveFlowStatsCollector Constructor
             NewAdaptiveFlowStatsCollector fsc =
-                    new NewAdaptiveFlowStatsCollector(driverService, sw, flowPollFrequency);
+                    new NewAdaptiveFlowStatsCollector(driverService, adaptiveExecutor, sw, flowPollFrequency);
             fsc.start();
             stopCollectorIfNeeded(afsCollectors.put(new Dpid(sw.getId()), fsc));
         } else {
-            FlowStatsCollector fsc = new FlowStatsCollector(timer, sw, flowPollFrequency);
+            FlowStatsCollector fsc = new FlowStatsCollector(pollScheduler, sw);
             fsc.start();
             stopCollectorIfNeeded(simpleCollectors.put(new Dpid(sw.getId()), fsc));
         }
@@ -277,7 +346,7 @@ public class OpenFlowRuleProvider extends AbstractProvider
             // NewAdaptiveFlowStatsCollector calAndPollInterval
             afsCollectors.values().forEach(fsc -> fsc.adjustCalAndPollInterval(flowPollFrequency));
         } else {
-            simpleCollectors.values().forEach(fsc -> fsc.adjustPollInterval(flowPollFrequency));
+            pollScheduler.setPollInterval(flowPollFrequency);
         }
         tableStatsCollectors.values().forEach(tsc -> tsc.adjustPollInterval(flowPollFrequency));
     }
@@ -641,6 +710,8 @@ public class OpenFlowRuleProvider extends AbstractProvider
 
                 // call existing entire flow stats update with flowMissing synchronization
                 providerService.pushFlowMetrics(did, flowEntries);
+                pollScheduler.replyReceived(dpid, flowEntries.size(),
+                        !replies.getFlags().contains(OFStatsReplyFlags.REPLY_MORE));
             }
         }
 
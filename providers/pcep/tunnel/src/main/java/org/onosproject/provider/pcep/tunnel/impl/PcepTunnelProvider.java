@@ -134,6 +134,7 @@ import java.util.concurrent.TimeUnit;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static org.onlab.util.Tools.get;
+import static org.onlab.util.Tools.groupedThreads;
 import static org.onosproject.incubator.net.tunnel.Tunnel.State.INIT;
 import static org.onosproject.incubator.net.tunnel.Tunnel.Type.MPLS;
 import static org.onosproject.net.DefaultAnnotations.EMPTY;
@@ -178,7 +179,6 @@ public class PcepTunnelProvider extends AbstractProvider implements TunnelProvid
     public static final long IDENTIFIER_SET = 0x100000000L;
     public static final long SET = 0xFFFFFFFFL;
     private static final int DELAY = 2;
-    private static final int WAIT_TIME = 5;
     public static final String LSRID = "lsrId";
 
     static final int POLL_INTERVAL = 10;
@@ -223,6 +223,9 @@ public class PcepTunnelProvider extends AbstractProvider implements TunnelProvid
 
     private InnerTunnelProvider listener = new InnerTunnelProvider();
 
+    // Retries the updates of delegated LSPs until their tunnels are added by the master
+    private ScheduledExecutorService delegationExecutor;
+
     protected PcepTunnelApiMapper pcepTunnelApiMapper = new PcepTunnelApiMapper();
     private static final int DEFAULT_BANDWIDTH_VALUE = 10;
 
@@ -236,6 +239,8 @@ public class PcepTunnelProvider extends AbstractProvider implements TunnelProvid
     @Activate
     public void activate() {
         cfgService.registerProperties(getClass());
+        delegationExecutor = Executors.newSingleThreadScheduledExecutor(
+                groupedThreads("onos/pcep", "delegation-update-%d", log));
         service = tunnelProviderRegistry.register(this);
         controller.addTunnelListener(listener);
         pcepClientController.addListener(listener);
@@ -257,6 +262,7 @@ public class PcepTunnelProvider extends AbstractProvider implements TunnelProvid
         controller.removeTunnelListener(listener);
         collectors.values().forEach(TunnelStatsCollector::stop);
         pcepClientController.removeListener(listener);
+        delegationExecutor.shutdownNow();
         log.info("Stopped");
     }
 
@@ -1302,44 +1308,44 @@ public class PcepTunnelProvider extends AbstractProvider implements TunnelProvid
 
         @Override
         public void handleMessage(PccId pccId, PcepMessage msg) {
-            try {
-                log.debug("tunnel provider handle message {}", msg.getType().toString());
-                switch (msg.getType()) {
-                case REPORT:
-                    int srpId = 0;
-                    LinkedList<PcepStateReport> llStateReportList = null;
-                    llStateReportList = ((PcepReportMsg) msg).getStateReportList();
-                    ListIterator<PcepStateReport> listIterator = llStateReportList.listIterator();
-                    PcepSrpObject srpObj = null;
-                    PcepLspObject lspObj = null;
-                    while (listIterator.hasNext()) {
-                        PcepStateReport stateRpt = listIterator.next();
-                        srpObj = stateRpt.getSrpObject();
-                        lspObj = stateRpt.getLspObject();
-
-                        if (srpObj instanceof PcepSrpObject) {
-                            srpId = srpObj.getSrpID();
-                        }
+            log.debug("tunnel provider handle message {}", msg.getType().toString());
+            switch (msg.getType()) {
+            case REPORT:
+                // Reports of an LSP DB sync come in a single message; a faulty report must not prevent
+                // the processing of the others.
+                for (PcepStateReport stateRpt : ((PcepReportMsg) msg).getStateReportList()) {
+                    try {
+                        handleStateReport(pccId, stateRpt);
+                    } catch (Exception e) {
+                        log.error("Exception occured while processing report message {}", e.getMessage());
+                    }
+                }
+                break;
 
-                        log.debug("Plsp ID in handle message " + lspObj.getPlspId());
-                        log.debug("SRP ID in handle message " + srpId);
+            default:
+                log.debug("Received unsupported message type {}", msg.getType().toString());
+            }
+        }
 
-                        if (!(pcepTunnelApiMapper.checkFromTunnelRequestQueue(srpId))) {
-                            // For PCRpt without matching SRP id.
-                            handleRptWithoutSrpId(stateRpt, pccId);
-                            continue;
-                        }
+        private void handleStateReport(PccId pccId, PcepStateReport stateRpt) {
+            int srpId = 0;
+            PcepSrpObject srpObj = stateRpt.getSrpObject();
+            PcepLspObject lspObj = stateRpt.getLspObject();
 
-                        handleReportMessage(srpId, lspObj, stateRpt);
-                    }
-                    break;
+            if (srpObj instanceof PcepSrpObject) {
+                srpId = srpObj.getSrpID();
+            }
 
-                default:
-                    log.debug("Received unsupported message type {}", msg.getType().toString());
-                }
-            } catch (Exception e) {
-                log.error("Exception occured while processing report message {}", e.getMessage());
+            log.debug("Plsp ID in handle message " + lspObj.getPlspId());
+            log.debug("SRP ID in handle message " + srpId);
+
+            if (!(pcepTunnelApiMapper.checkFromTunnelRequestQueue(srpId))) {
+                // For PCRpt without matching SRP id.
+                handleRptWithoutSrpId(stateRpt, pccId);
+                return;
             }
+
+            handleReportMessage(srpId, lspObj, stateRpt);
         }
 
         /**
@@ -1717,11 +1723,9 @@ public class PcepTunnelProvider extends AbstractProvider implements TunnelProvid
              * If ONOS is not the master for that PCC then check if D flag is set, if yes wait [while
              * master has added the tunnel to the store] then update the tunnel.
              */
-            ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
-
-            // Thread is started after 2 seconds first time later periodically after 2 seconds to update the tunnel
-            executor.scheduleAtFixedRate(new UpdateDelegation(td, providerId, annotations, pccId,
-                    executor, tunnelState, ipv4LspIdentifiersTlv), DELAY, DELAY, TimeUnit.SECONDS);
+            // Task runs after 2 seconds first time, and then again every 2 seconds until the tunnel is updated
+            delegationExecutor.schedule(new UpdateDelegation(td, providerId, annotations, pccId,
+                    delegationExecutor, tunnelState, ipv4LspIdentifiersTlv), DELAY, TimeUnit.SECONDS);
         }
 
         /**
@@ -1916,7 +1920,7 @@ public class PcepTunnelProvider extends AbstractProvider implements TunnelProvid
          * @param providerId provider id
          * @param annotations tunnel annotations
          * @param pccId PCEP client id
-         * @param executor service of delegated owner
+         * @param executor executor running the update attempts
          */
         public UpdateDelegation(DefaultTunnelDescription td, ProviderId providerId, SparseAnnotations annotations,
                 PccId pccId, ScheduledExecutorService executor, State tunnelState,
@@ -1948,8 +1952,7 @@ public class PcepTunnelProvider extends AbstractProvider implements TunnelProvid
                 }
             }
 
-            //If tunnel is found update the tunnel and shutdown the thread otherwise thread will be executing
-            //periodically
+            //If tunnel is found update the tunnel otherwise the task is scheduled again
             if (tempTunnelId != null) {
                 Tunnel tunnel = new DefaultTunnel(providerId, td.src(), td.dst(), MPLS, new DefaultGroupId(0),
                         tempTunnelId, td.tunnelName(), td.path(), annotations);
@@ -1958,12 +1961,8 @@ public class PcepTunnelProvider extends AbstractProvider implements TunnelProvid
                 pcepTunnelData.setLspDFlag(Boolean.valueOf(tunnel.annotations().value(DELEGATE)));
                 pcepTunnelApiMapper.addToTunnelIdMap(pcepTunnelData);
                 tunnelUpdated(tunnel, td.path(), tunnelState);
-                executor.shutdown();
-                try {
-                    executor.awaitTermination(WAIT_TIME, TimeUnit.SECONDS);
-                } catch (InterruptedException e) {
-                    log.error("updating delegation failed");
-                }
+            } else {
+                executor.schedule(this, DELAY, TimeUnit.SECONDS);
             }
         }
     }
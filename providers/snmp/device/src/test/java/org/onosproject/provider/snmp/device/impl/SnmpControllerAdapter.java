@@ -21,11 +21,17 @@ import org.onosproject.incubator.net.faultmanagement.alarm.DefaultAlarm;
 import org.onosproject.net.DeviceId;
 import org.onosproject.snmp.SnmpController;
 import org.onosproject.snmp.SnmpDevice;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.VariableBinding;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * Test Adapter for SnmpController API.
@@ -62,4 +68,23 @@ public class SnmpControllerAdapter implements SnmpController {
     public DefaultAlarm buildWalkFailedAlarm(DeviceId deviceId) {
         return null;
     }
+
+    @Override
+    public CompletableFuture<List<VariableBinding>> get(DeviceId deviceId, List<OID> oids) {
+        return null;
+    }
+
+    @Override
+    public CompletableFuture<List<VariableBinding>> walk(DeviceId deviceId, List<OID> roots) {
+        return null;
+    }
+
+    @Override
+    public void schedulePoll(DeviceId deviceId, String name, long period, TimeUnit unit,
+                             Supplier<CompletableFuture<?>> poll) {
+    }
+
+    @Override
+    public void cancelPoll(DeviceId deviceId, String name) {
+    }
 }
@@ -0,0 +1,349 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.packet;
+
+import java.nio.ByteBuffer;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Read-only view of a serialized Ethernet frame which decodes header fields
+ * on demand, directly from the underlying buffer.
+ * <p>
+ * Unlike {@link Ethernet#deserializer()}, no object tree is built and no
+ * payload is copied, which makes the view suitable for packet processors
+ * that only inspect a few header fields before deciding whether a packet
+ * is of interest. Fields that are not present in the frame, e.g. the ports
+ * of a non-TCP packet or the fields of a truncated header, are reported as
+ * {@code null} or {@code -1}. The full object tree can still be obtained
+ * through {@link #parse()}.
+ * </p>
+ * <p>
+ * A view is not thread-safe, but it never modifies the underlying buffer.
+ * </p>
+ */
+public final class PacketView {
+
+    private static final int ETHERTYPE_OFFSET = 12;
+    private static final int ARP_HEADER_LENGTH = 8;
+    private static final int IPV4_MIN_HEADER_LENGTH = 20;
+    private static final int IPV6_HEADER_LENGTH = 40;
+    private static final int L4_PORTS_LENGTH = 4;
+    private static final int UNKNOWN = -2;
+    private static final int ABSENT = -1;
+
+    private final ByteBuffer source;
+    private final ByteBuffer data;
+
+    // lazily computed offsets of the network and transport headers
+    private int l3Offset = UNKNOWN;
+    private int l4Offset = UNKNOWN;
+
+    private PacketView(ByteBuffer source) {
+        this.source = source;
+        this.data = source.asReadOnlyBuffer().slice();
+    }
+
+    /**
+     * Creates a view of the remaining bytes of the given buffer. The buffer
+     * content is shared, not copied; its position and limit are not altered.
+     *
+     * @param buffer buffer holding an Ethernet frame
+     * @return packet view
+     */
+    public static PacketView of(ByteBuffer buffer) {
+        return new PacketView(checkNotNull(buffer).duplicate());
+    }
+
+    /**
+     * Creates a view of the given serialized Ethernet frame. The array is
+     * shared, not copied.
+     *
+     * @param frame serialized Ethernet frame
+     * @return packet view
+     */
+    public static PacketView of(byte[] frame) {
+        return new PacketView(ByteBuffer.wrap(checkNotNull(frame)));
+    }
+
+    /**
+     * Returns the length of the frame.
+     *
+     * @return frame length in bytes
+     */
+    public int length() {
+        return data.limit();
+    }
+
+    /**
+     * Returns the destination MAC address.
+     *
+     * @return destination MAC address; null if the frame is truncated
+     */
+    public MacAddress destinationMac() {
+        return mac(0);
+    }
+
+    /**
+     * Returns the source MAC address.
+     *
+     * @return source MAC address; null if the frame is truncated
+     */
+    public MacAddress sourceMac() {
+        return mac(MacAddress.MAC_ADDRESS_LENGTH);
+    }
+
+    /**
+     * Returns the ether type of the frame, skipping the VLAN tag if present.
+     *
+     * @return ether type; -1 if the frame is truncated
+     */
+    public short etherType() {
+        int offset = l3Offset();
+        return offset < 0 ? ABSENT : data.getShort(offset - Short.BYTES);
+    }
+
+    /**
+     * Returns the VLAN identifier of the frame.
+     *
+     * @return VLAN identifier; {@link Ethernet#VLAN_UNTAGGED} if the frame
+     * is not tagged
+     */
+    public short vlanId() {
+        if (!isTagged() || !has(Ethernet.ETHERNET_HEADER_LENGTH + Ethernet.VLAN_HEADER_LENGTH)) {
+            return Ethernet.VLAN_UNTAGGED;
+        }
+        return (short) (data.getShort(Ethernet.ETHERNET_HEADER_LENGTH) & 0x0fff);
+    }
+
+    /**
+     * Returns the IP protocol number of an IPv4 packet or the next header
+     * of an IPv6 packet.
+     *
+     * @return protocol number; -1 if the frame does not carry an IP packet
+     */
+    public int ipProtocol() {
+        int offset = l3Offset();
+        short etherType = etherType();
+        if (etherType == Ethernet.TYPE_IPV4 && has(offset + IPV4_MIN_HEADER_LENGTH)) {
+            return data.get(offset + 9) & 0xff;
+        } else if (etherType == Ethernet.TYPE_IPV6 && has(offset + IPV6_HEADER_LENGTH)) {
+            return data.get(offset + 6) & 0xff;
+        }
+        return ABSENT;
+    }
+
+    /**
+     * Returns the source address of an IPv4 or IPv6 packet.
+     *
+     * @return source IP address; null if the frame does not carry an IP packet
+     */
+    public IpAddress ipSource() {
+        return ipAddress(12, 8);
+    }
+
+    /**
+     * Returns the destination address of an IPv4 or IPv6 packet.
+     *
+     * @return destination IP address; null if the frame does not carry an
+     * IP packet
+     */
+    public IpAddress ipDestination() {
+        return ipAddress(16, 24);
+    }
+
+    /**
+     * Returns the source port of a TCP or UDP segment.
+     *
+     * @return source port; -1 if the frame does not carry the first
+     * fragment of a TCP or UDP segment
+     */
+    public int sourcePort() {
+        int offset = l4Offset();
+        return offset < 0 ? ABSENT : data.getShort(offset) & 0xffff;
+    }
+
+    /**
+     * Returns the destination port of a TCP or UDP segment.
+     *
+     * @return destination port; -1 if the frame does not carry the first
+     * fragment of a TCP or UDP segment
+     */
+    public int destinationPort() {
+        int offset = l4Offset();
+        return offset < 0 ? ABSENT : data.getShort(offset + Short.BYTES) & 0xffff;
+    }
+
+    /**
+     * Returns the operation code of an ARP packet.
+     *
+     * @return ARP opcode; -1 if the frame does not carry an ARP packet
+     */
+    public int arpOpCode() {
+        int offset = arpOffset();
+        return offset < 0 ? ABSENT : data.getShort(offset + 6) & 0xffff;
+    }
+
+    /**
+     * Returns the sender protocol address of an ARP packet for IPv4.
+     *
+     * @return sender IPv4 address; null if the frame does not carry an ARP
+     * packet for IPv4
+     */
+    public Ip4Address arpSenderAddress() {
+        int offset = arpOffset();
+        if (offset < 0 || !isArpForIpv4(offset)) {
+            return null;
+        }
+        return Ip4Address.valueOf(data.getInt(offset + ARP_HEADER_LENGTH + (data.get(offset + 4) & 0xff)));
+    }
+
+    /**
+     * Returns the target protocol address of an ARP packet for IPv4.
+     *
+     * @return target IPv4 address; null if the frame does not carry an ARP
+     * packet for IPv4
+     */
+    public Ip4Address arpTargetAddress() {
+        int offset = arpOffset();
+        if (offset < 0 || !isArpForIpv4(offset)) {
+            return null;
+        }
+        int hardwareLength = data.get(offset + 4) & 0xff;
+        return Ip4Address.valueOf(data.getInt(offset + ARP_HEADER_LENGTH + 2 * hardwareLength
+                                                      + Ip4Address.BYTE_LENGTH));
+    }
+
+    /**
+     * Fully parses the frame using the eager {@link Ethernet} deserializer.
+     *
+     * @return parsed Ethernet frame
+     * @throws DeserializationException if the frame cannot be parsed
+     */
+    public Ethernet parse() throws DeserializationException {
+        if (source.hasArray()) {
+            return Ethernet.deserializer().deserialize(source.array(),
+                                                       source.arrayOffset() + source.position(),
+                                                       source.remaining());
+        }
+        byte[] frame = new byte[data.limit()];
+        data.duplicate().get(frame);
+        return Ethernet.deserializer().deserialize(frame, 0, frame.length);
+    }
+
+    private boolean has(int length) {
+        return length <= data.limit();
+    }
+
+    private boolean isTagged() {
+        return has(Ethernet.ETHERNET_HEADER_LENGTH)
+                && data.getShort(ETHERTYPE_OFFSET) == Ethernet.TYPE_VLAN;
+    }
+
+    private MacAddress mac(int offset) {
+        if (!has(offset + MacAddress.MAC_ADDRESS_LENGTH)) {
+            return null;
+        }
+        byte[] address = new byte[MacAddress.MAC_ADDRESS_LENGTH];
+        for (int i = 0; i < address.length; i++) {
+            address[i] = data.get(offset + i);
+        }
+        return MacAddress.valueOf(address);
+    }
+
+    private IpAddress ipAddress(int ipv4Offset, int ipv6Offset) {
+        int offset = l3Offset();
+        short etherType = etherType();
+        if (etherType == Ethernet.TYPE_IPV4 && has(offset + IPV4_MIN_HEADER_LENGTH)) {
+            return Ip4Address.valueOf(data.getInt(offset + ipv4Offset));
+        } else if (etherType == Ethernet.TYPE_IPV6 && has(offset + IPV6_HEADER_LENGTH)) {
+            byte[] address = new byte[Ip6Address.BYTE_LENGTH];
+            for (int i = 0; i < address.length; i++) {
+                address[i] = data.get(offset + ipv6Offset + i);
+            }
+            return Ip6Address.valueOf(address);
+        }
+        return null;
+    }
+
+    private int arpOffset() {
+        int offset = l3Offset();
+        if (offset < 0 || etherType() != Ethernet.TYPE_ARP || !has(offset + ARP_HEADER_LENGTH)) {
+            return ABSENT;
+        }
+        return offset;
+    }
+
+    private boolean isArpForIpv4(int offset) {
+        int hardwareLength = data.get(offset + 4) & 0xff;
+        int protocolLength = data.get(offset + 5) & 0xff;
+        return data.getShort(offset + 2) == ARP.PROTO_TYPE_IP
+                && protocolLength == Ip4Address.BYTE_LENGTH
+                && has(offset + ARP_HEADER_LENGTH + 2 * (hardwareLength + protocolLength));
+    }
+
+    private int l3Offset() {
+        if (l3Offset == UNKNOWN) {
+            if (!has(Ethernet.ETHERNET_HEADER_LENGTH)) {
+                l3Offset = ABSENT;
+            } else if (isTagged()) {
+                int offset = Ethernet.ETHERNET_HEADER_LENGTH + Ethernet.VLAN_HEADER_LENGTH;
+                l3Offset = has(offset) ? offset : ABSENT;
+            } else {
+                l3Offset = Ethernet.ETHERNET_HEADER_LENGTH;
+            }
+        }
+        return l3Offset;
+    }
+
+    private int l4Offset() {
+        if (l4Offset == UNKNOWN) {
+            l4Offset = computeL4Offset();
+        }
+        return l4Offset;
+    }
+
+    private int computeL4Offset() {
+        int protocol = ipProtocol();
+        if (protocol != IPv4.PROTOCOL_TCP && protocol != IPv4.PROTOCOL_UDP) {
+            return ABSENT;
+        }
+        int offset = l3Offset();
+        if (etherType() == Ethernet.TYPE_IPV4) {
+            if ((data.getShort(offset + 6) & 0x1fff) != 0) {
+                // only the first fragment carries the transport header
+                return ABSENT;
+            }
+            int headerLength = (data.get(offset) & 0x0f) * 4;
+            if (headerLength < IPV4_MIN_HEADER_LENGTH) {
+                return ABSENT;
+            }
+            offset += headerLength;
+        } else {
+            offset += IPV6_HEADER_LENGTH;
+        }
+        return has(offset + L4_PORTS_LENGTH) ? offset : ABSENT;
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("length", length())
+                .add("etherType", String.format("0x%04x", etherType() & 0xffff))
+                .toString();
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.util;
+
+import org.jboss.netty.channel.socket.nio.NioClientSocketChannelFactory;
+import org.jboss.netty.channel.socket.nio.NioServerSocketChannelFactory;
+import org.jboss.netty.channel.socket.nio.NioWorker;
+import org.jboss.netty.channel.socket.nio.NioWorkerPool;
+import org.jboss.netty.channel.socket.nio.ShareableWorkerPool;
+import org.jboss.netty.channel.socket.nio.WorkerPool;
+
+import java.util.concurrent.Executors;
+
+import static org.onlab.util.Tools.groupedThreads;
+
+/**
+ * Netty NIO worker pool singleton shared by the channel factories of the
+ * southbound protocol controllers.
+ * <p>
+ * Shutting down or releasing a channel factory created here only affects
+ * its own boss thread; the shared workers are kept running until the VM
+ * exits.
+ * </p>
+ */
+public final class SharedNettyWorkers {
+
+    private static final int WORKER_COUNT = 2 * Runtime.getRuntime().availableProcessors();
+    private static final int BOSS_COUNT = 1;
+
+    private static volatile ShareableWorkerPool<NioWorker> workerPool;
+
+    // Ban public construction
+    private SharedNettyWorkers() {
+    }
+
+    /**
+     * Returns the shared NIO worker pool.
+     *
+     * @return shared worker pool
+     */
+    public static WorkerPool<NioWorker> getWorkerPool() {
+        if (workerPool == null) {
+            initWorkerPool();
+        }
+        return workerPool;
+    }
+
+    private static synchronized void initWorkerPool() {
+        if (workerPool == null) {
+            workerPool = new ShareableWorkerPool<>(new NioWorkerPool(
+                    Executors.newCachedThreadPool(groupedThreads("onos/netty", "worker-%d")),
+                    WORKER_COUNT));
+        }
+    }
+
+    /**
+     * Creates a server channel factory with its own boss thread, serving its
+     * channels with the shared workers.
+     *
+     * @param groupName name of the thread group of the boss thread
+     * @return server channel factory
+     */
+    public static NioServerSocketChannelFactory newServerChannelFactory(String groupName) {
+        return new NioServerSocketChannelFactory(
+                Executors.newCachedThreadPool(groupedThreads(groupName, "boss-%d")),
+                BOSS_COUNT, getWorkerPool());
+    }
+
+    /**
+     * Creates a client channel factory with its own boss thread, serving its
+     * channels with the shared workers.
+     *
+     * @param groupName name of the thread group of the boss thread
+     * @return client channel factory
+     */
+    public static NioClientSocketChannelFactory newClientChannelFactory(String groupName) {
+        return new NioClientSocketChannelFactory(
+                Executors.newCachedThreadPool(groupedThreads(groupName, "boss-%d")),
+                BOSS_COUNT, getWorkerPool());
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2016-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.packet;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for class {@link PacketView}.
+ */
+public class PacketViewTest {
+
+    private static final MacAddress SRC_MAC = MacAddress.valueOf("00:00:00:00:00:01");
+    private static final MacAddress DST_MAC = MacAddress.valueOf("00:00:00:00:00:02");
+    private static final Ip4Address SRC_IP4 = Ip4Address.valueOf("10.0.0.1");
+    private static final Ip4Address DST_IP4 = Ip4Address.valueOf("10.0.0.2");
+    private static final Ip6Address SRC_IP6 = Ip6Address.valueOf("fe80::1");
+    private static final Ip6Address DST_IP6 = Ip6Address.valueOf("fe80::2");
+
+    private Ethernet ethernet(short etherType, IPacket payload) {
+        Ethernet eth = new Ethernet();
+        eth.setSourceMACAddress(SRC_MAC)
+                .setDestinationMACAddress(DST_MAC)
+                .setEtherType(etherType)
+                .setPayload(payload);
+        return eth;
+    }
+
+    private IPv4 ipv4(byte protocol, IPacket payload) {
+        IPv4 ipv4 = new IPv4();
+        ipv4.setSourceAddress(SRC_IP4.toInt())
+                .setDestinationAddress(DST_IP4.toInt())
+                .setProtocol(protocol)
+                .setPayload(payload);
+        return ipv4;
+    }
+
+    /**
+     * Tests the header fields of a TCP over IPv4 frame.
+     */
+    @Test
+    public void testTcpOverIpv4() throws Exception {
+        TCP tcp = new TCP().setSourcePort(5000).setDestinationPort(80);
+        byte[] frame = ethernet(Ethernet.TYPE_IPV4, ipv4(IPv4.PROTOCOL_TCP, tcp)).serialize();
+
+        PacketView view = PacketView.of(frame);
+        assertThat(view.length(), is(frame.length));
+        assertThat(view.sourceMac(), is(SRC_MAC));
+        assertThat(view.destinationMac(), is(DST_MAC));
+        assertThat(view.etherType(), is(Ethernet.TYPE_IPV4));
+        assertThat(view.vlanId(), is(Ethernet.VLAN_UNTAGGED));
+        assertThat(view.ipProtocol(), is((int) IPv4.PROTOCOL_TCP));
+        assertThat(view.ipSource(), is(SRC_IP4));
+        assertThat(view.ipDestination(), is(DST_IP4));
+        assertThat(view.sourcePort(), is(5000));
+        assertThat(view.destinationPort(), is(80));
+        assertThat(view.arpOpCode(), is(-1));
+    }
+
+    /**
+     * Tests the header fields of a VLAN tagged UDP over IPv4 frame.
+     */
+    @Test
+    public void testTaggedUdpOverIpv4() throws Exception {
+        UDP udp = new UDP().setSourcePort(68).setDestinationPort(67);
+        Ethernet eth = ethernet(Ethernet.TYPE_IPV4, ipv4(IPv4.PROTOCOL_UDP, udp));
+        eth.setVlanID((short) 100);
+
+        PacketView view = PacketView.of(eth.serialize());
+        assertThat(view.etherType(), is(Ethernet.TYPE_IPV4));
+        assertThat(view.vlanId(), is((short) 100));
+        assertThat(view.ipProtocol(), is((int) IPv4.PROTOCOL_UDP));
+        assertThat(view.ipSource(), is(SRC_IP4));
+        assertThat(view.sourcePort(), is(68));
+        assertThat(view.destinationPort(), is(67));
+    }
+
+    /**
+     * Tests the header fields of a UDP over IPv6 frame.
+     */
+    @Test
+    public void testUdpOverIpv6() throws Exception {
+        UDP udp = new UDP().setSourcePort(546).setDestinationPort(547);
+        IPv6 ipv6 = new IPv6();
+        ipv6.setSourceAddress(SRC_IP6.toOctets())
+                .setDestinationAddress(DST_IP6.toOctets())
+                .setNextHeader(IPv6.PROTOCOL_UDP)
+                .setPayload(udp);
+
+        PacketView view = PacketView.of(ethernet(Ethernet.TYPE_IPV6, ipv6).serialize());
+        assertThat(view.etherType(), is(Ethernet.TYPE_IPV6));
+        assertThat(view.ipProtocol(), is((int) IPv6.PROTOCOL_UDP));
+        assertThat(view.ipSource(), is(SRC_IP6));
+        assertThat(view.ipDestination(), is(DST_IP6));
+        assertThat(view.sourcePort(), is(546));
+        assertThat(view.destinationPort(), is(547));
+    }
+
+    /**
+     * Tests the header fields of an ARP request frame.
+     */
+    @Test
+    public void testArp() throws Exception {
+        ARP arp = new ARP()
+                .setHardwareType(ARP.HW_TYPE_ETHERNET)
+                .setProtocolType(ARP.PROTO_TYPE_IP)
+                .setHardwareAddressLength((byte) MacAddress.MAC_ADDRESS_LENGTH)
+                .setProtocolAddressLength((byte) Ip4Address.BYTE_LENGTH)
+                .setOpCode(ARP.OP_REQUEST)
+                .setSenderHardwareAddress(SRC_MAC.toBytes())
+                .setSenderProtocolAddress(SRC_IP4.toOctets())
+                .setTargetHardwareAddress(MacAddress.ZERO.toBytes())
+                .setTargetProtocolAddress(DST_IP4.toOctets());
+
+        PacketView view = PacketView.of(ethernet(Ethernet.TYPE_ARP, arp).serialize());
+        assertThat(view.etherType(), is(Ethernet.TYPE_ARP));
+        assertThat(view.arpOpCode(), is((int) ARP.OP_REQUEST));
+        assertThat(view.arpSenderAddress(), is(SRC_IP4));
+        assertThat(view.arpTargetAddress(), is(DST_IP4));
+        assertThat(view.ipProtocol(), is(-1));
+        assertThat(view.ipSource(), is(nullValue()));
+        assertThat(view.sourcePort(), is(-1));
+    }
+
+    /**
+     * Tests that the view covers the remaining bytes of a buffer without
+     * altering it.
+     */
+    @Test
+    public void testBufferView() throws Exception {
+        TCP tcp = new TCP().setSourcePort(5000).setDestinationPort(80);
+        byte[] frame = ethernet(Ethernet.TYPE_IPV4, ipv4(IPv4.PROTOCOL_TCP, tcp)).serialize();
+        byte[] padded = new byte[frame.length + 4];
+        System.arraycopy(frame, 0, padded, 4, frame.length);
+        ByteBuffer buffer = ByteBuffer.wrap(padded);
+        buffer.position(4);
+
+        PacketView view = PacketView.of(buffer);
+        assertThat(view.length(), is(frame.length));
+        assertThat(view.destinationPort(), is(80));
+        assertThat(buffer.position(), is(4));
+
+        Ethernet parsed = view.parse();
+        assertThat(parsed.getSourceMAC(), is(SRC_MAC));
+        assertThat(((TCP) parsed.getPayload().getPayload()).getDestinationPort(), is(80));
+    }
+
+    /**
+     * Tests that the fields of a truncated frame are reported as absent.
+     */
+    @Test
+    public void testTruncatedFrame() throws Exception {
+        TCP tcp = new TCP().setSourcePort(5000).setDestinationPort(80);
+        byte[] frame = ethernet(Ethernet.TYPE_IPV4, ipv4(IPv4.PROTOCOL_TCP, tcp)).serialize();
+
+        PacketView view = PacketView.of(Arrays.copyOf(frame, Ethernet.ETHERNET_HEADER_LENGTH + 10));
+        assertThat(view.etherType(), is(Ethernet.TYPE_IPV4));
+        assertThat(view.ipProtocol(), is(-1));
+        assertThat(view.ipSource(), is(nullValue()));
+        assertThat(view.sourcePort(), is(-1));
+
+        view = PacketView.of(Arrays.copyOf(frame, 10));
+        assertThat(view.sourceMac(), is(nullValue()));
+        assertThat(view.etherType(), is((short) -1));
+    }
+}
@@ -17,8 +17,10 @@ package org.onosproject.rest.resources;
 
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.StreamSupport;
 
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
@@ -42,6 +44,7 @@ import org.onosproject.net.flow.FlowRuleService;
 import org.onosproject.net.flow.TableStatisticsEntry;
 import org.onosproject.net.link.LinkService;
 import org.onosproject.net.statistic.Load;
+import org.onosproject.net.statistic.LoadHistory;
 import org.onosproject.net.statistic.StatisticService;
 import org.onosproject.rest.AbstractWebResource;
 
@@ -102,6 +105,71 @@ public class StatisticsWebResource  extends AbstractWebResource {
         return ok(result).build();
     }
 
+    /**
+     * Gets the recent load history for all links or for a specific link.
+     *
+     * @onos.rsModel StatisticsHistoryLink
+     * @param deviceId (optional) device ID for a specific link
+     * @param port (optional) port number for a specified link
+     * @param window window in seconds for the average rates
+     * @param alpha smoothing factor of the moving average rate
+     * @param percentile percentile of the rates between samples
+     * @param samples whether to include the individual samples
+     * @return 200 OK with JSON encoded array of load histories
+     */
+    @GET
+    @Path("history/link")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getLoadHistories(@QueryParam("device") String deviceId,
+                                     @QueryParam("port") String port,
+                                     @DefaultValue("60") @QueryParam("window") long window,
+                                     @DefaultValue("0.5") @QueryParam("alpha") double alpha,
+                                     @DefaultValue("95") @QueryParam("percentile") double percentile,
+                                     @DefaultValue("false") @QueryParam("samples") boolean samples) {
+        Iterable<Link> links;
+
+        if (deviceId == null || port == null) {
+            links = get(LinkService.class).getLinks();
+        } else {
+            ConnectPoint connectPoint = new ConnectPoint(deviceId(deviceId),
+                    portNumber(port));
+            links = get(LinkService.class).getLinks(connectPoint);
+        }
+        ObjectNode result = mapper().createObjectNode();
+        ArrayNode histories = mapper().createArrayNode();
+        StatisticService statsService = getService(StatisticService.class);
+        long windowMillis = TimeUnit.SECONDS.toMillis(window);
+
+        for (Link link : links) {
+            LoadHistory history = statsService.loadHistory(link);
+            ObjectNode historyNode = mapper().createObjectNode()
+                    .put("size", history.size())
+                    .put("rate", history.rate(windowMillis))
+                    .put("packetRate", history.packetRate(windowMillis))
+                    .put("ewmaRate", history.ewmaRate(alpha))
+                    .put("percentileRate", history.percentileRate(percentile));
+
+            if (samples) {
+                ArrayNode samplesNode = historyNode.putArray("samples");
+                for (int i = 0; i < history.size(); i++) {
+                    samplesNode.addObject()
+                            .put("time", history.time(i))
+                            .put("bytes", history.bytes(i))
+                            .put("packets", history.packets(i));
+                }
+            }
+
+            UriBuilder locationBuilder = uriInfo.getBaseUriBuilder()
+                    .path("links")
+                    .queryParam("device", link.src().deviceId().toString())
+                    .queryParam("port", link.src().port().toString());
+            historyNode.put("link", locationBuilder.build().toString());
+            histories.add(historyNode);
+        }
+        result.set("histories", histories);
+        return ok(result).build();
+    }
+
     /**
      * Gets table statistics for all tables of all devices.
      *
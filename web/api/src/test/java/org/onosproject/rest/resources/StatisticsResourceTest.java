@@ -30,6 +30,7 @@ import org.onosproject.codec.impl.CodecManager;
 import org.onosproject.net.Link;
 import org.onosproject.net.link.LinkService;
 import org.onosproject.net.statistic.DefaultLoad;
+import org.onosproject.net.statistic.LoadHistory;
 import org.onosproject.net.statistic.StatisticService;
 
 import javax.ws.rs.client.WebTarget;
@@ -80,6 +81,10 @@ public class StatisticsResourceTest extends ResourceTest {
                 .andReturn(new DefaultLoad(22, 11, 1));
         expect(mockStatisticService.load(link3))
                 .andReturn(new DefaultLoad(222, 111, 1));
+        expect(mockStatisticService.loadHistory(link3))
+                .andReturn(new LoadHistory(new long[]{1000, 2000, 3000},
+                                           new long[]{0, 100, 300},
+                                           new long[]{0, 1, 3}));
 
         replay(mockLinkService, mockStatisticService);
 
@@ -179,4 +184,37 @@ public class StatisticsResourceTest extends ResourceTest {
         checkValues(load3, 111, 222, true, "src3");
 
     }
+
+    /**
+     * Tests GET of the load history of a single link.
+     */
+    @Test
+    public void testSingleLoadHistoryGet() throws UnsupportedEncodingException {
+        final WebTarget wt = target();
+        final String response = wt.path("statistics/history/link")
+                .queryParam("device", "of:0000000000000001")
+                .queryParam("port", "2")
+                .queryParam("samples", "true")
+                .request()
+                .get(String.class);
+
+        final JsonObject result = Json.parse(response).asObject();
+        assertThat(result, notNullValue());
+
+        assertThat(result.names(), hasSize(1));
+        assertThat(result.names().get(0), is("histories"));
+
+        final JsonArray jsonHistories = result.get("histories").asArray();
+        assertThat(jsonHistories, notNullValue());
+        assertThat(jsonHistories.size(), is(1));
+
+        JsonObject history = jsonHistories.get(0).asObject();
+        assertThat(history.get("size").asInt(), is(3));
+        assertThat(history.get("rate").asDouble(), is(150.0));
+        assertThat(history.get("packetRate").asDouble(), is(1.5));
+        assertThat(history.get("percentileRate").asDouble(), is(200.0));
+        assertThat(history.get("samples").asArray().size(), is(3));
+        assertThat(URLDecoder.decode(history.get("link").asString(), "UTF-8"),
+                containsString("device=of:src3"));
+    }
 }